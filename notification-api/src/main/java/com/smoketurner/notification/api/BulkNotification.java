@@ -0,0 +1,112 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.NotEmpty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import io.dropwizard.jackson.JsonSnakeCase;
+
+@Immutable
+@JsonSnakeCase
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class BulkNotification {
+
+    @NotEmpty
+    private final List<String> recipients;
+
+    @Valid
+    @NotNull
+    private final Notification notification;
+
+    /**
+     * Constructor
+     *
+     * @param recipients
+     *            Usernames to send the notification to, which may include
+     *            invalid (null or empty) usernames to be reported in the
+     *            result for each recipient
+     * @param notification
+     *            Notification to send
+     */
+    @JsonCreator
+    public BulkNotification(
+            @JsonProperty("recipients") final List<String> recipients,
+            @JsonProperty("notification") final Notification notification) {
+        this.recipients = recipients == null ? ImmutableList.of()
+                : Collections.unmodifiableList(new ArrayList<>(recipients));
+        this.notification = notification;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param username
+     *            Username to send the notification to
+     * @param notification
+     *            Notification to send
+     */
+    public BulkNotification(@Nonnull final String username,
+            @Nonnull final Notification notification) {
+        this(ImmutableList.of(username), notification);
+    }
+
+    @JsonProperty
+    public List<String> getRecipients() {
+        return recipients;
+    }
+
+    @JsonProperty
+    public Notification getNotification() {
+        return notification;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        final BulkNotification other = (BulkNotification) obj;
+        return Objects.equals(recipients, other.recipients)
+                && Objects.equals(notification, other.notification);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(recipients, notification);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("recipients", recipients)
+                .add("notification", notification).toString();
+    }
+}
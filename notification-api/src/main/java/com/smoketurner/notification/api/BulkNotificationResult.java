@@ -0,0 +1,119 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.api;
+
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import io.dropwizard.jackson.JsonSnakeCase;
+
+@Immutable
+@JsonSnakeCase
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public final class BulkNotificationResult {
+
+    private final String username;
+    private final Optional<Notification> notification;
+    private final Optional<String> error;
+
+    /**
+     * Constructor
+     *
+     * @param username
+     *            Recipient username
+     * @param notification
+     *            Stored notification, if successful
+     * @param error
+     *            Error message, if unsuccessful
+     */
+    @JsonCreator
+    private BulkNotificationResult(
+            @JsonProperty("username") final String username,
+            @JsonProperty("notification") final Optional<Notification> notification,
+            @JsonProperty("error") final Optional<String> error) {
+        this.username = username;
+        this.notification = notification;
+        this.error = error;
+    }
+
+    public static BulkNotificationResult success(
+            @Nonnull final String username,
+            @Nonnull final Notification notification) {
+        return new BulkNotificationResult(username,
+                Optional.of(notification), Optional.empty());
+    }
+
+    public static BulkNotificationResult failure(
+            @Nonnull final String username, @Nonnull final String error) {
+        return new BulkNotificationResult(username, Optional.empty(),
+                Optional.of(error));
+    }
+
+    @JsonProperty
+    public String getUsername() {
+        return username;
+    }
+
+    @JsonProperty
+    public Optional<Notification> getNotification() {
+        return notification;
+    }
+
+    @JsonProperty
+    public Optional<String> getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public boolean isSuccessful() {
+        return notification.isPresent();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        final BulkNotificationResult other = (BulkNotificationResult) obj;
+        return Objects.equals(username, other.username)
+                && Objects.equals(notification, other.notification)
+                && Objects.equals(error, other.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(username, notification, error);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("username", username)
+                .add("notification", notification).add("error", error)
+                .toString();
+    }
+}
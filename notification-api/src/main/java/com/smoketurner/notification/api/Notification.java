@@ -81,7 +81,8 @@ public final class Notification implements Comparable<Notification> {
         this.idStr = idStr;
         this.category = category;
         this.message = message;
-        this.createdAt = createdAt.orElse(DateTime.now(DateTimeZone.UTC));
+        this.createdAt = createdAt
+                .orElseGet(() -> DateTime.now(DateTimeZone.UTC));
         this.unseen = unseen;
         this.properties = properties.orElse(Collections.emptyMap());
         this.notifications = notifications.orElse(Collections.emptyList());
@@ -0,0 +1,231 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB;
+import io.dropwizard.util.Duration;
+
+/**
+ * Converts notifications and rules to and from the protocol buffer messages
+ * used by the API. Unset proto3 fields (zero or empty) are treated as absent.
+ */
+public final class ProtobufConverter {
+
+    private ProtobufConverter() {
+        // static utility class
+    }
+
+    /**
+     * Convert a notification, including any rolled up notifications, into a
+     * protocol buffer message.
+     *
+     * @param notification
+     *            Notification to convert
+     * @return the notification message
+     */
+    public static NotificationPB toProto(
+            @Nonnull final Notification notification) {
+        Objects.requireNonNull(notification);
+
+        final NotificationPB.Builder builder = NotificationPB.newBuilder()
+                .setCreatedAt(notification.getCreatedAt().getMillis())
+                .putAllProperty(notification.getProperties());
+        notification.getId().ifPresent(builder::setId);
+        if (notification.getCategory() != null) {
+            builder.setCategory(notification.getCategory());
+        }
+        if (notification.getMessage() != null) {
+            builder.setMessage(notification.getMessage());
+        }
+        notification.getUnseen()
+                .ifPresent(unseen -> builder.setUnseen(unseen
+                        ? NotificationPB.Unseen.UNSEEN
+                        : NotificationPB.Unseen.SEEN));
+        for (final Notification child : notification.getNotifications()) {
+            builder.addNotification(toProto(child));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert a list of notifications into a protocol buffer message.
+     *
+     * @param notifications
+     *            Notifications to convert
+     * @return the notification list message
+     */
+    public static NotificationListPB toProto(
+            @Nonnull final Collection<Notification> notifications) {
+        Objects.requireNonNull(notifications);
+
+        final NotificationListPB.Builder builder = NotificationListPB
+                .newBuilder();
+        for (final Notification notification : notifications) {
+            builder.addNotification(toProto(notification));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert a rule into a protocol buffer message.
+     *
+     * @param rule
+     *            Rule to convert
+     * @return the rule message
+     */
+    public static RulePB toProto(@Nonnull final Rule rule) {
+        Objects.requireNonNull(rule);
+
+        final RulePB.Builder builder = RulePB.newBuilder();
+        rule.getMaxSize().ifPresent(builder::setMaxSize);
+        rule.getMaxDuration().ifPresent(
+                duration -> builder.setMaxDuration(duration.toString()));
+        rule.getMatchOn().ifPresent(builder::setMatchOn);
+        return builder.build();
+    }
+
+    /**
+     * Convert a map of rules, keyed by category, into a protocol buffer
+     * message.
+     *
+     * @param rules
+     *            Rules to convert
+     * @return the rule map message
+     */
+    public static RuleMapPB toProto(@Nonnull final Map<String, Rule> rules) {
+        Objects.requireNonNull(rules);
+
+        final RuleMapPB.Builder builder = RuleMapPB.newBuilder();
+        rules.forEach((category, rule) -> builder.putRule(category,
+                toProto(rule)));
+        return builder.build();
+    }
+
+    /**
+     * Convert a protocol buffer message into a notification, including any
+     * rolled up notifications.
+     *
+     * @param message
+     *            Notification message
+     * @return the notification
+     */
+    public static Notification fromProto(
+            @Nonnull final NotificationPB message) {
+        Objects.requireNonNull(message);
+
+        final Notification.Builder builder = Notification.builder()
+                .withCategory(message.getCategory())
+                .withMessage(message.getMessage())
+                .withProperties(message.getPropertyMap());
+        if (message.getId() != 0) {
+            builder.withId(message.getId());
+        }
+        if (message.getCreatedAt() != 0) {
+            builder.withCreatedAt(
+                    new DateTime(message.getCreatedAt(), DateTimeZone.UTC));
+        }
+        if (message.getUnseen() == NotificationPB.Unseen.UNSEEN) {
+            builder.withUnseen(true);
+        } else if (message.getUnseen() == NotificationPB.Unseen.SEEN) {
+            builder.withUnseen(false);
+        }
+        if (message.getNotificationCount() > 0) {
+            builder.withNotifications(
+                    fromProtoList(message.getNotificationList()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert a protocol buffer message into a list of notifications.
+     *
+     * @param message
+     *            Notification list message
+     * @return the notifications, in message order
+     */
+    public static List<Notification> fromProto(
+            @Nonnull final NotificationListPB message) {
+        Objects.requireNonNull(message);
+        return fromProtoList(message.getNotificationList());
+    }
+
+    /**
+     * Convert a protocol buffer message into a rule.
+     *
+     * @param message
+     *            Rule message
+     * @return the rule
+     * @throws IllegalArgumentException
+     *             if the maximum duration can't be parsed
+     */
+    public static Rule fromProto(@Nonnull final RulePB message) {
+        Objects.requireNonNull(message);
+
+        final Rule.Builder builder = Rule.builder();
+        if (message.getMaxSize() != 0) {
+            builder.withMaxSize(message.getMaxSize());
+        }
+        if (!message.getMaxDuration().isEmpty()) {
+            builder.withMaxDuration(
+                    Duration.parse(message.getMaxDuration()));
+        }
+        if (!message.getMatchOn().isEmpty()) {
+            builder.withMatchOn(message.getMatchOn());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert a protocol buffer message into a map of rules, keyed by
+     * category.
+     *
+     * @param message
+     *            Rule map message
+     * @return the rules
+     */
+    public static Map<String, Rule> fromProto(
+            @Nonnull final RuleMapPB message) {
+        Objects.requireNonNull(message);
+
+        final ImmutableMap.Builder<String, Rule> builder = ImmutableMap
+                .builder();
+        message.getRuleMap().forEach(
+                (category, rule) -> builder.put(category, fromProto(rule)));
+        return builder.build();
+    }
+
+    private static List<Notification> fromProtoList(
+            @Nonnull final List<NotificationPB> messages) {
+        final List<Notification> notifications = new ArrayList<>(
+                messages.size());
+        for (final NotificationPB message : messages) {
+            notifications.add(fromProto(message));
+        }
+        return notifications;
+    }
+}
@@ -0,0 +1,3885 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: notification_api.proto
+
+package com.smoketurner.notification.api.protos;
+
+public final class NotificationApiProtos {
+  private NotificationApiProtos() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistryLite registry) {
+  }
+
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistry registry) {
+    registerAllExtensions(
+        (com.google.protobuf.ExtensionRegistryLite) registry);
+  }
+  public interface NotificationPBOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:notification.api.NotificationPB)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>int64 id = 1;</code>
+     */
+    long getId();
+
+    /**
+     * <code>string category = 2;</code>
+     */
+    java.lang.String getCategory();
+    /**
+     * <code>string category = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getCategoryBytes();
+
+    /**
+     * <code>string message = 3;</code>
+     */
+    java.lang.String getMessage();
+    /**
+     * <code>string message = 3;</code>
+     */
+    com.google.protobuf.ByteString
+        getMessageBytes();
+
+    /**
+     * <code>int64 created_at = 4;</code>
+     */
+    long getCreatedAt();
+
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+    int getPropertyCount();
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+    boolean containsProperty(
+        java.lang.String key);
+    /**
+     * Use {@link #getPropertyMap()} instead.
+     */
+    @java.lang.Deprecated
+    java.util.Map<java.lang.String, java.lang.String>
+    getProperty();
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+    java.util.Map<java.lang.String, java.lang.String>
+    getPropertyMap();
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+
+    java.lang.String getPropertyOrDefault(
+        java.lang.String key,
+        java.lang.String defaultValue);
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+
+    java.lang.String getPropertyOrThrow(
+        java.lang.String key);
+
+    /**
+     * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+     */
+    int getUnseenValue();
+    /**
+     * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+     */
+    com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen getUnseen();
+
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> 
+        getNotificationList();
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getNotification(int index);
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    int getNotificationCount();
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    java.util.List<? extends com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> 
+        getNotificationOrBuilderList();
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder getNotificationOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code notification.api.NotificationPB}
+   */
+  public  static final class NotificationPB extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:notification.api.NotificationPB)
+      NotificationPBOrBuilder {
+    // Use NotificationPB.newBuilder() to construct.
+    private NotificationPB(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private NotificationPB() {
+      id_ = 0L;
+      category_ = "";
+      message_ = "";
+      createdAt_ = 0L;
+      unseen_ = 0;
+      notification_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return com.google.protobuf.UnknownFieldSet.getDefaultInstance();
+    }
+    private NotificationPB(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!input.skipField(tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+
+              id_ = input.readInt64();
+              break;
+            }
+            case 18: {
+              java.lang.String s = input.readStringRequireUtf8();
+
+              category_ = s;
+              break;
+            }
+            case 26: {
+              java.lang.String s = input.readStringRequireUtf8();
+
+              message_ = s;
+              break;
+            }
+            case 32: {
+
+              createdAt_ = input.readInt64();
+              break;
+            }
+            case 42: {
+              if (!((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+                property_ = com.google.protobuf.MapField.newMapField(
+                    PropertyDefaultEntryHolder.defaultEntry);
+                mutable_bitField0_ |= 0x00000010;
+              }
+              com.google.protobuf.MapEntry<java.lang.String, java.lang.String>
+              property__ = input.readMessage(
+                  PropertyDefaultEntryHolder.defaultEntry.getParserForType(), extensionRegistry);
+              property_.getMutableMap().put(
+                  property__.getKey(), property__.getValue());
+              break;
+            }
+            case 48: {
+              int rawValue = input.readEnum();
+
+              unseen_ = rawValue;
+              break;
+            }
+            case 58: {
+              if (!((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+                notification_ = new java.util.ArrayList<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB>();
+                mutable_bitField0_ |= 0x00000040;
+              }
+              notification_.add(
+                  input.readMessage(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.parser(), extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+          notification_ = java.util.Collections.unmodifiableList(notification_);
+        }
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationPB_descriptor;
+    }
+
+    @SuppressWarnings({"rawtypes"})
+    protected com.google.protobuf.MapField internalGetMapField(
+        int number) {
+      switch (number) {
+        case 5:
+          return internalGetProperty();
+        default:
+          throw new RuntimeException(
+              "Invalid map field number: " + number);
+      }
+    }
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationPB_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.class, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder.class);
+    }
+
+    /**
+     * Protobuf enum {@code notification.api.NotificationPB.Unseen}
+     */
+    public enum Unseen
+        implements com.google.protobuf.ProtocolMessageEnum {
+      /**
+       * <code>UNKNOWN = 0;</code>
+       */
+      UNKNOWN(0),
+      /**
+       * <code>UNSEEN = 1;</code>
+       */
+      UNSEEN(1),
+      /**
+       * <code>SEEN = 2;</code>
+       */
+      SEEN(2),
+      UNRECOGNIZED(-1),
+      ;
+
+      /**
+       * <code>UNKNOWN = 0;</code>
+       */
+      public static final int UNKNOWN_VALUE = 0;
+      /**
+       * <code>UNSEEN = 1;</code>
+       */
+      public static final int UNSEEN_VALUE = 1;
+      /**
+       * <code>SEEN = 2;</code>
+       */
+      public static final int SEEN_VALUE = 2;
+
+
+      public final int getNumber() {
+        if (this == UNRECOGNIZED) {
+          throw new java.lang.IllegalArgumentException(
+              "Can't get the number of an unknown enum value.");
+        }
+        return value;
+      }
+
+      /**
+       * @deprecated Use {@link #forNumber(int)} instead.
+       */
+      @java.lang.Deprecated
+      public static Unseen valueOf(int value) {
+        return forNumber(value);
+      }
+
+      public static Unseen forNumber(int value) {
+        switch (value) {
+          case 0: return UNKNOWN;
+          case 1: return UNSEEN;
+          case 2: return SEEN;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<Unseen>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static final com.google.protobuf.Internal.EnumLiteMap<
+          Unseen> internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<Unseen>() {
+              public Unseen findValueByNumber(int number) {
+                return Unseen.forNumber(number);
+              }
+            };
+
+      public final com.google.protobuf.Descriptors.EnumValueDescriptor
+          getValueDescriptor() {
+        return getDescriptor().getValues().get(ordinal());
+      }
+      public final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptorForType() {
+        return getDescriptor();
+      }
+      public static final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptor() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.getDescriptor().getEnumTypes().get(0);
+      }
+
+      private static final Unseen[] VALUES = values();
+
+      public static Unseen valueOf(
+          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+        if (desc.getType() != getDescriptor()) {
+          throw new java.lang.IllegalArgumentException(
+            "EnumValueDescriptor is not for this type.");
+        }
+        if (desc.getIndex() == -1) {
+          return UNRECOGNIZED;
+        }
+        return VALUES[desc.getIndex()];
+      }
+
+      private final int value;
+
+      private Unseen(int value) {
+        this.value = value;
+      }
+
+      // @@protoc_insertion_point(enum_scope:notification.api.NotificationPB.Unseen)
+    }
+
+    private int bitField0_;
+    public static final int ID_FIELD_NUMBER = 1;
+    private long id_;
+    /**
+     * <code>int64 id = 1;</code>
+     */
+    public long getId() {
+      return id_;
+    }
+
+    public static final int CATEGORY_FIELD_NUMBER = 2;
+    private volatile java.lang.Object category_;
+    /**
+     * <code>string category = 2;</code>
+     */
+    public java.lang.String getCategory() {
+      java.lang.Object ref = category_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        category_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string category = 2;</code>
+     */
+    public com.google.protobuf.ByteString
+        getCategoryBytes() {
+      java.lang.Object ref = category_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        category_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int MESSAGE_FIELD_NUMBER = 3;
+    private volatile java.lang.Object message_;
+    /**
+     * <code>string message = 3;</code>
+     */
+    public java.lang.String getMessage() {
+      java.lang.Object ref = message_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        message_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string message = 3;</code>
+     */
+    public com.google.protobuf.ByteString
+        getMessageBytes() {
+      java.lang.Object ref = message_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        message_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int CREATED_AT_FIELD_NUMBER = 4;
+    private long createdAt_;
+    /**
+     * <code>int64 created_at = 4;</code>
+     */
+    public long getCreatedAt() {
+      return createdAt_;
+    }
+
+    public static final int PROPERTY_FIELD_NUMBER = 5;
+    private static final class PropertyDefaultEntryHolder {
+      static final com.google.protobuf.MapEntry<
+          java.lang.String, java.lang.String> defaultEntry =
+              com.google.protobuf.MapEntry
+              .<java.lang.String, java.lang.String>newDefaultInstance(
+                  com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationPB_PropertyEntry_descriptor, 
+                  com.google.protobuf.WireFormat.FieldType.STRING,
+                  "",
+                  com.google.protobuf.WireFormat.FieldType.STRING,
+                  "");
+    }
+    private com.google.protobuf.MapField<
+        java.lang.String, java.lang.String> property_;
+    private com.google.protobuf.MapField<java.lang.String, java.lang.String>
+    internalGetProperty() {
+      if (property_ == null) {
+        return com.google.protobuf.MapField.emptyMapField(
+            PropertyDefaultEntryHolder.defaultEntry);
+      }
+      return property_;
+    }
+
+    public int getPropertyCount() {
+      return internalGetProperty().getMap().size();
+    }
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+
+    public boolean containsProperty(
+        java.lang.String key) {
+      if (key == null) { throw new java.lang.NullPointerException(); }
+      return internalGetProperty().getMap().containsKey(key);
+    }
+    /**
+     * Use {@link #getPropertyMap()} instead.
+     */
+    @java.lang.Deprecated
+    public java.util.Map<java.lang.String, java.lang.String> getProperty() {
+      return getPropertyMap();
+    }
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+
+    public java.util.Map<java.lang.String, java.lang.String> getPropertyMap() {
+      return internalGetProperty().getMap();
+    }
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+
+    public java.lang.String getPropertyOrDefault(
+        java.lang.String key,
+        java.lang.String defaultValue) {
+      if (key == null) { throw new java.lang.NullPointerException(); }
+      java.util.Map<java.lang.String, java.lang.String> map =
+          internalGetProperty().getMap();
+      return map.containsKey(key) ? map.get(key) : defaultValue;
+    }
+    /**
+     * <code>map&lt;string, string&gt; property = 5;</code>
+     */
+
+    public java.lang.String getPropertyOrThrow(
+        java.lang.String key) {
+      if (key == null) { throw new java.lang.NullPointerException(); }
+      java.util.Map<java.lang.String, java.lang.String> map =
+          internalGetProperty().getMap();
+      if (!map.containsKey(key)) {
+        throw new java.lang.IllegalArgumentException();
+      }
+      return map.get(key);
+    }
+
+    public static final int UNSEEN_FIELD_NUMBER = 6;
+    private int unseen_;
+    /**
+     * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+     */
+    public int getUnseenValue() {
+      return unseen_;
+    }
+    /**
+     * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+     */
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen getUnseen() {
+      com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen result = com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen.valueOf(unseen_);
+      return result == null ? com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen.UNRECOGNIZED : result;
+    }
+
+    public static final int NOTIFICATION_FIELD_NUMBER = 7;
+    private java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> notification_;
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    public java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> getNotificationList() {
+      return notification_;
+    }
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    public java.util.List<? extends com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> 
+        getNotificationOrBuilderList() {
+      return notification_;
+    }
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    public int getNotificationCount() {
+      return notification_.size();
+    }
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getNotification(int index) {
+      return notification_.get(index);
+    }
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+     */
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder getNotificationOrBuilder(
+        int index) {
+      return notification_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (id_ != 0L) {
+        output.writeInt64(1, id_);
+      }
+      if (!getCategoryBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, category_);
+      }
+      if (!getMessageBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, message_);
+      }
+      if (createdAt_ != 0L) {
+        output.writeInt64(4, createdAt_);
+      }
+      com.google.protobuf.GeneratedMessageV3
+        .serializeStringMapTo(
+          output,
+          internalGetProperty(),
+          PropertyDefaultEntryHolder.defaultEntry,
+          5);
+      if (unseen_ != com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen.UNKNOWN.getNumber()) {
+        output.writeEnum(6, unseen_);
+      }
+      for (int i = 0; i < notification_.size(); i++) {
+        output.writeMessage(7, notification_.get(i));
+      }
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (id_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, id_);
+      }
+      if (!getCategoryBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, category_);
+      }
+      if (!getMessageBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, message_);
+      }
+      if (createdAt_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, createdAt_);
+      }
+      for (java.util.Map.Entry<java.lang.String, java.lang.String> entry
+           : internalGetProperty().getMap().entrySet()) {
+        com.google.protobuf.MapEntry<java.lang.String, java.lang.String>
+        property__ = PropertyDefaultEntryHolder.defaultEntry.newBuilderForType()
+            .setKey(entry.getKey())
+            .setValue(entry.getValue())
+            .build();
+        size += com.google.protobuf.CodedOutputStream
+            .computeMessageSize(5, property__);
+      }
+      if (unseen_ != com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen.UNKNOWN.getNumber()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(6, unseen_);
+      }
+      for (int i = 0; i < notification_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(7, notification_.get(i));
+      }
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB)) {
+        return super.equals(obj);
+      }
+      com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB other = (com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB) obj;
+
+      boolean result = true;
+      result = result && (getId()
+          == other.getId());
+      result = result && getCategory()
+          .equals(other.getCategory());
+      result = result && getMessage()
+          .equals(other.getMessage());
+      result = result && (getCreatedAt()
+          == other.getCreatedAt());
+      result = result && internalGetProperty().equals(
+          other.internalGetProperty());
+      result = result && unseen_ == other.unseen_;
+      result = result && getNotificationList()
+          .equals(other.getNotificationList());
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getId());
+      hash = (37 * hash) + CATEGORY_FIELD_NUMBER;
+      hash = (53 * hash) + getCategory().hashCode();
+      hash = (37 * hash) + MESSAGE_FIELD_NUMBER;
+      hash = (53 * hash) + getMessage().hashCode();
+      hash = (37 * hash) + CREATED_AT_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCreatedAt());
+      if (!internalGetProperty().getMap().isEmpty()) {
+        hash = (37 * hash) + PROPERTY_FIELD_NUMBER;
+        hash = (53 * hash) + internalGetProperty().hashCode();
+      }
+      hash = (37 * hash) + UNSEEN_FIELD_NUMBER;
+      hash = (53 * hash) + unseen_;
+      if (getNotificationCount() > 0) {
+        hash = (37 * hash) + NOTIFICATION_FIELD_NUMBER;
+        hash = (53 * hash) + getNotificationList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code notification.api.NotificationPB}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:notification.api.NotificationPB)
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationPB_descriptor;
+      }
+
+      @SuppressWarnings({"rawtypes"})
+      protected com.google.protobuf.MapField internalGetMapField(
+          int number) {
+        switch (number) {
+          case 5:
+            return internalGetProperty();
+          default:
+            throw new RuntimeException(
+                "Invalid map field number: " + number);
+        }
+      }
+      @SuppressWarnings({"rawtypes"})
+      protected com.google.protobuf.MapField internalGetMutableMapField(
+          int number) {
+        switch (number) {
+          case 5:
+            return internalGetMutableProperty();
+          default:
+            throw new RuntimeException(
+                "Invalid map field number: " + number);
+        }
+      }
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationPB_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.class, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder.class);
+      }
+
+      // Construct using com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getNotificationFieldBuilder();
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        id_ = 0L;
+
+        category_ = "";
+
+        message_ = "";
+
+        createdAt_ = 0L;
+
+        internalGetMutableProperty().clear();
+        unseen_ = 0;
+
+        if (notificationBuilder_ == null) {
+          notification_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000040);
+        } else {
+          notificationBuilder_.clear();
+        }
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationPB_descriptor;
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getDefaultInstanceForType() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.getDefaultInstance();
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB build() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB buildPartial() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB result = new com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        result.id_ = id_;
+        result.category_ = category_;
+        result.message_ = message_;
+        result.createdAt_ = createdAt_;
+        result.property_ = internalGetProperty();
+        result.property_.makeImmutable();
+        result.unseen_ = unseen_;
+        if (notificationBuilder_ == null) {
+          if (((bitField0_ & 0x00000040) == 0x00000040)) {
+            notification_ = java.util.Collections.unmodifiableList(notification_);
+            bitField0_ = (bitField0_ & ~0x00000040);
+          }
+          result.notification_ = notification_;
+        } else {
+          result.notification_ = notificationBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB) {
+          return mergeFrom((com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB other) {
+        if (other == com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.getDefaultInstance()) return this;
+        if (other.getId() != 0L) {
+          setId(other.getId());
+        }
+        if (!other.getCategory().isEmpty()) {
+          category_ = other.category_;
+          onChanged();
+        }
+        if (!other.getMessage().isEmpty()) {
+          message_ = other.message_;
+          onChanged();
+        }
+        if (other.getCreatedAt() != 0L) {
+          setCreatedAt(other.getCreatedAt());
+        }
+        internalGetMutableProperty().mergeFrom(
+            other.internalGetProperty());
+        if (other.unseen_ != 0) {
+          setUnseenValue(other.getUnseenValue());
+        }
+        if (notificationBuilder_ == null) {
+          if (!other.notification_.isEmpty()) {
+            if (notification_.isEmpty()) {
+              notification_ = other.notification_;
+              bitField0_ = (bitField0_ & ~0x00000040);
+            } else {
+              ensureNotificationIsMutable();
+              notification_.addAll(other.notification_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.notification_.isEmpty()) {
+            if (notificationBuilder_.isEmpty()) {
+              notificationBuilder_.dispose();
+              notificationBuilder_ = null;
+              notification_ = other.notification_;
+              bitField0_ = (bitField0_ & ~0x00000040);
+              notificationBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getNotificationFieldBuilder() : null;
+            } else {
+              notificationBuilder_.addAllMessages(other.notification_);
+            }
+          }
+        }
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private long id_ ;
+      /**
+       * <code>int64 id = 1;</code>
+       */
+      public long getId() {
+        return id_;
+      }
+      /**
+       * <code>int64 id = 1;</code>
+       */
+      public Builder setId(long value) {
+        
+        id_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 id = 1;</code>
+       */
+      public Builder clearId() {
+        
+        id_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object category_ = "";
+      /**
+       * <code>string category = 2;</code>
+       */
+      public java.lang.String getCategory() {
+        java.lang.Object ref = category_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          category_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>string category = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getCategoryBytes() {
+        java.lang.Object ref = category_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          category_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string category = 2;</code>
+       */
+      public Builder setCategory(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  
+        category_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string category = 2;</code>
+       */
+      public Builder clearCategory() {
+        
+        category_ = getDefaultInstance().getCategory();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string category = 2;</code>
+       */
+      public Builder setCategoryBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+        
+        category_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object message_ = "";
+      /**
+       * <code>string message = 3;</code>
+       */
+      public java.lang.String getMessage() {
+        java.lang.Object ref = message_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          message_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>string message = 3;</code>
+       */
+      public com.google.protobuf.ByteString
+          getMessageBytes() {
+        java.lang.Object ref = message_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          message_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string message = 3;</code>
+       */
+      public Builder setMessage(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  
+        message_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string message = 3;</code>
+       */
+      public Builder clearMessage() {
+        
+        message_ = getDefaultInstance().getMessage();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string message = 3;</code>
+       */
+      public Builder setMessageBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+        
+        message_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long createdAt_ ;
+      /**
+       * <code>int64 created_at = 4;</code>
+       */
+      public long getCreatedAt() {
+        return createdAt_;
+      }
+      /**
+       * <code>int64 created_at = 4;</code>
+       */
+      public Builder setCreatedAt(long value) {
+        
+        createdAt_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 created_at = 4;</code>
+       */
+      public Builder clearCreatedAt() {
+        
+        createdAt_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.MapField<
+          java.lang.String, java.lang.String> property_;
+      private com.google.protobuf.MapField<java.lang.String, java.lang.String>
+      internalGetProperty() {
+        if (property_ == null) {
+          return com.google.protobuf.MapField.emptyMapField(
+              PropertyDefaultEntryHolder.defaultEntry);
+        }
+        return property_;
+      }
+      private com.google.protobuf.MapField<java.lang.String, java.lang.String>
+      internalGetMutableProperty() {
+        onChanged();;
+        if (property_ == null) {
+          property_ = com.google.protobuf.MapField.newMapField(
+              PropertyDefaultEntryHolder.defaultEntry);
+        }
+        if (!property_.isMutable()) {
+          property_ = property_.copy();
+        }
+        return property_;
+      }
+
+      public int getPropertyCount() {
+        return internalGetProperty().getMap().size();
+      }
+      /**
+       * <code>map&lt;string, string&gt; property = 5;</code>
+       */
+
+      public boolean containsProperty(
+          java.lang.String key) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        return internalGetProperty().getMap().containsKey(key);
+      }
+      /**
+       * Use {@link #getPropertyMap()} instead.
+       */
+      @java.lang.Deprecated
+      public java.util.Map<java.lang.String, java.lang.String> getProperty() {
+        return getPropertyMap();
+      }
+      /**
+       * <code>map&lt;string, string&gt; property = 5;</code>
+       */
+
+      public java.util.Map<java.lang.String, java.lang.String> getPropertyMap() {
+        return internalGetProperty().getMap();
+      }
+      /**
+       * <code>map&lt;string, string&gt; property = 5;</code>
+       */
+
+      public java.lang.String getPropertyOrDefault(
+          java.lang.String key,
+          java.lang.String defaultValue) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        java.util.Map<java.lang.String, java.lang.String> map =
+            internalGetProperty().getMap();
+        return map.containsKey(key) ? map.get(key) : defaultValue;
+      }
+      /**
+       * <code>map&lt;string, string&gt; property = 5;</code>
+       */
+
+      public java.lang.String getPropertyOrThrow(
+          java.lang.String key) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        java.util.Map<java.lang.String, java.lang.String> map =
+            internalGetProperty().getMap();
+        if (!map.containsKey(key)) {
+          throw new java.lang.IllegalArgumentException();
+        }
+        return map.get(key);
+      }
+
+      public Builder clearProperty() {
+        internalGetMutableProperty().getMutableMap()
+            .clear();
+        return this;
+      }
+      /**
+       * <code>map&lt;string, string&gt; property = 5;</code>
+       */
+
+      public Builder removeProperty(
+          java.lang.String key) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        internalGetMutableProperty().getMutableMap()
+            .remove(key);
+        return this;
+      }
+      /**
+       * Use alternate mutation accessors instead.
+       */
+      @java.lang.Deprecated
+      public java.util.Map<java.lang.String, java.lang.String>
+      getMutableProperty() {
+        return internalGetMutableProperty().getMutableMap();
+      }
+      /**
+       * <code>map&lt;string, string&gt; property = 5;</code>
+       */
+      public Builder putProperty(
+          java.lang.String key,
+          java.lang.String value) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        if (value == null) { throw new java.lang.NullPointerException(); }
+        internalGetMutableProperty().getMutableMap()
+            .put(key, value);
+        return this;
+      }
+      /**
+       * <code>map&lt;string, string&gt; property = 5;</code>
+       */
+
+      public Builder putAllProperty(
+          java.util.Map<java.lang.String, java.lang.String> values) {
+        internalGetMutableProperty().getMutableMap()
+            .putAll(values);
+        return this;
+      }
+
+      private int unseen_ = 0;
+      /**
+       * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+       */
+      public int getUnseenValue() {
+        return unseen_;
+      }
+      /**
+       * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+       */
+      public Builder setUnseenValue(int value) {
+        unseen_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen getUnseen() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen result = com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen.valueOf(unseen_);
+        return result == null ? com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen.UNRECOGNIZED : result;
+      }
+      /**
+       * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+       */
+      public Builder setUnseen(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Unseen value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        
+        unseen_ = value.getNumber();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.notification.api.NotificationPB.Unseen unseen = 6;</code>
+       */
+      public Builder clearUnseen() {
+        
+        unseen_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> notification_ =
+        java.util.Collections.emptyList();
+      private void ensureNotificationIsMutable() {
+        if (!((bitField0_ & 0x00000040) == 0x00000040)) {
+          notification_ = new java.util.ArrayList<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB>(notification_);
+          bitField0_ |= 0x00000040;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> notificationBuilder_;
+
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> getNotificationList() {
+        if (notificationBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(notification_);
+        } else {
+          return notificationBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public int getNotificationCount() {
+        if (notificationBuilder_ == null) {
+          return notification_.size();
+        } else {
+          return notificationBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getNotification(int index) {
+        if (notificationBuilder_ == null) {
+          return notification_.get(index);
+        } else {
+          return notificationBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder setNotification(
+          int index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB value) {
+        if (notificationBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNotificationIsMutable();
+          notification_.set(index, value);
+          onChanged();
+        } else {
+          notificationBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder setNotification(
+          int index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder builderForValue) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          notification_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          notificationBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder addNotification(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB value) {
+        if (notificationBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNotificationIsMutable();
+          notification_.add(value);
+          onChanged();
+        } else {
+          notificationBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder addNotification(
+          int index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB value) {
+        if (notificationBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNotificationIsMutable();
+          notification_.add(index, value);
+          onChanged();
+        } else {
+          notificationBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder addNotification(
+          com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder builderForValue) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          notification_.add(builderForValue.build());
+          onChanged();
+        } else {
+          notificationBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder addNotification(
+          int index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder builderForValue) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          notification_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          notificationBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder addAllNotification(
+          java.lang.Iterable<? extends com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> values) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, notification_);
+          onChanged();
+        } else {
+          notificationBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder clearNotification() {
+        if (notificationBuilder_ == null) {
+          notification_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000040);
+          onChanged();
+        } else {
+          notificationBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public Builder removeNotification(int index) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          notification_.remove(index);
+          onChanged();
+        } else {
+          notificationBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder getNotificationBuilder(
+          int index) {
+        return getNotificationFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder getNotificationOrBuilder(
+          int index) {
+        if (notificationBuilder_ == null) {
+          return notification_.get(index);  } else {
+          return notificationBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public java.util.List<? extends com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> 
+           getNotificationOrBuilderList() {
+        if (notificationBuilder_ != null) {
+          return notificationBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(notification_);
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder addNotificationBuilder() {
+        return getNotificationFieldBuilder().addBuilder(
+            com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder addNotificationBuilder(
+          int index) {
+        return getNotificationFieldBuilder().addBuilder(
+            index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 7;</code>
+       */
+      public java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder> 
+           getNotificationBuilderList() {
+        return getNotificationFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> 
+          getNotificationFieldBuilder() {
+        if (notificationBuilder_ == null) {
+          notificationBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder>(
+                  notification_,
+                  ((bitField0_ & 0x00000040) == 0x00000040),
+                  getParentForChildren(),
+                  isClean());
+          notification_ = null;
+        }
+        return notificationBuilder_;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return this;
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return this;
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:notification.api.NotificationPB)
+    }
+
+    // @@protoc_insertion_point(class_scope:notification.api.NotificationPB)
+    private static final com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB();
+    }
+
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<NotificationPB>
+        PARSER = new com.google.protobuf.AbstractParser<NotificationPB>() {
+      public NotificationPB parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new NotificationPB(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<NotificationPB> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<NotificationPB> getParserForType() {
+      return PARSER;
+    }
+
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface NotificationListPBOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:notification.api.NotificationListPB)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> 
+        getNotificationList();
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getNotification(int index);
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    int getNotificationCount();
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    java.util.List<? extends com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> 
+        getNotificationOrBuilderList();
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder getNotificationOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code notification.api.NotificationListPB}
+   */
+  public  static final class NotificationListPB extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:notification.api.NotificationListPB)
+      NotificationListPBOrBuilder {
+    // Use NotificationListPB.newBuilder() to construct.
+    private NotificationListPB(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private NotificationListPB() {
+      notification_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return com.google.protobuf.UnknownFieldSet.getDefaultInstance();
+    }
+    private NotificationListPB(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!input.skipField(tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                notification_ = new java.util.ArrayList<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              notification_.add(
+                  input.readMessage(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.parser(), extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          notification_ = java.util.Collections.unmodifiableList(notification_);
+        }
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationListPB_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationListPB_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB.class, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB.Builder.class);
+    }
+
+    public static final int NOTIFICATION_FIELD_NUMBER = 1;
+    private java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> notification_;
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    public java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> getNotificationList() {
+      return notification_;
+    }
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    public java.util.List<? extends com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> 
+        getNotificationOrBuilderList() {
+      return notification_;
+    }
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    public int getNotificationCount() {
+      return notification_.size();
+    }
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getNotification(int index) {
+      return notification_.get(index);
+    }
+    /**
+     * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+     */
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder getNotificationOrBuilder(
+        int index) {
+      return notification_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < notification_.size(); i++) {
+        output.writeMessage(1, notification_.get(i));
+      }
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < notification_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, notification_.get(i));
+      }
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB)) {
+        return super.equals(obj);
+      }
+      com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB other = (com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB) obj;
+
+      boolean result = true;
+      result = result && getNotificationList()
+          .equals(other.getNotificationList());
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getNotificationCount() > 0) {
+        hash = (37 * hash) + NOTIFICATION_FIELD_NUMBER;
+        hash = (53 * hash) + getNotificationList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code notification.api.NotificationListPB}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:notification.api.NotificationListPB)
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPBOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationListPB_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationListPB_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB.class, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB.Builder.class);
+      }
+
+      // Construct using com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getNotificationFieldBuilder();
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        if (notificationBuilder_ == null) {
+          notification_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          notificationBuilder_.clear();
+        }
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_NotificationListPB_descriptor;
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB getDefaultInstanceForType() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB.getDefaultInstance();
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB build() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB buildPartial() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB result = new com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB(this);
+        int from_bitField0_ = bitField0_;
+        if (notificationBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+            notification_ = java.util.Collections.unmodifiableList(notification_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.notification_ = notification_;
+        } else {
+          result.notification_ = notificationBuilder_.build();
+        }
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB) {
+          return mergeFrom((com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB other) {
+        if (other == com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB.getDefaultInstance()) return this;
+        if (notificationBuilder_ == null) {
+          if (!other.notification_.isEmpty()) {
+            if (notification_.isEmpty()) {
+              notification_ = other.notification_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureNotificationIsMutable();
+              notification_.addAll(other.notification_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.notification_.isEmpty()) {
+            if (notificationBuilder_.isEmpty()) {
+              notificationBuilder_.dispose();
+              notificationBuilder_ = null;
+              notification_ = other.notification_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              notificationBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getNotificationFieldBuilder() : null;
+            } else {
+              notificationBuilder_.addAllMessages(other.notification_);
+            }
+          }
+        }
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> notification_ =
+        java.util.Collections.emptyList();
+      private void ensureNotificationIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          notification_ = new java.util.ArrayList<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB>(notification_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> notificationBuilder_;
+
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> getNotificationList() {
+        if (notificationBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(notification_);
+        } else {
+          return notificationBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public int getNotificationCount() {
+        if (notificationBuilder_ == null) {
+          return notification_.size();
+        } else {
+          return notificationBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB getNotification(int index) {
+        if (notificationBuilder_ == null) {
+          return notification_.get(index);
+        } else {
+          return notificationBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder setNotification(
+          int index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB value) {
+        if (notificationBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNotificationIsMutable();
+          notification_.set(index, value);
+          onChanged();
+        } else {
+          notificationBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder setNotification(
+          int index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder builderForValue) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          notification_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          notificationBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder addNotification(com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB value) {
+        if (notificationBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNotificationIsMutable();
+          notification_.add(value);
+          onChanged();
+        } else {
+          notificationBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder addNotification(
+          int index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB value) {
+        if (notificationBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNotificationIsMutable();
+          notification_.add(index, value);
+          onChanged();
+        } else {
+          notificationBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder addNotification(
+          com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder builderForValue) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          notification_.add(builderForValue.build());
+          onChanged();
+        } else {
+          notificationBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder addNotification(
+          int index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder builderForValue) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          notification_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          notificationBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder addAllNotification(
+          java.lang.Iterable<? extends com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB> values) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, notification_);
+          onChanged();
+        } else {
+          notificationBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder clearNotification() {
+        if (notificationBuilder_ == null) {
+          notification_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          notificationBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public Builder removeNotification(int index) {
+        if (notificationBuilder_ == null) {
+          ensureNotificationIsMutable();
+          notification_.remove(index);
+          onChanged();
+        } else {
+          notificationBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder getNotificationBuilder(
+          int index) {
+        return getNotificationFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder getNotificationOrBuilder(
+          int index) {
+        if (notificationBuilder_ == null) {
+          return notification_.get(index);  } else {
+          return notificationBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public java.util.List<? extends com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> 
+           getNotificationOrBuilderList() {
+        if (notificationBuilder_ != null) {
+          return notificationBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(notification_);
+        }
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder addNotificationBuilder() {
+        return getNotificationFieldBuilder().addBuilder(
+            com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder addNotificationBuilder(
+          int index) {
+        return getNotificationFieldBuilder().addBuilder(
+            index, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .notification.api.NotificationPB notification = 1;</code>
+       */
+      public java.util.List<com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder> 
+           getNotificationBuilderList() {
+        return getNotificationFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder> 
+          getNotificationFieldBuilder() {
+        if (notificationBuilder_ == null) {
+          notificationBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB.Builder, com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPBOrBuilder>(
+                  notification_,
+                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  getParentForChildren(),
+                  isClean());
+          notification_ = null;
+        }
+        return notificationBuilder_;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return this;
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return this;
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:notification.api.NotificationListPB)
+    }
+
+    // @@protoc_insertion_point(class_scope:notification.api.NotificationListPB)
+    private static final com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB();
+    }
+
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<NotificationListPB>
+        PARSER = new com.google.protobuf.AbstractParser<NotificationListPB>() {
+      public NotificationListPB parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new NotificationListPB(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<NotificationListPB> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<NotificationListPB> getParserForType() {
+      return PARSER;
+    }
+
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface RulePBOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:notification.api.RulePB)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>int32 max_size = 1;</code>
+     */
+    int getMaxSize();
+
+    /**
+     * <code>string max_duration = 2;</code>
+     */
+    java.lang.String getMaxDuration();
+    /**
+     * <code>string max_duration = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getMaxDurationBytes();
+
+    /**
+     * <code>string match_on = 3;</code>
+     */
+    java.lang.String getMatchOn();
+    /**
+     * <code>string match_on = 3;</code>
+     */
+    com.google.protobuf.ByteString
+        getMatchOnBytes();
+  }
+  /**
+   * Protobuf type {@code notification.api.RulePB}
+   */
+  public  static final class RulePB extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:notification.api.RulePB)
+      RulePBOrBuilder {
+    // Use RulePB.newBuilder() to construct.
+    private RulePB(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private RulePB() {
+      maxSize_ = 0;
+      maxDuration_ = "";
+      matchOn_ = "";
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return com.google.protobuf.UnknownFieldSet.getDefaultInstance();
+    }
+    private RulePB(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!input.skipField(tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+
+              maxSize_ = input.readInt32();
+              break;
+            }
+            case 18: {
+              java.lang.String s = input.readStringRequireUtf8();
+
+              maxDuration_ = s;
+              break;
+            }
+            case 26: {
+              java.lang.String s = input.readStringRequireUtf8();
+
+              matchOn_ = s;
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RulePB_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RulePB_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB.class, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB.Builder.class);
+    }
+
+    public static final int MAX_SIZE_FIELD_NUMBER = 1;
+    private int maxSize_;
+    /**
+     * <code>int32 max_size = 1;</code>
+     */
+    public int getMaxSize() {
+      return maxSize_;
+    }
+
+    public static final int MAX_DURATION_FIELD_NUMBER = 2;
+    private volatile java.lang.Object maxDuration_;
+    /**
+     * <code>string max_duration = 2;</code>
+     */
+    public java.lang.String getMaxDuration() {
+      java.lang.Object ref = maxDuration_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        maxDuration_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string max_duration = 2;</code>
+     */
+    public com.google.protobuf.ByteString
+        getMaxDurationBytes() {
+      java.lang.Object ref = maxDuration_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        maxDuration_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int MATCH_ON_FIELD_NUMBER = 3;
+    private volatile java.lang.Object matchOn_;
+    /**
+     * <code>string match_on = 3;</code>
+     */
+    public java.lang.String getMatchOn() {
+      java.lang.Object ref = matchOn_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        matchOn_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string match_on = 3;</code>
+     */
+    public com.google.protobuf.ByteString
+        getMatchOnBytes() {
+      java.lang.Object ref = matchOn_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        matchOn_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (maxSize_ != 0) {
+        output.writeInt32(1, maxSize_);
+      }
+      if (!getMaxDurationBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, maxDuration_);
+      }
+      if (!getMatchOnBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, matchOn_);
+      }
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (maxSize_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(1, maxSize_);
+      }
+      if (!getMaxDurationBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, maxDuration_);
+      }
+      if (!getMatchOnBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, matchOn_);
+      }
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB)) {
+        return super.equals(obj);
+      }
+      com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB other = (com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB) obj;
+
+      boolean result = true;
+      result = result && (getMaxSize()
+          == other.getMaxSize());
+      result = result && getMaxDuration()
+          .equals(other.getMaxDuration());
+      result = result && getMatchOn()
+          .equals(other.getMatchOn());
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + MAX_SIZE_FIELD_NUMBER;
+      hash = (53 * hash) + getMaxSize();
+      hash = (37 * hash) + MAX_DURATION_FIELD_NUMBER;
+      hash = (53 * hash) + getMaxDuration().hashCode();
+      hash = (37 * hash) + MATCH_ON_FIELD_NUMBER;
+      hash = (53 * hash) + getMatchOn().hashCode();
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code notification.api.RulePB}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:notification.api.RulePB)
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RulePBOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RulePB_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RulePB_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB.class, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB.Builder.class);
+      }
+
+      // Construct using com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        maxSize_ = 0;
+
+        maxDuration_ = "";
+
+        matchOn_ = "";
+
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RulePB_descriptor;
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getDefaultInstanceForType() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB.getDefaultInstance();
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB build() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB buildPartial() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB result = new com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB(this);
+        result.maxSize_ = maxSize_;
+        result.maxDuration_ = maxDuration_;
+        result.matchOn_ = matchOn_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB) {
+          return mergeFrom((com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB other) {
+        if (other == com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB.getDefaultInstance()) return this;
+        if (other.getMaxSize() != 0) {
+          setMaxSize(other.getMaxSize());
+        }
+        if (!other.getMaxDuration().isEmpty()) {
+          maxDuration_ = other.maxDuration_;
+          onChanged();
+        }
+        if (!other.getMatchOn().isEmpty()) {
+          matchOn_ = other.matchOn_;
+          onChanged();
+        }
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+
+      private int maxSize_ ;
+      /**
+       * <code>int32 max_size = 1;</code>
+       */
+      public int getMaxSize() {
+        return maxSize_;
+      }
+      /**
+       * <code>int32 max_size = 1;</code>
+       */
+      public Builder setMaxSize(int value) {
+        
+        maxSize_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 max_size = 1;</code>
+       */
+      public Builder clearMaxSize() {
+        
+        maxSize_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object maxDuration_ = "";
+      /**
+       * <code>string max_duration = 2;</code>
+       */
+      public java.lang.String getMaxDuration() {
+        java.lang.Object ref = maxDuration_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          maxDuration_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>string max_duration = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getMaxDurationBytes() {
+        java.lang.Object ref = maxDuration_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          maxDuration_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string max_duration = 2;</code>
+       */
+      public Builder setMaxDuration(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  
+        maxDuration_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string max_duration = 2;</code>
+       */
+      public Builder clearMaxDuration() {
+        
+        maxDuration_ = getDefaultInstance().getMaxDuration();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string max_duration = 2;</code>
+       */
+      public Builder setMaxDurationBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+        
+        maxDuration_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object matchOn_ = "";
+      /**
+       * <code>string match_on = 3;</code>
+       */
+      public java.lang.String getMatchOn() {
+        java.lang.Object ref = matchOn_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          matchOn_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>string match_on = 3;</code>
+       */
+      public com.google.protobuf.ByteString
+          getMatchOnBytes() {
+        java.lang.Object ref = matchOn_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          matchOn_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string match_on = 3;</code>
+       */
+      public Builder setMatchOn(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  
+        matchOn_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string match_on = 3;</code>
+       */
+      public Builder clearMatchOn() {
+        
+        matchOn_ = getDefaultInstance().getMatchOn();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string match_on = 3;</code>
+       */
+      public Builder setMatchOnBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+        
+        matchOn_ = value;
+        onChanged();
+        return this;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return this;
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return this;
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:notification.api.RulePB)
+    }
+
+    // @@protoc_insertion_point(class_scope:notification.api.RulePB)
+    private static final com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB();
+    }
+
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<RulePB>
+        PARSER = new com.google.protobuf.AbstractParser<RulePB>() {
+      public RulePB parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new RulePB(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<RulePB> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<RulePB> getParserForType() {
+      return PARSER;
+    }
+
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface RuleMapPBOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:notification.api.RuleMapPB)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+    int getRuleCount();
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+    boolean containsRule(
+        java.lang.String key);
+    /**
+     * Use {@link #getRuleMap()} instead.
+     */
+    @java.lang.Deprecated
+    java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>
+    getRule();
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+    java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>
+    getRuleMap();
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+
+    com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getRuleOrDefault(
+        java.lang.String key,
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB defaultValue);
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+
+    com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getRuleOrThrow(
+        java.lang.String key);
+  }
+  /**
+   * Protobuf type {@code notification.api.RuleMapPB}
+   */
+  public  static final class RuleMapPB extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:notification.api.RuleMapPB)
+      RuleMapPBOrBuilder {
+    // Use RuleMapPB.newBuilder() to construct.
+    private RuleMapPB(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private RuleMapPB() {
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return com.google.protobuf.UnknownFieldSet.getDefaultInstance();
+    }
+    private RuleMapPB(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!input.skipField(tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                rule_ = com.google.protobuf.MapField.newMapField(
+                    RuleDefaultEntryHolder.defaultEntry);
+                mutable_bitField0_ |= 0x00000001;
+              }
+              com.google.protobuf.MapEntry<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>
+              rule__ = input.readMessage(
+                  RuleDefaultEntryHolder.defaultEntry.getParserForType(), extensionRegistry);
+              rule_.getMutableMap().put(
+                  rule__.getKey(), rule__.getValue());
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RuleMapPB_descriptor;
+    }
+
+    @SuppressWarnings({"rawtypes"})
+    protected com.google.protobuf.MapField internalGetMapField(
+        int number) {
+      switch (number) {
+        case 1:
+          return internalGetRule();
+        default:
+          throw new RuntimeException(
+              "Invalid map field number: " + number);
+      }
+    }
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RuleMapPB_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB.class, com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB.Builder.class);
+    }
+
+    public static final int RULE_FIELD_NUMBER = 1;
+    private static final class RuleDefaultEntryHolder {
+      static final com.google.protobuf.MapEntry<
+          java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> defaultEntry =
+              com.google.protobuf.MapEntry
+              .<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>newDefaultInstance(
+                  com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RuleMapPB_RuleEntry_descriptor, 
+                  com.google.protobuf.WireFormat.FieldType.STRING,
+                  "",
+                  com.google.protobuf.WireFormat.FieldType.MESSAGE,
+                  com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB.getDefaultInstance());
+    }
+    private com.google.protobuf.MapField<
+        java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> rule_;
+    private com.google.protobuf.MapField<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>
+    internalGetRule() {
+      if (rule_ == null) {
+        return com.google.protobuf.MapField.emptyMapField(
+            RuleDefaultEntryHolder.defaultEntry);
+      }
+      return rule_;
+    }
+
+    public int getRuleCount() {
+      return internalGetRule().getMap().size();
+    }
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+
+    public boolean containsRule(
+        java.lang.String key) {
+      if (key == null) { throw new java.lang.NullPointerException(); }
+      return internalGetRule().getMap().containsKey(key);
+    }
+    /**
+     * Use {@link #getRuleMap()} instead.
+     */
+    @java.lang.Deprecated
+    public java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> getRule() {
+      return getRuleMap();
+    }
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+
+    public java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> getRuleMap() {
+      return internalGetRule().getMap();
+    }
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getRuleOrDefault(
+        java.lang.String key,
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB defaultValue) {
+      if (key == null) { throw new java.lang.NullPointerException(); }
+      java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> map =
+          internalGetRule().getMap();
+      return map.containsKey(key) ? map.get(key) : defaultValue;
+    }
+    /**
+     * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+     */
+
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getRuleOrThrow(
+        java.lang.String key) {
+      if (key == null) { throw new java.lang.NullPointerException(); }
+      java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> map =
+          internalGetRule().getMap();
+      if (!map.containsKey(key)) {
+        throw new java.lang.IllegalArgumentException();
+      }
+      return map.get(key);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      com.google.protobuf.GeneratedMessageV3
+        .serializeStringMapTo(
+          output,
+          internalGetRule(),
+          RuleDefaultEntryHolder.defaultEntry,
+          1);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (java.util.Map.Entry<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> entry
+           : internalGetRule().getMap().entrySet()) {
+        com.google.protobuf.MapEntry<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>
+        rule__ = RuleDefaultEntryHolder.defaultEntry.newBuilderForType()
+            .setKey(entry.getKey())
+            .setValue(entry.getValue())
+            .build();
+        size += com.google.protobuf.CodedOutputStream
+            .computeMessageSize(1, rule__);
+      }
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB)) {
+        return super.equals(obj);
+      }
+      com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB other = (com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB) obj;
+
+      boolean result = true;
+      result = result && internalGetRule().equals(
+          other.internalGetRule());
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (!internalGetRule().getMap().isEmpty()) {
+        hash = (37 * hash) + RULE_FIELD_NUMBER;
+        hash = (53 * hash) + internalGetRule().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code notification.api.RuleMapPB}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:notification.api.RuleMapPB)
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPBOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RuleMapPB_descriptor;
+      }
+
+      @SuppressWarnings({"rawtypes"})
+      protected com.google.protobuf.MapField internalGetMapField(
+          int number) {
+        switch (number) {
+          case 1:
+            return internalGetRule();
+          default:
+            throw new RuntimeException(
+                "Invalid map field number: " + number);
+        }
+      }
+      @SuppressWarnings({"rawtypes"})
+      protected com.google.protobuf.MapField internalGetMutableMapField(
+          int number) {
+        switch (number) {
+          case 1:
+            return internalGetMutableRule();
+          default:
+            throw new RuntimeException(
+                "Invalid map field number: " + number);
+        }
+      }
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RuleMapPB_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB.class, com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB.Builder.class);
+      }
+
+      // Construct using com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        internalGetMutableRule().clear();
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.internal_static_notification_api_RuleMapPB_descriptor;
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB getDefaultInstanceForType() {
+        return com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB.getDefaultInstance();
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB build() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB buildPartial() {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB result = new com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB(this);
+        int from_bitField0_ = bitField0_;
+        result.rule_ = internalGetRule();
+        result.rule_.makeImmutable();
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB) {
+          return mergeFrom((com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB other) {
+        if (other == com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB.getDefaultInstance()) return this;
+        internalGetMutableRule().mergeFrom(
+            other.internalGetRule());
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private com.google.protobuf.MapField<
+          java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> rule_;
+      private com.google.protobuf.MapField<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>
+      internalGetRule() {
+        if (rule_ == null) {
+          return com.google.protobuf.MapField.emptyMapField(
+              RuleDefaultEntryHolder.defaultEntry);
+        }
+        return rule_;
+      }
+      private com.google.protobuf.MapField<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>
+      internalGetMutableRule() {
+        onChanged();;
+        if (rule_ == null) {
+          rule_ = com.google.protobuf.MapField.newMapField(
+              RuleDefaultEntryHolder.defaultEntry);
+        }
+        if (!rule_.isMutable()) {
+          rule_ = rule_.copy();
+        }
+        return rule_;
+      }
+
+      public int getRuleCount() {
+        return internalGetRule().getMap().size();
+      }
+      /**
+       * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+       */
+
+      public boolean containsRule(
+          java.lang.String key) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        return internalGetRule().getMap().containsKey(key);
+      }
+      /**
+       * Use {@link #getRuleMap()} instead.
+       */
+      @java.lang.Deprecated
+      public java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> getRule() {
+        return getRuleMap();
+      }
+      /**
+       * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+       */
+
+      public java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> getRuleMap() {
+        return internalGetRule().getMap();
+      }
+      /**
+       * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+       */
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getRuleOrDefault(
+          java.lang.String key,
+          com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB defaultValue) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> map =
+            internalGetRule().getMap();
+        return map.containsKey(key) ? map.get(key) : defaultValue;
+      }
+      /**
+       * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+       */
+
+      public com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB getRuleOrThrow(
+          java.lang.String key) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> map =
+            internalGetRule().getMap();
+        if (!map.containsKey(key)) {
+          throw new java.lang.IllegalArgumentException();
+        }
+        return map.get(key);
+      }
+
+      public Builder clearRule() {
+        internalGetMutableRule().getMutableMap()
+            .clear();
+        return this;
+      }
+      /**
+       * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+       */
+
+      public Builder removeRule(
+          java.lang.String key) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        internalGetMutableRule().getMutableMap()
+            .remove(key);
+        return this;
+      }
+      /**
+       * Use alternate mutation accessors instead.
+       */
+      @java.lang.Deprecated
+      public java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB>
+      getMutableRule() {
+        return internalGetMutableRule().getMutableMap();
+      }
+      /**
+       * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+       */
+      public Builder putRule(
+          java.lang.String key,
+          com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB value) {
+        if (key == null) { throw new java.lang.NullPointerException(); }
+        if (value == null) { throw new java.lang.NullPointerException(); }
+        internalGetMutableRule().getMutableMap()
+            .put(key, value);
+        return this;
+      }
+      /**
+       * <code>map&lt;string, .notification.api.RulePB&gt; rule = 1;</code>
+       */
+
+      public Builder putAllRule(
+          java.util.Map<java.lang.String, com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB> values) {
+        internalGetMutableRule().getMutableMap()
+            .putAll(values);
+        return this;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return this;
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return this;
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:notification.api.RuleMapPB)
+    }
+
+    // @@protoc_insertion_point(class_scope:notification.api.RuleMapPB)
+    private static final com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB();
+    }
+
+    public static com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<RuleMapPB>
+        PARSER = new com.google.protobuf.AbstractParser<RuleMapPB>() {
+      public RuleMapPB parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new RuleMapPB(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<RuleMapPB> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<RuleMapPB> getParserForType() {
+      return PARSER;
+    }
+
+    public com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_notification_api_NotificationPB_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_notification_api_NotificationPB_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_notification_api_NotificationPB_PropertyEntry_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_notification_api_NotificationPB_PropertyEntry_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_notification_api_NotificationListPB_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_notification_api_NotificationListPB_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_notification_api_RulePB_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_notification_api_RulePB_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_notification_api_RuleMapPB_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_notification_api_RuleMapPB_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_notification_api_RuleMapPB_RuleEntry_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_notification_api_RuleMapPB_RuleEntry_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\026notification_api.proto\022\020notification.a" +
+      "pi\"\344\002\n\016NotificationPB\022\n\n\002id\030\001 \001(\003\022\020\n\010cat" +
+      "egory\030\002 \001(\t\022\017\n\007message\030\003 \001(\t\022\022\n\ncreated_" +
+      "at\030\004 \001(\003\022@\n\010property\030\005 \003(\0132..notificatio" +
+      "n.api.NotificationPB.PropertyEntry\0227\n\006un" +
+      "seen\030\006 \001(\0162\'.notification.api.Notificati" +
+      "onPB.Unseen\0226\n\014notification\030\007 \003(\0132 .noti" +
+      "fication.api.NotificationPB\032/\n\rPropertyE" +
+      "ntry\022\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\t:\0028\001\"+\n\006" +
+      "Unseen\022\013\n\007UNKNOWN\020\000\022\n\n\006UNSEEN\020\001\022\010\n\004SEEN\020",
+      "\002\"L\n\022NotificationListPB\0226\n\014notification\030" +
+      "\001 \003(\0132 .notification.api.NotificationPB\"" +
+      "B\n\006RulePB\022\020\n\010max_size\030\001 \001(\005\022\024\n\014max_durat" +
+      "ion\030\002 \001(\t\022\020\n\010match_on\030\003 \001(\t\"\207\001\n\tRuleMapP" +
+      "B\0223\n\004rule\030\001 \003(\0132%.notification.api.RuleM" +
+      "apPB.RuleEntry\032E\n\tRuleEntry\022\013\n\003key\030\001 \001(\t" +
+      "\022\'\n\005value\030\002 \001(\0132\030.notification.api.RuleP" +
+      "B:\0028\001BB\n\'com.smoketurner.notification.ap" +
+      "i.protosB\025NotificationApiProtosH\001b\006proto" +
+      "3"
+    };
+    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
+        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
+          public com.google.protobuf.ExtensionRegistry assignDescriptors(
+              com.google.protobuf.Descriptors.FileDescriptor root) {
+            descriptor = root;
+            return null;
+          }
+        };
+    com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+        }, assigner);
+    internal_static_notification_api_NotificationPB_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_notification_api_NotificationPB_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_notification_api_NotificationPB_descriptor,
+        new java.lang.String[] { "Id", "Category", "Message", "CreatedAt", "Property", "Unseen", "Notification", });
+    internal_static_notification_api_NotificationPB_PropertyEntry_descriptor =
+      internal_static_notification_api_NotificationPB_descriptor.getNestedTypes().get(0);
+    internal_static_notification_api_NotificationPB_PropertyEntry_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_notification_api_NotificationPB_PropertyEntry_descriptor,
+        new java.lang.String[] { "Key", "Value", });
+    internal_static_notification_api_NotificationListPB_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_notification_api_NotificationListPB_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_notification_api_NotificationListPB_descriptor,
+        new java.lang.String[] { "Notification", });
+    internal_static_notification_api_RulePB_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_notification_api_RulePB_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_notification_api_RulePB_descriptor,
+        new java.lang.String[] { "MaxSize", "MaxDuration", "MatchOn", });
+    internal_static_notification_api_RuleMapPB_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_notification_api_RuleMapPB_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_notification_api_RuleMapPB_descriptor,
+        new java.lang.String[] { "Rule", });
+    internal_static_notification_api_RuleMapPB_RuleEntry_descriptor =
+      internal_static_notification_api_RuleMapPB_descriptor.getNestedTypes().get(0);
+    internal_static_notification_api_RuleMapPB_RuleEntry_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_notification_api_RuleMapPB_RuleEntry_descriptor,
+        new java.lang.String[] { "Key", "Value", });
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.api;
+
+import static io.dropwizard.testing.FixtureHelpers.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.dropwizard.jackson.Jackson;
+
+public class BulkNotificationResultTest {
+    private final ObjectMapper MAPPER = Jackson.newObjectMapper()
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    private final BulkNotificationResult result = BulkNotificationResult
+            .success("user1", Notification.builder().withId(12345L)
+                    .withCategory("new-follower")
+                    .withMessage("you have a new follower")
+                    .withCreatedAt(new DateTime("2015-06-29T21:04:12Z",
+                            DateTimeZone.UTC))
+                    .build());
+
+    @Test
+    public void serializesToJSON() throws Exception {
+        final String actual = MAPPER.writeValueAsString(result);
+        final String expected = MAPPER.writeValueAsString(MAPPER.readValue(
+                fixture("fixtures/bulk_notification_result.json"),
+                BulkNotificationResult.class));
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void deserializesFromJSON() throws Exception {
+        final BulkNotificationResult actual = MAPPER.readValue(
+                fixture("fixtures/bulk_notification_result.json"),
+                BulkNotificationResult.class);
+        assertThat(actual).isEqualTo(result);
+        assertThat(actual.isSuccessful()).isTrue();
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final BulkNotificationResult actual = BulkNotificationResult
+                .failure("user1", "error");
+        assertThat(actual.isSuccessful()).isFalse();
+        assertThat(actual.getError()).contains("error");
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.api;
+
+import static io.dropwizard.testing.FixtureHelpers.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.dropwizard.jackson.Jackson;
+
+public class BulkNotificationTest {
+    private final ObjectMapper MAPPER = Jackson.newObjectMapper();
+    private final BulkNotification bulk = new BulkNotification(
+            ImmutableList.of("user1", "user2"),
+            Notification.builder().withCategory("new-follower")
+                    .withMessage("you have a new follower").build());
+
+    @Test
+    public void deserializesFromJSON() throws Exception {
+        final BulkNotification actual = MAPPER.readValue(
+                fixture("fixtures/bulk_notification.json"),
+                BulkNotification.class);
+        assertThat(actual).isEqualTo(bulk);
+        assertThat(actual.getNotification().getMessage())
+                .isEqualTo("you have a new follower");
+    }
+
+    @Test
+    public void testNullRecipient() throws Exception {
+        final BulkNotification actual = MAPPER.readValue(
+                "{\"recipients\":[\"user1\",null],\"notification\":{}}",
+                BulkNotification.class);
+        assertThat(actual.getRecipients()).containsExactly("user1", null);
+    }
+
+    @Test
+    public void testSingleRecipient() throws Exception {
+        final BulkNotification actual = new BulkNotification("user1",
+                bulk.getNotification());
+        assertThat(actual.getRecipients()).containsExactly("user1");
+    }
+}
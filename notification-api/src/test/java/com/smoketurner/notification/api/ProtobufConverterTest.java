@@ -0,0 +1,133 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import java.util.Map;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB;
+import io.dropwizard.util.Duration;
+
+public class ProtobufConverterTest {
+
+    private final DateTime now = new DateTime(1500000000000L,
+            DateTimeZone.UTC);
+    private final Notification child = Notification.builder().withId(1L)
+            .withCategory("like").withMessage("child").withCreatedAt(now)
+            .withProperties(ImmutableMap.of("message_id", "1")).build();
+    private final Notification notification = Notification.builder()
+            .withId(2L).withCategory("like").withMessage("parent")
+            .withCreatedAt(now.plusMinutes(1)).withUnseen(true)
+            .withProperties(ImmutableMap.of("message_id", "1"))
+            .withNotifications(ImmutableList.of(child)).build();
+
+    @Test
+    public void testNotificationRoundTrip() throws Exception {
+        final NotificationPB message = ProtobufConverter.toProto(notification);
+        assertThat(message.getId()).isEqualTo(2L);
+        assertThat(message.getUnseen())
+                .isEqualTo(NotificationPB.Unseen.UNSEEN);
+        assertThat(message.getNotificationCount()).isEqualTo(1);
+        assertThat(message.getNotification(0).getUnseen())
+                .isEqualTo(NotificationPB.Unseen.UNKNOWN);
+
+        final Notification actual = ProtobufConverter.fromProto(
+                NotificationPB.parseFrom(message.toByteArray()));
+        assertThat(actual.toString()).isEqualTo(notification.toString());
+    }
+
+    @Test
+    public void testSeenNotification() throws Exception {
+        final Notification seen = Notification.builder(child)
+                .withUnseen(false).build();
+        final NotificationPB message = ProtobufConverter.toProto(seen);
+        assertThat(message.getUnseen()).isEqualTo(NotificationPB.Unseen.SEEN);
+        assertThat(ProtobufConverter.fromProto(message).getUnseen())
+                .contains(false);
+    }
+
+    @Test
+    public void testNewNotification() throws Exception {
+        final NotificationPB message = NotificationPB.newBuilder()
+                .setCategory("new-follower")
+                .setMessage("You have a new follower").build();
+
+        final Notification actual = ProtobufConverter.fromProto(message);
+        assertThat(actual.getId()).isEmpty();
+        assertThat(actual.getIdStr()).isEmpty();
+        assertThat(actual.getUnseen()).isEmpty();
+        assertThat(actual.getCategory()).isEqualTo("new-follower");
+        assertThat(actual.getMessage()).isEqualTo("You have a new follower");
+        assertThat(actual.getCreatedAt()).isNotNull();
+        assertThat(actual.getProperties()).isEmpty();
+        assertThat(actual.getNotifications()).isEmpty();
+    }
+
+    @Test
+    public void testNotificationListRoundTrip() throws Exception {
+        final List<Notification> expected = ImmutableList.of(notification,
+                child);
+        final NotificationListPB message = ProtobufConverter
+                .toProto(expected);
+        final List<Notification> actual = ProtobufConverter.fromProto(
+                NotificationListPB.parseFrom(message.toByteArray()));
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void testRuleRoundTrip() throws Exception {
+        final Rule rule = Rule.builder().withMaxSize(3)
+                .withMaxDuration(Duration.minutes(10)).withMatchOn("first_name")
+                .build();
+        final RulePB message = ProtobufConverter.toProto(rule);
+        assertThat(message.getMaxDuration()).isEqualTo("10 minutes");
+        assertThat(ProtobufConverter.fromProto(message)).isEqualTo(rule);
+    }
+
+    @Test
+    public void testEmptyRule() throws Exception {
+        final Rule rule = ProtobufConverter
+                .fromProto(RulePB.getDefaultInstance());
+        assertThat(rule.isValid()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDuration() throws Exception {
+        ProtobufConverter
+                .fromProto(RulePB.newBuilder().setMaxDuration("10").build());
+    }
+
+    @Test
+    public void testRuleMapRoundTrip() throws Exception {
+        final Map<String, Rule> rules = ImmutableMap.of("new-follower",
+                Rule.builder().withMaxSize(9)
+                        .withMaxDuration(Duration.hours(12)).build(),
+                "like", Rule.builder().withMaxDuration(Duration.hours(3))
+                        .withMatchOn("message_id").build());
+        final RuleMapPB message = ProtobufConverter.toProto(rules);
+        final Map<String, Rule> actual = ProtobufConverter
+                .fromProto(RuleMapPB.parseFrom(message.toByteArray()));
+        assertThat(actual).isEqualTo(rules);
+    }
+}
@@ -15,22 +15,36 @@
  */
 package com.smoketurner.notification.application;
 
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import com.basho.riak.client.api.RiakClient;
 import com.basho.riak.client.api.cap.ConflictResolverFactory;
 import com.basho.riak.client.api.convert.ConverterFactory;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.collect.ImmutableList;
 import com.smoketurner.dropwizard.riak.RiakBundle;
 import com.smoketurner.dropwizard.riak.RiakFactory;
 import com.smoketurner.dropwizard.zipkin.ZipkinBundle;
 import com.smoketurner.dropwizard.zipkin.ZipkinFactory;
 import com.smoketurner.notification.application.config.NotificationConfiguration;
+import com.smoketurner.notification.application.config.StorageConfiguration;
 import com.smoketurner.notification.application.core.IdGenerator;
 import com.smoketurner.notification.application.exceptions.NotificationExceptionMapper;
 import com.smoketurner.notification.application.filter.CharsetResponseFilter;
 import com.smoketurner.notification.application.filter.IdResponseFilter;
 import com.smoketurner.notification.application.filter.RuntimeFilter;
+import com.smoketurner.notification.application.local.LocalCursorRepository;
+import com.smoketurner.notification.application.local.LocalLog;
+import com.smoketurner.notification.application.local.LocalNotificationRepository;
+import com.smoketurner.notification.application.local.LocalRuleRepository;
 import com.smoketurner.notification.application.managed.CursorStoreManager;
+import com.smoketurner.notification.application.managed.LocalLogManager;
 import com.smoketurner.notification.application.managed.NotificationStoreManager;
+import com.smoketurner.notification.application.resources.NotificationPageWriter;
+import com.smoketurner.notification.application.resources.NotificationProtobufProvider;
 import com.smoketurner.notification.application.resources.NotificationResource;
 import com.smoketurner.notification.application.resources.PingResource;
 import com.smoketurner.notification.application.resources.RuleResource;
@@ -40,15 +54,29 @@ import com.smoketurner.notification.application.riak.CursorResolver;
 import com.smoketurner.notification.application.riak.NotificationListConverter;
 import com.smoketurner.notification.application.riak.NotificationListObject;
 import com.smoketurner.notification.application.riak.NotificationListResolver;
+import com.smoketurner.notification.application.riak.ReadRepair;
+import com.smoketurner.notification.application.riak.RiakCursorRepository;
+import com.smoketurner.notification.application.riak.RiakNotificationRepository;
+import com.smoketurner.notification.application.riak.RiakRuleRepository;
+import com.smoketurner.notification.application.store.BufferedCursorRepository;
+import com.smoketurner.notification.application.store.CoalescingNotificationRepository;
+import com.smoketurner.notification.application.store.CursorRepository;
 import com.smoketurner.notification.application.store.CursorStore;
+import com.smoketurner.notification.application.store.NotificationCache;
+import com.smoketurner.notification.application.store.NotificationListCodec;
+import com.smoketurner.notification.application.store.NotificationRepository;
 import com.smoketurner.notification.application.store.NotificationStore;
+import com.smoketurner.notification.application.store.RuleRepository;
 import com.smoketurner.notification.application.store.RuleStore;
+import com.smoketurner.notification.application.store.SegmentedNotificationRepository;
+import com.smoketurner.notification.application.store.ShardedNotificationRepository;
 import com.smoketurner.snowizard.core.IdWorker;
 import io.dropwizard.Application;
 import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
 import io.dropwizard.configuration.SubstitutingSourceProvider;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
+import io.dropwizard.util.Duration;
 import io.federecio.dropwizard.swagger.SwaggerBundle;
 import io.federecio.dropwizard.swagger.SwaggerBundleConfiguration;
 
@@ -89,6 +117,16 @@ public class NotificationApplication
                     final NotificationConfiguration configuration) {
                 return configuration.getRiak();
             }
+
+            @Override
+            public void run(final NotificationConfiguration configuration,
+                    final Environment environment) throws Exception {
+                // only connect to Riak if it is the configured storage
+                if (configuration.getStorage()
+                        .getType() == StorageConfiguration.Type.RIAK) {
+                    super.run(configuration, environment);
+                }
+            }
         });
 
         // add Zipkin bundle
@@ -112,6 +150,11 @@ public class NotificationApplication
         // returns all DateTime objects as ISO8601 strings
         environment.getObjectMapper().configure(
                 SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        // writes pages of notifications without going through the mapper
+        environment.jersey().register(
+                new NotificationPageWriter(environment.getObjectMapper()));
+        // reads and writes notifications and rules as protocol buffers
+        environment.jersey().register(NotificationProtobufProvider.class);
         environment.jersey().register(NotificationExceptionMapper.class);
         // adds charset=UTF-8 to the response headers
         environment.jersey().register(CharsetResponseFilter.class);
@@ -126,27 +169,153 @@ public class NotificationApplication
         final IdGenerator idGenerator = new IdGenerator(snowizard,
                 configuration.getSnowizard().isEnabled());
 
-        // riak
-        final RiakClient client = configuration.getRiak().build();
+        // storage
+        NotificationRepository notificationRepository;
+        CursorRepository cursorRepository;
+        final RuleRepository ruleRepository;
+
+        final StorageConfiguration storage = configuration.getStorage();
+        final NotificationListCodec codec = new NotificationListCodec(
+                storage.getListFormat());
+        if (storage.getType() == StorageConfiguration.Type.LOCAL) {
+            final int segmentSize = (int) storage.getSegmentSize()
+                    .toBytes();
+            final Duration fsyncInterval = storage.getFsyncInterval();
+            final boolean syncWrites = fsyncInterval.getQuantity() == 0;
+            final LocalLog notificationLog = new LocalLog(
+                    new File(storage.getPath(), "notifications"), segmentSize,
+                    syncWrites);
+            final LocalLog cursorLog = new LocalLog(
+                    new File(storage.getPath(), "cursors"), segmentSize,
+                    syncWrites);
+            final LocalLog ruleLog = new LocalLog(
+                    new File(storage.getPath(), "rules"), segmentSize,
+                    syncWrites);
+            final ScheduledExecutorService executor = environment.lifecycle()
+                    .scheduledExecutorService("local-log-%d").threads(1)
+                    .build();
+            for (LocalLog log : ImmutableList.of(notificationLog, cursorLog,
+                    ruleLog)) {
+                environment.lifecycle()
+                        .manage(new LocalLogManager(log, executor,
+                                fsyncInterval,
+                                storage.getCompactionInterval()));
+            }
+
+            notificationRepository = new LocalNotificationRepository(
+                    notificationLog, codec);
+            cursorRepository = new LocalCursorRepository(cursorLog);
+            ruleRepository = new LocalRuleRepository(ruleLog);
+        } else {
+            final RiakClient client = configuration.getRiak().build();
+
+            ConflictResolverFactory.INSTANCE.registerConflictResolver(
+                    NotificationListObject.class,
+                    new NotificationListResolver(storage.getTombstoneAge()));
+            ConflictResolverFactory.INSTANCE.registerConflictResolver(
+                    CursorObject.class, new CursorResolver());
+            ConverterFactory.INSTANCE.registerConverterForClass(
+                    NotificationListObject.class,
+                    new NotificationListConverter(codec));
+
+            // write back values resolved from many siblings so later reads
+            // don't have to resolve them again
+            ReadRepair notificationRepair = null;
+            ReadRepair cursorRepair = null;
+            if (storage.getReadRepairSiblings() > 0) {
+                notificationRepair = new ReadRepair(client, "notifications",
+                        storage.getReadRepairSiblings(),
+                        storage.getMaxReadRepairsPerSecond());
+                cursorRepair = new ReadRepair(client, "cursors",
+                        storage.getReadRepairSiblings(),
+                        storage.getMaxReadRepairsPerSecond());
+            }
+
+            notificationRepository = new RiakNotificationRepository(client,
+                    notificationRepair);
+            cursorRepository = new RiakCursorRepository(client, cursorRepair);
+            ruleRepository = new RiakRuleRepository(client);
+
+            // seal older notifications into segments so lists can grow past
+            // the maximum size of a single list
+            if (storage.getHeadSize() > 0) {
+                final ExecutorService executor = environment.lifecycle()
+                        .executorService("notification-sealer-%d").minThreads(4)
+                        .maxThreads(4).build();
+                notificationRepository = new SegmentedNotificationRepository(
+                        notificationRepository, executor,
+                        storage.getHeadSize(), storage.getMaxSegments());
+            }
 
-        ConflictResolverFactory.INSTANCE.registerConflictResolver(
-                NotificationListObject.class, new NotificationListResolver());
-        ConflictResolverFactory.INSTANCE.registerConflictResolver(
-                CursorObject.class, new CursorResolver());
-        ConverterFactory.INSTANCE.registerConverterForClass(
-                NotificationListObject.class, new NotificationListConverter());
+            // spread the writes for heavily targeted users across shard keys
+            if (storage.getShards() > 0) {
+                final ExecutorService executor = environment.lifecycle()
+                        .executorService("notification-sharder-%d")
+                        .minThreads(1).maxThreads(1).build();
+                notificationRepository = new ShardedNotificationRepository(
+                        notificationRepository, executor, storage.getShards(),
+                        storage.getHotKeyThreshold(),
+                        storage.getHotKeyWindow());
+            }
+        }
+
+        // coalesce bursts of writes to the same user into a single update
+        if (configuration.getStoreBatchWindow().getQuantity() > 0) {
+            final ScheduledExecutorService scheduler = environment.lifecycle()
+                    .scheduledExecutorService("notification-batcher-%d")
+                    .threads(1).build();
+            final ExecutorService executor = environment.lifecycle()
+                    .executorService("notification-flusher-%d").minThreads(4)
+                    .maxThreads(4).build();
+            notificationRepository = new CoalescingNotificationRepository(
+                    notificationRepository, scheduler, executor,
+                    configuration.getStoreBatchWindow(),
+                    configuration.getStoreBatchSize());
+        }
+
+        // keep the newest cursor value for each user in memory and write
+        // it on an interval rather than on every fetch
+        if (configuration.getCursorFlushInterval().getQuantity() > 0) {
+            final ScheduledExecutorService executor = environment.lifecycle()
+                    .scheduledExecutorService("cursor-flusher-%d").threads(1)
+                    .build();
+            cursorRepository = new BufferedCursorRepository(cursorRepository,
+                    executor, configuration.getCursorFlushInterval());
+        }
 
         // data stores
-        final RuleStore ruleStore = new RuleStore(client,
+        final RuleStore ruleStore = new RuleStore(ruleRepository,
                 configuration.getRuleCacheTimeout());
-        final CursorStore cursorStore = new CursorStore(client);
-        final NotificationStore store = new NotificationStore(client,
-                idGenerator, cursorStore, ruleStore);
+        final CursorStore cursorStore = new CursorStore(cursorRepository,
+                configuration.getCursorCacheSize(),
+                configuration.getCursorCacheTimeout());
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final ExecutorService storeExecutor = environment.lifecycle()
+                .executorService("notification-store-%d")
+                .minThreads(processors).maxThreads(processors).build();
+
+        // bulk writes get their own pool so a large batch can't hold up
+        // rolling up fetched notifications. Once the queue is full, the
+        // request thread performs the write itself, which pushes back on
+        // the client.
+        final int bulkConcurrency = configuration.getBulkConcurrency();
+        final ExecutorService bulkExecutor = environment.lifecycle()
+                .executorService("notification-bulk-%d")
+                .minThreads(bulkConcurrency).maxThreads(bulkConcurrency)
+                .workQueue(new ArrayBlockingQueue<>(bulkConcurrency))
+                .rejectedExecutionHandler(
+                        new ThreadPoolExecutor.CallerRunsPolicy())
+                .build();
+        final NotificationStore store = new NotificationStore(
+                notificationRepository, idGenerator, cursorStore, ruleStore,
+                storeExecutor, bulkExecutor,
+                new NotificationCache(configuration.getNotificationCacheSize()));
         environment.lifecycle().manage(new CursorStoreManager(cursorStore));
         environment.lifecycle().manage(new NotificationStoreManager(store));
 
         // resources
-        environment.jersey().register(new NotificationResource(store));
+        environment.jersey().register(new NotificationResource(store,
+                configuration.getMaxBulkRecipients()));
         environment.jersey().register(new RuleResource(ruleStore));
         environment.jersey().register(new PingResource());
         environment.jersey().register(new VersionResource());
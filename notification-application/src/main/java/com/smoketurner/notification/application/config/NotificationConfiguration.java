@@ -17,13 +17,16 @@ package com.smoketurner.notification.application.config;
 
 import java.util.concurrent.TimeUnit;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.smoketurner.dropwizard.riak.RiakFactory;
 import com.smoketurner.dropwizard.zipkin.LoggingZipkinFactory;
 import com.smoketurner.dropwizard.zipkin.ZipkinFactory;
+import com.smoketurner.notification.application.resources.NotificationResource;
 import io.dropwizard.Configuration;
 import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MaxDuration;
 import io.dropwizard.validation.MinDuration;
 import io.federecio.dropwizard.swagger.SwaggerBundleConfiguration;
 
@@ -33,6 +36,33 @@ public class NotificationConfiguration extends Configuration {
     @MinDuration(value = 1, unit = TimeUnit.SECONDS)
     private Duration ruleCacheTimeout = Duration.seconds(30);
 
+    @NotNull
+    @MaxDuration(value = 1, unit = TimeUnit.SECONDS)
+    private Duration storeBatchWindow = Duration.milliseconds(0);
+
+    @Min(1)
+    private int storeBatchSize = 100;
+
+    @NotNull
+    @MaxDuration(value = 1, unit = TimeUnit.MINUTES)
+    private Duration cursorFlushInterval = Duration.seconds(1);
+
+    @Min(1)
+    private int bulkConcurrency = 16;
+
+    @Min(1)
+    private int maxBulkRecipients = NotificationResource.DEFAULT_MAX_RECIPIENTS;
+
+    @Min(0)
+    private long notificationCacheSize = 100000;
+
+    @Min(0)
+    private long cursorCacheSize = 100000;
+
+    @NotNull
+    @MaxDuration(value = 1, unit = TimeUnit.MINUTES)
+    private Duration cursorCacheTimeout = Duration.seconds(5);
+
     @Valid
     @NotNull
     @JsonProperty
@@ -53,6 +83,11 @@ public class NotificationConfiguration extends Configuration {
     @JsonProperty
     private final ZipkinFactory zipkin = new LoggingZipkinFactory();
 
+    @Valid
+    @NotNull
+    @JsonProperty
+    private final StorageConfiguration storage = new StorageConfiguration();
+
     @JsonProperty
     public Duration getRuleCacheTimeout() {
         return ruleCacheTimeout;
@@ -63,6 +98,86 @@ public class NotificationConfiguration extends Configuration {
         this.ruleCacheTimeout = timeout;
     }
 
+    @JsonProperty
+    public Duration getStoreBatchWindow() {
+        return storeBatchWindow;
+    }
+
+    @JsonProperty
+    public void setStoreBatchWindow(final Duration window) {
+        this.storeBatchWindow = window;
+    }
+
+    @JsonProperty
+    public int getStoreBatchSize() {
+        return storeBatchSize;
+    }
+
+    @JsonProperty
+    public void setStoreBatchSize(final int size) {
+        this.storeBatchSize = size;
+    }
+
+    @JsonProperty
+    public Duration getCursorFlushInterval() {
+        return cursorFlushInterval;
+    }
+
+    @JsonProperty
+    public void setCursorFlushInterval(final Duration interval) {
+        this.cursorFlushInterval = interval;
+    }
+
+    @JsonProperty
+    public int getBulkConcurrency() {
+        return bulkConcurrency;
+    }
+
+    @JsonProperty
+    public void setBulkConcurrency(final int concurrency) {
+        this.bulkConcurrency = concurrency;
+    }
+
+    @JsonProperty
+    public int getMaxBulkRecipients() {
+        return maxBulkRecipients;
+    }
+
+    @JsonProperty
+    public void setMaxBulkRecipients(final int recipients) {
+        this.maxBulkRecipients = recipients;
+    }
+
+    @JsonProperty
+    public long getNotificationCacheSize() {
+        return notificationCacheSize;
+    }
+
+    @JsonProperty
+    public void setNotificationCacheSize(final long size) {
+        this.notificationCacheSize = size;
+    }
+
+    @JsonProperty
+    public long getCursorCacheSize() {
+        return cursorCacheSize;
+    }
+
+    @JsonProperty
+    public void setCursorCacheSize(final long size) {
+        this.cursorCacheSize = size;
+    }
+
+    @JsonProperty
+    public Duration getCursorCacheTimeout() {
+        return cursorCacheTimeout;
+    }
+
+    @JsonProperty
+    public void setCursorCacheTimeout(final Duration timeout) {
+        this.cursorCacheTimeout = timeout;
+    }
+
     @JsonProperty
     public SwaggerBundleConfiguration getSwagger() {
         return swagger;
@@ -82,4 +197,9 @@ public class NotificationConfiguration extends Configuration {
     public ZipkinFactory getZipkin() {
         return zipkin;
     }
+
+    @JsonProperty
+    public StorageConfiguration getStorage() {
+        return storage;
+    }
 }
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.config;
+
+import java.util.concurrent.TimeUnit;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.smoketurner.notification.application.riak.NotificationListResolver;
+import com.smoketurner.notification.application.store.NotificationListCodec;
+import com.smoketurner.notification.application.store.SegmentedNotificationRepository;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.validation.MaxSize;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.MinSize;
+
+public class StorageConfiguration {
+
+    public enum Type {
+        RIAK, LOCAL
+    }
+
+    @NotNull
+    private Type type = Type.RIAK;
+
+    @NotNull
+    private String path = "data";
+
+    @NotNull
+    @MinSize(1024)
+    @MaxSize(1024 * 1024 * 1024)
+    private Size segmentSize = Size.megabytes(64);
+
+    @NotNull
+    private Duration fsyncInterval = Duration.seconds(1);
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+    private Duration compactionInterval = Duration.minutes(10);
+
+    @NotNull
+    private NotificationListCodec.Format listFormat = NotificationListCodec.Format.PROTOBUF;
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MINUTES)
+    private Duration tombstoneAge = NotificationListResolver.DEFAULT_TOMBSTONE_AGE;
+
+    @Min(0)
+    @Max(64)
+    private int shards = 0;
+
+    @Min(1)
+    private long hotKeyThreshold = 1000L;
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+    private Duration hotKeyWindow = Duration.minutes(1);
+
+    @Min(0)
+    @Max(SegmentedNotificationRepository.MAX_HEAD_SIZE)
+    private int headSize = 0;
+
+    @Min(1)
+    private int maxSegments = 20;
+
+    @Min(0)
+    private int readRepairSiblings = 0;
+
+    @Min(1)
+    private int maxReadRepairsPerSecond = 100;
+
+    @JsonProperty
+    public Type getType() {
+        return type;
+    }
+
+    @JsonProperty
+    public void setType(final Type type) {
+        this.type = type;
+    }
+
+    @JsonProperty
+    public String getPath() {
+        return path;
+    }
+
+    @JsonProperty
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    @JsonProperty
+    public Size getSegmentSize() {
+        return segmentSize;
+    }
+
+    @JsonProperty
+    public void setSegmentSize(final Size segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    @JsonProperty
+    public Duration getFsyncInterval() {
+        return fsyncInterval;
+    }
+
+    @JsonProperty
+    public void setFsyncInterval(final Duration interval) {
+        this.fsyncInterval = interval;
+    }
+
+    @JsonProperty
+    public Duration getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    @JsonProperty
+    public void setCompactionInterval(final Duration interval) {
+        this.compactionInterval = interval;
+    }
+
+    @JsonProperty
+    public NotificationListCodec.Format getListFormat() {
+        return listFormat;
+    }
+
+    @JsonProperty
+    public void setListFormat(final NotificationListCodec.Format format) {
+        this.listFormat = format;
+    }
+
+    @JsonProperty
+    public Duration getTombstoneAge() {
+        return tombstoneAge;
+    }
+
+    @JsonProperty
+    public void setTombstoneAge(final Duration tombstoneAge) {
+        this.tombstoneAge = tombstoneAge;
+    }
+
+    @JsonProperty
+    public int getShards() {
+        return shards;
+    }
+
+    @JsonProperty
+    public void setShards(final int shards) {
+        this.shards = shards;
+    }
+
+    @JsonProperty
+    public long getHotKeyThreshold() {
+        return hotKeyThreshold;
+    }
+
+    @JsonProperty
+    public void setHotKeyThreshold(final long threshold) {
+        this.hotKeyThreshold = threshold;
+    }
+
+    @JsonProperty
+    public Duration getHotKeyWindow() {
+        return hotKeyWindow;
+    }
+
+    @JsonProperty
+    public void setHotKeyWindow(final Duration window) {
+        this.hotKeyWindow = window;
+    }
+
+    @JsonProperty
+    public int getHeadSize() {
+        return headSize;
+    }
+
+    @JsonProperty
+    public void setHeadSize(final int headSize) {
+        this.headSize = headSize;
+    }
+
+    @JsonProperty
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    @JsonProperty
+    public void setMaxSegments(final int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+
+    @JsonProperty
+    public int getReadRepairSiblings() {
+        return readRepairSiblings;
+    }
+
+    @JsonProperty
+    public void setReadRepairSiblings(final int siblings) {
+        this.readRepairSiblings = siblings;
+    }
+
+    @JsonProperty
+    public int getMaxReadRepairsPerSecond() {
+        return maxReadRepairsPerSecond;
+    }
+
+    @JsonProperty
+    public void setMaxReadRepairsPerSecond(final int repairs) {
+        this.maxReadRepairsPerSecond = repairs;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import com.google.common.base.MoreObjects;
+import com.smoketurner.notification.api.Rule;
+
+/**
+ * A {@link Rule} with its optional settings resolved into plain fields so
+ * they don't need to be unwrapped for every notification.
+ */
+@Immutable
+public final class CompiledRule {
+
+    private final Rule rule;
+    private final int maxSize;
+    private final boolean expires;
+    private final long maxDuration;
+
+    @Nullable
+    private final String matchOn;
+
+    /**
+     * Constructor
+     *
+     * @param rule
+     *            Rule to compile
+     */
+    public CompiledRule(@Nonnull final Rule rule) {
+        this.rule = Objects.requireNonNull(rule);
+        this.maxSize = rule.getMaxSize().orElse(0);
+        this.matchOn = rule.getMatchOn().map(String::intern).orElse(null);
+        this.expires = rule.getMaxDuration().isPresent();
+        if (expires) {
+            this.maxDuration = rule.getMaxDuration().get().toMilliseconds();
+        } else {
+            this.maxDuration = 0;
+        }
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    public boolean isValid() {
+        return rule.isValid();
+    }
+
+    /**
+     * @return the "max-size" or zero if there is no maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return true if the rule has a "max-duration", otherwise false
+     */
+    public boolean expires() {
+        return expires;
+    }
+
+    /**
+     * @return the "max-duration" in milliseconds or zero if there is no
+     *         maximum duration
+     */
+    public long getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * @return the property to match on or null if not matching on a property
+     */
+    @Nullable
+    public String getMatchOn() {
+        return matchOn;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        final CompiledRule other = (CompiledRule) obj;
+        return Objects.equals(rule, other.rule);
+    }
+
+    @Override
+    public int hashCode() {
+        return rule.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("maxSize", maxSize)
+                .add("maxDuration", maxDuration).add("matchOn", matchOn)
+                .toString();
+    }
+}
@@ -16,24 +16,70 @@
 package com.smoketurner.notification.application.core;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.smoketurner.notification.application.exceptions.NotificationStoreException;
 import com.smoketurner.snowizard.core.IdWorker;
-import com.smoketurner.snowizard.exceptions.InvalidSystemClock;
 
+/**
+ * Generates Snowflake IDs without taking a lock. The timestamp and sequence
+ * bits of the last reserved ID are kept in a single {@link AtomicLong} which
+ * is advanced with a compare-and-set to reserve a contiguous block of IDs.
+ * Each thread hands out IDs from its own block until the block is used up or
+ * the thread has been idle for more than a millisecond since reserving it.
+ */
 public class IdGenerator {
 
     private static final Logger LOGGER = LoggerFactory
             .getLogger(IdGenerator.class);
-    private final AtomicLong nextId = new AtomicLong(0L);
-    private final IdWorker snowizard;
-    private final boolean enabled;
+
+    // Same layout as Snowizard: 41 bits of milliseconds since the epoch,
+    // 5 bits of datacenter ID, 5 bits of worker ID and 12 bits of sequence
+    private static final long TWEPOCH = 1288834974657L;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_ID_SHIFT = SEQUENCE_BITS;
+    private static final int DATACENTER_ID_SHIFT = WORKER_ID_SHIFT + 5;
+    private static final int TIMESTAMP_SHIFT = DATACENTER_ID_SHIFT + 5;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_ID = 31L;
+
+    // Largest block of IDs reserved for a single thread
+    private static final int MAX_BLOCK_SIZE = 64;
+
+    // How long after reserving a block a thread keeps handing out its IDs
+    private static final long MAX_BLOCK_AGE_MILLIS = 1L;
+
+    // How far the clock can move backwards before generating an ID fails
+    // rather than waiting for the clock to catch up
+    private static final long MAX_CLOCK_SKEW_MILLIS = 100L;
+
+    // (timestamp << SEQUENCE_BITS | sequence) of the last reserved ID
+    private final AtomicLong last = new AtomicLong(-1L);
+    private final ThreadLocal<Block> blocks = ThreadLocal
+            .withInitial(Block::new);
+    private final long node;
+    private final LongSupplier clock;
+
+    private final Meter idsMeter;
+    private final Meter blocksMeter;
+    private final Meter exhaustedMeter;
+    private final Meter clockSkewMeter;
 
     /**
-     * Constructor
+     * Constructor. IDs are always generated locally with the datacenter and
+     * worker IDs configured for Snowizard, so a worker ID must be configured
+     * even if Snowizard is disabled, or every instance would generate IDs
+     * for the same node.
      *
      * @param snowizard
      *            Snowizard instance
@@ -42,8 +88,62 @@ public class IdGenerator {
      */
     public IdGenerator(@Nonnull final IdWorker snowizard,
             final boolean enabled) {
-        this.snowizard = Objects.requireNonNull(snowizard);
-        this.enabled = enabled;
+        this(checkConfigured(snowizard, enabled).getDatacenterId(),
+                snowizard.getWorkerId());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param datacenterId
+     *            Datacenter ID (0-31)
+     * @param workerId
+     *            Worker ID (0-31)
+     */
+    public IdGenerator(final int datacenterId, final int workerId) {
+        this(datacenterId, workerId, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param datacenterId
+     *            Datacenter ID (0-31)
+     * @param workerId
+     *            Worker ID (0-31)
+     * @param clock
+     *            Current time in milliseconds
+     */
+    @VisibleForTesting
+    IdGenerator(final int datacenterId, final int workerId,
+            @Nonnull final LongSupplier clock) {
+        Preconditions.checkArgument(
+                datacenterId >= 0 && datacenterId <= MAX_ID,
+                "datacenterId must be between 0 and %s", MAX_ID);
+        Preconditions.checkArgument(workerId >= 0 && workerId <= MAX_ID,
+                "workerId must be between 0 and %s", MAX_ID);
+        this.node = ((long) datacenterId << DATACENTER_ID_SHIFT)
+                | ((long) workerId << WORKER_ID_SHIFT);
+        this.clock = Objects.requireNonNull(clock);
+
+        final MetricRegistry registry = SharedMetricRegistries
+                .getOrCreate("default");
+        this.idsMeter = registry
+                .meter(MetricRegistry.name(IdGenerator.class, "ids"));
+        this.blocksMeter = registry
+                .meter(MetricRegistry.name(IdGenerator.class, "blocks"));
+        this.exhaustedMeter = registry
+                .meter(MetricRegistry.name(IdGenerator.class, "exhausted"));
+        this.clockSkewMeter = registry
+                .meter(MetricRegistry.name(IdGenerator.class, "clock-skew"));
+    }
+
+    private static IdWorker checkConfigured(@Nonnull final IdWorker snowizard,
+            final boolean enabled) {
+        Objects.requireNonNull(snowizard);
+        Preconditions.checkArgument(enabled || snowizard.getWorkerId() > 0,
+                "workerId must be configured if snowizard is disabled");
+        return snowizard;
     }
 
     /**
@@ -54,14 +154,139 @@ public class IdGenerator {
      *             if unable to generate an ID
      */
     public long nextId() throws NotificationStoreException {
-        if (enabled) {
-            try {
-                return snowizard.nextId();
-            } catch (InvalidSystemClock e) {
-                LOGGER.error("Clock is moving backward to generate IDs", e);
-                throw new NotificationStoreException(e);
+        final Block block = blocks.get();
+
+        // keep handing out the rest of the block when the clock ticks over
+        // while it's in use, but don't let an idle thread return an older ID
+        // long after it was reserved
+        if (block.next >= block.end
+                || millis() - block.reserved > MAX_BLOCK_AGE_MILLIS) {
+            block.size = block.next >= block.end
+                    ? Math.min(block.size * 2, MAX_BLOCK_SIZE)
+                    : Math.max(block.size / 2, 1);
+            block.next = reserve(block.size);
+            block.end = block.next + block.size;
+            block.reserved = millis();
+        }
+        idsMeter.mark();
+        return toId(block.next++);
+    }
+
+    /**
+     * Reserve a block of notification IDs
+     *
+     * @param count
+     *            Number of IDs to generate
+     * @return the new notification IDs in ascending order
+     * @throws NotificationStoreException
+     *             if unable to generate the IDs
+     */
+    public long[] nextIds(final int count) throws NotificationStoreException {
+        Preconditions.checkArgument(count >= 0, "count cannot be negative");
+        final long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        final long first = reserve(count);
+        for (int i = 0; i < count; i++) {
+            ids[i] = toId(first + i);
+        }
+        idsMeter.mark(count);
+        return ids;
+    }
+
+    /**
+     * Reserve a contiguous range of timestamps and sequences. If the
+     * sequences for the current millisecond run out, the range continues
+     * into the following milliseconds and this waits until the clock has
+     * reached the last of them, so an ID is never ahead of the clock.
+     *
+     * @param count
+     *            Number of IDs to reserve
+     * @return the first reserved timestamp and sequence
+     * @throws NotificationStoreException
+     *             if the clock moved too far backwards
+     */
+    private long reserve(final int count) throws NotificationStoreException {
+        while (true) {
+            final long now = millis();
+            final long current = last.get();
+            final long skew = timestamp(current) - now;
+            if (skew > MAX_CLOCK_SKEW_MILLIS) {
+                LOGGER.error(
+                        "Clock is moving backward to generate IDs (skew: {}ms)",
+                        skew);
+                throw new NotificationStoreException(String.format(
+                        "Clock moved backwards by %dms", skew));
+            }
+
+            final long first = Math.max(current + 1, now << SEQUENCE_BITS);
+            final long lastReserved = first + count - 1;
+            if (last.compareAndSet(current, lastReserved)) {
+                blocksMeter.mark();
+                if (skew > 0) {
+                    clockSkewMeter.mark();
+                } else if (timestamp(lastReserved) > now) {
+                    exhaustedMeter.mark();
+                }
+                await(timestamp(lastReserved));
+                return first;
             }
         }
-        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Wait until the clock reaches the given timestamp. Parking the thread
+     * usually oversleeps by more than the wait for the next millisecond, so
+     * only waits longer than that park the thread.
+     *
+     * @param timestamp
+     *            Milliseconds since the epoch
+     */
+    private void await(final long timestamp) {
+        long now = millis();
+        while (now < timestamp) {
+            if (timestamp - now > 1) {
+                LockSupport.parkNanos(
+                        TimeUnit.MILLISECONDS.toNanos(timestamp - now - 1));
+            } else {
+                Thread.yield();
+            }
+            now = millis();
+        }
+    }
+
+    /**
+     * Return how far apart two IDs generated the given number of milliseconds
+     * apart are, ignoring the worker and sequence bits
+     *
+     * @param millis
+     *            Number of milliseconds
+     * @return the difference between the IDs, capped at the largest ID
+     */
+    public static long idSpan(final long millis) {
+        Preconditions.checkArgument(millis >= 0, "millis cannot be negative");
+        return Math.min(millis, Long.MAX_VALUE >> TIMESTAMP_SHIFT)
+                << TIMESTAMP_SHIFT;
+    }
+
+    private long toId(final long value) {
+        return (timestamp(value) << TIMESTAMP_SHIFT) | node
+                | (value & SEQUENCE_MASK);
+    }
+
+    private static long timestamp(final long value) {
+        return value >> SEQUENCE_BITS;
+    }
+
+    private long millis() {
+        return clock.getAsLong() - TWEPOCH;
+    }
+
+    private static final class Block {
+        private long next = 0L;
+        private long end = 0L;
+        private int size = 1;
+        private long reserved = 0L;
     }
 }
@@ -0,0 +1,292 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import javax.annotation.Nonnull;
+import com.google.common.base.Preconditions;
+
+/**
+ * A set of primitive long values, used for notification IDs so that they
+ * don't need to be boxed to be stored or looked up. Values are kept in an
+ * open-addressed hash table using linear probing.
+ */
+public final class LongSet {
+
+    private static final int MIN_CAPACITY = 8;
+    private static final int MAX_EXPECTED_SIZE = 1 << 29;
+
+    // zero marks an empty slot, so whether the set contains zero is tracked
+    // separately
+    private long[] table;
+    private int size;
+    private boolean containsZero;
+
+    /**
+     * Constructor
+     */
+    public LongSet() {
+        this(0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize
+     *            Number of values the set is expected to hold
+     */
+    public LongSet(final int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0,
+                "expectedSize cannot be negative");
+        Preconditions.checkArgument(expectedSize <= MAX_EXPECTED_SIZE,
+                "expectedSize is too large");
+        this.table = new long[tableSize(expectedSize)];
+    }
+
+    /**
+     * Create a new set containing the given values
+     *
+     * @param values
+     *            Values to add
+     * @return a new set
+     */
+    public static LongSet of(@Nonnull final long... values) {
+        final LongSet set = new LongSet(values.length);
+        for (long value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * Add a value to the set
+     *
+     * @param value
+     *            Value to add
+     * @return true if the value was not already in the set
+     */
+    public boolean add(final long value) {
+        if (value == 0L) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        final int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != 0L) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Add all of the values from another set
+     *
+     * @param other
+     *            Values to add
+     */
+    public void addAll(@Nonnull final LongSet other) {
+        if (other.containsZero) {
+            add(0L);
+        }
+        for (long value : other.table) {
+            if (value != 0L) {
+                add(value);
+            }
+        }
+    }
+
+    /**
+     * Check whether the set contains a value
+     *
+     * @param value
+     *            Value to look up
+     * @return true if the value is in the set
+     */
+    public boolean contains(final long value) {
+        if (value == 0L) {
+            return containsZero;
+        }
+        final int mask = table.length - 1;
+        int index = mix(value) & mask;
+        long current;
+        while ((current = table[index]) != 0L) {
+            if (current == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Remove all of the values matching a predicate
+     *
+     * @param filter
+     *            Predicate which returns true for the values to remove
+     * @return the number of values removed
+     */
+    public int removeIf(@Nonnull final LongPredicate filter) {
+        final int before = size;
+        if (containsZero && filter.test(0L)) {
+            containsZero = false;
+            size--;
+        }
+
+        // removing values from a linear probing table leaves holes in the
+        // probe sequences, so the remaining values are reinserted instead
+        final long[] old = table;
+        table = new long[old.length];
+        size = containsZero ? 1 : 0;
+        for (long value : old) {
+            if (value != 0L && !filter.test(value)) {
+                add(value);
+            }
+        }
+        return before - size;
+    }
+
+    /**
+     * Remove all of the values from the set
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * Perform an action on each value in the set, in no particular order
+     *
+     * @param action
+     *            Action to perform
+     */
+    public void forEach(@Nonnull final LongConsumer action) {
+        if (containsZero) {
+            action.accept(0L);
+        }
+        for (long value : table) {
+            if (value != 0L) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return the values in the set, in no particular order
+     */
+    public long[] toArray() {
+        final long[] values = new long[size];
+        int i = 0;
+        if (containsZero) {
+            values[i++] = 0L;
+        }
+        for (long value : table) {
+            if (value != 0L) {
+                values[i++] = value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return the values in the set in ascending order
+     */
+    public long[] toSortedArray() {
+        final long[] values = toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] old = table;
+        table = new long[capacity];
+        size = containsZero ? 1 : 0;
+        for (long value : old) {
+            if (value != 0L) {
+                add(value);
+            }
+        }
+    }
+
+    private static int tableSize(final int expectedSize) {
+        // keep the table at most half full
+        return Integer.highestOneBit(
+                Math.max(MIN_CAPACITY, expectedSize * 2) - 1) << 1;
+    }
+
+    private static int mix(final long value) {
+        final long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        final LongSet other = (LongSet) obj;
+        if (size != other.size || containsZero != other.containsZero) {
+            return false;
+        }
+        for (long value : table) {
+            if (value != 0L && !other.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // matches Set<Long>.hashCode()
+        int hash = 0;
+        for (long value : table) {
+            hash += Long.hashCode(value);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toSortedArray());
+    }
+}
@@ -15,36 +15,33 @@
  */
 package com.smoketurner.notification.application.core;
 
-import java.util.Collections;
-import java.util.Set;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
-import com.google.common.collect.ImmutableSet;
 import io.dropwizard.jersey.params.AbstractParam;
 
-public class LongSetParam extends AbstractParam<Set<Long>> {
+public class LongSetParam extends AbstractParam<LongSet> {
 
     public LongSetParam(String input) {
         super(input);
     }
 
     @Override
-    protected Set<Long> parse(final String input) throws Exception {
+    protected LongSet parse(final String input) throws Exception {
         if (Strings.isNullOrEmpty(input)) {
-            return Collections.emptySet();
+            return new LongSet();
         }
 
         final Iterable<String> splitter = Splitter.on(',').omitEmptyStrings()
                 .trimResults().split(input);
 
-        final ImmutableSet.Builder<Long> builder = ImmutableSet.builder();
+        final LongSet ids = new LongSet();
         for (String value : splitter) {
             try {
-                builder.add(Long.parseLong(value));
+                ids.add(Long.parseLong(value));
             } catch (NumberFormatException ignore) {
                 // ignore invalid numbers
             }
         }
-        return builder.build();
+        return ids;
     }
 }
@@ -31,7 +31,7 @@ public class Matcher implements Predicate<Notification>, Comparable<Matcher> {
 
     private final TreeSet<Notification> notifications = new TreeSet<>();
     private final Notification notification;
-    private final Rule rule;
+    private final CompiledRule rule;
     private final int maxSize;
     private final long firstMillis;
     private final long maxDuration;
@@ -52,18 +52,31 @@ public class Matcher implements Predicate<Notification>, Comparable<Matcher> {
      */
     public Matcher(@Nonnull final Rule rule,
             @Nonnull final Notification notification) {
+        this(new CompiledRule(Objects.requireNonNull(rule)), notification);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param rule
+     *            Compiled rule for this match
+     * @param notification
+     *            First notification to match the rule
+     */
+    public Matcher(@Nonnull final CompiledRule rule,
+            @Nonnull final Notification notification) {
         this.rule = Objects.requireNonNull(rule);
         this.notification = Objects.requireNonNull(notification);
 
-        this.maxSize = rule.getMaxSize().orElse(0);
-        this.matchOn = rule.getMatchOn().orElse(null);
+        this.maxSize = rule.getMaxSize();
+        this.matchOn = rule.getMatchOn();
         if (matchOn != null) {
             this.matchValue = notification.getProperties().get(matchOn);
         } else {
             this.matchValue = null;
         }
-        if (rule.getMaxDuration().isPresent()) {
-            this.maxDuration = rule.getMaxDuration().get().toMilliseconds();
+        if (rule.expires()) {
+            this.maxDuration = rule.getMaxDuration();
             this.firstMillis = notification.getCreatedAt().getMillis();
         } else {
             this.maxDuration = 0;
@@ -80,7 +93,7 @@ public class Matcher implements Predicate<Notification>, Comparable<Matcher> {
      * @return true if the notification matches, otherwise false
      */
     public boolean checkMatch(@Nonnull final Notification notification) {
-        if (!rule.getMatchOn().isPresent()) {
+        if (matchOn == null) {
             return true;
         }
 
@@ -93,6 +106,66 @@ public class Matcher implements Predicate<Notification>, Comparable<Matcher> {
                 && Objects.equals(properties.get(matchOn), matchValue);
     }
 
+    /**
+     * Check whether this matcher could ever accept another notification. A
+     * matcher whose first notification is missing the "match-on" property, or
+     * whose "max-duration" can never be satisfied, will never match anything.
+     *
+     * @return true if the matcher may accept another notification, otherwise
+     *         false
+     */
+    public boolean isAccepting() {
+        if (isFull()) {
+            return false;
+        }
+        if (matchOn != null && matchValue == null) {
+            return false;
+        }
+        if (expires() && (maxDuration <= 0 || firstMillis <= 0)) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Check whether this matcher has a "max-duration" or not.
+     *
+     * @return true if the matcher has a maximum duration, otherwise false
+     */
+    public boolean expires() {
+        return rule.expires();
+    }
+
+    /**
+     * Return the creation time (in milliseconds) before which notifications
+     * fall outside of the "max-duration" for this matcher.
+     *
+     * @return the earliest creation time that can still be matched
+     */
+    public long getDeadline() {
+        return firstMillis - maxDuration;
+    }
+
+    /**
+     * Return the category of the first notification in this matcher.
+     *
+     * @return the category
+     */
+    public String getCategory() {
+        return notification.getCategory();
+    }
+
+    /**
+     * Return the value of the "match-on" property of the first notification
+     * in this matcher.
+     *
+     * @return the value to match on, or null if not matching on a property
+     */
+    @Nullable
+    public String getMatchValue() {
+        return matchValue;
+    }
+
     /**
      * Check whether this matcher has reached "max-size" or not.
      *
@@ -125,7 +198,7 @@ public class Matcher implements Predicate<Notification>, Comparable<Matcher> {
      *         otherwise false.
      */
     public boolean checkDuration(@Nonnull final Notification notification) {
-        if (!rule.getMaxDuration().isPresent()) {
+        if (!rule.expires()) {
             return true;
         }
 
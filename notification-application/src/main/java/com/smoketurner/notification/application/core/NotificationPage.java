@@ -0,0 +1,338 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.smoketurner.notification.api.Notification;
+
+/**
+ * A page of a user's rolled up notifications, with their unseen state set.
+ * The page starts at the oldest notification which is not older than the
+ * requested ID (or the newest notification if every notification is older),
+ * or just after it if the range is exclusive.
+ */
+@Immutable
+public final class NotificationPage {
+
+    private final ImmutableList<Notification> notifications;
+    private final boolean more;
+
+    /**
+     * Constructor
+     *
+     * @param notifications
+     *            Notifications on the page, ordered newest first
+     * @param more
+     *            Whether there are older notifications after the page
+     */
+    public NotificationPage(
+            @Nonnull final ImmutableList<Notification> notifications,
+            final boolean more) {
+        this.notifications = Objects.requireNonNull(notifications);
+        this.more = more;
+    }
+
+    /**
+     * Return a page of notifications which have already been rolled up
+     *
+     * @param notifications
+     *            Rolled up notifications
+     * @param fromId
+     *            ID to start the page from, or absent to start from the
+     *            newest notification
+     * @param fromInclusive
+     *            Whether the page includes the notification with the
+     *            starting ID
+     * @param limit
+     *            Maximum number of notifications on the page
+     * @return the page of notifications
+     */
+    public static NotificationPage of(
+            @Nonnull final UserNotifications notifications,
+            @Nonnull final Optional<Long> fromId, final boolean fromInclusive,
+            final int limit) {
+        Objects.requireNonNull(notifications);
+        Objects.requireNonNull(fromId);
+        Preconditions.checkArgument(limit >= 0, "limit cannot be negative");
+
+        final NotificationTimeline timeline = notifications.getTimeline();
+
+        int from = 0;
+        if (fromId.isPresent()) {
+            // start from the newest notification if every notification is
+            // older than the requested ID
+            from = Math.max(timeline.seek(fromId.get()), 0);
+            if (!fromInclusive) {
+                from++;
+            }
+        }
+
+        final ImmutableList<Notification> page = timeline.slice(from,
+                from + limit);
+        return new NotificationPage(notifications.withUnseenState(page),
+                from + page.size() < timeline.size());
+    }
+
+    /**
+     * Return a page of notifications as they are rolled up. Rolled up
+     * notifications are only requested until the page is full and it is
+     * known whether there are more, so the rest of the list does not need to
+     * be rolled up. The page is the same as {@link #of} would return for all
+     * of the rolled up notifications.
+     *
+     * @param unseen
+     *            Rolled up unseen notifications, newest first
+     * @param seen
+     *            Rolled up seen notifications, newest first, which are all
+     *            older than the unseen notifications
+     * @param tracked
+     *            Whether to set the unseen state on the notifications
+     * @param fromId
+     *            ID to start the page from, or absent to start from the
+     *            newest notification
+     * @param fromInclusive
+     *            Whether the page includes the notification with the
+     *            starting ID
+     * @param limit
+     *            Maximum number of notifications on the page
+     * @return the page of notifications
+     */
+    public static NotificationPage collect(
+            @Nonnull final Iterator<Notification> unseen,
+            @Nonnull final Iterator<Notification> seen, final boolean tracked,
+            @Nonnull final Optional<Long> fromId, final boolean fromInclusive,
+            final int limit) {
+        return collect(unseen, seen, tracked, fromId, fromInclusive, limit,
+                false);
+    }
+
+    /**
+     * Return a page of notifications as they are rolled up, from a list
+     * which may not hold all of the user's older notifications. If the
+     * rolled up notifications run out before the page is full, the page
+     * still reports there are more, and the oldest rolled up notification is
+     * left for the next page, as it may roll up with the notifications which
+     * were not fetched. An empty page which reports there are more means
+     * the older notifications are needed to fill the page; see
+     * {@link #isIncomplete()}.
+     *
+     * @param unseen
+     *            Rolled up unseen notifications, newest first
+     * @param seen
+     *            Rolled up seen notifications, newest first, which are all
+     *            older than the unseen notifications
+     * @param tracked
+     *            Whether to set the unseen state on the notifications
+     * @param fromId
+     *            ID to start the page from, or absent to start from the
+     *            newest notification
+     * @param fromInclusive
+     *            Whether the page includes the notification with the
+     *            starting ID
+     * @param limit
+     *            Maximum number of notifications on the page
+     * @param partial
+     *            Whether older notifications than the ones rolled up exist
+     * @return the page of notifications
+     */
+    public static NotificationPage collect(
+            @Nonnull final Iterator<Notification> unseen,
+            @Nonnull final Iterator<Notification> seen, final boolean tracked,
+            @Nonnull final Optional<Long> fromId, final boolean fromInclusive,
+            final int limit, final boolean partial) {
+        Objects.requireNonNull(unseen);
+        Objects.requireNonNull(seen);
+        Objects.requireNonNull(fromId);
+        Preconditions.checkArgument(limit >= 0, "limit cannot be negative");
+
+        final Collector page = new Collector(tracked, limit, partial);
+
+        // position of the first notification on the page, or -1 until the
+        // first notification older than the requested ID has been found
+        int from = fromId.isPresent() ? -1 : 0;
+        int index = 0;
+        Notification previous = null;
+        boolean previousUnseen = false;
+
+        while (unseen.hasNext() || seen.hasNext()) {
+            final boolean isUnseen = unseen.hasNext();
+            final Notification notification = isUnseen ? unseen.next()
+                    : seen.next();
+
+            if (from < 0) {
+                if (notification.getId(0L) >= fromId.get()) {
+                    previous = notification;
+                    previousUnseen = isUnseen;
+                    index++;
+                    continue;
+                }
+
+                from = start(index, fromInclusive);
+                if (from < index && !page.offer(previous, previousUnseen)) {
+                    return page.build();
+                }
+            }
+
+            if (index >= from && !page.offer(notification, isUnseen)) {
+                return page.build();
+            }
+            index++;
+        }
+
+        // every notification is at least as new as the requested ID
+        if (from < 0 && previous != null
+                && start(index, fromInclusive) < index) {
+            page.offer(previous, previousUnseen);
+        }
+        return page.build();
+    }
+
+    /**
+     * Return the position of the first notification on a page
+     *
+     * @param older
+     *            Position of the newest notification which is older than
+     *            the requested ID
+     * @param fromInclusive
+     *            Whether the page includes the notification with the
+     *            starting ID
+     * @return the position of the first notification on the page
+     */
+    private static int start(final int older, final boolean fromInclusive) {
+        final int from = Math.max(older - 1, 0);
+        return fromInclusive ? from : from + 1;
+    }
+
+    @JsonValue
+    public ImmutableList<Notification> getNotifications() {
+        return notifications;
+    }
+
+    public boolean isEmpty() {
+        return notifications.isEmpty();
+    }
+
+    /**
+     * @return true if there are older notifications after this page
+     */
+    public boolean hasMore() {
+        return more;
+    }
+
+    /**
+     * @return true if the page could not be filled from the notifications it
+     *         was collected from, as every one of them may still roll up
+     *         with older notifications
+     */
+    public boolean isIncomplete() {
+        return notifications.isEmpty() && more;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        final NotificationPage other = (NotificationPage) obj;
+        return more == other.more
+                && Objects.equals(notifications, other.notifications);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(notifications, more);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("notifications", notifications).add("more", more)
+                .toString();
+    }
+
+    /**
+     * Collects notifications onto a page until one more notification is
+     * offered than fits on the page.
+     */
+    private static final class Collector {
+        private final ImmutableList.Builder<Notification> builder;
+        private final boolean tracked;
+        private final int limit;
+        private final boolean partial;
+        private int size = 0;
+        private boolean more = false;
+
+        Collector(final boolean tracked, final int limit,
+                final boolean partial) {
+            this.builder = ImmutableList.builder();
+            this.tracked = tracked;
+            this.limit = limit;
+            this.partial = partial;
+        }
+
+        /**
+         * Add a notification to the page
+         *
+         * @param notification
+         *            Notification to add
+         * @param unseen
+         *            Whether the notification is unseen
+         * @return false if the page was already full, otherwise true
+         */
+        boolean offer(@Nonnull final Notification notification,
+                final boolean unseen) {
+            if (size >= limit) {
+                more = true;
+                return false;
+            }
+            builder.add(tracked
+                    ? UserNotifications.setUnseenState(notification, unseen)
+                    : notification);
+            size++;
+            return true;
+        }
+
+        NotificationPage build() {
+            final ImmutableList<Notification> notifications = builder.build();
+            if (more || !partial) {
+                return new NotificationPage(notifications, more);
+            }
+
+            // the notifications ran out before the page was full, so the
+            // oldest one may still be rolling up with older notifications
+            // and is left for the next page. If it's the only one, the page
+            // is empty, and the older notifications have to be fetched
+            // before the page can move forward.
+            if (notifications.isEmpty()) {
+                return new NotificationPage(notifications, true);
+            }
+            return new NotificationPage(
+                    notifications.subList(0, notifications.size() - 1), true);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.smoketurner.notification.api.Notification;
+
+/**
+ * An index over a user's rolled up notifications, ordered newest first, which
+ * can find a notification by its ID (or the ID of any notification rolled up
+ * into it) with a binary search rather than a scan.
+ */
+@Immutable
+public final class NotificationTimeline {
+
+    private static final long[] EMPTY_IDS = new long[0];
+    private static final int[] EMPTY_PARENTS = new int[0];
+
+    private final ImmutableList<Notification> notifications;
+
+    // notification IDs in descending order, matching the notifications
+    private final long[] ids;
+
+    // IDs of the rolled up notifications in ascending order, along with the
+    // position of the notification they were rolled up into
+    private final long[] childIds;
+    private final int[] parents;
+
+    /**
+     * Constructor
+     *
+     * @param notifications
+     *            Rolled up notifications, ordered newest first
+     */
+    public NotificationTimeline(
+            @Nonnull final ImmutableSortedSet<Notification> notifications) {
+        // asList() on an ImmutableSortedSet is a view, not a copy
+        this.notifications = Objects.requireNonNull(notifications).asList();
+
+        final int size = this.notifications.size();
+        if (size == 0) {
+            this.ids = EMPTY_IDS;
+            this.childIds = EMPTY_IDS;
+            this.parents = EMPTY_PARENTS;
+            return;
+        }
+
+        this.ids = new long[size];
+        int childCount = 0;
+        for (int i = 0; i < size; i++) {
+            final Notification notification = this.notifications.get(i);
+            ids[i] = notification.getId(0L);
+            childCount += countChildren(notification.getNotifications());
+        }
+
+        if (childCount == 0) {
+            this.childIds = EMPTY_IDS;
+            this.parents = EMPTY_PARENTS;
+            return;
+        }
+
+        final long[] unsorted = new long[childCount];
+        final int[] unsortedParents = new int[childCount];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            position = addChildren(this.notifications.get(i).getNotifications(),
+                    i, unsorted, unsortedParents, position);
+        }
+
+        this.childIds = Arrays.copyOf(unsorted, position);
+        Arrays.sort(childIds);
+        this.parents = new int[position];
+        for (int i = 0; i < position; i++) {
+            parents[Arrays.binarySearch(childIds,
+                    unsorted[i])] = unsortedParents[i];
+        }
+    }
+
+    private static int countChildren(
+            @Nonnull final Collection<Notification> children) {
+        int count = children.size();
+        for (Notification child : children) {
+            count += countChildren(child.getNotifications());
+        }
+        return count;
+    }
+
+    private static int addChildren(
+            @Nonnull final Collection<Notification> children, final int parent,
+            final long[] ids, final int[] parents, int position) {
+        for (Notification child : children) {
+            final Optional<Long> id = child.getId();
+            if (id.isPresent()) {
+                ids[position] = id.get();
+                parents[position] = parent;
+                position++;
+            }
+            position = addChildren(child.getNotifications(), parent, ids,
+                    parents, position);
+        }
+        return position;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * Return the position of the notification with the given ID, or of the
+     * notification it was rolled up into.
+     *
+     * @param id
+     *            Notification ID to find
+     * @return the position of the notification or -1 if not found
+     */
+    public int indexOf(final long id) {
+        final int index = seek(id);
+        if (index >= 0 && ids[index] == id) {
+            return index;
+        }
+        final int child = Arrays.binarySearch(childIds, id);
+        if (child >= 0) {
+            return parents[child];
+        }
+        return -1;
+    }
+
+    /**
+     * Return the notification with the given ID, or the notification it was
+     * rolled up into.
+     *
+     * @param id
+     *            Notification ID to find
+     * @return the notification, if found
+     */
+    public Optional<Notification> find(final long id) {
+        final int index = indexOf(id);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(notifications.get(index));
+    }
+
+    /**
+     * Return the position of the notification with the given ID or, if there
+     * isn't one, of the next newer notification. This matches
+     * {@link java.util.NavigableSet#floor(Object)} on the notifications.
+     *
+     * @param id
+     *            Notification ID to seek to
+     * @return the position or -1 if every notification is older than the ID
+     */
+    public int seek(final long id) {
+        // binary search for the last ID which is greater than or equal to the
+        // given ID, as the IDs are in descending order
+        int low = 0;
+        int high = ids.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (ids[mid] >= id) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Return a view of the notifications between two positions. The
+     * positions are clamped to the bounds of the timeline.
+     *
+     * @param fromIndex
+     *            Position of the first notification (inclusive)
+     * @param toIndex
+     *            Position of the last notification (exclusive)
+     * @return the notifications between the two positions
+     */
+    public ImmutableList<Notification> slice(final int fromIndex,
+            final int toIndex) {
+        final int from = Math.min(Math.max(fromIndex, 0), ids.length);
+        final int to = Math.min(Math.max(toIndex, from), ids.length);
+        return notifications.subList(from, to);
+    }
+
+    /**
+     * @return the notifications, newest first
+     */
+    public ImmutableList<Notification> asList() {
+        return notifications;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("size", ids.length)
+                .add("rolledUp", childIds.length).toString();
+    }
+}
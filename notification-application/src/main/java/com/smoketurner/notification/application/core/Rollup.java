@@ -15,19 +15,44 @@
  */
 package com.smoketurner.notification.application.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import com.smoketurner.notification.api.Notification;
 import com.smoketurner.notification.api.Rule;
 
 public class Rollup {
 
-    private final Map<String, Rule> rules;
+    private final RulePlan plan;
     private final TreeSet<Matcher> matchers = new TreeSet<>();
 
+    // Open matchers which may still accept notifications, indexed by category
+    // and then by the value of their "match-on" property (null if the rule
+    // doesn't match on a property).
+    private final Map<String, Map<String, TreeSet<Matcher>>> index = new HashMap<>();
+
+    // Indexed matchers with a "max-duration", latest deadline first
+    private final PriorityQueue<Matcher> deadlines = new PriorityQueue<>(
+            Comparator.comparingLong(Matcher::getDeadline).reversed());
+
+    // Matchers removed from the index because they are past their deadline
+    private final List<Matcher> expired = new ArrayList<>();
+    private long lastMillis = Long.MAX_VALUE;
+
     /**
      * Constructor
      *
@@ -35,7 +60,17 @@ public class Rollup {
      *            Map of rules
      */
     public Rollup(@Nonnull final Map<String, Rule> rules) {
-        this.rules = Objects.requireNonNull(rules);
+        this(new RulePlan(Objects.requireNonNull(rules)));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param plan
+     *            Compiled rules
+     */
+    public Rollup(@Nonnull final RulePlan plan) {
+        this.plan = Objects.requireNonNull(plan);
     }
 
     /**
@@ -50,47 +85,24 @@ public class Rollup {
             @Nonnull final Stream<Notification> notifications) {
         Objects.requireNonNull(notifications);
 
-        if (rules.isEmpty()) {
+        if (plan.getRules().isEmpty()) {
             return notifications;
         }
 
         final TreeSet<Notification> rollups = new TreeSet<>();
 
         notifications.forEachOrdered(notification -> {
-            final Rule rule = rules.get(notification.getCategory());
+            final CompiledRule rule = plan.get(notification.getCategory());
 
             // If the notification category doesn't match any rule categories,
             // add the notification as-is to the list of rollups.
-            if (rule == null || !rule.isValid()) {
+            if (rule == null) {
                 rollups.add(notification);
-            } else if (matchers.isEmpty()) {
-                // If we don't have any matchers yet, add the first one
-                matchers.add(new Matcher(rule, notification));
-            } else {
-                // Loop through the existing matchers to see if this
-                // notification falls into any previous rollups
-                boolean matched = false;
-                for (final Matcher matcher : matchers) {
-                    if (matcher.test(notification)) {
-                        matched = true;
-
-                        // if the matcher is now full, add it to the rollups and
-                        // remove it from the available matchers which still
-                        // have empty space.
-                        if (matcher.isFull()) {
-                            matchers.remove(matcher);
-                            rollups.add(matcher.getNotification());
-                        }
-                        break;
-                    }
-                }
-
-                // If the notification didn't match any existing rollups, add it
-                // as a new matcher
-                if (!matched) {
-                    matchers.add(new Matcher(rule, notification));
-                }
+                return;
             }
+
+            match(rule, notification,
+                    matcher -> rollups.add(matcher.getNotification()));
         });
 
         // Pull out the rolled up notifications out of the matchers
@@ -100,4 +112,255 @@ public class Rollup {
 
         return rollups.stream();
     }
+
+    /**
+     * Roll up the notifications incrementally. Each rolled up notification is
+     * returned as soon as no older notification can be added to it, so only
+     * as much of the list is rolled up as the caller consumes. The
+     * notifications are returned in the same order as {@link #rollup(Stream)}
+     * and the rollups are the same.
+     *
+     * @param notifications
+     *            Notifications to roll up, newest first
+     * @return an iterator over the rolled up notifications
+     */
+    public Iterator<Notification> rollupIncrementally(
+            @Nonnull final Collection<Notification> notifications) {
+        Objects.requireNonNull(notifications);
+
+        if (plan.getRules().isEmpty()) {
+            return Iterators.unmodifiableIterator(notifications.iterator());
+        }
+        return new IncrementalRollup(notifications);
+    }
+
+    /**
+     * Add a notification to the first open matcher which accepts it, or open
+     * a new matcher for it.
+     *
+     * @param rule
+     *            Rule for the notification category
+     * @param notification
+     *            Notification to match
+     * @param full
+     *            Called with a matcher once it is full
+     * @return the new matcher, or null if an open matcher accepted the
+     *         notification
+     */
+    @Nullable
+    private Matcher match(@Nonnull final CompiledRule rule,
+            @Nonnull final Notification notification,
+            @Nonnull final Consumer<Matcher> full) {
+
+        expire(notification.getCreatedAt().getMillis());
+
+        // Only the matchers with the same category and "match-on" value
+        // can accept this notification, so loop through those to see if
+        // this notification falls into any previous rollups
+        final TreeSet<Matcher> candidates = getCandidates(rule, notification);
+        if (candidates != null) {
+            for (final Matcher matcher : candidates) {
+                if (matcher.test(notification)) {
+                    // if the matcher is now full, remove it from the
+                    // available matchers which still have empty space.
+                    if (matcher.isFull()) {
+                        candidates.remove(matcher);
+                        matchers.remove(matcher);
+                        full.accept(matcher);
+                    }
+                    return null;
+                }
+            }
+        }
+
+        // If the notification didn't match any existing rollups, add it
+        // as a new matcher
+        final Matcher matcher = new Matcher(rule, notification);
+        open(matcher);
+        return matcher;
+    }
+
+    /**
+     * Return the open matchers which could accept the given notification
+     *
+     * @param rule
+     *            Rule for the notification category
+     * @param notification
+     *            Notification to match
+     * @return the candidate matchers, or null if there are none
+     */
+    @Nullable
+    private TreeSet<Matcher> getCandidates(@Nonnull final CompiledRule rule,
+            @Nonnull final Notification notification) {
+        if (!notification.getId().isPresent()) {
+            return null;
+        }
+
+        final Map<String, TreeSet<Matcher>> values = index
+                .get(notification.getCategory());
+        if (values == null) {
+            return null;
+        }
+
+        if (rule.getMatchOn() == null) {
+            return values.get(null);
+        }
+
+        final String value = notification.getProperties()
+                .get(rule.getMatchOn());
+        if (value == null) {
+            return null;
+        }
+        return values.get(value);
+    }
+
+    /**
+     * Add a new matcher and index it if it can accept further notifications
+     *
+     * @param matcher
+     *            Matcher to add
+     */
+    private void open(@Nonnull final Matcher matcher) {
+        if (!matchers.add(matcher) || !matcher.isAccepting()) {
+            return;
+        }
+        index(matcher);
+    }
+
+    private void index(@Nonnull final Matcher matcher) {
+        index.computeIfAbsent(matcher.getCategory(), key -> new HashMap<>())
+                .computeIfAbsent(matcher.getMatchValue(),
+                        key -> new TreeSet<>())
+                .add(matcher);
+        if (matcher.expires()) {
+            deadlines.add(matcher);
+        }
+    }
+
+    /**
+     * Remove any matchers from the index which can no longer accept a
+     * notification created at the given time. Notifications are expected to
+     * arrive newest first, so an expired matcher stays expired. If an older
+     * notification is followed by a newer one, the expired matchers are
+     * indexed again so the result is the same as checking every matcher.
+     *
+     * @param millis
+     *            Creation time of the next notification
+     */
+    private void expire(final long millis) {
+        if (millis > lastMillis && !expired.isEmpty()) {
+            expired.forEach(this::index);
+            expired.clear();
+        }
+        lastMillis = millis;
+
+        while (!deadlines.isEmpty() && deadlines.peek().getDeadline() > millis) {
+            final Matcher matcher = deadlines.poll();
+            final Map<String, TreeSet<Matcher>> values = index
+                    .get(matcher.getCategory());
+
+            // full matchers have already been removed from the index
+            if (values != null && values.containsKey(matcher.getMatchValue())
+                    && values.get(matcher.getMatchValue()).remove(matcher)) {
+                expired.add(matcher);
+            }
+        }
+    }
+
+    /**
+     * Rolls up the notifications one at a time as the rolled up notifications
+     * are requested. Notifications are added newest first, so a rollup which
+     * is opened later is always older than every rollup before it and the
+     * newest pending rollup can be returned once it is complete.
+     */
+    private final class IncrementalRollup
+            extends AbstractIterator<Notification> {
+
+        private final Iterator<Notification> notifications;
+
+        // newest creation time of each notification and the notifications
+        // after it, used to tell when a rollup with a "max-duration" can no
+        // longer accept any of the remaining notifications
+        private final long[] newestMillis;
+        private int position = 0;
+
+        // Rollups which have not been returned yet, newest first. The matcher
+        // is null for a notification which doesn't match any rule.
+        private final TreeMap<Notification, Matcher> pending = new TreeMap<>();
+
+        IncrementalRollup(
+                @Nonnull final Collection<Notification> notifications) {
+            this.notifications = notifications.iterator();
+            this.newestMillis = new long[notifications.size() + 1];
+
+            int i = 0;
+            for (final Notification notification : notifications) {
+                newestMillis[i++] = notification.getCreatedAt().getMillis();
+            }
+            newestMillis[i] = Long.MIN_VALUE;
+            while (--i >= 0) {
+                newestMillis[i] = Math.max(newestMillis[i],
+                        newestMillis[i + 1]);
+            }
+        }
+
+        @Override
+        protected Notification computeNext() {
+            while (true) {
+                final Map.Entry<Notification, Matcher> newest = pending
+                        .firstEntry();
+                if (newest != null) {
+                    final Matcher matcher = newest.getValue();
+                    if (matcher == null) {
+                        pending.pollFirstEntry();
+                        return newest.getKey();
+                    }
+                    if (isComplete(matcher)) {
+                        pending.pollFirstEntry();
+                        return matcher.getNotification();
+                    }
+                }
+
+                // every pending rollup is complete once all of the
+                // notifications have been added
+                if (!notifications.hasNext()) {
+                    return endOfData();
+                }
+                add(notifications.next());
+            }
+        }
+
+        private void add(@Nonnull final Notification notification) {
+            position++;
+
+            final CompiledRule rule = plan.get(notification.getCategory());
+            if (rule == null) {
+                pending.put(notification, null);
+                return;
+            }
+
+            // full matchers stay pending until they are the newest rollup
+            final Matcher matcher = match(rule, notification, full -> {
+            });
+            if (matcher != null) {
+                pending.put(notification, matcher);
+            }
+        }
+
+        /**
+         * Return whether a matcher can't accept any of the remaining
+         * notifications
+         *
+         * @param matcher
+         *            Matcher to check
+         * @return true if the matcher is complete, otherwise false
+         */
+        private boolean isComplete(@Nonnull final Matcher matcher) {
+            if (!notifications.hasNext() || !matcher.isAccepting()) {
+                return true;
+            }
+            return matcher.expires()
+                    && newestMillis[position] < matcher.getDeadline();
+        }
+    }
 }
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.smoketurner.notification.api.Rule;
+
+/**
+ * An immutable, precompiled set of rules. Only valid rules are compiled, so
+ * a plan with no rules means no notifications will ever be rolled up.
+ */
+@Immutable
+public final class RulePlan {
+
+    public static final RulePlan EMPTY = new RulePlan(ImmutableMap.of());
+
+    private final ImmutableMap<String, Rule> rules;
+    private final ImmutableMap<String, CompiledRule> compiled;
+    private final long version;
+
+    /**
+     * Constructor
+     *
+     * @param rules
+     *            Map of rules keyed by category
+     */
+    public RulePlan(@Nonnull final Map<String, Rule> rules) {
+        this.rules = ImmutableMap.copyOf(Objects.requireNonNull(rules));
+
+        final ImmutableMap.Builder<String, CompiledRule> builder = ImmutableMap
+                .builder();
+        for (final Map.Entry<String, Rule> entry : this.rules.entrySet()) {
+            if (entry.getValue().isValid()) {
+                builder.put(entry.getKey().intern(),
+                        new CompiledRule(entry.getValue()));
+            }
+        }
+        this.compiled = builder.build();
+        this.version = version(this.rules);
+    }
+
+    /**
+     * Compute a version for the rules which is the same on every node that
+     * loaded an equal set of rules, unlike {@link Object#hashCode()}.
+     *
+     * @param rules
+     *            Map of rules keyed by category
+     * @return the version of the rules
+     */
+    private static long version(@Nonnull final Map<String, Rule> rules) {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        ImmutableSortedMap.copyOf(rules).forEach((category, rule) -> hasher
+                .putString(category, StandardCharsets.UTF_8)
+                .putString(rule.toString(), StandardCharsets.UTF_8));
+        return hasher.hash().asLong();
+    }
+
+    /**
+     * Return the compiled rule for a category
+     *
+     * @param category
+     *            Notification category
+     * @return the compiled rule or null if no valid rule exists
+     */
+    @Nullable
+    public CompiledRule get(@Nullable final String category) {
+        if (category == null) {
+            return null;
+        }
+        return compiled.get(category);
+    }
+
+    /**
+     * Check whether any rules apply. If none do, a sorted set of notifications
+     * is already rolled up.
+     *
+     * @return true if no rules apply to any category, otherwise false
+     */
+    public boolean isEmpty() {
+        return compiled.isEmpty();
+    }
+
+    public int size() {
+        return compiled.size();
+    }
+
+    /**
+     * @return a version which changes whenever the rules change
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the original rules this plan was compiled from
+     */
+    public ImmutableMap<String, Rule> getRules() {
+        return rules;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        final RulePlan other = (RulePlan) obj;
+        return Objects.equals(rules, other.rules);
+    }
+
+    @Override
+    public int hashCode() {
+        return rules.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("rules", compiled)
+                .toString();
+    }
+}
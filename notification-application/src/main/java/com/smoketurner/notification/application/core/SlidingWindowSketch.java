@@ -0,0 +1,182 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.dropwizard.util.Duration;
+
+/**
+ * Estimates how often each key has been seen within a sliding window, using
+ * a fixed amount of memory however many keys there are. The window is split
+ * into buckets, each holding a count-min sketch, and the oldest bucket is
+ * cleared as the window moves on. An estimate is never lower than the true
+ * count, but can be higher when keys collide.
+ */
+public class SlidingWindowSketch {
+
+    private static final int DEPTH = 4;
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int width;
+    private final int buckets;
+    private final long bucketMillis;
+    private final LongSupplier clock;
+
+    // buckets x DEPTH x width counters
+    private final AtomicLongArray counts;
+
+    // the bucket number (time / bucketMillis) each bucket is counting for
+    private final AtomicLongArray epochs;
+
+    /**
+     * Constructor
+     *
+     * @param width
+     *            Number of counters in each row of the sketch
+     * @param window
+     *            Length of the sliding window
+     * @param buckets
+     *            Number of buckets the window is split into
+     */
+    public SlidingWindowSketch(final int width,
+            @Nonnull final Duration window, final int buckets) {
+        this(width, window, buckets, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param width
+     *            Number of counters in each row of the sketch
+     * @param window
+     *            Length of the sliding window
+     * @param buckets
+     *            Number of buckets the window is split into
+     * @param clock
+     *            Current time in milliseconds
+     */
+    @VisibleForTesting
+    SlidingWindowSketch(final int width, @Nonnull final Duration window,
+            final int buckets, @Nonnull final LongSupplier clock) {
+        Preconditions.checkArgument(width > 0,
+                "width must be greater than zero");
+        Preconditions.checkArgument(buckets > 0,
+                "buckets must be greater than zero");
+        Preconditions.checkArgument(window.toMilliseconds() >= buckets,
+                "window must be at least %s milliseconds", buckets);
+
+        this.width = width;
+        this.buckets = buckets;
+        this.bucketMillis = window.toMilliseconds() / buckets;
+        this.clock = Objects.requireNonNull(clock);
+        this.counts = new AtomicLongArray(buckets * DEPTH * width);
+        this.epochs = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * Count a key being seen
+     *
+     * @param key
+     *            Key to count
+     * @param count
+     *            Number of times the key was seen
+     * @return the estimated number of times the key has been seen within the
+     *         window, including this time
+     */
+    public long add(@Nonnull final String key, final int count) {
+        final long epoch = clock.getAsLong() / bucketMillis;
+        final int bucket = rotate(epoch);
+        final HashCode hash = hash(key);
+
+        final int offset = bucket * DEPTH * width;
+        for (int row = 0; row < DEPTH; row++) {
+            counts.addAndGet(offset + row * width + index(hash, row), count);
+        }
+        return estimate(hash, epoch);
+    }
+
+    /**
+     * Estimate how many times a key has been seen within the window
+     *
+     * @param key
+     *            Key to look up
+     * @return the estimated number of times the key has been seen
+     */
+    public long estimate(@Nonnull final String key) {
+        return estimate(hash(key), clock.getAsLong() / bucketMillis);
+    }
+
+    private long estimate(final HashCode hash, final long epoch) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            final int index = index(hash, row);
+            long sum = 0L;
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                // skip buckets which haven't been cleared for this window yet
+                if (epoch - epochs.get(bucket) < buckets) {
+                    sum += counts.get((bucket * DEPTH + row) * width + index);
+                }
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * Make sure the bucket for the given epoch has been cleared of any counts
+     * from an earlier window.
+     *
+     * @param epoch
+     *            Current bucket number
+     * @return the index of the bucket
+     */
+    private int rotate(final long epoch) {
+        final int bucket = (int) (epoch % buckets);
+        if (epochs.get(bucket) != epoch) {
+            synchronized (this) {
+                if (epochs.get(bucket) != epoch) {
+                    final int offset = bucket * DEPTH * width;
+                    for (int i = 0; i < DEPTH * width; i++) {
+                        counts.set(offset + i, 0L);
+                    }
+                    epochs.set(bucket, epoch);
+                }
+            }
+        }
+        return bucket;
+    }
+
+    private static HashCode hash(final String key) {
+        return HASH.hashString(key, StandardCharsets.UTF_8);
+    }
+
+    private int index(final HashCode hash, final int row) {
+        // derive each row's hash from the two halves of a single 64-bit hash
+        final long bytes = hash.asLong();
+        final int h1 = (int) bytes;
+        final int h2 = (int) (bytes >>> 32);
+        return ((h1 + row * h2) & Integer.MAX_VALUE) % width;
+    }
+}
@@ -15,23 +15,63 @@
  */
 package com.smoketurner.notification.application.core;
 
-import java.util.Collections;
 import java.util.Objects;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
+import java.util.Optional;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Iterables;
 import com.smoketurner.notification.api.Notification;
 
+/**
+ * The rolled up notifications for a user. Notifications are kept as they were
+ * stored and the unseen state is only applied to the notifications that are
+ * actually returned, so a split doesn't need to copy every notification.
+ */
 @Immutable
 public final class UserNotifications {
 
-    private final Iterable<Notification> unseen;
-    private final Iterable<Notification> seen;
+    private final ImmutableSortedSet<Notification> notifications;
+    private final ImmutableSortedSet<Notification> unseen;
+    private final ImmutableSortedSet<Notification> seen;
+    private final NotificationTimeline timeline;
+    private final boolean tracked;
+
+    /**
+     * Constructor
+     *
+     * @param notifications
+     *            Notifications, ordered newest first
+     * @param unseenCount
+     *            Number of notifications at the head of the list which have
+     *            not been seen, or absent if the unseen state is not tracked
+     */
+    public UserNotifications(
+            @Nonnull final ImmutableSortedSet<Notification> notifications,
+            @Nonnull final Optional<Integer> unseenCount) {
+        this.notifications = Objects.requireNonNull(notifications);
+        Objects.requireNonNull(unseenCount);
+
+        final int count = unseenCount.orElse(0);
+        Preconditions.checkArgument(
+                count >= 0 && count <= notifications.size(),
+                "unseenCount must be between 0 and the number of notifications");
+
+        if (count == notifications.size()) {
+            this.unseen = notifications;
+            this.seen = ImmutableSortedSet.of();
+        } else {
+            // these are views over the original set rather than copies
+            final Notification firstSeen = notifications.asList().get(count);
+            this.unseen = notifications.headSet(firstSeen, false);
+            this.seen = notifications.tailSet(firstSeen, true);
+        }
+        this.timeline = new NotificationTimeline(notifications);
+        this.tracked = unseenCount.isPresent();
+    }
 
     /**
      * Constructor
@@ -43,8 +83,12 @@ public final class UserNotifications {
      */
     public UserNotifications(@Nonnull final Iterable<Notification> unseen,
             @Nonnull final Iterable<Notification> seen) {
-        this.unseen = Objects.requireNonNull(unseen);
-        this.seen = Objects.requireNonNull(seen);
+        this.unseen = ImmutableSortedSet.copyOf(Objects.requireNonNull(unseen));
+        this.seen = ImmutableSortedSet.copyOf(Objects.requireNonNull(seen));
+        this.notifications = ImmutableSortedSet.<Notification> naturalOrder()
+                .addAll(this.unseen).addAll(this.seen).build();
+        this.timeline = new NotificationTimeline(notifications);
+        this.tracked = true;
     }
 
     /**
@@ -57,11 +101,12 @@ public final class UserNotifications {
      */
     public UserNotifications(@Nonnull final Stream<Notification> unseen,
             @Nonnull final Stream<Notification> seen) {
-        Objects.requireNonNull(unseen);
-        Objects.requireNonNull(seen);
-
-        this.unseen = unseen.collect(Collectors.toCollection(TreeSet::new));
-        this.seen = seen.collect(Collectors.toCollection(TreeSet::new));
+        this(Objects.requireNonNull(unseen)
+                .collect(ImmutableSortedSet.toImmutableSortedSet(
+                        Notification::compareTo)),
+                Objects.requireNonNull(seen)
+                        .collect(ImmutableSortedSet.toImmutableSortedSet(
+                                Notification::compareTo)));
     }
 
     /**
@@ -71,8 +116,7 @@ public final class UserNotifications {
      *            Unseen notifications
      */
     public UserNotifications(@Nonnull final Iterable<Notification> unseen) {
-        this.unseen = Objects.requireNonNull(unseen);
-        this.seen = Collections.<Notification> emptySortedSet();
+        this(unseen, ImmutableSortedSet.<Notification> of());
     }
 
     /**
@@ -82,34 +126,120 @@ public final class UserNotifications {
      *            Unseen notifications
      */
     public UserNotifications(@Nonnull final Stream<Notification> unseen) {
-        Objects.requireNonNull(unseen);
-        this.unseen = unseen.collect(Collectors.toCollection(TreeSet::new));
-        this.seen = Collections.<Notification> emptySortedSet();
+        this(unseen, Stream.empty());
     }
 
     /**
      * Constructor
      */
     public UserNotifications() {
-        this.unseen = Collections.<Notification> emptySortedSet();
-        this.seen = Collections.<Notification> emptySortedSet();
+        this(ImmutableSortedSet.<Notification> of(), Optional.of(0));
     }
 
     public boolean isEmpty() {
-        return Iterables.isEmpty(unseen) && Iterables.isEmpty(seen);
+        return notifications.isEmpty();
     }
 
     public Iterable<Notification> getUnseen() {
-        return unseen;
+        return setUnseenState(unseen, true);
     }
 
     public Iterable<Notification> getSeen() {
-        return seen;
+        return setUnseenState(seen, false);
     }
 
+    /**
+     * Return all of the notifications, newest first. The unseen state is not
+     * set on the returned notifications, see
+     * {@link #withUnseenState(Iterable)}.
+     *
+     * @return the notifications
+     */
     public ImmutableSortedSet<Notification> getNotifications() {
-        return ImmutableSortedSet.<Notification> naturalOrder().addAll(unseen)
-                .addAll(seen).build();
+        return notifications;
+    }
+
+    /**
+     * Return an index over the notifications for finding notifications by ID
+     * and paging through them. As with {@link #getNotifications()}, the unseen
+     * state is not set on the notifications.
+     *
+     * @return the notification timeline
+     */
+    public NotificationTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Return whether a notification has been seen by the user
+     *
+     * @param notification
+     *            Notification to check
+     * @return true if the notification is unseen, false if it has been seen,
+     *         or absent if the unseen state is not tracked
+     */
+    public Optional<Boolean> isUnseen(@Nonnull final Notification notification) {
+        Objects.requireNonNull(notification);
+        if (!tracked) {
+            return Optional.empty();
+        }
+        return Optional.of(unseen.contains(notification));
+    }
+
+    /**
+     * Copy the given notifications with their unseen state set. This is
+     * intended to be called on the page of notifications being returned to
+     * the user rather than on the entire list.
+     *
+     * @param page
+     *            Notifications to set the unseen state on
+     * @return the notifications with their unseen state set
+     */
+    public ImmutableList<Notification> withUnseenState(
+            @Nonnull final Iterable<Notification> page) {
+        Objects.requireNonNull(page);
+        if (!tracked) {
+            return ImmutableList.copyOf(page);
+        }
+        final ImmutableList.Builder<Notification> builder = ImmutableList
+                .builder();
+        for (final Notification notification : page) {
+            builder.add(setUnseenState(notification,
+                    unseen.contains(notification)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Set the unseen state on a notification and any notifications which
+     * were rolled up into it.
+     *
+     * @param notification
+     *            Notification to copy
+     * @param unseen
+     *            Unseen state
+     * @return the copied notification
+     */
+    static Notification setUnseenState(
+            @Nonnull final Notification notification, final boolean unseen) {
+        final Notification.Builder builder = Notification
+                .builder(notification).withUnseen(unseen);
+        if (!notification.getNotifications().isEmpty()) {
+            builder.withNotifications(
+                    setUnseenState(notification.getNotifications(), unseen));
+        }
+        return builder.build();
+    }
+
+    private static ImmutableList<Notification> setUnseenState(
+            @Nonnull final Iterable<Notification> notifications,
+            final boolean unseen) {
+        final ImmutableList.Builder<Notification> builder = ImmutableList
+                .builder();
+        for (final Notification notification : notifications) {
+            builder.add(setUnseenState(notification, unseen));
+        }
+        return builder.build();
     }
 
     @Override
@@ -122,18 +252,19 @@ public final class UserNotifications {
         }
 
         final UserNotifications other = (UserNotifications) obj;
-        return Objects.equals(unseen, other.unseen)
+        return tracked == other.tracked
+                && Objects.equals(unseen, other.unseen)
                 && Objects.equals(seen, other.seen);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(unseen, seen);
+        return Objects.hash(unseen, seen, tracked);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("unseen", unseen)
-                .add("seen", seen).toString();
+                .add("seen", seen).add("tracked", tracked).toString();
     }
 }
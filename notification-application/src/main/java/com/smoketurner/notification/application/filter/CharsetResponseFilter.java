@@ -26,10 +26,12 @@ import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.Provider;
+import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
 
 /**
  * This class ensures that any HTTP response that includes a Content-Type
- * response header, that it also includes the UTF-8 character set.
+ * response header, that it also includes the UTF-8 character set. Binary
+ * protocol buffer responses are left as-is.
  */
 @Provider
 @Priority(Priorities.HEADER_DECORATOR)
@@ -39,8 +41,11 @@ public class CharsetResponseFilter implements ContainerResponseFilter {
     public void filter(final ContainerRequestContext request,
             final ContainerResponseContext response) throws IOException {
         final MediaType type = response.getMediaType();
-        if (type != null && !type.getParameters()
-                .containsKey(MediaType.CHARSET_PARAMETER)) {
+        if (type != null
+                && !type.getParameters()
+                        .containsKey(MediaType.CHARSET_PARAMETER)
+                && !ProtocolBufferMediaType.APPLICATION_PROTOBUF_TYPE
+                        .isCompatible(type)) {
             final MediaType typeWithCharset = type.withCharset(
                     StandardCharsets.UTF_8.displayName(Locale.ENGLISH));
             response.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE,
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.local;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.primitives.Longs;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import com.smoketurner.notification.application.store.CursorRepository;
+
+public class LocalCursorRepository implements CursorRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(LocalCursorRepository.class);
+    private final LocalLog log;
+
+    /**
+     * Constructor
+     *
+     * @param log
+     *            Local log to store the cursors in
+     */
+    public LocalCursorRepository(@Nonnull final LocalLog log) {
+        this.log = Objects.requireNonNull(log);
+    }
+
+    @Override
+    public void initialize() {
+        // nothing to prepare, the log is opened by LocalLogManager
+    }
+
+    @Override
+    public Optional<Long> fetch(@Nonnull final String key)
+            throws NotificationStoreException {
+        LOGGER.debug("Fetching key: {}", key);
+        return log.get(key).map(Longs::fromByteArray);
+    }
+
+    @Override
+    public void store(@Nonnull final String key, final long value) {
+        LOGGER.debug("Updating key: {} to {}", key, value);
+
+        try {
+            log.update(key, current -> {
+                // cursors only ever move forward
+                if (current != null && Longs.fromByteArray(current) >= value) {
+                    return current;
+                }
+                return Longs.toByteArray(value);
+            });
+        } catch (IOException e) {
+            LOGGER.error("Unable to update key: " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(@Nonnull final String key) {
+        LOGGER.debug("Deleting key: {}", key);
+
+        try {
+            log.delete(key);
+        } catch (IOException e) {
+            LOGGER.error("Unable to delete key: " + key, e);
+        }
+    }
+}
@@ -0,0 +1,538 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.local;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * An embedded key/value log. Every write is appended to a fixed-size,
+ * memory-mapped segment file and an in-memory index points each key at the
+ * latest copy of its value, so reads are served straight out of the mapped
+ * segments. The index is rebuilt by replaying the segments when the log is
+ * opened.
+ *
+ * Segments are only reclaimed by {@link #compact()}, which copies the live
+ * records out of the older segments and deletes them. Writes are only forced
+ * to disk by {@link #flush()}, unless the log is opened to sync every write.
+ *
+ * Each record is laid out as:
+ *
+ * <pre>
+ * [int key length][int value length or -1 for a delete][int crc32][key][value]
+ * </pre>
+ */
+public class LocalLog implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(LocalLog.class);
+    private static final String SEGMENT_FORMAT = "%010d.log";
+    private static final int HEADER_SIZE = 12;
+    private static final int TOMBSTONE = -1;
+
+    private final File directory;
+    private final int segmentSize;
+    private final boolean syncWrites;
+    private final ConcurrentMap<String, Pointer> index = new ConcurrentHashMap<>();
+    private final Striped<Lock> locks = Striped.lock(64);
+
+    @GuardedBy("this")
+    private final List<Segment> segments = new ArrayList<>();
+
+    @GuardedBy("this")
+    private Segment active;
+
+    /**
+     * Constructor
+     *
+     * @param directory
+     *            Directory to store the segment files in
+     * @param segmentSize
+     *            Size of each segment file in bytes
+     */
+    public LocalLog(@Nonnull final File directory, final int segmentSize) {
+        this(directory, segmentSize, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param directory
+     *            Directory to store the segment files in
+     * @param segmentSize
+     *            Size of each segment file in bytes
+     * @param syncWrites
+     *            Whether to force every write to disk before returning
+     */
+    public LocalLog(@Nonnull final File directory, final int segmentSize,
+            final boolean syncWrites) {
+        this.directory = Objects.requireNonNull(directory);
+        Preconditions.checkArgument(segmentSize > HEADER_SIZE,
+                "segmentSize is too small");
+        this.segmentSize = segmentSize;
+        this.syncWrites = syncWrites;
+    }
+
+    /**
+     * Open the log, replaying any existing segments to rebuild the index.
+     *
+     * @throws IOException
+     *             if unable to open the segments
+     */
+    public synchronized void open() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory: " + directory);
+        }
+
+        final File[] files = directory
+                .listFiles((dir, name) -> name.endsWith(".log"));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                final int id = Integer
+                        .parseInt(file.getName().replace(".log", ""));
+                final Segment segment = Segment.map(id, file, segmentSize);
+                replay(segment);
+                segments.add(segment);
+            }
+        }
+
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            active = segments.get(segments.size() - 1);
+        }
+        LOGGER.info("Opened {} with {} segments and {} keys", directory,
+                segments.size(), index.size());
+    }
+
+    /**
+     * Return the current value for a key.
+     *
+     * @param key
+     *            Key to fetch
+     * @return the value or absent if the key does not exist
+     */
+    public Optional<byte[]> get(@Nonnull final String key) {
+        final Pointer pointer = index.get(key);
+        if (pointer == null) {
+            return Optional.empty();
+        }
+        return Optional.of(pointer.read());
+    }
+
+    /**
+     * Set the value for a key.
+     *
+     * @param key
+     *            Key to set
+     * @param value
+     *            Value to set
+     * @throws IOException
+     *             if unable to append the value
+     */
+    public void put(@Nonnull final String key, @Nonnull final byte[] value)
+            throws IOException {
+        Objects.requireNonNull(value);
+        final Lock lock = locks.get(key);
+        lock.lock();
+        try {
+            write(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete a key.
+     *
+     * @param key
+     *            Key to delete
+     * @throws IOException
+     *             if unable to append the delete
+     */
+    public void delete(@Nonnull final String key) throws IOException {
+        final Lock lock = locks.get(key);
+        lock.lock();
+        try {
+            if (index.containsKey(key)) {
+                write(key, null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically read, modify and write the value for a key. If the function
+     * returns the value it was given, nothing is written. If the function
+     * returns null, the key is deleted.
+     *
+     * @param key
+     *            Key to update
+     * @param function
+     *            Function to apply to the current value (or null if the key
+     *            does not exist)
+     * @throws IOException
+     *             if unable to append the new value
+     */
+    public void update(@Nonnull final String key,
+            @Nonnull final UnaryOperator<byte[]> function) throws IOException {
+        final Lock lock = locks.get(key);
+        lock.lock();
+        try {
+            final byte[] current = get(key).orElse(null);
+            final byte[] updated = function.apply(current);
+            if (updated == current) {
+                return;
+            }
+            if (updated != null || current != null) {
+                write(key, updated);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return a snapshot of the keys currently in the log.
+     *
+     * @return the keys
+     */
+    public Set<String> keys() {
+        return ImmutableSet.copyOf(index.keySet());
+    }
+
+    /**
+     * Force any writes to the active segment to disk. Segments are forced as
+     * they are rolled, so this covers every write made before it was called.
+     *
+     * @throws IOException
+     *             if the log is not open
+     */
+    public void flush() throws IOException {
+        final Segment segment;
+        synchronized (this) {
+            if (active == null) {
+                throw new IOException("Log is not open: " + directory);
+            }
+            segment = active;
+        }
+        segment.buffer.force();
+    }
+
+    /**
+     * Reclaim the space used by overwritten and deleted records. If at most
+     * half of the bytes in the segments before the active one are still live,
+     * the live records are copied to the end of the log and those segments
+     * are deleted. Only a prefix of the log is ever dropped, so a delete is
+     * never dropped while an older copy of its key is kept.
+     *
+     * @return the number of segments deleted
+     * @throws IOException
+     *             if unable to copy the live records
+     */
+    public int compact() throws IOException {
+        final List<Segment> sealed;
+        synchronized (this) {
+            if (active == null) {
+                throw new IOException("Log is not open: " + directory);
+            }
+            sealed = ImmutableList
+                    .copyOf(segments.subList(0, segments.size() - 1));
+        }
+        if (sealed.isEmpty()) {
+            return 0;
+        }
+
+        final Set<Segment> compacting = Sets.newIdentityHashSet();
+        compacting.addAll(sealed);
+
+        long live = 0;
+        for (Map.Entry<String, Pointer> entry : index.entrySet()) {
+            if (compacting.contains(entry.getValue().segment)) {
+                live += HEADER_SIZE
+                        + entry.getKey().getBytes(StandardCharsets.UTF_8).length
+                        + entry.getValue().length;
+            }
+        }
+        if (live * 2 > (long) sealed.size() * segmentSize) {
+            return 0;
+        }
+
+        for (String key : index.keySet()) {
+            final Lock lock = locks.get(key);
+            lock.lock();
+            try {
+                final Pointer pointer = index.get(key);
+                if (pointer != null && compacting.contains(pointer.segment)) {
+                    write(key, pointer.read());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // the copies must be on disk before the originals are deleted
+        flush();
+
+        synchronized (this) {
+            segments.removeAll(sealed);
+        }
+        for (Segment segment : sealed) {
+            segment.delete();
+        }
+        LOGGER.info("Compacted {} segments of {} with {} live bytes",
+                sealed.size(), directory, live);
+        return sealed.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        index.clear();
+        active = null;
+    }
+
+    /**
+     * Append a record to the active segment and point the index at it. Callers
+     * must hold the lock for the key.
+     *
+     * @param key
+     *            Key to write
+     * @param value
+     *            Value to write or null to delete the key
+     * @throws IOException
+     *             if unable to append the record
+     */
+    private void write(final String key, @Nullable final byte[] value)
+            throws IOException {
+        final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        final int valueLength = value == null ? 0 : value.length;
+        final int recordSize = HEADER_SIZE + keyBytes.length + valueLength;
+        if (recordSize > segmentSize) {
+            throw new IOException(String.format(
+                    "Record of %d bytes exceeds segment size of %d bytes",
+                    recordSize, segmentSize));
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        if (value != null) {
+            crc.update(value);
+        }
+
+        final Pointer pointer;
+        synchronized (this) {
+            Preconditions.checkState(active != null, "log is not open");
+            if (active.remaining() < recordSize) {
+                roll();
+            }
+            final ByteBuffer buffer = active.buffer.duplicate();
+            final int offset = active.position;
+            buffer.position(offset);
+            buffer.putInt(keyBytes.length);
+            buffer.putInt(value == null ? TOMBSTONE : value.length);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(keyBytes);
+            if (value != null) {
+                buffer.put(value);
+            }
+            active.position = buffer.position();
+            pointer = new Pointer(active,
+                    offset + HEADER_SIZE + keyBytes.length, valueLength);
+        }
+
+        if (syncWrites) {
+            pointer.segment.buffer.force();
+        }
+
+        if (value == null) {
+            index.remove(key);
+        } else {
+            index.put(key, pointer);
+        }
+    }
+
+    /**
+     * Start a new active segment.
+     *
+     * @throws IOException
+     *             if unable to create the segment
+     */
+    @GuardedBy("this")
+    private void roll() throws IOException {
+        final int id = active == null ? 0 : active.id + 1;
+        final File file = new File(directory,
+                String.format(SEGMENT_FORMAT, id));
+        LOGGER.debug("Rolling to new segment: {}", file);
+        if (active != null) {
+            active.buffer.force();
+        }
+        active = Segment.map(id, file, segmentSize);
+        segments.add(active);
+    }
+
+    /**
+     * Replay the records in a segment into the index, stopping at the first
+     * empty or corrupt record.
+     *
+     * @param segment
+     *            Segment to replay
+     */
+    private void replay(final Segment segment) {
+        final ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        while (position + HEADER_SIZE <= segmentSize) {
+            buffer.position(position);
+            final int keyLength = buffer.getInt();
+            final int valueLength = buffer.getInt();
+            final int checksum = buffer.getInt();
+            final int dataLength = keyLength
+                    + (valueLength == TOMBSTONE ? 0 : valueLength);
+            if (keyLength <= 0 || valueLength < TOMBSTONE
+                    || position + HEADER_SIZE + dataLength > segmentSize) {
+                break;
+            }
+
+            final byte[] keyBytes = new byte[keyLength];
+            buffer.get(keyBytes);
+            final CRC32 crc = new CRC32();
+            crc.update(keyBytes);
+            if (valueLength > 0) {
+                final ByteBuffer value = buffer.slice();
+                value.limit(valueLength);
+                crc.update(value);
+            }
+            if ((int) crc.getValue() != checksum) {
+                LOGGER.warn("Corrupt record in segment {} at offset {}",
+                        segment.id, position);
+                break;
+            }
+
+            final String key = new String(keyBytes, StandardCharsets.UTF_8);
+            if (valueLength == TOMBSTONE) {
+                index.remove(key);
+            } else {
+                index.put(key, new Pointer(segment,
+                        position + HEADER_SIZE + keyLength, valueLength));
+            }
+            position += HEADER_SIZE + dataLength;
+        }
+        segment.position = position;
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final File path;
+        private final RandomAccessFile file;
+        private final MappedByteBuffer buffer;
+        private int position;
+
+        private Segment(final int id, final File path,
+                final RandomAccessFile file, final MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        static Segment map(final int id, final File path, final int size)
+                throws IOException {
+            final RandomAccessFile file = new RandomAccessFile(path, "rw");
+            try {
+                final MappedByteBuffer buffer = file.getChannel()
+                        .map(FileChannel.MapMode.READ_WRITE, 0, size);
+                return new Segment(id, path, file, buffer);
+            } catch (IOException e) {
+                file.close();
+                throw e;
+            }
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        void close() throws IOException {
+            buffer.force();
+            file.close();
+        }
+
+        /**
+         * Close and delete the segment file. The mapping stays readable until
+         * it is garbage collected, so a read racing with compaction still
+         * sees the old value.
+         */
+        void delete() throws IOException {
+            file.close();
+            if (!path.delete()) {
+                throw new IOException("Unable to delete segment: " + path);
+            }
+        }
+    }
+
+    private static final class Pointer {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        Pointer(final Segment segment, final int offset, final int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        byte[] read() {
+            final byte[] value = new byte[length];
+            final ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(offset);
+            buffer.get(value);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.local;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import com.smoketurner.notification.application.store.NotificationList;
+import com.smoketurner.notification.application.store.NotificationListCodec;
+import com.smoketurner.notification.application.store.NotificationRepository;
+
+public class LocalNotificationRepository implements NotificationRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(LocalNotificationRepository.class);
+    private final NotificationListCodec codec;
+    private final LocalLog log;
+
+    /**
+     * Constructor
+     *
+     * @param log
+     *            Local log to store the notification lists in
+     */
+    public LocalNotificationRepository(@Nonnull final LocalLog log) {
+        this(log, new NotificationListCodec());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param log
+     *            Local log to store the notification lists in
+     * @param codec
+     *            Codec used to serialize the notification lists
+     */
+    public LocalNotificationRepository(@Nonnull final LocalLog log,
+            @Nonnull final NotificationListCodec codec) {
+        this.log = Objects.requireNonNull(log);
+        this.codec = Objects.requireNonNull(codec);
+    }
+
+    @Override
+    public void initialize() {
+        // nothing to prepare, the log is opened by LocalLogManager
+    }
+
+    @Override
+    public Optional<NotificationList> fetch(
+            @Nonnull final String username) throws NotificationStoreException {
+
+        LOGGER.debug("Fetching key: {}", username);
+
+        final Optional<byte[]> value = log.get(username);
+        if (!value.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(codec.decode(value.get()));
+        } catch (IOException e) {
+            LOGGER.error("Unable to decode key: " + username, e);
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public void store(@Nonnull final String username,
+            @Nonnull final Notification notification)
+            throws NotificationStoreException {
+
+        LOGGER.debug("Updating key: {}", username);
+
+        try {
+            log.update(username, current -> {
+                final NotificationList list = current == null
+                        ? new NotificationList() : decode(current);
+                list.addNotification(notification);
+                return codec.encode(list);
+            });
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.error("Unable to update key: " + username, e);
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public void update(@Nonnull final String username,
+            @Nonnull final Collection<Notification> additions,
+            @Nonnull final LongSet ids) throws NotificationStoreException {
+
+        LOGGER.debug("Updating key: {}", username);
+
+        try {
+            log.update(username, current -> {
+                final NotificationList list = current == null
+                        ? new NotificationList() : decode(current);
+                list.addNotifications(additions);
+                if (!ids.isEmpty()) {
+                    NotificationList.removeNotifications(
+                            list.getNotifications(), ids);
+                }
+                return codec.encode(list);
+            });
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.error("Unable to update key: " + username, e);
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public void remove(@Nonnull final String username,
+            @Nonnull final LongSet ids) {
+
+        LOGGER.debug("Updating key: {}", username);
+
+        try {
+            log.update(username, current -> {
+                if (current == null) {
+                    return null;
+                }
+                final NotificationList list = decode(current);
+                NotificationList.removeNotifications(
+                        list.getNotifications(), ids);
+                return codec.encode(list);
+            });
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.error("Unable to update key: " + username, e);
+        }
+    }
+
+    @Override
+    public void removeAll(@Nonnull final String username) {
+        LOGGER.debug("Deleting key: {}", username);
+
+        try {
+            log.delete(username);
+        } catch (IOException e) {
+            LOGGER.error("Unable to delete key: " + username, e);
+        }
+    }
+
+    /**
+     * Decode a notification list while updating the log, which can't throw
+     * checked exceptions
+     *
+     * @param value
+     *            Serialized notification list
+     * @return the notification list
+     * @throws UncheckedIOException
+     *             if unable to decode the value
+     */
+    private NotificationList decode(@Nonnull final byte[] value) {
+        try {
+            return codec.decode(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
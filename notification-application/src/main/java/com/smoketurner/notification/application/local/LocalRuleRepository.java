@@ -0,0 +1,108 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.local;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.Rule;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import com.smoketurner.notification.application.store.RuleRepository;
+import io.dropwizard.jackson.Jackson;
+
+public class LocalRuleRepository implements RuleRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(LocalRuleRepository.class);
+    private final ObjectMapper mapper = Jackson.newObjectMapper();
+    private final LocalLog log;
+
+    /**
+     * Constructor
+     *
+     * @param log
+     *            Local log to store the rules in
+     */
+    public LocalRuleRepository(@Nonnull final LocalLog log) {
+        this.log = Objects.requireNonNull(log);
+    }
+
+    @Override
+    public Optional<Map<String, Rule>> fetch()
+            throws NotificationStoreException {
+        final ImmutableMap.Builder<String, Rule> rules = ImmutableMap.builder();
+        for (String category : log.keys()) {
+            final Optional<byte[]> value = log.get(category);
+            if (!value.isPresent()) {
+                continue;
+            }
+            try {
+                rules.put(category, mapper.readValue(value.get(), Rule.class));
+            } catch (IOException e) {
+                LOGGER.error("Unable to decode rule: " + category, e);
+                throw new NotificationStoreException(e);
+            }
+        }
+
+        final Map<String, Rule> result = rules.build();
+        if (result.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(result);
+    }
+
+    @Override
+    public void store(@Nonnull final String category, @Nonnull final Rule rule)
+            throws NotificationStoreException {
+        LOGGER.debug("Storing rule: {}", category);
+        try {
+            log.put(category, mapper.writeValueAsBytes(rule));
+        } catch (IOException e) {
+            LOGGER.error("Unable to store rule: " + category, e);
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public void remove(@Nonnull final String category)
+            throws NotificationStoreException {
+        LOGGER.debug("Removing rule: {}", category);
+        try {
+            log.delete(category);
+        } catch (IOException e) {
+            LOGGER.error("Unable to remove rule: " + category, e);
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        LOGGER.debug("Removing all rules");
+        for (String category : log.keys()) {
+            try {
+                log.delete(category);
+            } catch (IOException e) {
+                LOGGER.error("Unable to remove rule: " + category, e);
+            }
+        }
+    }
+}
@@ -41,6 +41,6 @@ public class CursorStoreManager implements Managed {
 
     @Override
     public void stop() throws Exception {
-        // nothing to stop
+        store.flush();
     }
 }
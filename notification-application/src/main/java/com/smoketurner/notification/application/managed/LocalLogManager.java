@@ -0,0 +1,102 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.managed;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.smoketurner.notification.application.local.LocalLog;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+
+public class LocalLogManager implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(LocalLogManager.class);
+    private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+    private final LocalLog log;
+    private final ScheduledExecutorService executor;
+    private final Duration fsyncInterval;
+    private final Duration compactionInterval;
+
+    /**
+     * Constructor
+     *
+     * @param log
+     *            Local log to manage
+     * @param executor
+     *            Executor used to flush and compact the log
+     * @param fsyncInterval
+     *            How often to force the log to disk, or zero if the log
+     *            already syncs every write
+     * @param compactionInterval
+     *            How often to try to compact the log
+     */
+    public LocalLogManager(@Nonnull final LocalLog log,
+            @Nonnull final ScheduledExecutorService executor,
+            @Nonnull final Duration fsyncInterval,
+            @Nonnull final Duration compactionInterval) {
+        this.log = Objects.requireNonNull(log);
+        this.executor = Objects.requireNonNull(executor);
+        this.fsyncInterval = Objects.requireNonNull(fsyncInterval);
+        this.compactionInterval = Objects.requireNonNull(compactionInterval);
+    }
+
+    @Override
+    public synchronized void start() throws Exception {
+        log.open();
+        if (fsyncInterval.getQuantity() > 0) {
+            tasks.add(executor.scheduleWithFixedDelay(this::flush,
+                    fsyncInterval.getQuantity(), fsyncInterval.getQuantity(),
+                    fsyncInterval.getUnit()));
+        }
+        tasks.add(executor.scheduleWithFixedDelay(this::compact,
+                compactionInterval.getQuantity(),
+                compactionInterval.getQuantity(),
+                compactionInterval.getUnit()));
+    }
+
+    @Override
+    public synchronized void stop() throws Exception {
+        for (ScheduledFuture<?> task : tasks) {
+            task.cancel(false);
+        }
+        tasks.clear();
+        log.close();
+    }
+
+    private void flush() {
+        try {
+            log.flush();
+        } catch (IOException e) {
+            LOGGER.error("Unable to flush local log", e);
+        }
+    }
+
+    private void compact() {
+        try {
+            log.compact();
+        } catch (IOException e) {
+            LOGGER.error("Unable to compact local log", e);
+        }
+    }
+}
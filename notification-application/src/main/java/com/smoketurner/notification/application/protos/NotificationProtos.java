@@ -19,32 +19,32 @@ public final class NotificationProtos {
       com.google.protobuf.MessageOrBuilder {
 
     /**
-     * <code>optional int64 id = 1;</code>
+     * <code>int64 id = 1;</code>
      */
     long getId();
 
     /**
-     * <code>optional string category = 2;</code>
+     * <code>string category = 2;</code>
      */
     java.lang.String getCategory();
     /**
-     * <code>optional string category = 2;</code>
+     * <code>string category = 2;</code>
      */
     com.google.protobuf.ByteString
         getCategoryBytes();
 
     /**
-     * <code>optional string message = 3;</code>
+     * <code>string message = 3;</code>
      */
     java.lang.String getMessage();
     /**
-     * <code>optional string message = 3;</code>
+     * <code>string message = 3;</code>
      */
     com.google.protobuf.ByteString
         getMessageBytes();
 
     /**
-     * <code>optional int64 created_at = 4;</code>
+     * <code>int64 created_at = 4;</code>
      */
     long getCreatedAt();
 
@@ -154,9 +154,10 @@ public final class NotificationProtos {
                 mutable_bitField0_ |= 0x00000010;
               }
               com.google.protobuf.MapEntry<java.lang.String, java.lang.String>
-              property = input.readMessage(
+              property__ = input.readMessage(
                   PropertyDefaultEntryHolder.defaultEntry.getParserForType(), extensionRegistry);
-              property_.getMutableMap().put(property.getKey(), property.getValue());
+              property_.getMutableMap().put(
+                  property__.getKey(), property__.getValue());
               break;
             }
           }
@@ -197,7 +198,7 @@ public final class NotificationProtos {
     public static final int ID_FIELD_NUMBER = 1;
     private long id_;
     /**
-     * <code>optional int64 id = 1;</code>
+     * <code>int64 id = 1;</code>
      */
     public long getId() {
       return id_;
@@ -206,7 +207,7 @@ public final class NotificationProtos {
     public static final int CATEGORY_FIELD_NUMBER = 2;
     private volatile java.lang.Object category_;
     /**
-     * <code>optional string category = 2;</code>
+     * <code>string category = 2;</code>
      */
     public java.lang.String getCategory() {
       java.lang.Object ref = category_;
@@ -221,7 +222,7 @@ public final class NotificationProtos {
       }
     }
     /**
-     * <code>optional string category = 2;</code>
+     * <code>string category = 2;</code>
      */
     public com.google.protobuf.ByteString
         getCategoryBytes() {
@@ -240,7 +241,7 @@ public final class NotificationProtos {
     public static final int MESSAGE_FIELD_NUMBER = 3;
     private volatile java.lang.Object message_;
     /**
-     * <code>optional string message = 3;</code>
+     * <code>string message = 3;</code>
      */
     public java.lang.String getMessage() {
       java.lang.Object ref = message_;
@@ -255,7 +256,7 @@ public final class NotificationProtos {
       }
     }
     /**
-     * <code>optional string message = 3;</code>
+     * <code>string message = 3;</code>
      */
     public com.google.protobuf.ByteString
         getMessageBytes() {
@@ -274,7 +275,7 @@ public final class NotificationProtos {
     public static final int CREATED_AT_FIELD_NUMBER = 4;
     private long createdAt_;
     /**
-     * <code>optional int64 created_at = 4;</code>
+     * <code>int64 created_at = 4;</code>
      */
     public long getCreatedAt() {
       return createdAt_;
@@ -380,15 +381,12 @@ public final class NotificationProtos {
       if (createdAt_ != 0L) {
         output.writeInt64(4, createdAt_);
       }
-      for (java.util.Map.Entry<java.lang.String, java.lang.String> entry
-           : internalGetProperty().getMap().entrySet()) {
-        com.google.protobuf.MapEntry<java.lang.String, java.lang.String>
-        property = PropertyDefaultEntryHolder.defaultEntry.newBuilderForType()
-            .setKey(entry.getKey())
-            .setValue(entry.getValue())
-            .build();
-        output.writeMessage(5, property);
-      }
+      com.google.protobuf.GeneratedMessageV3
+        .serializeStringMapTo(
+          output,
+          internalGetProperty(),
+          PropertyDefaultEntryHolder.defaultEntry,
+          5);
     }
 
     public int getSerializedSize() {
@@ -413,12 +411,12 @@ public final class NotificationProtos {
       for (java.util.Map.Entry<java.lang.String, java.lang.String> entry
            : internalGetProperty().getMap().entrySet()) {
         com.google.protobuf.MapEntry<java.lang.String, java.lang.String>
-        property = PropertyDefaultEntryHolder.defaultEntry.newBuilderForType()
+        property__ = PropertyDefaultEntryHolder.defaultEntry.newBuilderForType()
             .setKey(entry.getKey())
             .setValue(entry.getValue())
             .build();
         size += com.google.protobuf.CodedOutputStream
-            .computeMessageSize(5, property);
+            .computeMessageSize(5, property__);
       }
       memoizedSize = size;
       return size;
@@ -455,7 +453,7 @@ public final class NotificationProtos {
         return memoizedHashCode;
       }
       int hash = 41;
-      hash = (19 * hash) + getDescriptorForType().hashCode();
+      hash = (19 * hash) + getDescriptor().hashCode();
       hash = (37 * hash) + ID_FIELD_NUMBER;
       hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
           getId());
@@ -736,13 +734,13 @@ public final class NotificationProtos {
 
       private long id_ ;
       /**
-       * <code>optional int64 id = 1;</code>
+       * <code>int64 id = 1;</code>
        */
       public long getId() {
         return id_;
       }
       /**
-       * <code>optional int64 id = 1;</code>
+       * <code>int64 id = 1;</code>
        */
       public Builder setId(long value) {
         
@@ -751,7 +749,7 @@ public final class NotificationProtos {
         return this;
       }
       /**
-       * <code>optional int64 id = 1;</code>
+       * <code>int64 id = 1;</code>
        */
       public Builder clearId() {
         
@@ -762,7 +760,7 @@ public final class NotificationProtos {
 
       private java.lang.Object category_ = "";
       /**
-       * <code>optional string category = 2;</code>
+       * <code>string category = 2;</code>
        */
       public java.lang.String getCategory() {
         java.lang.Object ref = category_;
@@ -777,7 +775,7 @@ public final class NotificationProtos {
         }
       }
       /**
-       * <code>optional string category = 2;</code>
+       * <code>string category = 2;</code>
        */
       public com.google.protobuf.ByteString
           getCategoryBytes() {
@@ -793,7 +791,7 @@ public final class NotificationProtos {
         }
       }
       /**
-       * <code>optional string category = 2;</code>
+       * <code>string category = 2;</code>
        */
       public Builder setCategory(
           java.lang.String value) {
@@ -806,7 +804,7 @@ public final class NotificationProtos {
         return this;
       }
       /**
-       * <code>optional string category = 2;</code>
+       * <code>string category = 2;</code>
        */
       public Builder clearCategory() {
         
@@ -815,7 +813,7 @@ public final class NotificationProtos {
         return this;
       }
       /**
-       * <code>optional string category = 2;</code>
+       * <code>string category = 2;</code>
        */
       public Builder setCategoryBytes(
           com.google.protobuf.ByteString value) {
@@ -831,7 +829,7 @@ public final class NotificationProtos {
 
       private java.lang.Object message_ = "";
       /**
-       * <code>optional string message = 3;</code>
+       * <code>string message = 3;</code>
        */
       public java.lang.String getMessage() {
         java.lang.Object ref = message_;
@@ -846,7 +844,7 @@ public final class NotificationProtos {
         }
       }
       /**
-       * <code>optional string message = 3;</code>
+       * <code>string message = 3;</code>
        */
       public com.google.protobuf.ByteString
           getMessageBytes() {
@@ -862,7 +860,7 @@ public final class NotificationProtos {
         }
       }
       /**
-       * <code>optional string message = 3;</code>
+       * <code>string message = 3;</code>
        */
       public Builder setMessage(
           java.lang.String value) {
@@ -875,7 +873,7 @@ public final class NotificationProtos {
         return this;
       }
       /**
-       * <code>optional string message = 3;</code>
+       * <code>string message = 3;</code>
        */
       public Builder clearMessage() {
         
@@ -884,7 +882,7 @@ public final class NotificationProtos {
         return this;
       }
       /**
-       * <code>optional string message = 3;</code>
+       * <code>string message = 3;</code>
        */
       public Builder setMessageBytes(
           com.google.protobuf.ByteString value) {
@@ -900,13 +898,13 @@ public final class NotificationProtos {
 
       private long createdAt_ ;
       /**
-       * <code>optional int64 created_at = 4;</code>
+       * <code>int64 created_at = 4;</code>
        */
       public long getCreatedAt() {
         return createdAt_;
       }
       /**
-       * <code>optional int64 created_at = 4;</code>
+       * <code>int64 created_at = 4;</code>
        */
       public Builder setCreatedAt(long value) {
         
@@ -915,7 +913,7 @@ public final class NotificationProtos {
         return this;
       }
       /**
-       * <code>optional int64 created_at = 4;</code>
+       * <code>int64 created_at = 4;</code>
        */
       public Builder clearCreatedAt() {
         
@@ -1001,7 +999,8 @@ public final class NotificationProtos {
       }
 
       public Builder clearProperty() {
-        getMutableProperty().clear();
+        internalGetMutableProperty().getMutableMap()
+            .clear();
         return this;
       }
       /**
@@ -1011,7 +1010,8 @@ public final class NotificationProtos {
       public Builder removeProperty(
           java.lang.String key) {
         if (key == null) { throw new java.lang.NullPointerException(); }
-        getMutableProperty().remove(key);
+        internalGetMutableProperty().getMutableMap()
+            .remove(key);
         return this;
       }
       /**
@@ -1030,7 +1030,8 @@ public final class NotificationProtos {
           java.lang.String value) {
         if (key == null) { throw new java.lang.NullPointerException(); }
         if (value == null) { throw new java.lang.NullPointerException(); }
-        getMutableProperty().put(key, value);
+        internalGetMutableProperty().getMutableMap()
+            .put(key, value);
         return this;
       }
       /**
@@ -1039,7 +1040,8 @@ public final class NotificationProtos {
 
       public Builder putAllProperty(
           java.util.Map<java.lang.String, java.lang.String> values) {
-        getMutableProperty().putAll(values);
+        internalGetMutableProperty().getMutableMap()
+            .putAll(values);
         return this;
       }
       public final Builder setUnknownFields(
@@ -1131,6 +1133,24 @@ public final class NotificationProtos {
      * <code>repeated int64 deleted_id = 2;</code>
      */
     long getDeletedId(int index);
+
+    /**
+     * <code>int32 shards = 3;</code>
+     */
+    int getShards();
+
+    /**
+     * <code>repeated int64 segment = 4;</code>
+     */
+    java.util.List<java.lang.Long> getSegmentList();
+    /**
+     * <code>repeated int64 segment = 4;</code>
+     */
+    int getSegmentCount();
+    /**
+     * <code>repeated int64 segment = 4;</code>
+     */
+    long getSegment(int index);
   }
   /**
    * Protobuf type {@code notification.NotificationListPB}
@@ -1146,6 +1166,8 @@ public final class NotificationProtos {
     private NotificationListPB() {
       notification_ = java.util.Collections.emptyList();
       deletedId_ = java.util.Collections.emptyList();
+      shards_ = 0;
+      segment_ = java.util.Collections.emptyList();
     }
 
     @java.lang.Override
@@ -1203,6 +1225,32 @@ public final class NotificationProtos {
               input.popLimit(limit);
               break;
             }
+            case 24: {
+
+              shards_ = input.readInt32();
+              break;
+            }
+            case 32: {
+              if (!((mutable_bitField0_ & 0x00000008) == 0x00000008)) {
+                segment_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00000008;
+              }
+              segment_.add(input.readInt64());
+              break;
+            }
+            case 34: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000008) == 0x00000008) && input.getBytesUntilLimit() > 0) {
+                segment_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00000008;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                segment_.add(input.readInt64());
+              }
+              input.popLimit(limit);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -1217,6 +1265,9 @@ public final class NotificationProtos {
         if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
           deletedId_ = java.util.Collections.unmodifiableList(deletedId_);
         }
+        if (((mutable_bitField0_ & 0x00000008) == 0x00000008)) {
+          segment_ = java.util.Collections.unmodifiableList(segment_);
+        }
         makeExtensionsImmutable();
       }
     }
@@ -1232,6 +1283,7 @@ public final class NotificationProtos {
               com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB.class, com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB.Builder.class);
     }
 
+    private int bitField0_;
     public static final int NOTIFICATION_FIELD_NUMBER = 1;
     private java.util.List<com.smoketurner.notification.application.protos.NotificationProtos.NotificationPB> notification_;
     /**
@@ -1290,6 +1342,38 @@ public final class NotificationProtos {
     }
     private int deletedIdMemoizedSerializedSize = -1;
 
+    public static final int SHARDS_FIELD_NUMBER = 3;
+    private int shards_;
+    /**
+     * <code>int32 shards = 3;</code>
+     */
+    public int getShards() {
+      return shards_;
+    }
+
+    public static final int SEGMENT_FIELD_NUMBER = 4;
+    private java.util.List<java.lang.Long> segment_;
+    /**
+     * <code>repeated int64 segment = 4;</code>
+     */
+    public java.util.List<java.lang.Long>
+        getSegmentList() {
+      return segment_;
+    }
+    /**
+     * <code>repeated int64 segment = 4;</code>
+     */
+    public int getSegmentCount() {
+      return segment_.size();
+    }
+    /**
+     * <code>repeated int64 segment = 4;</code>
+     */
+    public long getSegment(int index) {
+      return segment_.get(index);
+    }
+    private int segmentMemoizedSerializedSize = -1;
+
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
       byte isInitialized = memoizedIsInitialized;
@@ -1313,6 +1397,16 @@ public final class NotificationProtos {
       for (int i = 0; i < deletedId_.size(); i++) {
         output.writeInt64NoTag(deletedId_.get(i));
       }
+      if (shards_ != 0) {
+        output.writeInt32(3, shards_);
+      }
+      if (getSegmentList().size() > 0) {
+        output.writeUInt32NoTag(34);
+        output.writeUInt32NoTag(segmentMemoizedSerializedSize);
+      }
+      for (int i = 0; i < segment_.size(); i++) {
+        output.writeInt64NoTag(segment_.get(i));
+      }
     }
 
     public int getSerializedSize() {
@@ -1338,6 +1432,24 @@ public final class NotificationProtos {
         }
         deletedIdMemoizedSerializedSize = dataSize;
       }
+      if (shards_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(3, shards_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < segment_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt64SizeNoTag(segment_.get(i));
+        }
+        size += dataSize;
+        if (!getSegmentList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        segmentMemoizedSerializedSize = dataSize;
+      }
       memoizedSize = size;
       return size;
     }
@@ -1358,6 +1470,10 @@ public final class NotificationProtos {
           .equals(other.getNotificationList());
       result = result && getDeletedIdList()
           .equals(other.getDeletedIdList());
+      result = result && (getShards()
+          == other.getShards());
+      result = result && getSegmentList()
+          .equals(other.getSegmentList());
       return result;
     }
 
@@ -1367,7 +1483,7 @@ public final class NotificationProtos {
         return memoizedHashCode;
       }
       int hash = 41;
-      hash = (19 * hash) + getDescriptorForType().hashCode();
+      hash = (19 * hash) + getDescriptor().hashCode();
       if (getNotificationCount() > 0) {
         hash = (37 * hash) + NOTIFICATION_FIELD_NUMBER;
         hash = (53 * hash) + getNotificationList().hashCode();
@@ -1376,6 +1492,12 @@ public final class NotificationProtos {
         hash = (37 * hash) + DELETED_ID_FIELD_NUMBER;
         hash = (53 * hash) + getDeletedIdList().hashCode();
       }
+      hash = (37 * hash) + SHARDS_FIELD_NUMBER;
+      hash = (53 * hash) + getShards();
+      if (getSegmentCount() > 0) {
+        hash = (37 * hash) + SEGMENT_FIELD_NUMBER;
+        hash = (53 * hash) + getSegmentList().hashCode();
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1503,6 +1625,10 @@ public final class NotificationProtos {
         }
         deletedId_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000002);
+        shards_ = 0;
+
+        segment_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -1526,6 +1652,7 @@ public final class NotificationProtos {
       public com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB buildPartial() {
         com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB result = new com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB(this);
         int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
         if (notificationBuilder_ == null) {
           if (((bitField0_ & 0x00000001) == 0x00000001)) {
             notification_ = java.util.Collections.unmodifiableList(notification_);
@@ -1540,6 +1667,13 @@ public final class NotificationProtos {
           bitField0_ = (bitField0_ & ~0x00000002);
         }
         result.deletedId_ = deletedId_;
+        result.shards_ = shards_;
+        if (((bitField0_ & 0x00000008) == 0x00000008)) {
+          segment_ = java.util.Collections.unmodifiableList(segment_);
+          bitField0_ = (bitField0_ & ~0x00000008);
+        }
+        result.segment_ = segment_;
+        result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
@@ -1617,6 +1751,19 @@ public final class NotificationProtos {
           }
           onChanged();
         }
+        if (other.getShards() != 0) {
+          setShards(other.getShards());
+        }
+        if (!other.segment_.isEmpty()) {
+          if (segment_.isEmpty()) {
+            segment_ = other.segment_;
+            bitField0_ = (bitField0_ & ~0x00000008);
+          } else {
+            ensureSegmentIsMutable();
+            segment_.addAll(other.segment_);
+          }
+          onChanged();
+        }
         onChanged();
         return this;
       }
@@ -1949,6 +2096,98 @@ public final class NotificationProtos {
         onChanged();
         return this;
       }
+
+      private int shards_ ;
+      /**
+       * <code>int32 shards = 3;</code>
+       */
+      public int getShards() {
+        return shards_;
+      }
+      /**
+       * <code>int32 shards = 3;</code>
+       */
+      public Builder setShards(int value) {
+        
+        shards_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 shards = 3;</code>
+       */
+      public Builder clearShards() {
+        
+        shards_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<java.lang.Long> segment_ = java.util.Collections.emptyList();
+      private void ensureSegmentIsMutable() {
+        if (!((bitField0_ & 0x00000008) == 0x00000008)) {
+          segment_ = new java.util.ArrayList<java.lang.Long>(segment_);
+          bitField0_ |= 0x00000008;
+         }
+      }
+      /**
+       * <code>repeated int64 segment = 4;</code>
+       */
+      public java.util.List<java.lang.Long>
+          getSegmentList() {
+        return java.util.Collections.unmodifiableList(segment_);
+      }
+      /**
+       * <code>repeated int64 segment = 4;</code>
+       */
+      public int getSegmentCount() {
+        return segment_.size();
+      }
+      /**
+       * <code>repeated int64 segment = 4;</code>
+       */
+      public long getSegment(int index) {
+        return segment_.get(index);
+      }
+      /**
+       * <code>repeated int64 segment = 4;</code>
+       */
+      public Builder setSegment(
+          int index, long value) {
+        ensureSegmentIsMutable();
+        segment_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 segment = 4;</code>
+       */
+      public Builder addSegment(long value) {
+        ensureSegmentIsMutable();
+        segment_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 segment = 4;</code>
+       */
+      public Builder addAllSegment(
+          java.lang.Iterable<? extends java.lang.Long> values) {
+        ensureSegmentIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, segment_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 segment = 4;</code>
+       */
+      public Builder clearSegment() {
+        segment_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000008);
+        onChanged();
+        return this;
+      }
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
         return this;
@@ -2027,12 +2266,12 @@ public final class NotificationProtos {
       "\001(\t\022\017\n\007message\030\003 \001(\t\022\022\n\ncreated_at\030\004 \001(\003" +
       "\022<\n\010property\030\005 \003(\0132*.notification.Notifi" +
       "cationPB.PropertyEntry\032/\n\rPropertyEntry\022" +
-      "\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\t:\0028\001\"\\\n\022Notif" +
+      "\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\t:\0028\001\"}\n\022Notif" +
       "icationListPB\0222\n\014notification\030\001 \003(\0132\034.no" +
       "tification.NotificationPB\022\022\n\ndeleted_id\030" +
-      "\002 \003(\003BG\n/com.smoketurner.notification.ap" +
-      "plication.protosB\022NotificationProtosH\001b\006",
-      "proto3"
+      "\002 \003(\003\022\016\n\006shards\030\003 \001(\005\022\017\n\007segment\030\004 \003(\003BG" +
+      "\n/com.smoketurner.notification.applicati",
+      "on.protosB\022NotificationProtosH\001b\006proto3"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -2063,7 +2302,7 @@ public final class NotificationProtos {
     internal_static_notification_NotificationListPB_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_notification_NotificationListPB_descriptor,
-        new java.lang.String[] { "Notification", "DeletedId", });
+        new java.lang.String[] { "Notification", "DeletedId", "Shards", "Segment", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
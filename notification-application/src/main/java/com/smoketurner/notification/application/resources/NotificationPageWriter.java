@@ -0,0 +1,284 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.resources;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.base.Strings;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.NotificationPage;
+
+/**
+ * Writes a page of notifications as a JSON array, streaming each notification
+ * straight to the response rather than serializing it through the
+ * {@link ObjectMapper}. The output is the same as the object mapper would
+ * produce: empty fields are left out and the creation time is written as
+ * epoch milliseconds if {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS}
+ * is enabled, otherwise as an ISO-8601 string in UTC.
+ */
+@Provider
+@Produces({ MediaType.APPLICATION_JSON, "application/javascript" })
+public class NotificationPageWriter
+        implements MessageBodyWriter<NotificationPage> {
+
+    private static final DateTimeFormatter ISO_FORMATTER = ISODateTimeFormat
+            .dateTime().withZoneUTC();
+
+    // "yyyy-MM-ddTHH:mm:ss.SSSZ"
+    private static final int DATE_LENGTH = 11;
+    private static final int DATE_TIME_LENGTH = 24;
+
+    // 10000-01-01T00:00:00.000Z, after which the year needs a fifth digit
+    private static final long MAX_MILLIS = 253402300800000L;
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final JsonFactory factory;
+    private final boolean timestamps;
+    private final boolean indent;
+
+    // Most of the notifications on a page are created on the same day, so
+    // the formatted date of the last notification is reused
+    private volatile FormattedDate lastDate = new FormattedDate(0L);
+
+    /**
+     * Constructor
+     *
+     * @param mapper
+     *            Object mapper whose JSON factory and serialization features
+     *            are used
+     */
+    public NotificationPageWriter(@Nonnull final ObjectMapper mapper) {
+        Objects.requireNonNull(mapper);
+        this.factory = mapper.getFactory();
+        this.timestamps = mapper
+                .isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.indent = mapper.isEnabled(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    public boolean isWriteable(final Class<?> type, final Type genericType,
+            final Annotation[] annotations, final MediaType mediaType) {
+        return NotificationPage.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(final NotificationPage page, final Class<?> type,
+            final Type genericType, final Annotation[] annotations,
+            final MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(final NotificationPage page, final Class<?> type,
+            final Type genericType, final Annotation[] annotations,
+            final MediaType mediaType,
+            final MultivaluedMap<String, Object> httpHeaders,
+            final OutputStream entityStream) throws IOException {
+        write(page, entityStream);
+    }
+
+    /**
+     * Write a page of notifications as a JSON array
+     *
+     * @param page
+     *            Page of notifications to write
+     * @param output
+     *            Stream to write to, which is left open
+     * @throws IOException
+     *             if unable to write the notifications
+     */
+    public void write(@Nonnull final NotificationPage page,
+            @Nonnull final OutputStream output) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(output,
+                JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (indent) {
+                generator.useDefaultPrettyPrinter();
+            }
+            writeNotifications(generator, page.getNotifications(),
+                    new char[DATE_TIME_LENGTH]);
+        }
+    }
+
+    private void writeNotifications(@Nonnull final JsonGenerator generator,
+            @Nonnull final Collection<Notification> notifications,
+            @Nonnull final char[] buffer) throws IOException {
+        generator.writeStartArray();
+        for (final Notification notification : notifications) {
+            writeNotification(generator, notification, buffer);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeNotification(@Nonnull final JsonGenerator generator,
+            @Nonnull final Notification notification,
+            @Nonnull final char[] buffer) throws IOException {
+        generator.writeStartObject();
+
+        final Optional<Long> id = notification.getId();
+        if (id.isPresent()) {
+            generator.writeNumberField("id", id.get());
+        }
+        writeStringField(generator, "id_str",
+                notification.getIdStr().orElse(null));
+        writeStringField(generator, "category", notification.getCategory());
+        writeStringField(generator, "message", notification.getMessage());
+
+        generator.writeFieldName("created_at");
+        writeDateTime(generator, notification.getCreatedAt().getMillis(),
+                buffer);
+
+        final Optional<Boolean> unseen = notification.getUnseen();
+        if (unseen.isPresent()) {
+            generator.writeBooleanField("unseen", unseen.get());
+        }
+
+        final Map<String, String> properties = notification.getProperties();
+        if (!properties.isEmpty()) {
+            generator.writeObjectFieldStart("properties");
+            for (final Map.Entry<String, String> property : properties
+                    .entrySet()) {
+                generator.writeStringField(property.getKey(),
+                        property.getValue());
+            }
+            generator.writeEndObject();
+        }
+
+        final Collection<Notification> notifications = notification
+                .getNotifications();
+        if (!notifications.isEmpty()) {
+            generator.writeFieldName("notifications");
+            writeNotifications(generator, notifications, buffer);
+        }
+
+        generator.writeEndObject();
+    }
+
+    private static void writeStringField(
+            @Nonnull final JsonGenerator generator,
+            @Nonnull final String name, @Nullable final String value)
+            throws IOException {
+        if (!Strings.isNullOrEmpty(value)) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    /**
+     * Write a point in time either as epoch milliseconds or as an ISO-8601
+     * string in UTC
+     *
+     * @param generator
+     *            JSON generator
+     * @param millis
+     *            Epoch milliseconds to write
+     * @param buffer
+     *            Buffer to format the date time into
+     * @throws IOException
+     *             if unable to write the value
+     */
+    private void writeDateTime(@Nonnull final JsonGenerator generator,
+            final long millis, @Nonnull final char[] buffer)
+            throws IOException {
+        if (timestamps) {
+            generator.writeNumber(millis);
+            return;
+        }
+
+        if (millis < 0 || millis >= MAX_MILLIS) {
+            generator.writeString(ISO_FORMATTER.print(millis));
+            return;
+        }
+
+        final long epochDay = millis / MILLIS_PER_DAY;
+        FormattedDate date = lastDate;
+        if (date.epochDay != epochDay) {
+            date = new FormattedDate(epochDay);
+            lastDate = date;
+        }
+
+        System.arraycopy(date.chars, 0, buffer, 0, DATE_LENGTH);
+
+        int time = (int) (millis - epochDay * MILLIS_PER_DAY);
+        final int fraction = time % 1000;
+        time /= 1000;
+        final int seconds = time % 60;
+        time /= 60;
+        final int minutes = time % 60;
+        final int hours = time / 60;
+
+        writeDigits(buffer, 11, hours, 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, minutes, 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, seconds, 2);
+        buffer[19] = '.';
+        writeDigits(buffer, 20, fraction, 3);
+        buffer[23] = 'Z';
+
+        generator.writeString(buffer, 0, DATE_TIME_LENGTH);
+    }
+
+    private static void writeDigits(@Nonnull final char[] buffer,
+            final int offset, final int value, final int length) {
+        int remaining = value;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    /**
+     * The "yyyy-MM-ddT" prefix of an ISO-8601 date time for a given day
+     */
+    private static final class FormattedDate {
+        final long epochDay;
+        final char[] chars = new char[DATE_LENGTH];
+
+        FormattedDate(final long epochDay) {
+            this.epochDay = epochDay;
+
+            final LocalDate date = LocalDate.ofEpochDay(epochDay);
+            writeDigits(chars, 0, date.getYear(), 4);
+            chars[4] = '-';
+            writeDigits(chars, 5, date.getMonthValue(), 2);
+            chars[7] = '-';
+            writeDigits(chars, 8, date.getDayOfMonth(), 2);
+            chars[10] = 'T';
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.api.ProtobufConverter;
+import com.smoketurner.notification.api.Rule;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB;
+import com.smoketurner.notification.application.core.NotificationPage;
+import com.smoketurner.notification.application.exceptions.NotificationException;
+import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
+
+/**
+ * Reads and writes notifications and rules as the protocol buffer messages
+ * defined by the API, so other services can exchange them without JSON.
+ * Pages of notifications and maps of rules (which must be returned as a
+ * {@link javax.ws.rs.core.GenericEntity}) are written as a single message.
+ */
+@Provider
+@Produces(ProtocolBufferMediaType.APPLICATION_PROTOBUF)
+@Consumes(ProtocolBufferMediaType.APPLICATION_PROTOBUF)
+public class NotificationProtobufProvider
+        implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    @Override
+    public boolean isReadable(final Class<?> type, final Type genericType,
+            final Annotation[] annotations, final MediaType mediaType) {
+        return Notification.class.equals(type) || Rule.class.equals(type);
+    }
+
+    @Override
+    public Object readFrom(final Class<Object> type, final Type genericType,
+            final Annotation[] annotations, final MediaType mediaType,
+            final MultivaluedMap<String, String> httpHeaders,
+            final InputStream entityStream) throws IOException {
+        try {
+            if (Notification.class.equals(type)) {
+                return ProtobufConverter
+                        .fromProto(NotificationPB.parseFrom(entityStream));
+            }
+            return ProtobufConverter
+                    .fromProto(RulePB.parseFrom(entityStream));
+        } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+            throw new NotificationException(Response.Status.BAD_REQUEST,
+                    "Unable to parse request body", e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(final Class<?> type, final Type genericType,
+            final Annotation[] annotations, final MediaType mediaType) {
+        return Notification.class.equals(type)
+                || NotificationPage.class.equals(type)
+                || isRuleMap(type, genericType);
+    }
+
+    @Override
+    public long getSize(final Object entity, final Class<?> type,
+            final Type genericType, final Annotation[] annotations,
+            final MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeTo(final Object entity, final Class<?> type,
+            final Type genericType, final Annotation[] annotations,
+            final MediaType mediaType,
+            final MultivaluedMap<String, Object> httpHeaders,
+            final OutputStream entityStream) throws IOException {
+
+        final Message message;
+        if (entity instanceof Notification) {
+            message = ProtobufConverter.toProto((Notification) entity);
+        } else if (entity instanceof NotificationPage) {
+            message = ProtobufConverter.toProto(
+                    ((NotificationPage) entity).getNotifications());
+        } else {
+            message = ProtobufConverter.toProto((Map<String, Rule>) entity);
+        }
+        message.writeTo(entityStream);
+    }
+
+    /**
+     * Return whether the type is a map of rules keyed by category
+     *
+     * @param type
+     *            Entity class
+     * @param genericType
+     *            Entity type
+     * @return true if the entity is a map of rules, otherwise false
+     */
+    private static boolean isRuleMap(@Nonnull final Class<?> type,
+            final Type genericType) {
+        if (!Map.class.isAssignableFrom(type)
+                || !(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+        final Type[] arguments = ((ParameterizedType) genericType)
+                .getActualTypeArguments();
+        return arguments.length == 2 && String.class.equals(arguments[0])
+                && Rule.class.equals(arguments[1]);
+    }
+}
@@ -15,15 +15,23 @@
  */
 package com.smoketurner.notification.application.resources;
 
-import java.util.Date;
-import java.util.NoSuchElementException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
@@ -31,25 +39,44 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriBuilder;
 import org.glassfish.jersey.server.JSONP;
+import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.codahale.metrics.annotation.Timed;
-import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Iterables;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.smoketurner.notification.api.BulkNotification;
+import com.smoketurner.notification.api.BulkNotificationResult;
 import com.smoketurner.notification.api.Notification;
 import com.smoketurner.notification.application.core.LongSetParam;
+import com.smoketurner.notification.application.core.NotificationPage;
 import com.smoketurner.notification.application.core.RangeHeader;
-import com.smoketurner.notification.application.core.UserNotifications;
 import com.smoketurner.notification.application.exceptions.NotificationException;
 import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import com.smoketurner.notification.application.store.NotificationSnapshot;
 import com.smoketurner.notification.application.store.NotificationStore;
 import io.dropwizard.jersey.caching.CacheControl;
+import io.dropwizard.jackson.Jackson;
 import io.dropwizard.jersey.errors.ErrorMessage;
+import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
+import io.dropwizard.jersey.validation.Validators;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -67,8 +94,13 @@ public class NotificationResource {
     private static final String NEXT_RANGE_HEADER = "Next-Range";
     private static final int DEFAULT_LIMIT = 20;
     private static final int MAX_LIMIT = 1000;
+    public static final int DEFAULT_MAX_RECIPIENTS = 1000;
     private static final String RANGE_NAME = "id";
+    private static final ObjectReader BULK_READER = Jackson.newObjectMapper()
+            .readerFor(BulkNotification.class);
+    private static final Validator VALIDATOR = Validators.newValidator();
     private final NotificationStore store;
+    private final int maxRecipients;
 
     /**
      * Constructor
@@ -77,148 +109,315 @@ public class NotificationResource {
      *            Notification data store
      */
     public NotificationResource(@Nonnull final NotificationStore store) {
+        this(store, DEFAULT_MAX_RECIPIENTS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param store
+     *            Notification data store
+     * @param maxRecipients
+     *            Maximum number of recipients in a bulk request
+     */
+    public NotificationResource(@Nonnull final NotificationStore store,
+            final int maxRecipients) {
+        Preconditions.checkArgument(maxRecipients > 0,
+                "maxRecipients must be greater than zero");
         this.store = Objects.requireNonNull(store);
+        this.maxRecipients = maxRecipients;
     }
 
     @GET
     @JSONP
     @Timed
     @Path("/{username}")
-    @Produces({ MediaType.APPLICATION_JSON, "application/javascript" })
-    @CacheControl(mustRevalidate = true, noCache = true, noStore = true)
+    @Produces({ MediaType.APPLICATION_JSON, "application/javascript",
+            ProtocolBufferMediaType.APPLICATION_PROTOBUF })
+    @CacheControl(isPrivate = true, noCache = true)
     @ApiOperation(value = "Fetch Notifications", notes = "Return notifications for the given username", responseContainer = "List", response = Notification.class)
     @ApiResponses(value = {
+            @ApiResponse(code = 304, message = "Notifications not modified"),
             @ApiResponse(code = 500, message = "Unable to fetch notifications", response = ErrorMessage.class),
             @ApiResponse(code = 404, message = "Notifications not found", response = ErrorMessage.class) })
-    public Response fetch(
+    public void fetch(@Suspended final AsyncResponse asyncResponse,
+            @Context final Request request,
+            @Context final HttpHeaders headers,
             @ApiParam(value = "range header", required = false) @HeaderParam("Range") final String rangeHeader,
-            @ApiParam(value = "username", required = true) @PathParam("username") final String username) {
+            @ApiParam(value = "username", required = true) @PathParam("username") final String username,
+            @ApiParam(value = "whether to mark notifications as seen and return their unseen state", required = false) @QueryParam("cursor") @DefaultValue("true") final boolean cursor) {
 
-        final Optional<UserNotifications> list;
-        try {
-            list = store.fetch(username);
-        } catch (NotificationStoreException e) {
-            throw new NotificationException(
-                    Response.Status.INTERNAL_SERVER_ERROR,
-                    "Unable to fetch notifications", e);
+        // Only a Range request for a single page can be served from part of
+        // the notification list, so only those pass the range to the store.
+        final CompletableFuture<NotificationSnapshot> future;
+        if (rangeHeader == null) {
+            future = store.fetchSnapshotAsync(username, cursor);
+        } else {
+            final RangeHeader range = RangeHeader.parse(rangeHeader);
+            future = store.fetchPageSnapshotAsync(username, cursor,
+                    range.getFromId(), range.getFromInclusive().orElse(true),
+                    Math.min(range.getMax().orElse(DEFAULT_LIMIT), MAX_LIMIT));
         }
 
-        if (!list.isPresent()) {
+        future.whenComplete((snapshot, error) -> {
+            if (error != null) {
+                asyncResponse.resume(new NotificationException(
+                        Response.Status.INTERNAL_SERVER_ERROR,
+                        "Unable to fetch notifications", unwrap(error)));
+                return;
+            }
+            try {
+                asyncResponse.resume(buildFetchResponse(request, headers,
+                        rangeHeader, snapshot));
+            } catch (WebApplicationException e) {
+                asyncResponse.resume(e);
+            } catch (RuntimeException e) {
+                asyncResponse.resume(new NotificationException(
+                        Response.Status.INTERNAL_SERVER_ERROR,
+                        "Unable to fetch notifications", e));
+            }
+        });
+    }
+
+    /**
+     * Build the response for a fetched snapshot of notifications. If the
+     * client's copy is still current, a 304 response is returned without
+     * splitting or rolling up the notifications. Only the entity tag is
+     * evaluated, since Last-Modified only has a precision of one second and
+     * does not change when a notification is removed.
+     *
+     * @param request
+     *            Request to evaluate the preconditions of
+     * @param headers
+     *            Request headers
+     * @param rangeHeader
+     *            Range request header, if any
+     * @param snapshot
+     *            Fetched notification list, cursor and rules
+     * @return the response
+     */
+    private Response buildFetchResponse(final Request request,
+            final HttpHeaders headers, final String rangeHeader,
+            final NotificationSnapshot snapshot) {
+
+        if (!snapshot.isPresent()) {
             throw new NotificationException(Response.Status.NOT_FOUND,
                     "Notifications not found");
         }
 
-        final ImmutableSortedSet<Notification> notifications = list.get()
-                .getNotifications();
-        final int total = notifications.size();
-
-        // if there are no notifications, just return an empty list
-        if (total < 1) {
-            return Response.ok(notifications)
-                    .header(ACCEPT_RANGES_HEADER, RANGE_NAME).build();
+        final EntityTag entityTag = entityTag(snapshot, rangeHeader,
+                headers.getHeaderString(HttpHeaders.ACCEPT));
+        final ResponseBuilder preconditions = request
+                .evaluatePreconditions(entityTag);
+        if (preconditions != null) {
+            final Response response = preconditions.tag(entityTag).build();
+            if (response.getStatus() == Response.Status.NOT_MODIFIED
+                    .getStatusCode()) {
+                store.notModified(snapshot);
+            }
+            return response;
         }
 
-        // The newest notification is always the first notification in the list
-        // and is used to set the Last-Modified response header below.
-        final Notification newest = notifications.first();
-        final Notification oldest = notifications.last();
-
-        Notification from = newest;
-        boolean fromInclusive = true;
-        Notification to;
-        boolean toInclusive = true;
-
-        int limit = DEFAULT_LIMIT;
-        final ResponseBuilder builder;
-
         // If no Range header is present on the request, return a 200 response
+        // and cache all of the rolled up notifications for the next request.
+        // If a Range header is present, return a 206 response and only roll
+        // up as many notifications as are needed for the requested page.
+        final ResponseBuilder builder;
+        final int limit;
+        final Optional<NotificationPage> page;
         if (rangeHeader == null) {
             builder = Response.ok();
-            try {
-                to = Iterables.getLast(
-                        store.skip(notifications, from.getId(0L), true, limit));
-            } catch (NoSuchElementException e) {
-                LOGGER.debug("List of notifications is empty, using oldest", e);
-                to = oldest;
-            }
+            limit = DEFAULT_LIMIT;
+            page = store.resolve(snapshot)
+                    .map(notifications -> NotificationPage.of(notifications,
+                            Optional.empty(), true, limit));
         } else {
-            // If a Range header is present, return a 206 response
             builder = Response.status(Response.Status.PARTIAL_CONTENT);
             final RangeHeader range = RangeHeader.parse(rangeHeader);
-            limit = range.getMax().orElse(DEFAULT_LIMIT);
-            if (limit > MAX_LIMIT) {
-                limit = MAX_LIMIT;
-            }
-            try {
-                if (range.getFromId().isPresent()) {
-                    from = notifications.floor(Notification.builder()
-                            .withId(range.getFromId().get()).build());
-                    if (from == null) {
-                        from = newest;
-                    }
-                    fromInclusive = range.getFromInclusive().orElse(true);
+            limit = Math.min(range.getMax().orElse(DEFAULT_LIMIT), MAX_LIMIT);
+            page = store.resolvePage(snapshot, range.getFromId(),
+                    range.getFromInclusive().orElse(true), limit);
+        }
 
-                    to = Iterables.getLast(store.skip(notifications,
-                            from.getId(0L), fromInclusive, limit));
-                } else {
-                    to = Iterables.getLast(store.skip(notifications,
-                            from.getId(0L), true, limit));
-                }
-            } catch (NoSuchElementException e) {
-                LOGGER.debug("List of notifications is empty, using oldest", e);
-                to = oldest;
-            }
+        return buildFetchResponse(builder, snapshot, page, limit)
+                .tag(entityTag).build();
+    }
+
+    /**
+     * Compute a strong entity tag for a snapshot. The rolled up notifications
+     * only change if the newest notification, the number of notifications,
+     * the cursor or the rules change, and the representation also depends on
+     * the requested range and media type.
+     *
+     * @param snapshot
+     *            Fetched notification list, cursor and rules
+     * @param rangeHeader
+     *            Range request header, if any
+     * @param accept
+     *            Accept request header, if any
+     * @return the entity tag
+     */
+    private static EntityTag entityTag(final NotificationSnapshot snapshot,
+            @Nullable final String rangeHeader,
+            @Nullable final String accept) {
+        final Optional<Long> cursor = snapshot.getCursor();
+        final Hasher hasher = Hashing.murmur3_128().newHasher()
+                .putLong(snapshot.getNewestId()).putInt(snapshot.size())
+                .putLong(snapshot.getRules().getVersion())
+                .putBoolean(snapshot.isTracked())
+                .putBoolean(cursor.isPresent()).putLong(cursor.orElse(0L));
+        putString(hasher, rangeHeader);
+        putString(hasher, accept);
+        return new EntityTag(hasher.hash().toString());
+    }
+
+    private static void putString(final Hasher hasher,
+            @Nullable final String value) {
+        final String string = Strings.nullToEmpty(value);
+        hasher.putInt(string.length()).putString(string,
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Build the paginated response for a page of notifications
+     *
+     * @param builder
+     *            Response builder
+     * @param snapshot
+     *            Fetched notification list, cursor and rules
+     * @param page
+     *            Page of rolled up notifications
+     * @param limit
+     *            Maximum number of notifications on the page
+     * @return the response builder
+     */
+    private static ResponseBuilder buildFetchResponse(
+            final ResponseBuilder builder, final NotificationSnapshot snapshot,
+            final Optional<NotificationPage> page, final int limit) {
+
+        if (!page.isPresent()) {
+            throw new NotificationException(Response.Status.NOT_FOUND,
+                    "Notifications not found");
+        }
+
+        // if there are no notifications, just return an empty list
+        final Optional<DateTime> lastModified = snapshot.getLastModified();
+        if (!lastModified.isPresent()) {
+            return Response.ok(page.get()).header(ACCEPT_RANGES_HEADER,
+                    RANGE_NAME);
         }
 
         // Add the Accept-Ranges response header
         builder.header(ACCEPT_RANGES_HEADER, RANGE_NAME);
 
-        // Add the Last-Modified response header
-        builder.lastModified(new Date(newest.getCreatedAt().getMillis()));
+        // Add the Last-Modified response header. The newest notification is
+        // always the first notification in the rolled up list, so this is
+        // the same whichever page is returned.
+        builder.lastModified(lastModified.get().toDate());
 
-        final ImmutableSortedSet<Notification> subSet = notifications
-                .subSet(from, fromInclusive, to, toInclusive);
-        if (!subSet.isEmpty()) {
-            final long firstId = subSet.first().getId(0L);
-            final long lastId = subSet.last().getId(0L);
+        final ImmutableList<Notification> notifications = page.get()
+                .getNotifications();
+        if (!notifications.isEmpty()) {
+            final long firstId = notifications.get(0).getId(0L);
+            final long lastId = notifications.get(notifications.size() - 1)
+                    .getId(0L);
 
             // Add the Content-Range and Next-Range response headers
             builder.header(CONTENT_RANGE_HEADER,
                     String.format("%s %d..%d", RANGE_NAME, firstId, lastId));
-            if (subSet.last().compareTo(oldest) < 0) {
+            if (page.get().hasMore()) {
                 builder.header(NEXT_RANGE_HEADER, String
                         .format("%s ]%d..; max=%d", RANGE_NAME, lastId, limit));
             }
         }
 
-        return builder.entity(subSet).build();
+        return builder.entity(page.get());
     }
 
     @POST
     @Timed
-    @Path("/{username}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    @ApiOperation(value = "Store Notification", notes = "Add a new notification", response = Notification.class)
+    @ApiOperation(value = "Store Notifications", notes = "Add notifications for many users at once", responseContainer = "List", response = BulkNotificationResult.class)
     @ApiResponses(value = {
-            @ApiResponse(code = 500, message = "Unable to store notification", response = ErrorMessage.class) })
-    public Response add(
-            @ApiParam(value = "username", required = true) @PathParam("username") final String username,
-            @ApiParam(value = "notification", required = true) @NotNull @Valid final Notification notification) {
+            @ApiResponse(code = 400, message = "Unable to parse notifications", response = ErrorMessage.class),
+            @ApiResponse(code = 413, message = "Too many recipients", response = ErrorMessage.class),
+            @ApiResponse(code = 422, message = "Invalid notification", response = ErrorMessage.class),
+            @ApiResponse(code = 500, message = "Unable to store notifications", response = ErrorMessage.class) })
+    public Response addAll(
+            @ApiParam(value = "notifications", required = true) final InputStream input) {
+
+        // read the array one element at a time rather than binding the whole
+        // request body up front, and stop as soon as there are too many
+        // recipients. Invalid usernames are reported in the result for each
+        // recipient rather than failing the whole request.
+        final List<BulkNotification> notifications = new ArrayList<>();
+        int recipients = 0;
+        try (MappingIterator<BulkNotification> iterator = BULK_READER
+                .readValues(input)) {
+            while (iterator.hasNextValue()) {
+                final BulkNotification notification = iterator.nextValue();
+                if (!VALIDATOR.validate(notification).isEmpty()) {
+                    throw new NotificationException(422,
+                            "Invalid notification for recipients: "
+                                    + notification.getRecipients());
+                }
+                recipients += notification.getRecipients().size();
+                if (recipients > maxRecipients) {
+                    throw new NotificationException(
+                            Response.Status.REQUEST_ENTITY_TOO_LARGE,
+                            "Too many recipients, the maximum is "
+                                    + maxRecipients);
+                }
+                notifications.add(notification);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Unable to parse notifications", e);
+            throw new NotificationException(Response.Status.BAD_REQUEST,
+                    "Unable to parse notifications", e);
+        }
 
-        final Notification storedNotification;
+        final List<BulkNotificationResult> results;
         try {
-            storedNotification = store.store(username, notification);
+            results = store.storeAll(notifications);
         } catch (NotificationStoreException e) {
             throw new NotificationException(
                     Response.Status.INTERNAL_SERVER_ERROR,
-                    "Unable to store notification", e);
+                    "Unable to store notifications", e);
         }
 
-        return Response
-                .created(UriBuilder.fromResource(NotificationResource.class)
-                        .path("{username}").build(username))
-                .entity(storedNotification).build();
+        return Response.ok(results).build();
+    }
+
+    @POST
+    @Timed
+    @Path("/{username}")
+    @Consumes({ MediaType.APPLICATION_JSON,
+            ProtocolBufferMediaType.APPLICATION_PROTOBUF })
+    @Produces({ MediaType.APPLICATION_JSON,
+            ProtocolBufferMediaType.APPLICATION_PROTOBUF })
+    @ApiOperation(value = "Store Notification", notes = "Add a new notification", response = Notification.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 500, message = "Unable to store notification", response = ErrorMessage.class) })
+    public void add(@Suspended final AsyncResponse asyncResponse,
+            @ApiParam(value = "username", required = true) @PathParam("username") final String username,
+            @ApiParam(value = "notification", required = true) @NotNull @Valid final Notification notification) {
+
+        store.storeAsync(username, notification)
+                .whenComplete((storedNotification, error) -> {
+                    if (error != null) {
+                        asyncResponse.resume(new NotificationException(
+                                Response.Status.INTERNAL_SERVER_ERROR,
+                                "Unable to store notification",
+                                unwrap(error)));
+                        return;
+                    }
+                    asyncResponse.resume(Response
+                            .created(UriBuilder
+                                    .fromResource(NotificationResource.class)
+                                    .path("{username}").build(username))
+                            .entity(storedNotification).build());
+                });
     }
 
     @DELETE
@@ -239,4 +438,18 @@ public class NotificationResource {
 
         return Response.noContent().build();
     }
+
+    /**
+     * Return the underlying cause of a failed future
+     *
+     * @param error
+     *            Error the future was completed with
+     * @return the cause
+     */
+    private static Throwable unwrap(final Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
 }
@@ -28,6 +28,7 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.glassfish.jersey.server.JSONP;
@@ -38,6 +39,7 @@ import com.smoketurner.notification.application.exceptions.NotificationStoreExce
 import com.smoketurner.notification.application.store.RuleStore;
 import io.dropwizard.jersey.caching.CacheControl;
 import io.dropwizard.jersey.errors.ErrorMessage;
+import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -63,7 +65,8 @@ public class RuleResource {
     @GET
     @JSONP
     @Timed
-    @Produces({ MediaType.APPLICATION_JSON, "application/javascript" })
+    @Produces({ MediaType.APPLICATION_JSON, "application/javascript",
+            ProtocolBufferMediaType.APPLICATION_PROTOBUF })
     @CacheControl(mustRevalidate = true, noCache = true, noStore = true)
     @ApiOperation(value = "Fetch Rules", notes = "Return all of the rules",
                   responseContainer = "Map", response = Rule.class)
@@ -88,13 +91,16 @@ public class RuleResource {
                     "No rules found");
         }
 
-        return Response.ok(rules.get()).build();
+        // keep the generic type so the rules can be written as protobuf
+        return Response.ok(new GenericEntity<Map<String, Rule>>(rules.get()) {
+        }).build();
     }
 
     @PUT
     @Timed
     @Path("/{category}")
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Consumes({ MediaType.APPLICATION_JSON,
+            ProtocolBufferMediaType.APPLICATION_PROTOBUF })
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Store Rule", notes = "Add a new rule",
                   response = Rule.class)
@@ -44,7 +44,16 @@ public class CursorUpdate extends UpdateValue.Update<CursorObject> {
     public CursorObject apply(@Nullable CursorObject original) {
         if (original == null) {
             LOGGER.debug("original is null, creating new cursor");
-            original = new CursorObject(key, value);
+            return new CursorObject(key, value);
+        }
+
+        // cursors only move forward, so an update applied late or twice
+        // never moves a cursor back and an unchanged cursor isn't written
+        if (original.getValue() >= value) {
+            LOGGER.debug("cursor is already at {}, skipping update to {}",
+                    original.getValue(), value);
+            setModified(false);
+            return original;
         }
         original.setValue(value);
         return original;
@@ -15,87 +15,66 @@
  */
 package com.smoketurner.notification.application.riak;
 
+import java.io.IOException;
+import java.util.Objects;
 import javax.annotation.Nonnull;
-import org.joda.time.DateTime;
-import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.basho.riak.client.api.convert.ConversionException;
 import com.basho.riak.client.api.convert.Converter;
 import com.basho.riak.client.core.util.BinaryValue;
-import com.google.protobuf.InvalidProtocolBufferException;
-import com.smoketurner.notification.api.Notification;
-import com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB;
-import com.smoketurner.notification.application.protos.NotificationProtos.NotificationPB;
-import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
+import com.smoketurner.notification.application.store.CompactNotificationListCodec;
+import com.smoketurner.notification.application.store.NotificationListCodec;
 
 public class NotificationListConverter
         extends Converter<NotificationListObject> {
 
     private static final Logger LOGGER = LoggerFactory
             .getLogger(NotificationListConverter.class);
+    private final NotificationListCodec codec;
 
+    /**
+     * Constructor
+     */
     public NotificationListConverter() {
+        this(new NotificationListCodec());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param codec
+     *            Codec to serialize the notification lists with
+     */
+    public NotificationListConverter(@Nonnull final NotificationListCodec codec) {
         super(NotificationListObject.class);
+        this.codec = Objects.requireNonNull(codec);
     }
 
     @Override
     public NotificationListObject toDomain(@Nonnull final BinaryValue value,
             @Nonnull final String contentType) {
-        if (!ProtocolBufferMediaType.APPLICATION_PROTOBUF.equals(contentType)) {
+        if (!NotificationListCodec.PROTOBUF_CONTENT_TYPE.equals(contentType)
+                && !CompactNotificationListCodec.CONTENT_TYPE
+                        .equals(contentType)) {
             LOGGER.error("Invalid Content-Type: {}", contentType);
             throw new ConversionException(
                     "Invalid Content-Type: " + contentType);
         }
 
-        final NotificationListPB list;
         try {
-            list = NotificationListPB.parseFrom(value.unsafeGetValue());
-        } catch (InvalidProtocolBufferException e) {
-            LOGGER.error("Unable to convert value from Riak", e);
+            return codec.decode(value.unsafeGetValue(),
+                    new NotificationListObject());
+        } catch (IOException e) {
             throw new ConversionException(e);
         }
-
-        final NotificationListObject obj = new NotificationListObject();
-        list.getNotificationList().stream()
-                .map(NotificationListConverter::convert)
-                .forEach(obj::addNotification);
-        obj.deleteNotifications(list.getDeletedIdList());
-        return obj;
     }
 
     @Override
     public ContentAndType fromDomain(
             @Nonnull final NotificationListObject domainObject) {
-        final NotificationListPB.Builder builder = NotificationListPB
-                .newBuilder().addAllDeletedId(domainObject.getDeletedIds());
-
-        domainObject.getNotifications().stream()
-                .map(NotificationListConverter::convert)
-                .forEach(builder::addNotification);
-
-        final NotificationListPB list = builder.build();
-
-        return new ContentAndType(BinaryValue.unsafeCreate(list.toByteArray()),
-                ProtocolBufferMediaType.APPLICATION_PROTOBUF);
-    }
-
-    private static Notification convert(
-            @Nonnull final NotificationPB notification) {
-        return Notification.builder().withId(notification.getId())
-                .withCategory(notification.getCategory())
-                .withMessage(notification.getMessage())
-                .withCreatedAt(new DateTime(notification.getCreatedAt(),
-                        DateTimeZone.UTC))
-                .withProperties(notification.getPropertyMap()).build();
-    }
-
-    private static NotificationPB convert(
-            @Nonnull final Notification notification) {
-        return NotificationPB.newBuilder().setId(notification.getId().get())
-                .setCategory(notification.getCategory())
-                .setMessage(notification.getMessage())
-                .setCreatedAt(notification.getCreatedAt().getMillis())
-                .putAllProperty(notification.getProperties()).build();
+        return new ContentAndType(
+                BinaryValue.unsafeCreate(codec.encode(domainObject)),
+                codec.getContentType());
     }
 }
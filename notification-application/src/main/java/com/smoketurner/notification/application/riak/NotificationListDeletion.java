@@ -15,20 +15,20 @@
  */
 package com.smoketurner.notification.application.riak;
 
-import java.util.Collection;
 import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.basho.riak.client.api.commands.kv.UpdateValue;
+import com.smoketurner.notification.application.core.LongSet;
 
 public class NotificationListDeletion
         extends UpdateValue.Update<NotificationListObject> {
 
     private static final Logger LOGGER = LoggerFactory
             .getLogger(NotificationListDeletion.class);
-    private final Collection<Long> ids;
+    private final LongSet ids;
 
     /**
      * Constructor
@@ -36,7 +36,7 @@ public class NotificationListDeletion
      * @param ids
      *            Notification IDs to delete
      */
-    public NotificationListDeletion(@Nonnull final Collection<Long> ids) {
+    public NotificationListDeletion(@Nonnull final LongSet ids) {
         this.ids = Objects.requireNonNull(ids);
     }
 
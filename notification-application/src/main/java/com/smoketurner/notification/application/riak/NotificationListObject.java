@@ -15,13 +15,9 @@
  */
 package com.smoketurner.notification.application.riak;
 
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
-import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import com.basho.riak.client.api.annotations.RiakBucketName;
 import com.basho.riak.client.api.annotations.RiakContentType;
 import com.basho.riak.client.api.annotations.RiakKey;
@@ -31,11 +27,13 @@ import com.basho.riak.client.api.annotations.RiakVClock;
 import com.basho.riak.client.api.annotations.RiakVTag;
 import com.basho.riak.client.api.cap.VClock;
 import com.google.common.base.MoreObjects;
-import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.store.NotificationList;
 
-public class NotificationListObject {
-
-    private static final int MAX_NOTIFICATIONS = 1000;
+/**
+ * A {@link NotificationList} as stored in Riak, along with the metadata of
+ * the object it was read from.
+ */
+public class NotificationListObject extends NotificationList {
 
     @RiakBucketName
     private final String bucketName = "notifications";
@@ -58,9 +56,6 @@ public class NotificationListObject {
     @RiakVTag
     private String vtag;
 
-    private final TreeSet<Notification> notifications = new TreeSet<>();
-    private final Set<Long> deletedIds = new HashSet<>();
-
     /**
      * Constructor
      */
@@ -77,46 +72,27 @@ public class NotificationListObject {
         this.key = Objects.requireNonNull(key);
     }
 
-    public void addNotification(final Notification notification) {
-        notifications.add(notification);
-        if (notifications.size() > MAX_NOTIFICATIONS) {
-            notifications.pollLast();
-        }
-    }
-
-    public void addNotifications(final Collection<Notification> notifications) {
-        this.notifications.addAll(notifications);
-        while (this.notifications.size() > MAX_NOTIFICATIONS) {
-            this.notifications.pollLast();
-        }
-    }
-
-    public void deleteNotification(final long id) {
-        deletedIds.add(id);
-    }
-
-    public void deleteNotifications(final Collection<Long> ids) {
-        deletedIds.addAll(ids);
-    }
-
     public String getKey() {
         return key;
     }
 
-    public SortedSet<Notification> getNotifications() {
-        return notifications;
+    @Nullable
+    public VClock getVClock() {
+        return vclock;
+    }
+
+    public void setVClock(@Nullable final VClock vclock) {
+        this.vclock = vclock;
     }
 
-    public Set<Long> getDeletedIds() {
-        return deletedIds;
+    @Nullable
+    public String getVTag() {
+        return vtag;
     }
 
     @Override
     public boolean equals(final Object obj) {
-        if (this == obj) {
-            return true;
-        }
-        if ((obj == null) || (getClass() != obj.getClass())) {
+        if (!super.equals(obj)) {
             return false;
         }
 
@@ -126,15 +102,13 @@ public class NotificationListObject {
                 && Objects.equals(tombstone, other.tombstone)
                 && Objects.equals(contentType, other.contentType)
                 && Objects.equals(lastModified, other.lastModified)
-                && Objects.equals(vtag, other.vtag)
-                && Objects.equals(notifications, other.notifications)
-                && Objects.equals(deletedIds, other.deletedIds);
+                && Objects.equals(vtag, other.vtag);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(key, vclock, tombstone, contentType, lastModified,
-                vtag, notifications, deletedIds);
+        return Objects.hash(super.hashCode(), key, vclock, tombstone,
+                contentType, lastModified, vtag);
     }
 
     @Override
@@ -143,7 +117,8 @@ public class NotificationListObject {
                 .add("vclock", vclock).add("tombstone", tombstone)
                 .add("contentType", contentType)
                 .add("lastModified", lastModified).add("vtag", vtag)
-                .add("notifications", notifications)
-                .add("deletedIds", deletedIds).toString();
+                .add("notifications", getNotifications())
+                .add("deletedIds", getDeletedIds()).add("shards", getShards())
+                .add("segments", getSegments()).toString();
     }
 }
@@ -19,31 +19,63 @@ import static com.codahale.metrics.MetricRegistry.name;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
+import java.util.SortedSet;
+import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.basho.riak.client.api.cap.ConflictResolver;
 import com.basho.riak.client.api.cap.UnresolvedConflictException;
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Ordering;
 import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.store.NotificationList;
+import io.dropwizard.util.Duration;
 
 public class NotificationListResolver
         implements ConflictResolver<NotificationListObject> {
 
     private static final Logger LOGGER = LoggerFactory
             .getLogger(NotificationListResolver.class);
+    public static final Duration DEFAULT_TOMBSTONE_AGE = Duration.days(7);
+
+    private final long tombstoneAgeMillis;
     private final Histogram siblingCounts;
+    private final Histogram tombstoneCounts;
+    private final Meter compactedTombstones;
 
     /**
      * Constructor
      */
     public NotificationListResolver() {
+        this(DEFAULT_TOMBSTONE_AGE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param tombstoneAge
+     *            How long before the newest ID in a notification list to
+     *            retain deleted notification IDs. This should be longer than
+     *            a sibling can go unresolved in Riak.
+     */
+    public NotificationListResolver(@Nonnull final Duration tombstoneAge) {
+        this.tombstoneAgeMillis = Objects.requireNonNull(tombstoneAge)
+                .toMilliseconds();
+
         final MetricRegistry registry = SharedMetricRegistries
                 .getOrCreate("default");
         this.siblingCounts = registry.histogram(
                 name(NotificationListResolver.class, "sibling-counts"));
+        this.tombstoneCounts = registry.histogram(
+                name(NotificationListResolver.class, "tombstone-counts"));
+        this.compactedTombstones = registry.meter(
+                name(NotificationListResolver.class, "compacted-tombstones"));
     }
 
     @Override
@@ -57,22 +89,27 @@ public class NotificationListResolver
             final Iterator<NotificationListObject> iterator = siblings
                     .iterator();
             final NotificationListObject resolved = iterator.next();
-            final Set<Long> deletedIds = resolved.getDeletedIds();
+            final LongSet deletedIds = resolved.getDeletedIds();
 
-            // add all notifications
+            // combine the deleted IDs first so deleted notifications can be
+            // skipped while merging
             while (iterator.hasNext()) {
                 final NotificationListObject sibling = iterator.next();
-                resolved.addNotifications(sibling.getNotifications());
                 deletedIds.addAll(sibling.getDeletedIds());
+                resolved.setShards(
+                        Math.max(resolved.getShards(), sibling.getShards()));
+                resolved.getSegments().addAll(sibling.getSegments());
             }
-
-            // remove deleted notifications
             if (!deletedIds.isEmpty()) {
                 LOGGER.debug("IDs to delete: {}", deletedIds);
-                removeNotifications(resolved.getNotifications(), deletedIds);
             }
 
-            return resolved;
+            final SortedSet<Notification> merged = merge(siblings, deletedIds,
+                    NotificationList.MAX_NOTIFICATIONS);
+            resolved.getNotifications().clear();
+            resolved.getNotifications().addAll(merged);
+
+            return compact(resolved);
         } else if (siblings.size() == 1) {
 
             final NotificationListObject resolved = siblings.get(0);
@@ -80,35 +117,148 @@ public class NotificationListResolver
             // remove deleted notifications
             if (!resolved.getDeletedIds().isEmpty()) {
                 LOGGER.debug("IDs to delete: {}", resolved.getDeletedIds());
-                removeNotifications(resolved.getNotifications(),
+                NotificationList.removeNotifications(
+                        resolved.getNotifications(),
                         resolved.getDeletedIds());
             }
 
-            return resolved;
+            return compact(resolved);
         } else {
             return null;
         }
     }
 
     /**
-     * Remove the given notification IDs from the list of notifications.
-     * 
-     * @param notifications
-     *            Notifications to delete from
-     * @param ids
-     *            Notification IDs to delete
+     * Merge the notifications of each sibling, newest first. Each sibling's
+     * notifications are already sorted, so they are merged through a heap
+     * holding the next notification from each sibling rather than inserted
+     * into a set one at a time. When siblings share an ID, the notification
+     * from the earliest sibling is kept. Deleted notifications are skipped,
+     * and the merge stops once the limit is reached.
+     *
+     * @param siblings
+     *            Siblings to merge
+     * @param deletedIds
+     *            Notification IDs to skip
+     * @param limit
+     *            Maximum number of notifications to return
+     * @return the merged notifications
      */
-    public static void removeNotifications(
-            final Collection<Notification> notifications,
-            final Collection<Long> ids) {
+    static SortedSet<Notification> merge(
+            final Collection<NotificationListObject> siblings,
+            final LongSet deletedIds, final int limit) {
+
+        final Cursor[] heap = new Cursor[siblings.size()];
+        int size = 0;
+        for (NotificationListObject sibling : siblings) {
+            final Cursor cursor = new Cursor(size,
+                    sibling.getNotifications().iterator());
+            if (cursor.advance()) {
+                heap[size++] = cursor;
+            }
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, size, i);
+        }
+
+        // building from sorted notifications with the same ordering as
+        // NotificationListObject lets the list copy them in linear time
+        final ImmutableSortedSet.Builder<Notification> builder = ImmutableSortedSet
+                .orderedBy(Ordering.natural());
+        int count = 0;
+        boolean first = true;
+        long previousId = 0L;
+        while (count < limit && size > 0) {
+            final Cursor cursor = heap[0];
+            final Notification notification = cursor.notification;
+            final long id = cursor.id;
+            if ((first || id != previousId)
+                    && notification.getId().isPresent()
+                    && !deletedIds.contains(id)) {
+                builder.add(notification);
+                count++;
+            }
+            first = false;
+            previousId = id;
+
+            // move the cursor on in place, which only needs one pass down
+            // the heap rather than removing it and adding it back
+            if (!cursor.advance()) {
+                heap[0] = heap[--size];
+                heap[size] = null;
+            }
+            siftDown(heap, size, 0);
+        }
+        return builder.build();
+    }
 
-        notifications.removeIf(notification -> {
-            if (!notification.getId().isPresent()) {
-                return true;
+    private static void siftDown(final Cursor[] heap, final int size,
+            int index) {
+        final Cursor cursor = heap[index];
+        int child;
+        while ((child = index * 2 + 1) < size) {
+            if (child + 1 < size && heap[child + 1].before(heap[child])) {
+                child++;
             }
-            return ids.contains(notification.getId().get());
-        });
-        // clear out the original set of IDs to delete
-        ids.clear();
+            if (!heap[child].before(cursor)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = cursor;
+    }
+
+    /**
+     * The next notification from one sibling during a merge
+     */
+    private static final class Cursor {
+
+        private final int index;
+        private final Iterator<Notification> iterator;
+        private Notification notification;
+        private long id;
+
+        Cursor(final int index, final Iterator<Notification> iterator) {
+            this.index = index;
+            this.iterator = iterator;
+        }
+
+        boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            notification = iterator.next();
+            id = notification.getId(0L);
+            return true;
+        }
+
+        /**
+         * Newest notification first, then the earliest sibling
+         */
+        boolean before(final Cursor that) {
+            return id > that.id || (id == that.id && index < that.index);
+        }
+    }
+
+    /**
+     * Drop any deleted IDs which are no longer needed. The remaining IDs are
+     * written back out with the list so that a sibling written from an older
+     * copy of the list can't bring the deleted notifications back.
+     *
+     * @param resolved
+     *            Resolved notification list
+     * @return the resolved notification list
+     */
+    private NotificationListObject compact(
+            final NotificationListObject resolved) {
+        final int compacted = resolved
+                .compactDeletedIds(tombstoneAgeMillis);
+        if (compacted > 0) {
+            LOGGER.debug("Dropped {} deleted IDs", compacted);
+            compactedTombstones.mark(compacted);
+        }
+        tombstoneCounts.update(resolved.getDeletedIds().size());
+        return resolved;
     }
 }
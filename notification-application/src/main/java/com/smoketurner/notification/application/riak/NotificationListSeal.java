@@ -0,0 +1,78 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.basho.riak.client.api.commands.kv.UpdateValue;
+import com.google.common.base.Preconditions;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.store.NotificationList;
+
+public class NotificationListSeal
+        extends UpdateValue.Update<NotificationListObject> {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(NotificationListSeal.class);
+    private final long segment;
+    private final LongSet ids;
+    private final int maxSegments;
+
+    /**
+     * Constructor
+     *
+     * @param segment
+     *            Newest notification ID in the sealed segment
+     * @param ids
+     *            Notification IDs which were moved into the segment
+     * @param maxSegments
+     *            Maximum number of segments to keep
+     */
+    public NotificationListSeal(final long segment,
+            @Nonnull final LongSet ids, final int maxSegments) {
+        Preconditions.checkArgument(maxSegments > 0,
+                "maxSegments must be greater than zero");
+        this.segment = segment;
+        this.ids = Objects.requireNonNull(ids);
+        this.maxSegments = maxSegments;
+    }
+
+    @Override
+    public NotificationListObject apply(
+            @Nullable NotificationListObject original) {
+        if (original == null) {
+            LOGGER.debug("original is null, creating new notification list");
+            original = new NotificationListObject();
+        }
+
+        // only the sealed notifications are removed, so a notification with
+        // an older ID which was added after the list was read is kept
+        NotificationList.removeNotifications(
+                original.getNotifications(), ids);
+
+        final LongSet segments = original.getSegments();
+        segments.add(segment);
+        if (segments.size() > maxSegments) {
+            final long[] sorted = segments.toSortedArray();
+            final long oldest = sorted[sorted.length - maxSegments];
+            segments.removeIf(id -> id < oldest);
+        }
+        return original;
+    }
+}
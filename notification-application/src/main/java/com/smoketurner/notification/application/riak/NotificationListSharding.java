@@ -0,0 +1,58 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.basho.riak.client.api.commands.kv.UpdateValue;
+import com.google.common.base.Preconditions;
+
+public class NotificationListSharding
+        extends UpdateValue.Update<NotificationListObject> {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(NotificationListSharding.class);
+    private final int shards;
+
+    /**
+     * Constructor
+     *
+     * @param shards
+     *            Number of shard keys to spread the notifications across
+     */
+    public NotificationListSharding(final int shards) {
+        Preconditions.checkArgument(shards > 0,
+                "shards must be greater than zero");
+        this.shards = shards;
+    }
+
+    @Override
+    public NotificationListObject apply(
+            @Nullable NotificationListObject original) {
+        if (original == null) {
+            LOGGER.debug("original is null, creating new notification list");
+            original = new NotificationListObject();
+        } else if (original.getShards() >= shards) {
+            // the shard count never shrinks, as notifications may already
+            // have been written to every shard
+            setModified(false);
+            return original;
+        }
+        original.setShards(shards);
+        return original;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.basho.riak.client.api.RiakClient;
+import com.basho.riak.client.api.commands.kv.FetchValue;
+import com.basho.riak.client.api.commands.kv.StoreValue;
+import com.basho.riak.client.core.query.Location;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Writes a resolved value back to Riak after a fetch which had to resolve
+ * siblings. The value is stored with the vector clock from the fetch, so it
+ * replaces the siblings it was resolved from, and later reads of the key no
+ * longer have to resolve them again. Any sibling written since the fetch is
+ * kept by Riak and resolved on the next read.
+ */
+public class ReadRepair {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(ReadRepair.class);
+    private final RiakClient client;
+    private final int siblingThreshold;
+    private final RateLimiter limiter;
+
+    // metrics
+    private final Histogram siblingCounts;
+    private final Meter repairs;
+    private final Meter throttled;
+    private final Meter failures;
+
+    /**
+     * Constructor
+     *
+     * @param client
+     *            Riak client
+     * @param name
+     *            Name of the repaired bucket, used to name the metrics
+     * @param siblingThreshold
+     *            Only repair values resolved from more than this number of
+     *            siblings
+     * @param repairsPerSecond
+     *            Maximum number of repairs to write per second
+     */
+    public ReadRepair(@Nonnull final RiakClient client,
+            @Nonnull final String name, final int siblingThreshold,
+            final double repairsPerSecond) {
+        Preconditions.checkArgument(siblingThreshold > 0,
+                "siblingThreshold must be greater than zero");
+        Preconditions.checkArgument(repairsPerSecond > 0,
+                "repairsPerSecond must be greater than zero");
+
+        this.client = Objects.requireNonNull(client);
+        this.siblingThreshold = siblingThreshold;
+        this.limiter = RateLimiter.create(repairsPerSecond);
+
+        final MetricRegistry registry = SharedMetricRegistries
+                .getOrCreate("default");
+        this.siblingCounts = registry.histogram(MetricRegistry
+                .name(ReadRepair.class, name, "sibling-counts"));
+        this.repairs = registry
+                .meter(MetricRegistry.name(ReadRepair.class, name, "repairs"));
+        this.throttled = registry.meter(
+                MetricRegistry.name(ReadRepair.class, name, "throttled"));
+        this.failures = registry
+                .meter(MetricRegistry.name(ReadRepair.class, name, "failures"));
+    }
+
+    /**
+     * Store the resolved value if the fetch had more siblings than the
+     * threshold. The value is converted before this method returns, so the
+     * caller is free to modify it afterwards.
+     *
+     * @param location
+     *            Location that was fetched
+     * @param response
+     *            Fetch response the value was resolved from
+     * @param value
+     *            Resolved value
+     * @return true if the value is being stored, otherwise false
+     */
+    public boolean repair(@Nonnull final Location location,
+            @Nonnull final FetchValue.Response response,
+            @Nonnull final Object value) {
+        final int siblings = response.getNumberOfValues();
+        siblingCounts.update(siblings);
+        if (siblings <= siblingThreshold || response.getVectorClock() == null) {
+            return false;
+        }
+        if (!limiter.tryAcquire()) {
+            throttled.mark();
+            return false;
+        }
+
+        LOGGER.debug("Repairing key {} with {} siblings", location, siblings);
+
+        final StoreValue storeValue = new StoreValue.Builder(value)
+                .withLocation(location)
+                .withVectorClock(response.getVectorClock())
+                .withOption(StoreValue.Option.RETURN_BODY, false).build();
+        try {
+            RiakFutures.toCompletableFuture(client.executeAsync(storeValue))
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            LOGGER.warn("Unable to repair key: " + location, e);
+                            failures.mark();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to repair key: " + location, e);
+            failures.mark();
+            return false;
+        }
+        repairs.mark();
+        return true;
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.basho.riak.client.api.RiakClient;
+import com.basho.riak.client.api.cap.UnresolvedConflictException;
+import com.basho.riak.client.api.commands.buckets.StoreBucketProperties;
+import com.basho.riak.client.api.commands.kv.DeleteValue;
+import com.basho.riak.client.api.commands.kv.FetchValue;
+import com.basho.riak.client.api.commands.kv.StoreValue;
+import com.basho.riak.client.api.commands.kv.UpdateValue;
+import com.basho.riak.client.core.query.Location;
+import com.basho.riak.client.core.query.Namespace;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import com.smoketurner.notification.application.store.CursorRepository;
+
+public class RiakCursorRepository implements CursorRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(RiakCursorRepository.class);
+    private static final Namespace NAMESPACE = new Namespace("cursors");
+    private final RiakClient client;
+
+    @Nullable
+    private final ReadRepair readRepair;
+
+    /**
+     * Constructor
+     *
+     * @param client
+     *            Riak client
+     */
+    public RiakCursorRepository(@Nonnull final RiakClient client) {
+        this(client, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param client
+     *            Riak client
+     * @param readRepair
+     *            Writes back cursors resolved from siblings, or null to
+     *            leave the siblings until the next write
+     */
+    public RiakCursorRepository(@Nonnull final RiakClient client,
+            @Nullable final ReadRepair readRepair) {
+        this.client = Objects.requireNonNull(client);
+        this.readRepair = readRepair;
+    }
+
+    /**
+     * Internal method to set the allow_multi to true
+     */
+    @Override
+    public void initialize() {
+        final boolean allowMulti = true;
+        LOGGER.debug("Setting allow_multi={} for namespace={}", allowMulti,
+                NAMESPACE);
+        final StoreBucketProperties storeBucketProperties = new StoreBucketProperties.Builder(
+                NAMESPACE).withAllowMulti(allowMulti).build();
+
+        try {
+            client.execute(storeBucketProperties);
+        } catch (InterruptedException e) {
+            LOGGER.warn(String.format(
+                    "Unable to set allow_multi=%s for namespace=%s", allowMulti,
+                    NAMESPACE), e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.error(String.format(
+                    "Unable to set allow_multi=%s for namespace=%s", allowMulti,
+                    NAMESPACE), e);
+        }
+    }
+
+    @Override
+    public Optional<Long> fetch(@Nonnull final String key)
+            throws NotificationStoreException {
+
+        final Location location = new Location(NAMESPACE, key);
+
+        LOGGER.debug("Fetching key: {}", location);
+
+        final FetchValue fv = new FetchValue.Builder(location).build();
+        try {
+            return getValue(location, client.execute(fv));
+        } catch (ExecutionException e) {
+            LOGGER.error("Unable to fetch key: " + location, e);
+            throw new NotificationStoreException(e);
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted fetching key: " + location, e);
+            Thread.currentThread().interrupt();
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<Long>> fetchAsync(
+            @Nonnull final String key) {
+
+        final Location location = new Location(NAMESPACE, key);
+
+        LOGGER.debug("Fetching key (async): {}", location);
+
+        final FetchValue fv = new FetchValue.Builder(location).build();
+        return RiakFutures.toCompletableFuture(client.executeAsync(fv))
+                .thenApply(response -> {
+                    try {
+                        return getValue(location, response);
+                    } catch (NotificationStoreException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void store(@Nonnull final String key, final long value) {
+        final CursorUpdate update = new CursorUpdate(key, value);
+
+        final Location location = new Location(NAMESPACE, key);
+        final UpdateValue updateValue = new UpdateValue.Builder(location)
+                .withUpdate(update)
+                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
+
+        LOGGER.debug("Updating key ({}) to value (async): {}", location, value);
+        client.executeAsync(updateValue);
+    }
+
+    @Override
+    public void delete(@Nonnull final String key) {
+        final Location location = new Location(NAMESPACE, key);
+        final DeleteValue deleteValue = new DeleteValue.Builder(location)
+                .build();
+
+        LOGGER.debug("Deleting key (async): {}", location);
+        client.executeAsync(deleteValue);
+    }
+
+    /**
+     * Extract the cursor value from a fetch response
+     *
+     * @param location
+     *            Location that was fetched
+     * @param response
+     *            Fetch response
+     * @return the cursor value or absent if the key was not found
+     * @throws NotificationStoreException
+     *             if unable to resolve the siblings
+     */
+    private Optional<Long> getValue(final Location location,
+            final FetchValue.Response response)
+            throws NotificationStoreException {
+        if (response.isNotFound()) {
+            return Optional.empty();
+        }
+
+        final CursorObject cursor;
+        try {
+            cursor = response.getValue(CursorObject.class);
+        } catch (UnresolvedConflictException e) {
+            LOGGER.error("Unable to resolve siblings for key: " + location, e);
+            throw new NotificationStoreException(e);
+        }
+
+        if (cursor == null) {
+            return Optional.empty();
+        }
+        if (readRepair != null) {
+            readRepair.repair(location, response, cursor);
+        }
+        return Optional.of(cursor.getValue());
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import com.basho.riak.client.core.RiakFuture;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+public final class RiakFutures {
+
+    private RiakFutures() {
+        // static utility class
+    }
+
+    /**
+     * Adapt a {@link RiakFuture} into a {@link CompletableFuture} which is
+     * completed by the Riak client once the operation finishes. Failures are
+     * wrapped in a {@link NotificationStoreException}.
+     *
+     * @param future
+     *            Riak future
+     * @return the completable future
+     */
+    public static <V, T> CompletableFuture<V> toCompletableFuture(
+            @Nonnull final RiakFuture<V, T> future) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        future.addListener(f -> {
+            if (f.isSuccess()) {
+                result.complete(f.getNow());
+            } else if (f.isCancelled()) {
+                result.cancel(false);
+            } else {
+                result.completeExceptionally(
+                        new NotificationStoreException(f.cause()));
+            }
+        });
+        return result;
+    }
+}
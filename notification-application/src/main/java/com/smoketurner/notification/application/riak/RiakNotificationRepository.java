@@ -0,0 +1,363 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.basho.riak.client.api.RiakClient;
+import com.basho.riak.client.api.cap.UnresolvedConflictException;
+import com.basho.riak.client.api.cap.VClock;
+import com.basho.riak.client.api.commands.buckets.StoreBucketProperties;
+import com.basho.riak.client.api.commands.kv.DeleteValue;
+import com.basho.riak.client.api.commands.kv.FetchValue;
+import com.basho.riak.client.api.commands.kv.StoreValue;
+import com.basho.riak.client.api.commands.kv.UpdateValue;
+import com.basho.riak.client.core.query.Location;
+import com.basho.riak.client.core.query.Namespace;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import com.smoketurner.notification.application.store.NotificationList;
+import com.smoketurner.notification.application.store.SegmentableRepository;
+import com.smoketurner.notification.application.store.ShardableRepository;
+
+public class RiakNotificationRepository
+        implements ShardableRepository, SegmentableRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(RiakNotificationRepository.class);
+    private static final Namespace NAMESPACE = new Namespace("notifications");
+    private final RiakClient client;
+
+    @Nullable
+    private final ReadRepair readRepair;
+
+    /**
+     * Constructor
+     *
+     * @param client
+     *            Riak client
+     */
+    public RiakNotificationRepository(@Nonnull final RiakClient client) {
+        this(client, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param client
+     *            Riak client
+     * @param readRepair
+     *            Writes back lists resolved from siblings, or null to
+     *            leave the siblings until the next write
+     */
+    public RiakNotificationRepository(@Nonnull final RiakClient client,
+            @Nullable final ReadRepair readRepair) {
+        this.client = Objects.requireNonNull(client);
+        this.readRepair = readRepair;
+    }
+
+    /**
+     * Internal method to set the allow_multi to true
+     */
+    @Override
+    public void initialize() {
+        final boolean allowMulti = true;
+        LOGGER.debug("Setting allow_multi={} for namespace={}", allowMulti,
+                NAMESPACE);
+        final StoreBucketProperties storeBucketProperties = new StoreBucketProperties.Builder(
+                NAMESPACE).withAllowMulti(allowMulti).build();
+
+        try {
+            client.execute(storeBucketProperties);
+        } catch (InterruptedException e) {
+            LOGGER.warn(String.format(
+                    "Unable to set allow_multi=%s for namespace=%s", allowMulti,
+                    NAMESPACE), e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.error(String.format(
+                    "Unable to set allow_multi=%s for namespace=%s", allowMulti,
+                    NAMESPACE), e);
+        }
+    }
+
+    @Override
+    public Optional<NotificationList> fetch(
+            @Nonnull final String username) throws NotificationStoreException {
+
+        final Location location = new Location(NAMESPACE, username);
+
+        LOGGER.debug("Fetching key: {}", location);
+
+        final FetchValue fv = new FetchValue.Builder(location).build();
+        try {
+            return getValue(location, client.execute(fv));
+        } catch (ExecutionException e) {
+            LOGGER.error("Unable to fetch key: " + location, e);
+            throw new NotificationStoreException(e);
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted fetching key: " + location, e);
+            Thread.currentThread().interrupt();
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull final String username) {
+
+        final Location location = new Location(NAMESPACE, username);
+
+        LOGGER.debug("Fetching key (async): {}", location);
+
+        final FetchValue fv = new FetchValue.Builder(location).build();
+        return RiakFutures.toCompletableFuture(client.executeAsync(fv))
+                .thenApply(response -> {
+                    try {
+                        return getValue(location, response);
+                    } catch (NotificationStoreException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull final String username,
+            @Nonnull final NotificationList previous) {
+
+        // lists merged from several keys don't have a single vector clock
+        final VClock vclock = previous instanceof NotificationListObject
+                ? ((NotificationListObject) previous).getVClock() : null;
+        if (vclock == null) {
+            return fetchAsync(username);
+        }
+
+        final Location location = new Location(NAMESPACE, username);
+
+        LOGGER.debug("Fetching key if modified (async): {}", location);
+
+        final FetchValue fv = new FetchValue.Builder(location)
+                .withOption(FetchValue.Option.IF_MODIFIED, vclock).build();
+        return RiakFutures.toCompletableFuture(client.executeAsync(fv))
+                .thenApply(response -> {
+                    if (response.isUnchanged()) {
+                        return Optional.of(previous);
+                    }
+                    try {
+                        return getValue(location, response);
+                    } catch (NotificationStoreException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void store(@Nonnull final String username,
+            @Nonnull final Notification notification)
+            throws NotificationStoreException {
+
+        final NotificationListAddition update = new NotificationListAddition(
+                notification);
+
+        final Location location = new Location(NAMESPACE, username);
+        final UpdateValue updateValue = new UpdateValue.Builder(location)
+                .withUpdate(update)
+                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
+
+        LOGGER.debug("Updating key: {}", location);
+
+        try {
+            client.execute(updateValue);
+        } catch (ExecutionException e) {
+            LOGGER.error("Unable to update key: " + location, e);
+            throw new NotificationStoreException(e);
+        } catch (InterruptedException e) {
+            LOGGER.warn("Update request was interrupted", e);
+            Thread.currentThread().interrupt();
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> storeAsync(@Nonnull final String username,
+            @Nonnull final Notification notification) {
+
+        final NotificationListAddition update = new NotificationListAddition(
+                notification);
+
+        final Location location = new Location(NAMESPACE, username);
+        final UpdateValue updateValue = new UpdateValue.Builder(location)
+                .withUpdate(update)
+                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
+
+        LOGGER.debug("Updating key (async): {}", location);
+
+        return RiakFutures.toCompletableFuture(client.executeAsync(updateValue))
+                .thenApply(response -> null);
+    }
+
+    @Override
+    public void update(@Nonnull final String username,
+            @Nonnull final Collection<Notification> additions,
+            @Nonnull final LongSet ids) throws NotificationStoreException {
+
+        final NotificationListUpdate update = new NotificationListUpdate(
+                additions, ids);
+
+        final Location location = new Location(NAMESPACE, username);
+        final UpdateValue updateValue = new UpdateValue.Builder(location)
+                .withUpdate(update)
+                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
+
+        LOGGER.debug("Updating key: {} (additions={}, deletions={})", location,
+                additions.size(), ids.size());
+
+        try {
+            client.execute(updateValue);
+        } catch (ExecutionException e) {
+            LOGGER.error("Unable to update key: " + location, e);
+            throw new NotificationStoreException(e);
+        } catch (InterruptedException e) {
+            LOGGER.warn("Update request was interrupted", e);
+            Thread.currentThread().interrupt();
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public void shard(@Nonnull final String username, final int shards)
+            throws NotificationStoreException {
+
+        final NotificationListSharding update = new NotificationListSharding(
+                shards);
+
+        final Location location = new Location(NAMESPACE, username);
+        final UpdateValue updateValue = new UpdateValue.Builder(location)
+                .withUpdate(update)
+                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
+
+        LOGGER.debug("Updating key: {} (shards={})", location, shards);
+
+        try {
+            client.execute(updateValue);
+        } catch (ExecutionException e) {
+            LOGGER.error("Unable to update key: " + location, e);
+            throw new NotificationStoreException(e);
+        } catch (InterruptedException e) {
+            LOGGER.warn("Update request was interrupted", e);
+            Thread.currentThread().interrupt();
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public void seal(@Nonnull final String username, final long segment,
+            @Nonnull final LongSet ids, final int maxSegments)
+            throws NotificationStoreException {
+
+        final NotificationListSeal update = new NotificationListSeal(segment,
+                ids, maxSegments);
+
+        final Location location = new Location(NAMESPACE, username);
+        final UpdateValue updateValue = new UpdateValue.Builder(location)
+                .withUpdate(update)
+                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
+
+        LOGGER.debug("Updating key: {} (segment={}, sealed={})", location,
+                segment, ids.size());
+
+        try {
+            client.execute(updateValue);
+        } catch (ExecutionException e) {
+            LOGGER.error("Unable to update key: " + location, e);
+            throw new NotificationStoreException(e);
+        } catch (InterruptedException e) {
+            LOGGER.warn("Update request was interrupted", e);
+            Thread.currentThread().interrupt();
+            throw new NotificationStoreException(e);
+        }
+    }
+
+    @Override
+    public void remove(@Nonnull final String username,
+            @Nonnull final LongSet ids) {
+
+        final Location location = new Location(NAMESPACE, username);
+        final NotificationListDeletion delete = new NotificationListDeletion(
+                ids);
+        final UpdateValue updateValue = new UpdateValue.Builder(location)
+                .withUpdate(delete)
+                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
+
+        LOGGER.debug("Updating key (async): {}", location);
+        client.executeAsync(updateValue);
+    }
+
+    @Override
+    public void removeAll(@Nonnull final String username) {
+        final Location location = new Location(NAMESPACE, username);
+        final DeleteValue deleteValue = new DeleteValue.Builder(location)
+                .build();
+
+        LOGGER.debug("Deleting key (async): {}", location);
+        client.executeAsync(deleteValue);
+    }
+
+    /**
+     * Extract the notification list from a fetch response
+     *
+     * @param location
+     *            Location that was fetched
+     * @param response
+     *            Fetch response
+     * @return the notification list or absent if the key was not found
+     * @throws NotificationStoreException
+     *             if unable to resolve the siblings
+     */
+    private Optional<NotificationList> getValue(
+            final Location location, final FetchValue.Response response)
+            throws NotificationStoreException {
+        if (response.isNotFound()) {
+            return Optional.empty();
+        }
+        try {
+            final NotificationListObject list = response
+                    .getValue(NotificationListObject.class);
+            if (list != null && response.getVectorClock() != null) {
+                // resolved siblings don't carry the vector clock, so take it
+                // from the response for later conditional fetches
+                list.setVClock(response.getVectorClock());
+            }
+            if (list != null && readRepair != null) {
+                readRepair.repair(location, response, list);
+            }
+            return Optional.ofNullable(list);
+        } catch (UnresolvedConflictException e) {
+            LOGGER.error("Unable to resolve siblings for key: " + location, e);
+            throw new NotificationStoreException(e);
+        }
+    }
+}
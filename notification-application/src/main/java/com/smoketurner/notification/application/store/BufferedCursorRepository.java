@@ -0,0 +1,165 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import io.dropwizard.util.Duration;
+
+/**
+ * A {@link CursorRepository} which buffers cursor updates in memory and
+ * writes them to the underlying repository on an interval. Cursors only move
+ * forward, so only the largest value stored for each cursor since the last
+ * flush is written, however many requests updated it.
+ */
+public class BufferedCursorRepository implements CursorRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(BufferedCursorRepository.class);
+    private final ConcurrentMap<String, Long> pending = new ConcurrentHashMap<>();
+    private final CursorRepository repository;
+    private final ScheduledExecutorService executor;
+    private final Duration interval;
+
+    // metrics
+    private final Meter coalesced;
+    private final Meter flushed;
+
+    /**
+     * Constructor
+     *
+     * @param repository
+     *            Repository to write the cursors to
+     * @param executor
+     *            Executor used to flush the cursors
+     * @param interval
+     *            How often to flush the cursors
+     */
+    public BufferedCursorRepository(@Nonnull final CursorRepository repository,
+            @Nonnull final ScheduledExecutorService executor,
+            @Nonnull final Duration interval) {
+        final MetricRegistry registry = SharedMetricRegistries
+                .getOrCreate("default");
+        this.coalesced = registry.meter(MetricRegistry
+                .name(BufferedCursorRepository.class, "coalesced"));
+        this.flushed = registry.meter(MetricRegistry
+                .name(BufferedCursorRepository.class, "flushed"));
+        registry.gauge(
+                MetricRegistry.name(BufferedCursorRepository.class, "pending"),
+                () -> (Gauge<Integer>) pending::size);
+
+        this.repository = Objects.requireNonNull(repository);
+        this.executor = Objects.requireNonNull(executor);
+        this.interval = Objects.requireNonNull(interval);
+    }
+
+    @Override
+    public void initialize() {
+        repository.initialize();
+        executor.scheduleWithFixedDelay(this::flush, interval.getQuantity(),
+                interval.getQuantity(), interval.getUnit());
+    }
+
+    /**
+     * Fetch the value of a cursor, including any update which hasn't been
+     * flushed yet
+     */
+    @Override
+    public Optional<Long> fetch(@Nonnull final String key)
+            throws NotificationStoreException {
+        return merge(key, repository.fetch(key));
+    }
+
+    /**
+     * Asynchronously fetch the value of a cursor, including any update which
+     * hasn't been flushed yet
+     */
+    @Override
+    public CompletableFuture<Optional<Long>> fetchAsync(
+            @Nonnull final String key) {
+        return repository.fetchAsync(key)
+                .thenApply(stored -> merge(key, stored));
+    }
+
+    @Override
+    public void store(@Nonnull final String key, final long value) {
+        Objects.requireNonNull(key);
+        pending.merge(key, value, (current, update) -> {
+            coalesced.mark();
+            return Math.max(current, update);
+        });
+    }
+
+    @Override
+    public void delete(@Nonnull final String key) {
+        pending.remove(key);
+        repository.delete(key);
+    }
+
+    /**
+     * Write the buffered cursors to the underlying repository. A cursor
+     * updated while it is being written is written again on the next flush.
+     */
+    @Override
+    public void flush() {
+        for (final String key : pending.keySet()) {
+            final Long value = pending.remove(key);
+            if (value == null) {
+                continue;
+            }
+            try {
+                repository.store(key, value);
+                flushed.mark();
+            } catch (RuntimeException e) {
+                LOGGER.error("Unable to flush cursor for key: " + key, e);
+                // keep the value for the next flush unless it has already
+                // been overtaken
+                pending.merge(key, value, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Return the larger of the stored cursor value and any buffered value
+     *
+     * @param key
+     *            Cursor key
+     * @param stored
+     *            Stored cursor value
+     * @return the cursor value
+     */
+    private Optional<Long> merge(@Nonnull final String key,
+            @Nonnull final Optional<Long> stored) {
+        final Long buffered = pending.get(key);
+        if (buffered == null) {
+            return stored;
+        }
+        return Optional.of(stored.map(value -> Math.max(value, buffered))
+                .orElse(buffered));
+    }
+}
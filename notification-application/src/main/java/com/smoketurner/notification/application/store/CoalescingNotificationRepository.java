@@ -0,0 +1,380 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.base.Preconditions;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import io.dropwizard.util.Duration;
+
+/**
+ * A {@link NotificationRepository} that coalesces the additions and removals
+ * queued for the same user within a short window into a single
+ * {@link NotificationRepository#update} call on the underlying repository, so
+ * a burst of notifications sent to one user costs one read-modify-write.
+ * Batches are only timed on the scheduler, and are written on a separate
+ * executor so a slow write doesn't hold up the flushing of other batches.
+ */
+public class CoalescingNotificationRepository
+        implements NotificationRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(CoalescingNotificationRepository.class);
+    private final ConcurrentMap<String, Batch> pending = new ConcurrentHashMap<>();
+    private final NotificationRepository repository;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    // metrics
+    private final Histogram batchSizes;
+    private final Meter coalesced;
+
+    /**
+     * Constructor
+     *
+     * @param repository
+     *            Repository to write the batches to
+     * @param scheduler
+     *            Executor used to time the batches
+     * @param executor
+     *            Executor used to write the batches to the repository
+     * @param window
+     *            How long to wait for more writes to the same user
+     * @param maxBatchSize
+     *            Number of writes after which a batch is flushed immediately
+     */
+    public CoalescingNotificationRepository(
+            @Nonnull final NotificationRepository repository,
+            @Nonnull final ScheduledExecutorService scheduler,
+            @Nonnull final Executor executor, @Nonnull final Duration window,
+            final int maxBatchSize) {
+        Preconditions.checkArgument(maxBatchSize > 0,
+                "maxBatchSize must be greater than zero");
+
+        final MetricRegistry registry = SharedMetricRegistries
+                .getOrCreate("default");
+        this.batchSizes = registry.histogram(MetricRegistry
+                .name(CoalescingNotificationRepository.class, "batch-size"));
+        this.coalesced = registry.meter(MetricRegistry
+                .name(CoalescingNotificationRepository.class, "coalesced"));
+
+        this.repository = Objects.requireNonNull(repository);
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.executor = Objects.requireNonNull(executor);
+        this.window = Objects.requireNonNull(window);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void initialize() {
+        repository.initialize();
+    }
+
+    @Override
+    public Optional<NotificationList> fetch(
+            @Nonnull final String username) throws NotificationStoreException {
+        return repository.fetch(username);
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull final String username) {
+        return repository.fetchAsync(username);
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull final String username,
+            @Nonnull final NotificationList previous) {
+        return repository.fetchIfModifiedAsync(username, previous);
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull final String username,
+            @Nonnull final Optional<Long> fromId, final int limit) {
+        return repository.fetchAsync(username, fromId, limit);
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull final String username,
+            @Nonnull final NotificationList previous,
+            @Nonnull final Optional<Long> fromId, final int limit) {
+        return repository.fetchIfModifiedAsync(username, previous, fromId,
+                limit);
+    }
+
+    /**
+     * Queue a notification to be added to the list for a given user
+     *
+     * @param username
+     *            User to store the notification for
+     * @param notification
+     *            Notification to store (with the ID already assigned)
+     * @return a future completed with the notification once it is stored
+     */
+    public CompletableFuture<Notification> add(@Nonnull final String username,
+            @Nonnull final Notification notification) {
+        Objects.requireNonNull(notification);
+        final CompletableFuture<Notification> future = new CompletableFuture<>();
+        enqueue(username, batch -> batch.add(notification, future));
+        return future;
+    }
+
+    /**
+     * Queue notifications to be removed from the list for a given user
+     *
+     * @param username
+     *            User to remove notifications from
+     * @param ids
+     *            Notification IDs to remove
+     * @return a future completed once the notifications are removed
+     */
+    public CompletableFuture<Void> delete(@Nonnull final String username,
+            @Nonnull final LongSet ids) {
+        Objects.requireNonNull(ids);
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        enqueue(username, batch -> batch.delete(ids, future));
+        return future;
+    }
+
+    @Override
+    public void store(@Nonnull final String username,
+            @Nonnull final Notification notification)
+            throws NotificationStoreException {
+        try {
+            add(username, notification).get();
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted waiting for update of key: " + username,
+                    e);
+            Thread.currentThread().interrupt();
+            throw new NotificationStoreException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NotificationStoreException) {
+                throw (NotificationStoreException) e.getCause();
+            }
+            throw new NotificationStoreException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> storeAsync(@Nonnull final String username,
+            @Nonnull final Notification notification) {
+        return add(username, notification).thenApply(stored -> null);
+    }
+
+    @Override
+    public void update(@Nonnull final String username,
+            @Nonnull final Collection<Notification> additions,
+            @Nonnull final LongSet ids) throws NotificationStoreException {
+        repository.update(username, additions, ids);
+    }
+
+    @Override
+    public void remove(@Nonnull final String username,
+            @Nonnull final LongSet ids) {
+        delete(username, ids);
+    }
+
+    @Override
+    public void removeAll(@Nonnull final String username) {
+        // writes still waiting in a batch were made before the list was
+        // deleted, so drop them rather than write them back into it
+        final Batch batch = pending.remove(username);
+        if (batch != null) {
+            discard(batch);
+        }
+        repository.removeAll(username);
+    }
+
+    /**
+     * Add an operation to the open batch for a user, opening a new batch and
+     * scheduling it to be flushed if there isn't one.
+     *
+     * @param username
+     *            User to add the operation for
+     * @param operation
+     *            Operation to add, returning false if the batch was already
+     *            closed
+     */
+    private void enqueue(final String username,
+            final Predicate<Batch> operation) {
+        Objects.requireNonNull(username);
+        while (true) {
+            final Batch created = new Batch(username);
+            final Batch existing = pending.putIfAbsent(username, created);
+            final Batch batch = existing == null ? created : existing;
+
+            final int size;
+            synchronized (batch) {
+                if (!operation.test(batch)) {
+                    // the batch was flushed before we could add to it
+                    continue;
+                }
+                size = batch.size();
+            }
+
+            if (size >= maxBatchSize) {
+                submit(batch);
+            } else if (existing == null) {
+                scheduler.schedule(() -> submit(batch), window.getQuantity(),
+                        window.getUnit());
+            }
+            return;
+        }
+    }
+
+    /**
+     * Hand a batch over to the executor to be flushed, or flush it on the
+     * calling thread if the executor is no longer accepting work.
+     *
+     * @param batch
+     *            Batch to flush
+     */
+    private void submit(final Batch batch) {
+        try {
+            executor.execute(() -> flush(batch));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Flushing batch for key {} on calling thread",
+                    batch.username);
+            flush(batch);
+        }
+    }
+
+    /**
+     * Write a batch to the underlying repository and complete its futures.
+     *
+     * @param batch
+     *            Batch to flush
+     */
+    private void flush(final Batch batch) {
+        synchronized (batch) {
+            if (batch.closed) {
+                return;
+            }
+            batch.closed = true;
+        }
+        pending.remove(batch.username, batch);
+
+        final int size = batch.size();
+        batchSizes.update(size);
+        coalesced.mark(size - 1);
+
+        try {
+            repository.update(batch.username, batch.additions, batch.ids);
+        } catch (Exception e) {
+            LOGGER.error("Unable to flush batch for key: " + batch.username,
+                    e);
+            batch.additionFutures.forEach(f -> f.completeExceptionally(e));
+            batch.deletionFutures.forEach(f -> f.completeExceptionally(e));
+            return;
+        }
+
+        complete(batch);
+    }
+
+    /**
+     * Close a batch without writing it, as its writes are superseded by the
+     * user's list being deleted.
+     *
+     * @param batch
+     *            Batch to discard
+     */
+    private void discard(final Batch batch) {
+        synchronized (batch) {
+            if (batch.closed) {
+                return;
+            }
+            batch.closed = true;
+        }
+        LOGGER.debug("Discarding {} pending writes for key: {}", batch.size(),
+                batch.username);
+        complete(batch);
+    }
+
+    private static void complete(final Batch batch) {
+        for (int i = 0; i < batch.additions.size(); i++) {
+            batch.additionFutures.get(i).complete(batch.additions.get(i));
+        }
+        batch.deletionFutures.forEach(f -> f.complete(null));
+    }
+
+    private static final class Batch {
+        private final String username;
+        private final List<Notification> additions = new ArrayList<>();
+        private final List<CompletableFuture<Notification>> additionFutures = new ArrayList<>();
+        private final LongSet ids = new LongSet();
+        private final List<CompletableFuture<Void>> deletionFutures = new ArrayList<>();
+
+        @GuardedBy("this")
+        private boolean closed = false;
+
+        Batch(final String username) {
+            this.username = username;
+        }
+
+        @GuardedBy("this")
+        boolean add(final Notification notification,
+                final CompletableFuture<Notification> future) {
+            if (closed) {
+                return false;
+            }
+            additions.add(notification);
+            additionFutures.add(future);
+            return true;
+        }
+
+        @GuardedBy("this")
+        boolean delete(final LongSet deletions,
+                final CompletableFuture<Void> future) {
+            if (closed) {
+                return false;
+            }
+            ids.addAll(deletions);
+            deletionFutures.add(future);
+            return true;
+        }
+
+        int size() {
+            return additions.size() + deletionFutures.size();
+        }
+    }
+}
@@ -0,0 +1,501 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+
+/**
+ * Compact, columnar encoding of a notification list.
+ *
+ * <pre>
+ * header:  'N' 'L' version flags [uncompressed length, if deflated]
+ * body:    dictionary size, dictionary strings
+ *          notification count
+ *          IDs           (zigzag deltas from the previous ID)
+ *          created at    (zigzag deltas from the previous timestamp)
+ *          categories    (dictionary indexes)
+ *          messages      (dictionary indexes)
+ *          property counts
+ *          properties    (dictionary index pairs of key and value)
+ *          deleted ID count, deleted IDs (zigzag deltas, newest first)
+ *          [shard count, if the list is sharded or segmented]
+ *          [segment count, segments (zigzag deltas, newest first),
+ *           if the list is segmented]
+ * </pre>
+ *
+ * Every category, message and property key and value is stored once per
+ * list, and the body is deflated if it is large enough to benefit. The
+ * first byte of the header is not a valid protocol buffer tag, so values in
+ * this format can be told apart from legacy NotificationListPB values.
+ */
+public class CompactNotificationListCodec {
+
+    public static final String CONTENT_TYPE = "application/x-notification-list-v1";
+    private static final byte[] MAGIC = { 'N', 'L' };
+    private static final int VERSION = 1;
+    private static final int FLAG_DEFLATED = 1;
+    private static final int HEADER_SIZE = 4;
+    private static final int MIN_DEFLATE_SIZE = 512;
+    private static final int MAX_BODY_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Check whether a value was encoded by this codec
+     *
+     * @param value
+     *            Serialized notification list
+     * @return true if the value is in the compact format, otherwise false
+     */
+    public static boolean isCompact(@Nonnull final byte[] value) {
+        return value.length >= HEADER_SIZE && value[0] == MAGIC[0]
+                && value[1] == MAGIC[1];
+    }
+
+    /**
+     * Serialize a notification list
+     *
+     * @param list
+     *            Notification list to serialize
+     * @return the serialized notification list
+     */
+    public byte[] encode(@Nonnull final NotificationList list) {
+        final Columns notifications = new Columns(
+                list.getNotifications().size());
+        list.getNotifications().forEach(notifications::add);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                64 * (notifications.size + 1));
+        final CodedOutputStream output = CodedOutputStream
+                .newInstance(bytes);
+        try {
+            output.writeRawBytes(MAGIC);
+            output.writeRawByte(VERSION);
+            output.writeRawByte(0);
+            output.writeUInt32NoTag(notifications.dictionary.size());
+            for (String string : notifications.dictionary) {
+                output.writeStringNoTag(string);
+            }
+
+            output.writeUInt32NoTag(notifications.size);
+            writeDeltas(output, notifications.ids, notifications.size);
+            writeDeltas(output, notifications.createdAt, notifications.size);
+            writeIndexes(output, notifications.categories,
+                    notifications.size);
+            writeIndexes(output, notifications.messages, notifications.size);
+            writeIndexes(output, notifications.propertyCounts,
+                    notifications.size);
+            writeIndexes(output, notifications.properties.toArray(),
+                    notifications.properties.size());
+
+            final long[] deletedIds = sortedDescending(list.getDeletedIds());
+            output.writeUInt32NoTag(deletedIds.length);
+            writeDeltas(output, deletedIds, deletedIds.length);
+            final long[] segments = sortedDescending(list.getSegments());
+            if (list.getShards() > 0 || segments.length > 0) {
+                output.writeUInt32NoTag(list.getShards());
+            }
+            if (segments.length > 0) {
+                output.writeUInt32NoTag(segments.length);
+                writeDeltas(output, segments, segments.length);
+            }
+            output.flush();
+        } catch (IOException e) {
+            // writing to a byte array never fails
+            throw new IllegalStateException(e);
+        }
+
+        return deflate(bytes.toByteArray());
+    }
+
+    /**
+     * Decode a serialized notification list. Notifications that have been
+     * deleted are not materialized, but their IDs are retained.
+     *
+     * @param value
+     *            Serialized notification list
+     * @return the notification list
+     * @throws IOException
+     *             if unable to decode the value
+     */
+    public NotificationList decode(@Nonnull final byte[] value)
+            throws IOException {
+        return decode(value, new NotificationList());
+    }
+
+    /**
+     * Decode a serialized notification list into an empty list
+     *
+     * @param value
+     *            Serialized notification list
+     * @param list
+     *            Empty notification list to decode into
+     * @return the notification list
+     * @throws IOException
+     *             if unable to decode the value
+     */
+    public <T extends NotificationList> T decode(@Nonnull final byte[] value,
+            @Nonnull final T list) throws IOException {
+        if (!isCompact(value)) {
+            throw new InvalidProtocolBufferException(
+                    "Not a compact notification list");
+        }
+        if (value[2] != VERSION) {
+            throw new InvalidProtocolBufferException(
+                    "Unsupported notification list version: " + value[2]);
+        }
+
+        final CodedInputStream input = body(value);
+
+        final String[] dictionary = new String[readCount(input)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = input.readString();
+        }
+
+        final int size = readCount(input);
+        final long[] ids = readDeltas(input, size);
+        final long[] createdAt = readDeltas(input, size);
+        final int[] categories = readIndexes(input, size);
+        final int[] messages = readIndexes(input, size);
+        final int[] propertyCounts = readIndexes(input, size);
+        long propertySize = 0L;
+        for (int count : propertyCounts) {
+            propertySize += count;
+            if (count < 0 || propertySize > input.getBytesUntilLimit() / 2) {
+                throw new InvalidProtocolBufferException(
+                        "Invalid notification list property count");
+            }
+        }
+        final int[] properties = readIndexes(input, (int) propertySize * 2);
+        final long[] deletedIds = readDeltas(input, readCount(input));
+
+        if (!input.isAtEnd()) {
+            final int shards = input.readUInt32();
+            if (shards < 0) {
+                throw new InvalidProtocolBufferException(
+                        "Invalid notification list shards: " + shards);
+            }
+            list.setShards(shards);
+        }
+        if (!input.isAtEnd()) {
+            for (long segment : readDeltas(input, readCount(input))) {
+                list.getSegments().add(segment);
+            }
+        }
+        final LongSet deleted = list.getDeletedIds();
+        for (long id : deletedIds) {
+            deleted.add(id);
+        }
+
+        final List<Notification> notifications = new ArrayList<>(size);
+        int property = 0;
+        for (int i = 0; i < size; i++) {
+            final int count = propertyCounts[i];
+            if (!deleted.isEmpty() && deleted.contains(ids[i])) {
+                property += count * 2;
+                continue;
+            }
+
+            final Map<String, String> map;
+            if (count == 0) {
+                map = Collections.emptyMap();
+            } else {
+                final ImmutableMap.Builder<String, String> builder = ImmutableMap
+                        .builder();
+                for (int j = 0; j < count; j++) {
+                    builder.put(lookup(dictionary, properties[property++]),
+                            lookup(dictionary, properties[property++]));
+                }
+                map = builder.build();
+            }
+
+            notifications.add(Notification.builder().withId(ids[i])
+                    .withCategory(lookup(dictionary, categories[i]))
+                    .withMessage(lookup(dictionary, messages[i]))
+                    .withCreatedAt(new DateTime(createdAt[i], DateTimeZone.UTC))
+                    .withProperties(map).build());
+        }
+
+        list.addNotifications(ImmutableSortedSet.copyOf(notifications));
+        return list;
+    }
+
+    /**
+     * Deflate the body of an encoded value if it is large enough for that to
+     * be worthwhile.
+     *
+     * @param value
+     *            Encoded value with an uncompressed body
+     * @return the value with a deflated body, or the original value if the
+     *         body did not get much smaller
+     */
+    private static byte[] deflate(@Nonnull final byte[] value) {
+        final int length = value.length - HEADER_SIZE;
+        if (length < MIN_DEFLATE_SIZE) {
+            return value;
+        }
+
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(value, HEADER_SIZE, length);
+            deflater.finish();
+
+            // give up unless the body is at least an eighth smaller
+            final byte[] buffer = new byte[length - (length >> 3)];
+            int deflated = 0;
+            while (!deflater.finished()) {
+                if (deflated == buffer.length) {
+                    return value;
+                }
+                deflated += deflater.deflate(buffer, deflated,
+                        buffer.length - deflated);
+            }
+
+            final byte[] result = new byte[HEADER_SIZE
+                    + CodedOutputStream.computeUInt32SizeNoTag(length)
+                    + deflated];
+            final CodedOutputStream output = CodedOutputStream
+                    .newInstance(result);
+            output.writeRawBytes(MAGIC);
+            output.writeRawByte(VERSION);
+            output.writeRawByte(FLAG_DEFLATED);
+            output.writeUInt32NoTag(length);
+            output.writeRawBytes(buffer, 0, deflated);
+            output.checkNoSpaceLeft();
+            return result;
+        } catch (IOException e) {
+            // writing to a byte array of the right size never fails
+            throw new IllegalStateException(e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Return an input for the body of an encoded value, inflating it if
+     * needed.
+     *
+     * @param value
+     *            Encoded value
+     * @return the input, limited to the length of the body
+     * @throws IOException
+     *             if unable to inflate the body
+     */
+    private static CodedInputStream body(@Nonnull final byte[] value)
+            throws IOException {
+        if ((value[3] & FLAG_DEFLATED) == 0) {
+            final CodedInputStream input = CodedInputStream.newInstance(value,
+                    HEADER_SIZE, value.length - HEADER_SIZE);
+            input.pushLimit(value.length - HEADER_SIZE);
+            return input;
+        }
+
+        final CodedInputStream header = CodedInputStream.newInstance(value,
+                HEADER_SIZE, value.length - HEADER_SIZE);
+        final int length = header.readUInt32();
+        if (length < 0 || length > MAX_BODY_SIZE) {
+            throw new InvalidProtocolBufferException(
+                    "Invalid notification list length: " + length);
+        }
+        final int offset = HEADER_SIZE + header.getTotalBytesRead();
+
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(value, offset, value.length - offset);
+            final byte[] body = new byte[length];
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                final int n = inflater.inflate(body, inflated,
+                        length - inflated);
+                if (n == 0 && (inflater.needsInput()
+                        || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != length) {
+                throw new InvalidProtocolBufferException(
+                        "Truncated notification list");
+            }
+
+            final CodedInputStream input = CodedInputStream.newInstance(body);
+            input.pushLimit(length);
+            return input;
+        } catch (DataFormatException e) {
+            throw new InvalidProtocolBufferException(e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeDeltas(@Nonnull final CodedOutputStream output,
+            @Nonnull final long[] values, final int size) throws IOException {
+        long previous = 0L;
+        for (int i = 0; i < size; i++) {
+            output.writeSInt64NoTag(previous - values[i]);
+            previous = values[i];
+        }
+    }
+
+    private static long[] readDeltas(@Nonnull final CodedInputStream input,
+            final int size) throws IOException {
+        final long[] values = new long[size];
+        long previous = 0L;
+        for (int i = 0; i < size; i++) {
+            previous -= input.readSInt64();
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static void writeIndexes(@Nonnull final CodedOutputStream output,
+            @Nonnull final int[] values, final int size) throws IOException {
+        for (int i = 0; i < size; i++) {
+            output.writeUInt32NoTag(values[i]);
+        }
+    }
+
+    private static int[] readIndexes(@Nonnull final CodedInputStream input,
+            final int size) throws IOException {
+        final int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = input.readUInt32();
+        }
+        return values;
+    }
+
+    private static int readCount(@Nonnull final CodedInputStream input)
+            throws IOException {
+        final int count = input.readUInt32();
+        // every entry takes at least one byte, so a larger count is corrupt
+        if (count < 0 || count > input.getBytesUntilLimit()) {
+            throw new InvalidProtocolBufferException(
+                    "Invalid notification list count: " + count);
+        }
+        return count;
+    }
+
+    private static String lookup(@Nonnull final String[] dictionary,
+            final int index) throws InvalidProtocolBufferException {
+        if (index < 0 || index >= dictionary.length) {
+            throw new InvalidProtocolBufferException(
+                    "Invalid notification list dictionary index: " + index);
+        }
+        return dictionary[index];
+    }
+
+    private static long[] sortedDescending(@Nonnull final LongSet ids) {
+        final long[] values = ids.toSortedArray();
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            final long value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Notifications split into columns, with their strings replaced by
+     * indexes into a shared dictionary.
+     */
+    private static final class Columns {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private final long[] ids;
+        private final long[] createdAt;
+        private final int[] categories;
+        private final int[] messages;
+        private final int[] propertyCounts;
+        private final IntList properties = new IntList();
+        private int size;
+
+        Columns(final int capacity) {
+            ids = new long[capacity];
+            createdAt = new long[capacity];
+            categories = new int[capacity];
+            messages = new int[capacity];
+            propertyCounts = new int[capacity];
+        }
+
+        void add(@Nonnull final Notification notification) {
+            ids[size] = notification.getId(0L);
+            createdAt[size] = notification.getCreatedAt().getMillis();
+            categories[size] = index(notification.getCategory());
+            messages[size] = index(notification.getMessage());
+            propertyCounts[size] = notification.getProperties().size();
+            notification.getProperties().forEach((key, value) -> {
+                properties.add(index(key));
+                properties.add(index(value));
+            });
+            size++;
+        }
+
+        private int index(@Nullable final String value) {
+            final String string = Strings.nullToEmpty(value);
+            Integer index = indexes.get(string);
+            if (index == null) {
+                index = dictionary.size();
+                indexes.put(string, index);
+                dictionary.add(string);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Growable array of primitive ints
+     */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(final int value) {
+            if (size == values.length) {
+                final int[] grown = new int[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return values;
+        }
+    }
+}
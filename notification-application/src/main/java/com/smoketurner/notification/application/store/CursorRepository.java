@@ -0,0 +1,91 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+/**
+ * Storage SPI for the per-user cursors.
+ */
+public interface CursorRepository {
+
+    /**
+     * Prepare the underlying storage for use
+     */
+    void initialize();
+
+    /**
+     * Fetch the value of a cursor
+     *
+     * @param key
+     *            Cursor key
+     * @return the cursor value or absent if the cursor does not exist
+     * @throws NotificationStoreException
+     *             if unable to fetch the cursor
+     */
+    Optional<Long> fetch(@Nonnull String key)
+            throws NotificationStoreException;
+
+    /**
+     * Asynchronously fetch the value of a cursor. The default implementation
+     * performs a blocking {@link #fetch(String)}.
+     *
+     * @param key
+     *            Cursor key
+     * @return a future completed with the cursor value or absent if the cursor
+     *         does not exist
+     */
+    default CompletableFuture<Optional<Long>> fetchAsync(
+            @Nonnull String key) {
+        final CompletableFuture<Optional<Long>> future = new CompletableFuture<>();
+        try {
+            future.complete(fetch(key));
+        } catch (NotificationStoreException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Asynchronously set the value of a cursor, unless the stored value is
+     * already greater than or equal to the new value
+     *
+     * @param key
+     *            Cursor key
+     * @param value
+     *            Value to set
+     */
+    void store(@Nonnull String key, long value);
+
+    /**
+     * Write any buffered cursor updates to the underlying storage. The default
+     * implementation doesn't buffer updates, so there is nothing to write.
+     */
+    default void flush() {
+        // nothing buffered
+    }
+
+    /**
+     * Asynchronously delete a cursor
+     *
+     * @param key
+     *            Cursor key
+     */
+    void delete(@Nonnull String key);
+}
@@ -17,46 +17,70 @@ package com.smoketurner.notification.application.store;
 
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import com.basho.riak.client.api.RiakClient;
-import com.basho.riak.client.api.cap.UnresolvedConflictException;
-import com.basho.riak.client.api.commands.buckets.StoreBucketProperties;
-import com.basho.riak.client.api.commands.kv.DeleteValue;
-import com.basho.riak.client.api.commands.kv.FetchValue;
-import com.basho.riak.client.api.commands.kv.StoreValue;
-import com.basho.riak.client.api.commands.kv.UpdateValue;
-import com.basho.riak.client.core.query.Location;
-import com.basho.riak.client.core.query.Namespace;
+import javax.annotation.Nullable;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SharedMetricRegistries;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.smoketurner.notification.application.exceptions.NotificationStoreException;
-import com.smoketurner.notification.application.riak.CursorObject;
-import com.smoketurner.notification.application.riak.CursorUpdate;
+import io.dropwizard.util.Duration;
 
 public class CursorStore {
 
-    private static final Logger LOGGER = LoggerFactory
-            .getLogger(CursorStore.class);
-    private static final Namespace NAMESPACE = new Namespace("cursors");
-    private final RiakClient client;
+    private final CursorRepository repository;
 
-    // timers
+    // Recently fetched or stored cursors, or null if caching is disabled.
+    // Cursors only move forward, so a cached value is only ever replaced by a
+    // larger one.
+    @Nullable
+    private final Cache<String, Long> cache;
+
+    // Incremented on every delete. A fetch which started before a delete may
+    // have read the deleted cursor, so its result is only cached if no
+    // cursor was deleted while it was in flight.
+    private final AtomicLong deletions = new AtomicLong();
+
+    // metrics
     private final Timer fetchTimer;
     private final Timer storeTimer;
     private final Timer deleteTimer;
+    private final Meter cacheHits;
+    private final Meter cacheMisses;
+
+    /**
+     * Constructor
+     *
+     * @param repository
+     *            Cursor repository
+     */
+    public CursorStore(@Nonnull final CursorRepository repository) {
+        this(repository, 0, Duration.seconds(0));
+    }
 
     /**
      * Constructor
      *
-     * @param client
-     *            Riak client
+     * @param repository
+     *            Cursor repository
+     * @param cacheSize
+     *            Maximum number of cursors to cache, or zero to disable the
+     *            cache
+     * @param cacheTimeout
+     *            How long a cursor stays cached after it was last fetched or
+     *            stored
      */
-    public CursorStore(@Nonnull final RiakClient client) {
+    public CursorStore(@Nonnull final CursorRepository repository,
+            final long cacheSize, @Nonnull final Duration cacheTimeout) {
+        Preconditions.checkArgument(cacheSize >= 0,
+                "cacheSize cannot be negative");
+        Objects.requireNonNull(cacheTimeout);
+
         final MetricRegistry registry = SharedMetricRegistries
                 .getOrCreate("default");
         this.fetchTimer = registry
@@ -65,32 +89,35 @@ public class CursorStore {
                 .timer(MetricRegistry.name(CursorStore.class, "store"));
         this.deleteTimer = registry
                 .timer(MetricRegistry.name(CursorStore.class, "delete"));
+        this.cacheHits = registry
+                .meter(MetricRegistry.name(CursorStore.class, "cache-hits"));
+        this.cacheMisses = registry
+                .meter(MetricRegistry.name(CursorStore.class, "cache-misses"));
 
-        this.client = Objects.requireNonNull(client);
+        this.repository = Objects.requireNonNull(repository);
+
+        if (cacheSize == 0 || cacheTimeout.getQuantity() == 0) {
+            this.cache = null;
+        } else {
+            this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize)
+                    .expireAfterWrite(cacheTimeout.getQuantity(),
+                            cacheTimeout.getUnit())
+                    .build();
+        }
     }
 
     /**
-     * Internal method to set the allow_multi to true
+     * Prepare the underlying repository for use
      */
     public void initialize() {
-        final boolean allowMulti = true;
-        LOGGER.debug("Setting allow_multi={} for namespace={}", allowMulti,
-                NAMESPACE);
-        final StoreBucketProperties storeBucketProperties = new StoreBucketProperties.Builder(
-                NAMESPACE).withAllowMulti(allowMulti).build();
-
-        try {
-            client.execute(storeBucketProperties);
-        } catch (InterruptedException e) {
-            LOGGER.warn(String.format(
-                    "Unable to set allow_multi=%s for namespace=%s", allowMulti,
-                    NAMESPACE), e);
-            Thread.currentThread().interrupt();
-        } catch (ExecutionException e) {
-            LOGGER.error(String.format(
-                    "Unable to set allow_multi=%s for namespace=%s", allowMulti,
-                    NAMESPACE), e);
-        }
+        repository.initialize();
+    }
+
+    /**
+     * Write any buffered cursor updates to the underlying repository
+     */
+    public void flush() {
+        repository.flush();
     }
 
     /**
@@ -116,34 +143,45 @@ public class CursorStore {
                 "cursorName cannot be empty");
 
         final String key = getCursorKey(username, cursorName);
-        final Location location = new Location(NAMESPACE, key);
-
-        LOGGER.debug("Fetching key: {}", location);
-
-        final CursorObject cursor;
-        final FetchValue fv = new FetchValue.Builder(location).build();
+        final Long cached = getCached(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        final long generation = deletions.get();
         try (Timer.Context context = fetchTimer.time()) {
-            final FetchValue.Response response = client.execute(fv);
-            if (response.isNotFound()) {
-                return Optional.empty();
-            }
-            cursor = response.getValue(CursorObject.class);
-        } catch (UnresolvedConflictException e) {
-            LOGGER.error("Unable to resolve siblings for key: " + location, e);
-            throw new NotificationStoreException(e);
-        } catch (ExecutionException e) {
-            LOGGER.error("Unable to fetch key: " + location, e);
-            throw new NotificationStoreException(e);
-        } catch (InterruptedException e) {
-            LOGGER.warn("Interrupted fetching key: " + location, e);
-            Thread.currentThread().interrupt();
-            throw new NotificationStoreException(e);
+            return cache(key, repository.fetch(key), generation);
         }
+    }
+
+    /**
+     * Asynchronously fetch the cursor for a given user
+     *
+     * @param username
+     *            User to get the cursor for
+     * @param cursorName
+     *            Name of the cursor to fetch
+     * @return a future completed with the last seen notification ID
+     */
+    public CompletableFuture<Optional<Long>> fetchAsync(
+            @Nonnull final String username, @Nonnull final String cursorName) {
 
-        if (cursor == null) {
-            return Optional.empty();
+        Objects.requireNonNull(username);
+        Preconditions.checkArgument(!username.isEmpty(),
+                "username cannot be empty");
+        Objects.requireNonNull(cursorName);
+        Preconditions.checkArgument(!cursorName.isEmpty(),
+                "cursorName cannot be empty");
+
+        final String key = getCursorKey(username, cursorName);
+        final Long cached = getCached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Optional.of(cached));
         }
-        return Optional.of(cursor.getValue());
+        final long generation = deletions.get();
+        final Timer.Context context = fetchTimer.time();
+        return repository.fetchAsync(key)
+                .whenComplete((cursor, error) -> context.stop())
+                .thenApply(cursor -> cache(key, cursor, generation));
     }
 
     /**
@@ -167,17 +205,11 @@ public class CursorStore {
                 "cursorName cannot be empty");
 
         final String key = getCursorKey(username, cursorName);
-        final CursorUpdate update = new CursorUpdate(key, value);
-
-        final Location location = new Location(NAMESPACE, key);
-        final UpdateValue updateValue = new UpdateValue.Builder(location)
-                .withUpdate(update)
-                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
-
-        LOGGER.debug("Updating key ({}) to value (async): {}", location, value);
+        final long generation = deletions.get();
         try (Timer.Context context = storeTimer.time()) {
-            client.executeAsync(updateValue);
+            repository.store(key, value);
         }
+        cache(key, Optional.of(value), generation);
     }
 
     /**
@@ -199,14 +231,63 @@ public class CursorStore {
                 "cursorName cannot be empty");
 
         final String key = getCursorKey(username, cursorName);
-        final Location location = new Location(NAMESPACE, key);
-        final DeleteValue deleteValue = new DeleteValue.Builder(location)
-                .build();
-
-        LOGGER.debug("Deleting key (async): {}", location);
+        if (cache != null) {
+            deletions.incrementAndGet();
+            cache.invalidate(key);
+        }
         try (Timer.Context context = deleteTimer.time()) {
-            client.executeAsync(deleteValue);
+            repository.delete(key);
+        }
+    }
+
+    /**
+     * Return the cached value of a cursor
+     *
+     * @param key
+     *            Cursor key
+     * @return the cached value, or null if the cursor isn't cached
+     */
+    @Nullable
+    private Long getCached(@Nonnull final String key) {
+        if (cache == null) {
+            return null;
+        }
+        final Long cached = cache.getIfPresent(key);
+        if (cached == null) {
+            cacheMisses.mark();
+        } else {
+            cacheHits.mark();
+        }
+        return cached;
+    }
+
+    /**
+     * Cache the value of a cursor, unless a larger value is already cached or
+     * a cursor was deleted since the value was read
+     *
+     * @param key
+     *            Cursor key
+     * @param cursor
+     *            Cursor value, if any
+     * @param generation
+     *            Number of deletes before the value was read
+     * @return the cursor value, which may be larger than the given value if a
+     *         newer value was stored while it was being fetched
+     */
+    private Optional<Long> cache(@Nonnull final String key,
+            @Nonnull final Optional<Long> cursor, final long generation) {
+        if (cache == null || !cursor.isPresent()
+                || deletions.get() != generation) {
+            return cursor;
+        }
+        final Long value = cache.asMap().merge(key, cursor.get(), Math::max);
+
+        // a delete which invalidated the key before the value was cached
+        // would otherwise leave the deleted cursor in the cache
+        if (deletions.get() != generation) {
+            cache.asMap().remove(key, value);
         }
+        return Optional.of(value);
     }
 
     /**
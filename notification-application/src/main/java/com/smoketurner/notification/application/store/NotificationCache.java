@@ -0,0 +1,254 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.smoketurner.notification.application.core.RulePlan;
+import com.smoketurner.notification.application.core.UserNotifications;
+
+/**
+ * In-process cache of the rolled up notifications for each user, bounded by
+ * the total number of notifications held. An entry is only reused if the
+ * notification list has the same content version (newest and oldest ID, size
+ * and deleted ID count) and the rules and cursor used to compute it are the
+ * same. Lists are compared by content rather than identity, as decorated
+ * repositories and fresh fetches return a new list instance every time.
+ */
+public class NotificationCache {
+
+    private final Cache<String, Entry> cache;
+
+    // metrics
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter evictions;
+    private final Timer loadTimer;
+
+    /**
+     * Constructor
+     *
+     * @param maxWeight
+     *            Maximum number of notifications to hold in the cache, or
+     *            zero to disable caching
+     */
+    public NotificationCache(final long maxWeight) {
+        Preconditions.checkArgument(maxWeight >= 0,
+                "maxWeight cannot be negative");
+
+        final MetricRegistry registry = SharedMetricRegistries
+                .getOrCreate("default");
+        this.hits = registry
+                .meter(MetricRegistry.name(NotificationCache.class, "hits"));
+        this.misses = registry
+                .meter(MetricRegistry.name(NotificationCache.class, "misses"));
+        this.evictions = registry.meter(
+                MetricRegistry.name(NotificationCache.class, "evictions"));
+        this.loadTimer = registry
+                .timer(MetricRegistry.name(NotificationCache.class, "load"));
+        registry.gauge(MetricRegistry.name(NotificationCache.class, "hit-ratio"),
+                () -> new RatioGauge() {
+                    @Override
+                    protected Ratio getRatio() {
+                        return Ratio.of(hits.getCount(),
+                                hits.getCount() + misses.getCount());
+                    }
+                });
+
+        if (maxWeight == 0) {
+            this.cache = null;
+        } else {
+            this.cache = CacheBuilder.newBuilder().maximumWeight(maxWeight)
+                    .<String, Entry> weigher(
+                            (username, entry) -> entry.getWeight())
+                    .<String, Entry> removalListener(notification -> {
+                        if (notification.getCause() == RemovalCause.SIZE) {
+                            evictions.mark();
+                        }
+                    }).build();
+        }
+    }
+
+    /**
+     * Return the cached entry for a user
+     *
+     * @param username
+     *            User to look up
+     * @return the cached entry or null
+     */
+    @Nullable
+    public Entry getIfPresent(@Nonnull final String username) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.getIfPresent(username);
+    }
+
+    /**
+     * Cache the rolled up notifications for a user
+     *
+     * @param username
+     *            User to cache the notifications for
+     * @param entry
+     *            Entry to cache
+     */
+    public void put(@Nonnull final String username,
+            @Nonnull final Entry entry) {
+        if (cache != null) {
+            cache.put(username, entry);
+        }
+    }
+
+    /**
+     * Discard any cached notifications for a user
+     *
+     * @param username
+     *            User to invalidate
+     */
+    public void invalidate(@Nonnull final String username) {
+        if (cache != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    /**
+     * Record that a cached entry was reused
+     */
+    public void hit() {
+        hits.mark();
+    }
+
+    /**
+     * Record that the notifications had to be computed, returning a context to
+     * time how long that took
+     *
+     * @return the load timer context
+     */
+    public Timer.Context miss() {
+        misses.mark();
+        return loadTimer.time();
+    }
+
+    public long size() {
+        if (cache == null) {
+            return 0;
+        }
+        return cache.size();
+    }
+
+    public static final class Entry {
+        private final NotificationList list;
+        private final long newestId;
+        private final long oldestId;
+        private final int size;
+        private final int deletedIds;
+        private final long rulesVersion;
+        private final Optional<Long> cursor;
+        private final boolean tracked;
+        private final UserNotifications notifications;
+
+        /**
+         * Constructor
+         *
+         * @param list
+         *            Notification list the notifications were computed from
+         * @param plan
+         *            Rules the notifications were rolled up with
+         * @param tracked
+         *            Whether the notifications were split on the cursor
+         * @param cursor
+         *            Cursor the notifications were split on
+         * @param notifications
+         *            Rolled up notifications
+         */
+        public Entry(@Nonnull final NotificationList list,
+                @Nonnull final RulePlan plan, final boolean tracked,
+                @Nonnull final Optional<Long> cursor,
+                @Nonnull final UserNotifications notifications) {
+            this.list = Objects.requireNonNull(list);
+            this.newestId = newestId(list);
+            this.oldestId = oldestId(list);
+            this.size = list.getNotifications().size();
+            this.deletedIds = list.getDeletedIds().size();
+            this.rulesVersion = plan.getVersion();
+            this.tracked = tracked;
+            this.cursor = Objects.requireNonNull(cursor);
+            this.notifications = Objects.requireNonNull(notifications);
+        }
+
+        public NotificationList getList() {
+            return list;
+        }
+
+        public UserNotifications getNotifications() {
+            return notifications;
+        }
+
+        /**
+         * Check whether this entry was computed from the same inputs
+         *
+         * @param list
+         *            Current notification list
+         * @param plan
+         *            Current rules
+         * @param tracked
+         *            Whether the notifications are being split on the cursor
+         * @param cursor
+         *            Current cursor
+         * @return true if the cached notifications can be reused
+         */
+        public boolean matches(@Nonnull final NotificationList list,
+                @Nonnull final RulePlan plan, final boolean tracked,
+                @Nonnull final Optional<Long> cursor) {
+            return this.tracked == tracked
+                    && (!tracked || this.cursor.equals(cursor))
+                    && rulesVersion == plan.getVersion()
+                    && size == list.getNotifications().size()
+                    && deletedIds == list.getDeletedIds().size()
+                    && newestId == newestId(list)
+                    && oldestId == oldestId(list);
+        }
+
+        private static long newestId(final NotificationList list) {
+            if (list.getNotifications().isEmpty()) {
+                return 0L;
+            }
+            return list.getNotifications().first().getId(0L);
+        }
+
+        private static long oldestId(final NotificationList list) {
+            if (list.getNotifications().isEmpty()) {
+                return 0L;
+            }
+            return list.getNotifications().last().getId(0L);
+        }
+
+        private int getWeight() {
+            return list.getNotifications().size() + 1;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import javax.annotation.Nonnull;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Ordering;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.IdGenerator;
+import com.smoketurner.notification.application.core.LongSet;
+
+/**
+ * The notifications stored for a single user, along with the IDs of deleted
+ * notifications and how the list is split across shard keys and older
+ * segments. This is the storage independent form of a notification list
+ * exchanged through {@link NotificationRepository}.
+ */
+public class NotificationList {
+
+    public static final int MAX_NOTIFICATIONS = 1000;
+
+    // An explicit natural ordering lets addAll() build the set in linear time
+    // from another sorted set with the same ordering, rather than inserting
+    // each notification separately
+    private final TreeSet<Notification> notifications = new TreeSet<>(
+            Ordering.natural());
+    private final LongSet deletedIds = new LongSet();
+
+    // Number of shard keys the notifications for this user are spread
+    // across, in addition to this key (0 if the list isn't sharded)
+    private int shards = 0;
+
+    // Newest notification ID of each older segment of this list which has
+    // been sealed into its own key
+    private final LongSet segments = new LongSet();
+
+    // Whether older notifications than the ones in this list were left
+    // unfetched, such as segments beyond a requested range. Only set on lists
+    // assembled for reading, and never stored.
+    private boolean partial = false;
+
+    /**
+     * Constructor
+     */
+    public NotificationList() {
+        // empty list
+    }
+
+    /**
+     * Constructor
+     *
+     * @param other
+     *            Notification list to copy
+     */
+    public NotificationList(@Nonnull final NotificationList other) {
+        notifications.addAll(other.notifications);
+        deletedIds.addAll(other.deletedIds);
+        shards = other.shards;
+        segments.addAll(other.segments);
+        partial = other.partial;
+    }
+
+    public void addNotification(final Notification notification) {
+        notifications.add(notification);
+        if (notifications.size() > MAX_NOTIFICATIONS) {
+            notifications.pollLast();
+        }
+    }
+
+    public void addNotifications(final Collection<Notification> notifications) {
+        this.notifications.addAll(notifications);
+        while (this.notifications.size() > MAX_NOTIFICATIONS) {
+            this.notifications.pollLast();
+        }
+    }
+
+    /**
+     * Add the notifications from another part of the list, such as a shard
+     * or an older segment. Unlike {@link #addNotifications(Collection)}, the
+     * list is not trimmed, as a merged list is only read and never stored.
+     *
+     * @param other
+     *            Notification list to merge in
+     */
+    public void merge(@Nonnull final NotificationList other) {
+        notifications.addAll(other.getNotifications());
+        deletedIds.addAll(other.getDeletedIds());
+        partial |= other.isPartial();
+    }
+
+    /**
+     * Drop the oldest notifications until at most {@code limit} remain
+     *
+     * @param limit
+     *            Maximum number of notifications to keep
+     */
+    public void truncate(final int limit) {
+        while (notifications.size() > limit) {
+            notifications.pollLast();
+        }
+    }
+
+    public void deleteNotification(final long id) {
+        deletedIds.add(id);
+    }
+
+    public void deleteNotifications(final LongSet ids) {
+        deletedIds.addAll(ids);
+    }
+
+    /**
+     * Drop the IDs of deleted notifications which no longer need to be
+     * retained. Once the list is full, any notification older than the oldest
+     * retained notification would be aged out as soon as it was added, so its
+     * deleted ID can be dropped. Beyond that, deleted IDs generated more than
+     * {@code maxAgeMillis} before the newest ID in the list are dropped. As
+     * the cut only depends on the IDs in the list, every sibling compacted
+     * this way keeps the deleted IDs which are still within the window.
+     *
+     * @param maxAgeMillis
+     *            How long before the newest ID in the list to retain deleted
+     *            IDs, in milliseconds
+     * @return the number of deleted IDs which were dropped
+     */
+    public int compactDeletedIds(final long maxAgeMillis) {
+        final int before = deletedIds.size();
+        if (before == 0) {
+            return 0;
+        }
+
+        long newestId = 0L;
+        if (!notifications.isEmpty()) {
+            newestId = notifications.first().getId(0L);
+        }
+        final long[] ids = deletedIds.toSortedArray();
+        newestId = Math.max(newestId, ids[ids.length - 1]);
+
+        long cutoff = newestId - IdGenerator.idSpan(maxAgeMillis);
+
+        if (notifications.size() >= MAX_NOTIFICATIONS) {
+            final Optional<Long> oldest = notifications.last().getId();
+            if (oldest.isPresent()) {
+                cutoff = Math.max(cutoff, oldest.get());
+            }
+        }
+
+        final long minimumId = cutoff;
+        deletedIds.removeIf(id -> id < minimumId);
+        return before - deletedIds.size();
+    }
+
+    public SortedSet<Notification> getNotifications() {
+        return notifications;
+    }
+
+    public LongSet getDeletedIds() {
+        return deletedIds;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(final int shards) {
+        this.shards = shards;
+    }
+
+    public LongSet getSegments() {
+        return segments;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(final boolean partial) {
+        this.partial = partial;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        final NotificationList other = (NotificationList) obj;
+        return Objects.equals(notifications, other.notifications)
+                && Objects.equals(deletedIds, other.deletedIds)
+                && shards == other.shards
+                && Objects.equals(segments, other.segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(notifications, deletedIds, shards, segments);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("notifications", notifications)
+                .add("deletedIds", deletedIds).add("shards", shards)
+                .add("segments", segments).toString();
+    }
+
+    /**
+     * Remove the given notification IDs from the list of notifications.
+     * 
+     * @param notifications
+     *            Notifications to delete from
+     * @param ids
+     *            Notification IDs to delete
+     */
+    public static void removeNotifications(
+            final Collection<Notification> notifications,
+            final LongSet ids) {
+
+        notifications.removeIf(notification -> {
+            final Optional<Long> id = notification.getId();
+            return !id.isPresent() || ids.contains(id.get());
+        });
+    }
+}
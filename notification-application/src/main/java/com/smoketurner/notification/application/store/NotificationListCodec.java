@@ -0,0 +1,402 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB;
+import com.smoketurner.notification.application.protos.NotificationProtos.NotificationPB;
+import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
+
+/**
+ * Serializes notification lists, either as legacy NotificationListPB messages
+ * or in the {@link CompactNotificationListCodec compact} format.
+ */
+public class NotificationListCodec {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(NotificationListCodec.class);
+    public static final String PROTOBUF_CONTENT_TYPE = ProtocolBufferMediaType.APPLICATION_PROTOBUF;
+
+    // NotificationListPB
+    private static final int NOTIFICATION_TAG = tag(
+            NotificationListPB.NOTIFICATION_FIELD_NUMBER,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int DELETED_ID_TAG = tag(
+            NotificationListPB.DELETED_ID_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+    private static final int PACKED_DELETED_ID_TAG = tag(
+            NotificationListPB.DELETED_ID_FIELD_NUMBER,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int SHARDS_TAG = tag(
+            NotificationListPB.SHARDS_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+    private static final int SEGMENT_TAG = tag(
+            NotificationListPB.SEGMENT_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+    private static final int PACKED_SEGMENT_TAG = tag(
+            NotificationListPB.SEGMENT_FIELD_NUMBER,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    // NotificationPB
+    private static final int ID_TAG = tag(NotificationPB.ID_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+    private static final int CATEGORY_TAG = tag(
+            NotificationPB.CATEGORY_FIELD_NUMBER,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int MESSAGE_TAG = tag(
+            NotificationPB.MESSAGE_FIELD_NUMBER,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int CREATED_AT_TAG = tag(
+            NotificationPB.CREATED_AT_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+    private static final int PROPERTY_TAG = tag(
+            NotificationPB.PROPERTY_FIELD_NUMBER,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int PROPERTY_KEY_TAG = tag(1,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int PROPERTY_VALUE_TAG = tag(2,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    /**
+     * Formats notification lists can be written in. Both formats can always be
+     * read.
+     */
+    public enum Format {
+        /**
+         * Legacy NotificationListPB messages
+         */
+        PROTOBUF,
+
+        /**
+         * Compact, columnar encoding (see {@link CompactNotificationListCodec})
+         */
+        COMPACT
+    }
+
+    private final Format format;
+    private final CompactNotificationListCodec compact = new CompactNotificationListCodec();
+
+    /**
+     * Constructor
+     */
+    public NotificationListCodec() {
+        this(Format.PROTOBUF);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param format
+     *            Format to write notification lists in
+     */
+    public NotificationListCodec(@Nonnull final Format format) {
+        this.format = Objects.requireNonNull(format);
+    }
+
+    /**
+     * Return the content type of the lists written by this codec
+     *
+     * @return the content type
+     */
+    public String getContentType() {
+        if (format == Format.COMPACT) {
+            return CompactNotificationListCodec.CONTENT_TYPE;
+        }
+        return PROTOBUF_CONTENT_TYPE;
+    }
+
+    /**
+     * Decode a serialized notification list in either format
+     *
+     * @param value
+     *            Serialized notification list
+     * @return the notification list
+     * @throws IOException
+     *             if unable to decode the value
+     */
+    public NotificationList decode(@Nonnull final byte[] value)
+            throws IOException {
+        return decode(value, new NotificationList());
+    }
+
+    /**
+     * Decode a serialized notification list in either format into an empty
+     * list
+     *
+     * @param value
+     *            Serialized notification list
+     * @param list
+     *            Empty notification list to decode into
+     * @return the notification list
+     * @throws IOException
+     *             if unable to decode the value
+     */
+    public <T extends NotificationList> T decode(@Nonnull final byte[] value,
+            @Nonnull final T list) throws IOException {
+        try {
+            if (CompactNotificationListCodec.isCompact(value)) {
+                return compact.decode(value, list);
+            }
+            return decodeProtobuf(value, list);
+        } catch (IOException e) {
+            LOGGER.error("Unable to decode notification list", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Serialize a notification list in the configured format
+     *
+     * @param domainObject
+     *            Notification list to serialize
+     * @return the serialized notification list
+     */
+    public byte[] encode(@Nonnull final NotificationList domainObject) {
+        if (format == Format.COMPACT) {
+            return compact.encode(domainObject);
+        }
+        return encodeProtobuf(domainObject);
+    }
+
+    /**
+     * Decode a legacy notification list. The notifications are read
+     * directly from the serialized bytes without building intermediate
+     * protobuf messages, and any notifications that have been deleted are
+     * skipped rather than decoded.
+     *
+     * @param value
+     *            Serialized notification list
+     * @param list
+     *            Empty notification list to decode into
+     * @return the notification list
+     * @throws IOException
+     *             if unable to decode the value
+     */
+    private static <T extends NotificationList> T decodeProtobuf(
+            @Nonnull final byte[] value, @Nonnull final T list)
+            throws IOException {
+        final List<Notification> notifications = new ArrayList<>();
+        int shards = 0;
+        final LongSet segments = new LongSet();
+
+        // the deleted IDs are serialized after the notifications, so they
+        // have to be read first in order to skip the deleted notifications
+        final LongSet deletedIds = readDeletedIds(value);
+
+        final CodedInputStream input = CodedInputStream.newInstance(value);
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (tag == NOTIFICATION_TAG) {
+                final int limit = input.pushLimit(input.readRawVarint32());
+                final Notification notification = readNotification(input,
+                        deletedIds);
+                if (notification != null) {
+                    notifications.add(notification);
+                }
+                input.popLimit(limit);
+            } else if (tag == SHARDS_TAG) {
+                shards = input.readInt32();
+            } else if (tag == PACKED_SEGMENT_TAG) {
+                final int limit = input.pushLimit(input.readRawVarint32());
+                while (input.getBytesUntilLimit() > 0) {
+                    segments.add(input.readInt64());
+                }
+                input.popLimit(limit);
+            } else if (tag == SEGMENT_TAG) {
+                segments.add(input.readInt64());
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        input.checkLastTagWas(0);
+
+        // the notifications are normally serialized newest first, so sorting
+        // them is linear and the sorted set can be built in one pass
+        list.addNotifications(ImmutableSortedSet.copyOf(notifications));
+        list.deleteNotifications(deletedIds);
+        list.setShards(shards);
+        list.getSegments().addAll(segments);
+        return list;
+    }
+
+    /**
+     * Read the deleted notification IDs from a serialized notification list,
+     * skipping over the notifications.
+     *
+     * @param value
+     *            Serialized notification list
+     * @return the deleted notification IDs
+     * @throws IOException
+     *             if unable to decode the value
+     */
+    private static LongSet readDeletedIds(@Nonnull final byte[] value)
+            throws IOException {
+        final LongSet deletedIds = new LongSet();
+        final CodedInputStream input = CodedInputStream.newInstance(value);
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (tag == PACKED_DELETED_ID_TAG) {
+                final int limit = input.pushLimit(input.readRawVarint32());
+                while (input.getBytesUntilLimit() > 0) {
+                    deletedIds.add(input.readInt64());
+                }
+                input.popLimit(limit);
+            } else if (tag == DELETED_ID_TAG) {
+                deletedIds.add(input.readInt64());
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        return deletedIds;
+    }
+
+    /**
+     * Read a single notification, stopping as soon as it is known to be
+     * deleted.
+     *
+     * @param input
+     *            Input limited to the serialized notification
+     * @param deletedIds
+     *            Notification IDs which have been deleted
+     * @return the notification or null if it has been deleted
+     * @throws IOException
+     *             if unable to decode the notification
+     */
+    @Nullable
+    private static Notification readNotification(
+            @Nonnull final CodedInputStream input,
+            @Nonnull final LongSet deletedIds) throws IOException {
+        long id = 0L;
+        String category = "";
+        String message = "";
+        long createdAt = 0L;
+        Map<String, String> properties = null;
+
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (tag == ID_TAG) {
+                id = input.readInt64();
+                if (!deletedIds.isEmpty() && deletedIds.contains(id)) {
+                    input.skipRawBytes(input.getBytesUntilLimit());
+                    return null;
+                }
+            } else if (tag == CATEGORY_TAG) {
+                // strings were encoded by us, so they aren't validated again
+                // as UTF-8 before being decoded
+                category = input.readString();
+            } else if (tag == MESSAGE_TAG) {
+                message = input.readString();
+            } else if (tag == CREATED_AT_TAG) {
+                createdAt = input.readInt64();
+            } else if (tag == PROPERTY_TAG) {
+                if (properties == null) {
+                    properties = new LinkedHashMap<>();
+                }
+                readProperty(input, properties);
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+
+        return Notification.builder().withId(id).withCategory(category)
+                .withMessage(message)
+                .withCreatedAt(new DateTime(createdAt, DateTimeZone.UTC))
+                .withProperties(properties == null ? Collections.emptyMap()
+                        : Collections.unmodifiableMap(properties))
+                .build();
+    }
+
+    /**
+     * Read a single property map entry
+     *
+     * @param input
+     *            Input positioned at the length of the entry
+     * @param properties
+     *            Properties to add the entry to
+     * @throws IOException
+     *             if unable to decode the entry
+     */
+    private static void readProperty(@Nonnull final CodedInputStream input,
+            @Nonnull final Map<String, String> properties) throws IOException {
+        final int limit = input.pushLimit(input.readRawVarint32());
+        String key = "";
+        String value = "";
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (tag == PROPERTY_KEY_TAG) {
+                key = input.readString();
+            } else if (tag == PROPERTY_VALUE_TAG) {
+                value = input.readString();
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        input.popLimit(limit);
+        properties.put(key, value);
+    }
+
+    private static int tag(final int fieldNumber, final int wireType) {
+        return (fieldNumber << 3) | wireType;
+    }
+
+    /**
+     * Serialize a legacy notification list
+     *
+     * @param domainObject
+     *            Notification list to serialize
+     * @return the serialized notification list
+     */
+    private static byte[] encodeProtobuf(
+            @Nonnull final NotificationList domainObject) {
+        final NotificationListPB.Builder builder = NotificationListPB
+                .newBuilder();
+        domainObject.getDeletedIds().forEach(builder::addDeletedId);
+        builder.setShards(domainObject.getShards());
+        domainObject.getSegments().forEach(builder::addSegment);
+
+        domainObject.getNotifications().stream()
+                .map(NotificationListCodec::convert)
+                .forEach(builder::addNotification);
+
+        return builder.build().toByteArray();
+    }
+
+    private static NotificationPB convert(
+            @Nonnull final Notification notification) {
+        return NotificationPB.newBuilder().setId(notification.getId().get())
+                .setCategory(notification.getCategory())
+                .setMessage(notification.getMessage())
+                .setCreatedAt(notification.getCreatedAt().getMillis())
+                .putAllProperty(notification.getProperties()).build();
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+/**
+ * Storage SPI for the per-user notification lists. Implementations only deal
+ * with persisting the lists; cursor handling, roll-ups and pagination are
+ * performed by {@link NotificationStore}, which passes each username encoded
+ * by {@link UserKeys}. Optional capabilities are provided by implementing
+ * {@link ShardableRepository} or {@link SegmentableRepository}.
+ */
+public interface NotificationRepository {
+
+    /**
+     * Prepare the underlying storage for use
+     */
+    void initialize();
+
+    /**
+     * Fetch the notification list for a given user
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @return the notification list or absent if the user has none
+     * @throws NotificationStoreException
+     *             if unable to fetch the notification list
+     */
+    Optional<NotificationList> fetch(@Nonnull String username)
+            throws NotificationStoreException;
+
+    /**
+     * Asynchronously fetch the notification list for a given user. The default
+     * implementation performs a blocking {@link #fetch(String)}.
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @return a future completed with the notification list or absent if the
+     *         user has none
+     */
+    default CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull String username) {
+        final CompletableFuture<Optional<NotificationList>> future = new CompletableFuture<>();
+        try {
+            future.complete(fetch(username));
+        } catch (NotificationStoreException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Asynchronously fetch the notification list for a given user, unless it
+     * hasn't changed since it was previously fetched. The default
+     * implementation always fetches the list.
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @param previous
+     *            Notification list previously fetched for the user
+     * @return a future completed with the previous notification list if it is
+     *         unchanged, the current notification list, or absent if the user
+     *         has none
+     */
+    default CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull String username,
+            @Nonnull NotificationList previous) {
+        return fetchAsync(username);
+    }
+
+    /**
+     * Asynchronously fetch at least the newest notifications for a given user
+     * at or older than a given ID. Implementations which store the older
+     * notifications for a user separately only need to fetch enough of them
+     * to return more than {@code limit} notifications from {@code fromId}, so
+     * callers can tell whether there are more. The default implementation
+     * fetches the whole list.
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @param fromId
+     *            ID to start from, or absent to start from the newest
+     *            notification
+     * @param limit
+     *            Number of notifications needed from the starting ID
+     * @return a future completed with the notification list or absent if the
+     *         user has none
+     */
+    default CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull String username, @Nonnull Optional<Long> fromId,
+            int limit) {
+        return fetchAsync(username);
+    }
+
+    /**
+     * Asynchronously fetch at least the newest notifications for a given user
+     * at or older than a given ID, unless the list hasn't changed since it
+     * was previously fetched. The default implementation ignores the range.
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @param previous
+     *            Notification list previously fetched for the user
+     * @param fromId
+     *            ID to start from, or absent to start from the newest
+     *            notification
+     * @param limit
+     *            Number of notifications needed from the starting ID
+     * @return a future completed with the previous notification list if it is
+     *         unchanged, the current notification list, or absent if the user
+     *         has none
+     * @see #fetchAsync(String, Optional, int)
+     */
+    default CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull String username, @Nonnull NotificationList previous,
+            @Nonnull Optional<Long> fromId, int limit) {
+        return fetchIfModifiedAsync(username, previous);
+    }
+
+    /**
+     * Add a notification to the list for a given user
+     *
+     * @param username
+     *            User to store the notification for
+     * @param notification
+     *            Notification to store (with the ID already assigned)
+     * @throws NotificationStoreException
+     *             if unable to store the notification
+     */
+    void store(@Nonnull String username, @Nonnull Notification notification)
+            throws NotificationStoreException;
+
+    /**
+     * Asynchronously add a notification to the list for a given user. The
+     * default implementation performs a blocking
+     * {@link #store(String, Notification)}.
+     *
+     * @param username
+     *            User to store the notification for
+     * @param notification
+     *            Notification to store (with the ID already assigned)
+     * @return a future completed once the notification is stored
+     */
+    default CompletableFuture<Void> storeAsync(@Nonnull String username,
+            @Nonnull Notification notification) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            store(username, notification);
+            future.complete(null);
+        } catch (NotificationStoreException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Apply a batch of additions and removals to the list for a given user in
+     * a single write
+     *
+     * @param username
+     *            User to update the notifications for
+     * @param additions
+     *            Notifications to add (with the IDs already assigned)
+     * @param ids
+     *            Notification IDs to remove
+     * @throws NotificationStoreException
+     *             if unable to update the notification list
+     */
+    void update(@Nonnull String username,
+            @Nonnull Collection<Notification> additions,
+            @Nonnull LongSet ids) throws NotificationStoreException;
+
+    /**
+     * Asynchronously remove individual notifications for a given user
+     *
+     * @param username
+     *            User to remove notifications from
+     * @param ids
+     *            Notification IDs to remove
+     */
+    void remove(@Nonnull String username, @Nonnull LongSet ids);
+
+    /**
+     * Asynchronously remove all of the notifications for a given user
+     *
+     * @param username
+     *            User to remove all the notifications from
+     */
+    void removeAll(@Nonnull String username);
+}
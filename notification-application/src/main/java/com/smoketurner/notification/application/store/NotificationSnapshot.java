@@ -0,0 +1,143 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.joda.time.DateTime;
+import com.google.common.base.MoreObjects;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.RulePlan;
+
+/**
+ * Everything a user's notifications are computed from: the stored list, the
+ * user's cursor and the rules in effect. A snapshot is cheap to build, so
+ * callers can decide whether the notifications have changed before paying for
+ * them to be split and rolled up.
+ */
+public final class NotificationSnapshot {
+
+    private final String username;
+    private final NotificationCache.Entry cached;
+    private final Optional<NotificationList> list;
+    private final boolean tracked;
+    private final Optional<Long> cursor;
+    private final RulePlan rules;
+
+    /**
+     * Constructor
+     *
+     * @param username
+     *            User the notifications were fetched for
+     * @param cached
+     *            Previously cached entry for the user, if any
+     * @param list
+     *            Fetched notification list
+     * @param tracked
+     *            Whether the notifications are split on the cursor
+     * @param cursor
+     *            ID of the last seen notification, if any
+     * @param rules
+     *            Rules to roll up the notifications with
+     */
+    public NotificationSnapshot(@Nonnull final String username,
+            @Nullable final NotificationCache.Entry cached,
+            @Nonnull final Optional<NotificationList> list,
+            final boolean tracked, @Nonnull final Optional<Long> cursor,
+            @Nonnull final RulePlan rules) {
+        this.username = Objects.requireNonNull(username);
+        this.cached = cached;
+        this.list = Objects.requireNonNull(list);
+        this.tracked = tracked;
+        this.cursor = Objects.requireNonNull(cursor);
+        this.rules = Objects.requireNonNull(rules);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Nullable
+    NotificationCache.Entry getCached() {
+        return cached;
+    }
+
+    public Optional<NotificationList> getList() {
+        return list;
+    }
+
+    /**
+     * @return true if the user has a notification list, otherwise false
+     */
+    public boolean isPresent() {
+        return list.isPresent();
+    }
+
+    public boolean isTracked() {
+        return tracked;
+    }
+
+    public Optional<Long> getCursor() {
+        return cursor;
+    }
+
+    public RulePlan getRules() {
+        return rules;
+    }
+
+    /**
+     * @return the number of stored notifications
+     */
+    public int size() {
+        return getNotifications().map(SortedSet::size).orElse(0);
+    }
+
+    /**
+     * @return the ID of the newest stored notification or zero if there are
+     *         none
+     */
+    public long getNewestId() {
+        return getNewest().map(notification -> notification.getId(0L))
+                .orElse(0L);
+    }
+
+    /**
+     * @return the creation time of the newest stored notification, if any
+     */
+    public Optional<DateTime> getLastModified() {
+        return getNewest().map(Notification::getCreatedAt);
+    }
+
+    private Optional<SortedSet<Notification>> getNotifications() {
+        return list.map(NotificationList::getNotifications);
+    }
+
+    private Optional<Notification> getNewest() {
+        return getNotifications().filter(notifications -> !notifications
+                .isEmpty()).map(SortedSet::first);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("username", username)
+                .add("size", size()).add("newestId", getNewestId())
+                .add("tracked", tracked).add("cursor", cursor)
+                .add("rulesVersion", rules.getVersion()).toString();
+    }
+}
@@ -15,114 +15,181 @@
  */
 package com.smoketurner.notification.application.store;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedSet;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.basho.riak.client.api.RiakClient;
-import com.basho.riak.client.api.cap.UnresolvedConflictException;
-import com.basho.riak.client.api.commands.buckets.StoreBucketProperties;
-import com.basho.riak.client.api.commands.kv.DeleteValue;
-import com.basho.riak.client.api.commands.kv.FetchValue;
-import com.basho.riak.client.api.commands.kv.StoreValue;
-import com.basho.riak.client.api.commands.kv.UpdateValue;
-import com.basho.riak.client.core.query.Location;
-import com.basho.riak.client.core.query.Namespace;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SharedMetricRegistries;
 import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.ImmutableSortedSet;
+import com.smoketurner.notification.api.BulkNotification;
+import com.smoketurner.notification.api.BulkNotificationResult;
 import com.smoketurner.notification.api.Notification;
-import com.smoketurner.notification.api.Rule;
 import com.smoketurner.notification.application.core.IdGenerator;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.core.NotificationPage;
 import com.smoketurner.notification.application.core.Rollup;
+import com.smoketurner.notification.application.core.RulePlan;
 import com.smoketurner.notification.application.core.UserNotifications;
 import com.smoketurner.notification.application.exceptions.NotificationStoreException;
-import com.smoketurner.notification.application.riak.NotificationListAddition;
-import com.smoketurner.notification.application.riak.NotificationListDeletion;
-import com.smoketurner.notification.application.riak.NotificationListObject;
 
 public class NotificationStore {
 
     private static final Logger LOGGER = LoggerFactory
             .getLogger(NotificationStore.class);
     public static final String CURSOR_NAME = "notifications";
-    private static final Namespace NAMESPACE = new Namespace("notifications");
-    private final RiakClient client;
+    private final NotificationRepository repository;
     private final IdGenerator idGenerator;
     private final CursorStore cursors;
     private final RuleStore ruleStore;
+    private final Executor executor;
+    private final Executor bulkExecutor;
+    private final NotificationCache cache;
 
-    // timers
+    // metrics
     private final Timer fetchTimer;
+    private final Timer fetchCursorTimer;
+    private final Timer fetchTotalTimer;
     private final Timer updateTimer;
+    private final Timer bulkUpdateTimer;
     private final Timer deleteTimer;
+    private final Timer partialRollupTimer;
+    private final Meter notModified;
 
     /**
      * Constructor
      *
-     * @param client
-     *            Riak client
+     * @param repository
+     *            Notification repository
      * @param idGenerator
      *            ID Generator
      * @param cursors
      *            Cursor data store
      * @param rules
      *            Rule data store
+     * @param executor
+     *            Executor used to write bulk notifications and to split and
+     *            roll up asynchronously fetched notifications
      */
-    public NotificationStore(@Nonnull final RiakClient client,
+    public NotificationStore(@Nonnull final NotificationRepository repository,
             @Nonnull final IdGenerator idGenerator,
             @Nonnull final CursorStore cursors,
-            @Nonnull final RuleStore ruleStore) {
+            @Nonnull final RuleStore ruleStore,
+            @Nonnull final Executor executor) {
+        this(repository, idGenerator, cursors, ruleStore, executor,
+                new NotificationCache(0));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param repository
+     *            Notification repository
+     * @param idGenerator
+     *            ID Generator
+     * @param cursors
+     *            Cursor data store
+     * @param rules
+     *            Rule data store
+     * @param executor
+     *            Executor used to write bulk notifications and to split and
+     *            roll up asynchronously fetched notifications
+     * @param cache
+     *            Cache of rolled up notifications
+     */
+    public NotificationStore(@Nonnull final NotificationRepository repository,
+            @Nonnull final IdGenerator idGenerator,
+            @Nonnull final CursorStore cursors,
+            @Nonnull final RuleStore ruleStore,
+            @Nonnull final Executor executor,
+            @Nonnull final NotificationCache cache) {
+        this(repository, idGenerator, cursors, ruleStore, executor, executor,
+                cache);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param repository
+     *            Notification repository
+     * @param idGenerator
+     *            ID Generator
+     * @param cursors
+     *            Cursor data store
+     * @param rules
+     *            Rule data store
+     * @param executor
+     *            Executor used to split and roll up asynchronously fetched
+     *            notifications
+     * @param bulkExecutor
+     *            Executor used to write bulk notifications (its size bounds
+     *            the number of concurrent writes)
+     * @param cache
+     *            Cache of rolled up notifications
+     */
+    public NotificationStore(@Nonnull final NotificationRepository repository,
+            @Nonnull final IdGenerator idGenerator,
+            @Nonnull final CursorStore cursors,
+            @Nonnull final RuleStore ruleStore,
+            @Nonnull final Executor executor,
+            @Nonnull final Executor bulkExecutor,
+            @Nonnull final NotificationCache cache) {
 
         final MetricRegistry registry = SharedMetricRegistries
                 .getOrCreate("default");
         this.fetchTimer = registry
                 .timer(MetricRegistry.name(NotificationStore.class, "fetch"));
+        this.fetchCursorTimer = registry.timer(
+                MetricRegistry.name(NotificationStore.class, "fetch-cursor"));
+        this.fetchTotalTimer = registry.timer(
+                MetricRegistry.name(NotificationStore.class, "fetch-total"));
         this.updateTimer = registry
                 .timer(MetricRegistry.name(NotificationStore.class, "store"));
+        this.bulkUpdateTimer = registry.timer(
+                MetricRegistry.name(NotificationStore.class, "bulk-store"));
         this.deleteTimer = registry
                 .timer(MetricRegistry.name(NotificationStore.class, "delete"));
+        this.partialRollupTimer = registry.timer(MetricRegistry
+                .name(NotificationStore.class, "partial-rollup"));
+        this.notModified = registry.meter(
+                MetricRegistry.name(NotificationStore.class, "not-modified"));
 
-        this.client = Objects.requireNonNull(client);
+        this.repository = Objects.requireNonNull(repository);
         this.idGenerator = Objects.requireNonNull(idGenerator);
         this.cursors = Objects.requireNonNull(cursors);
         this.ruleStore = Objects.requireNonNull(ruleStore);
+        this.executor = Objects.requireNonNull(executor);
+        this.bulkExecutor = Objects.requireNonNull(bulkExecutor);
+        this.cache = Objects.requireNonNull(cache);
     }
 
     /**
-     * Internal method to set the allow_multi to true
+     * Prepare the underlying repository for use
      */
     public void initialize() {
-        final boolean allowMulti = true;
-        LOGGER.debug("Setting allow_multi={} for namespace={}", allowMulti,
-                NAMESPACE);
-        final StoreBucketProperties storeBucketProperties = new StoreBucketProperties.Builder(
-                NAMESPACE).withAllowMulti(allowMulti).build();
-
-        try {
-            client.execute(storeBucketProperties);
-        } catch (InterruptedException e) {
-            LOGGER.warn(String.format(
-                    "Unable to set allow_multi=%s for namespace=%s", allowMulti,
-                    NAMESPACE), e);
-            Thread.currentThread().interrupt();
-        } catch (ExecutionException e) {
-            LOGGER.error(String.format(
-                    "Unable to set allow_multi=%s for namespace=%s", allowMulti,
-                    NAMESPACE), e);
-        }
+        repository.initialize();
     }
 
     /**
@@ -141,36 +208,368 @@ public class NotificationStore {
         Preconditions.checkArgument(!username.isEmpty(),
                 "username cannot be empty");
 
-        final Location location = new Location(NAMESPACE, username);
+        final Optional<NotificationList> list;
+        try (Timer.Context context = fetchTimer.time()) {
+            list = repository.fetch(UserKeys.encode(username));
+        }
 
-        LOGGER.debug("Fetching key: {}", location);
+        if (!list.isPresent()) {
+            return Optional.empty();
+        }
 
-        final NotificationListObject list;
-        final FetchValue fv = new FetchValue.Builder(location).build();
-        try (Timer.Context context = fetchTimer.time()) {
-            final FetchValue.Response response = client.execute(fv);
-            if (response.isNotFound()) {
-                return Optional.empty();
+        return Optional.of(
+                splitNotifications(username, list.get().getNotifications()));
+    }
+
+    /**
+     * Asynchronously fetch a list of notifications for a given user. The
+     * notification list and the user's cursor are fetched concurrently, then
+     * the notifications are split and rolled up on the store's executor.
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @param includeCursor
+     *            Whether to fetch (and advance) the user's cursor to split the
+     *            notifications into seen and unseen. If false, the cursor is
+     *            not touched and the notifications have no unseen state.
+     * @return a future completed with the notifications or absent
+     */
+    public CompletableFuture<Optional<UserNotifications>> fetchAsync(
+            @Nonnull final String username, final boolean includeCursor) {
+        return fetchSnapshotAsync(username, includeCursor)
+                .thenApply(this::resolve);
+    }
+
+    /**
+     * Asynchronously fetch everything needed to compute the notifications for
+     * a given user, without splitting or rolling them up. The notification
+     * list and the user's cursor are fetched concurrently and the future is
+     * completed on the store's executor.
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @param includeCursor
+     *            Whether to fetch the user's cursor to split the notifications
+     *            into seen and unseen
+     * @return a future completed with the snapshot
+     */
+    public CompletableFuture<NotificationSnapshot> fetchSnapshotAsync(
+            @Nonnull final String username, final boolean includeCursor) {
+        return fetchSnapshotAsync(username, includeCursor, Optional.empty(),
+                Integer.MAX_VALUE);
+    }
+
+    /**
+     * Asynchronously fetch everything needed to compute a page of the
+     * notifications for a given user with {@link #resolvePage}. If the
+     * notifications fetched for the range all roll up into one notification
+     * which may continue into the notifications that weren't fetched, the
+     * page can't be resolved without them, so every older notification is
+     * fetched instead. Otherwise the rollup would be returned again, from
+     * its older notifications, on the next page.
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @param includeCursor
+     *            Whether to fetch the user's cursor to split the notifications
+     *            into seen and unseen
+     * @param fromId
+     *            ID the page starts from, or absent to start from the newest
+     *            notification
+     * @param fromInclusive
+     *            Whether the page includes the notification with the
+     *            starting ID
+     * @param limit
+     *            Maximum number of notifications on the page
+     * @return a future completed with the snapshot
+     */
+    public CompletableFuture<NotificationSnapshot> fetchPageSnapshotAsync(
+            @Nonnull final String username, final boolean includeCursor,
+            @Nonnull final Optional<Long> fromId, final boolean fromInclusive,
+            final int limit) {
+        return fetchSnapshotAsync(username, includeCursor, fromId, limit)
+                .thenCompose(snapshot -> {
+                    if (limit == 0 || !snapshot.getList().isPresent()
+                            || !snapshot.getList().get().isPartial()) {
+                        return CompletableFuture.completedFuture(snapshot);
+                    }
+
+                    // only the first two notifications on the page are
+                    // needed to tell whether it can move forward
+                    final NotificationPage page = collectPage(snapshot,
+                            fromId, fromInclusive, Math.min(limit, 2));
+                    if (!page.isIncomplete()) {
+                        return CompletableFuture.completedFuture(snapshot);
+                    }
+                    return fetchSnapshotAsync(username, includeCursor,
+                            fromId, Integer.MAX_VALUE);
+                });
+    }
+
+    /**
+     * Asynchronously fetch everything needed to compute a range of the
+     * notifications for a given user. Repositories which store older
+     * notifications separately only need to fetch enough of them to cover
+     * the range, so the snapshot may not include every notification.
+     *
+     * @param username
+     *            User to fetch notifications for
+     * @param includeCursor
+     *            Whether to fetch the user's cursor to split the notifications
+     *            into seen and unseen
+     * @param fromId
+     *            ID the range starts from, or absent to start from the newest
+     *            notification
+     * @param limit
+     *            Number of notifications in the range, or
+     *            {@link Integer#MAX_VALUE} for every notification
+     * @return a future completed with the snapshot
+     */
+    public CompletableFuture<NotificationSnapshot> fetchSnapshotAsync(
+            @Nonnull final String username, final boolean includeCursor,
+            @Nonnull final Optional<Long> fromId, final int limit) {
+
+        Objects.requireNonNull(username);
+        Objects.requireNonNull(fromId);
+        Preconditions.checkArgument(!username.isEmpty(),
+                "username cannot be empty");
+
+        final Timer.Context totalContext = fetchTotalTimer.time();
+
+        // if we have previously rolled up this user's notifications, only
+        // fetch the list again if it has changed
+        final NotificationCache.Entry cached = cache.getIfPresent(username);
+
+        final Timer.Context listContext = fetchTimer.time();
+        final String key = UserKeys.encode(username);
+        final CompletableFuture<Optional<NotificationList>> list;
+        final boolean ranged = fromId.isPresent() || limit < Integer.MAX_VALUE;
+        if (cached == null) {
+            list = ranged ? repository.fetchAsync(key, fromId, limit)
+                    : repository.fetchAsync(key);
+        } else if (ranged) {
+            list = repository.fetchIfModifiedAsync(key, cached.getList(),
+                    fromId, limit);
+        } else {
+            list = repository.fetchIfModifiedAsync(key, cached.getList());
+        }
+        list.whenComplete((value, error) -> listContext.stop());
+
+        final CompletableFuture<NotificationSnapshot> result;
+        if (includeCursor) {
+            final Timer.Context cursorContext = fetchCursorTimer.time();
+            final CompletableFuture<Optional<Long>> cursor = cursors
+                    .fetchAsync(username, CURSOR_NAME)
+                    .whenComplete((value, error) -> cursorContext.stop());
+
+            result = list.thenCombineAsync(cursor,
+                    (notifications, lastSeen) -> new NotificationSnapshot(
+                            username, cached, notifications, true, lastSeen,
+                            ruleStore.fetchPlan()),
+                    executor);
+        } else {
+            result = list.thenApplyAsync(
+                    notifications -> new NotificationSnapshot(username, cached,
+                            notifications, false, Optional.empty(),
+                            ruleStore.fetchPlan()),
+                    executor);
+        }
+        return result.whenComplete((value, error) -> totalContext.stop());
+    }
+
+    /**
+     * Return the rolled up notifications for a snapshot, reusing the cached
+     * notifications if they were computed from the same inputs.
+     *
+     * @param snapshot
+     *            Fetched notification list, cursor and rules
+     * @return the rolled up notifications or absent
+     */
+    public Optional<UserNotifications> resolve(
+            @Nonnull final NotificationSnapshot snapshot) {
+
+        final String username = snapshot.getUsername();
+        if (!snapshot.getList().isPresent()) {
+            cache.invalidate(username);
+            return Optional.empty();
+        }
+
+        final NotificationList current = snapshot.getList().get();
+        final RulePlan rules = snapshot.getRules();
+        final boolean tracked = snapshot.isTracked();
+        final Optional<Long> cursor = snapshot.getCursor();
+        final NotificationCache.Entry cached = snapshot.getCached();
+
+        if (cached != null && cached.matches(current, rules, tracked, cursor)) {
+            cache.hit();
+            if (tracked) {
+                advanceCursor(username, current.getNotifications(), cursor);
+            }
+            return Optional.of(cached.getNotifications());
+        }
+
+        final UserNotifications notifications;
+        try (Timer.Context context = cache.miss()) {
+            if (tracked) {
+                notifications = split(username, current.getNotifications(),
+                        cursor, rules);
+            } else {
+                notifications = rollupNotifications(current.getNotifications(),
+                        rules);
             }
-            list = response.getValue(NotificationListObject.class);
-        } catch (UnresolvedConflictException e) {
-            LOGGER.error("Unable to resolve siblings for key: " + location, e);
-            throw new NotificationStoreException(e);
-        } catch (ExecutionException e) {
-            LOGGER.error("Unable to fetch key: " + location, e);
-            throw new NotificationStoreException(e);
-        } catch (InterruptedException e) {
-            LOGGER.warn("Interrupted fetching key: " + location, e);
-            Thread.currentThread().interrupt();
-            throw new NotificationStoreException(e);
         }
+        cache.put(username, new NotificationCache.Entry(current, rules,
+                tracked, cursor, notifications));
+        return Optional.of(notifications);
+    }
 
-        if (list == null) {
+    /**
+     * Return a page of the rolled up notifications for a snapshot. If the
+     * notifications were cached from the same inputs, the page is taken from
+     * the cached notifications. Otherwise only as many notifications are
+     * rolled up as are needed to fill the page, and as the rest of the list is
+     * not rolled up, nothing is cached.
+     *
+     * @param snapshot
+     *            Fetched notification list, cursor and rules
+     * @param fromId
+     *            ID to start the page from, or absent to start from the
+     *            newest notification
+     * @param fromInclusive
+     *            Whether the page includes the notification with the
+     *            starting ID
+     * @param limit
+     *            Maximum number of notifications on the page
+     * @return the page of rolled up notifications or absent
+     */
+    public Optional<NotificationPage> resolvePage(
+            @Nonnull final NotificationSnapshot snapshot,
+            @Nonnull final Optional<Long> fromId, final boolean fromInclusive,
+            final int limit) {
+
+        Objects.requireNonNull(fromId);
+        Preconditions.checkArgument(limit >= 0, "limit cannot be negative");
+
+        final String username = snapshot.getUsername();
+        if (!snapshot.getList().isPresent()) {
+            cache.invalidate(username);
             return Optional.empty();
         }
 
-        return Optional
-                .of(splitNotifications(username, list.getNotifications()));
+        final NotificationList current = snapshot.getList().get();
+        final RulePlan rules = snapshot.getRules();
+        final boolean tracked = snapshot.isTracked();
+        final Optional<Long> cursor = snapshot.getCursor();
+        final NotificationCache.Entry cached = snapshot.getCached();
+        final SortedSet<Notification> notifications = current
+                .getNotifications();
+
+        if (cached != null && cached.matches(current, rules, tracked, cursor)) {
+            cache.hit();
+            if (tracked) {
+                advanceCursor(username, notifications, cursor);
+            }
+            return Optional.of(NotificationPage.of(cached.getNotifications(),
+                    fromId, fromInclusive, limit));
+        }
+
+        try (Timer.Context context = partialRollupTimer.time()) {
+            if (tracked) {
+                advanceCursor(username, notifications, cursor);
+            }
+            return Optional.of(collectPage(snapshot, fromId, fromInclusive,
+                    limit));
+        }
+    }
+
+    /**
+     * Roll up a page of the notifications in a snapshot, without touching
+     * the cache or the user's cursor
+     *
+     * @param snapshot
+     *            Fetched notification list, cursor and rules
+     * @param fromId
+     *            ID to start the page from, or absent to start from the
+     *            newest notification
+     * @param fromInclusive
+     *            Whether the page includes the notification with the
+     *            starting ID
+     * @param limit
+     *            Maximum number of notifications on the page
+     * @return the page of rolled up notifications
+     */
+    private static NotificationPage collectPage(
+            @Nonnull final NotificationSnapshot snapshot,
+            @Nonnull final Optional<Long> fromId, final boolean fromInclusive,
+            final int limit) {
+        final NotificationList current = snapshot.getList().get();
+        final RulePlan rules = snapshot.getRules();
+        final SortedSet<Notification> notifications = current
+                .getNotifications();
+
+        if (!snapshot.isTracked()) {
+            return NotificationPage.collect(
+                    rollupIncrementally(rules, notifications),
+                    Collections.emptyIterator(), false, fromId, fromInclusive,
+                    limit, current.isPartial());
+        }
+
+        // as with split(), the head of the list is unseen and the tail of the
+        // list is seen, and each side is rolled up separately
+        final Optional<Notification> lastNotification = snapshot.getCursor()
+                .flatMap(lastSeenId -> tryFind(notifications, lastSeenId));
+        if (!lastNotification.isPresent()) {
+            return NotificationPage.collect(
+                    rollupIncrementally(rules, notifications),
+                    Collections.emptyIterator(), true, fromId, fromInclusive,
+                    limit, current.isPartial());
+        }
+
+        return NotificationPage.collect(
+                rollupIncrementally(rules,
+                        notifications.headSet(lastNotification.get())),
+                rollupIncrementally(rules,
+                        notifications.tailSet(lastNotification.get())),
+                true, fromId, fromInclusive, limit, current.isPartial());
+    }
+
+    /**
+     * Record that the caller already holds the notifications for a snapshot,
+     * so they are not split or rolled up. The user's cursor is still advanced
+     * in case a previous attempt to store it failed.
+     *
+     * @param snapshot
+     *            Fetched notification list, cursor and rules
+     */
+    public void notModified(@Nonnull final NotificationSnapshot snapshot) {
+        notModified.mark();
+        if (snapshot.isTracked() && snapshot.getList().isPresent()) {
+            advanceCursor(snapshot.getUsername(),
+                    snapshot.getList().get().getNotifications(),
+                    snapshot.getCursor());
+        }
+    }
+
+    /**
+     * Roll up the notifications without splitting them into seen and unseen
+     *
+     * @param notifications
+     *            Original notifications list
+     * @return the rolled up notifications
+     */
+    public UserNotifications rollupNotifications(
+            @Nonnull final SortedSet<Notification> notifications) {
+        return rollupNotifications(notifications, ruleStore.fetchPlan());
+    }
+
+    private static UserNotifications rollupNotifications(
+            @Nullable final SortedSet<Notification> notifications,
+            @Nonnull final RulePlan rules) {
+        if (notifications == null || notifications.isEmpty()) {
+            return new UserNotifications();
+        }
+        return new UserNotifications(rollup(rules, notifications),
+                Optional.empty());
     }
 
     /**
@@ -183,7 +582,7 @@ public class NotificationStore {
      *            Original notifications list
      * @return the seen and unseen notifications
      * @throws NotificationStoreException
-     *             if unable to update the cursor
+     *             if unable to fetch the cursor
      */
     public UserNotifications splitNotifications(@Nonnull final String username,
             @Nonnull final SortedSet<Notification> notifications)
@@ -198,64 +597,182 @@ public class NotificationStore {
             return new UserNotifications();
         }
 
-        // get the ID of the most recent notification (this should never be
-        // zero)
-        final long newestId = notifications.first().getId(0L);
-        LOGGER.debug("Newest notification ID: {}", newestId);
+        return splitNotifications(username, notifications,
+                cursors.fetch(username, CURSOR_NAME));
+    }
+
+    /**
+     * Sets the unseen state on all of the notifications based on the user's
+     * cursor, advancing the cursor to the newest notification.
+     * 
+     * @param username
+     *            Username of the notifications
+     * @param notifications
+     *            Original notifications list
+     * @param cursor
+     *            ID of the last seen notification, if any
+     * @return the seen and unseen notifications
+     */
+    public UserNotifications splitNotifications(@Nonnull final String username,
+            @Nonnull final SortedSet<Notification> notifications,
+            @Nonnull final Optional<Long> cursor) {
 
-        // fetch rules from cache
-        final Map<String, Rule> rules = ruleStore.fetchCached();
-        LOGGER.debug("Fetched {} rules from cache", rules.size());
+        Objects.requireNonNull(username);
+        Preconditions.checkArgument(!username.isEmpty(),
+                "username cannot be empty");
+        Objects.requireNonNull(cursor);
 
-        final Rollup unseenRollup = new Rollup(rules);
+        // if there are no notifications, just return
+        if (notifications == null || notifications.isEmpty()) {
+            return new UserNotifications();
+        }
 
-        final Optional<Long> cursor = cursors.fetch(username, CURSOR_NAME);
-        if (!cursor.isPresent()) {
-            LOGGER.debug("User ({}) has no cursor", username);
+        return split(username, notifications, cursor, ruleStore.fetchPlan());
+    }
 
-            // if the user has no cursor, update the cursor to the newest
-            // notification
-            LOGGER.debug("Updating cursor to {}", newestId);
-            cursors.store(username, CURSOR_NAME, newestId);
+    /**
+     * Split and roll up the notifications based on the user's cursor,
+     * advancing the cursor to the newest notification.
+     *
+     * @param username
+     *            Username of the notifications
+     * @param notifications
+     *            Original notifications list
+     * @param cursor
+     *            ID of the last seen notification, if any
+     * @param rules
+     *            Rules to roll up the notifications with
+     * @return the seen and unseen notifications
+     */
+    private UserNotifications split(@Nonnull final String username,
+            @Nullable final SortedSet<Notification> notifications,
+            @Nonnull final Optional<Long> cursor,
+            @Nonnull final RulePlan rules) {
 
-            // set all of the notifications to unseen=true
-            return new UserNotifications(
-                    unseenRollup.rollup(setUnseenState(notifications, true)));
+        // if there are no notifications, just return
+        if (notifications == null || notifications.isEmpty()) {
+            return new UserNotifications();
         }
 
-        final long lastSeenId = cursor.orElse(0L);
-        LOGGER.debug("Last seen notification ID: {}", lastSeenId);
+        LOGGER.debug("Using {} rules from cache", rules.size());
 
-        // if the latest seen notification ID is less than the newest
-        // notification ID, then update the cursor to the newest notification
-        // ID.
-        if (lastSeenId < newestId) {
-            LOGGER.debug("Updating cursor to {}", newestId);
-            cursors.store(username, CURSOR_NAME, newestId);
+        advanceCursor(username, notifications, cursor);
+
+        if (!cursor.isPresent()) {
+            LOGGER.debug("User ({}) has no cursor", username);
+
+            // all of the notifications are unseen
+            return allUnseen(rules, notifications);
         }
 
+        final long lastSeenId = cursor.get();
+        LOGGER.debug("Last seen notification ID: {}", lastSeenId);
+
         // get the parent ID of the last seen notification ID
         final Optional<Notification> lastNotification = tryFind(notifications,
                 lastSeenId);
         if (!lastNotification.isPresent()) {
             // if the last notification is not found, set all of the
             // notifications as unseen
-            return new UserNotifications(
-                    unseenRollup.rollup(setUnseenState(notifications, true)));
+            return allUnseen(rules, notifications);
         }
 
-        // Set the head of the list as being unseen
-        final Stream<Notification> unseen = setUnseenState(
-                notifications.headSet(lastNotification.get()), true);
+        // The head of the list is unseen and the tail of the list is seen.
+        // Each side is rolled up separately and every unseen rollup is newer
+        // than every seen rollup, so the two can be appended in order and the
+        // unseen state only needs to be recorded as a count.
+        final ImmutableSortedSet<Notification> unseen = rollup(rules,
+                notifications.headSet(lastNotification.get()));
+        final ImmutableSortedSet<Notification> seen = rollup(rules,
+                notifications.tailSet(lastNotification.get()));
 
-        // Set the tail of the list as being seen
-        final Stream<Notification> seen = setUnseenState(
-                notifications.tailSet(lastNotification.get()), false);
+        return new UserNotifications(ImmutableSortedSet
+                .<Notification> naturalOrder().addAll(unseen).addAll(seen)
+                .build(), Optional.of(unseen.size()));
+    }
 
-        final Rollup seenRollup = new Rollup(rules);
+    /**
+     * Update the user's cursor to the newest notification if they have not
+     * already seen it.
+     *
+     * @param username
+     *            Username of the notifications
+     * @param notifications
+     *            Notifications list (not empty)
+     * @param cursor
+     *            ID of the last seen notification, if any
+     */
+    private void advanceCursor(@Nonnull final String username,
+            @Nonnull final SortedSet<Notification> notifications,
+            @Nonnull final Optional<Long> cursor) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        // get the ID of the most recent notification (this should never be
+        // zero)
+        final long newestId = notifications.first().getId(0L);
+        LOGGER.debug("Newest notification ID: {}", newestId);
+
+        // if the user has no cursor, or the latest seen notification ID is
+        // less than the newest notification ID, then update the cursor to the
+        // newest notification ID.
+        if (!cursor.isPresent() || cursor.get() < newestId) {
+            LOGGER.debug("Updating cursor to {}", newestId);
+            cursors.store(username, CURSOR_NAME, newestId);
+        }
+    }
 
-        return new UserNotifications(unseenRollup.rollup(unseen),
-                seenRollup.rollup(seen));
+    /**
+     * Roll up all of the notifications as unseen
+     *
+     * @param rules
+     *            Rules to roll up the notifications with
+     * @param notifications
+     *            Notifications to roll up
+     * @return the unseen notifications
+     */
+    private static UserNotifications allUnseen(
+            @Nonnull final RulePlan rules,
+            @Nonnull final SortedSet<Notification> notifications) {
+        final ImmutableSortedSet<Notification> unseen = rollup(rules,
+                notifications);
+        return new UserNotifications(unseen, Optional.of(unseen.size()));
+    }
+
+    /**
+     * Roll up the notifications into a sorted set
+     *
+     * @param rules
+     *            Rules to roll up the notifications with
+     * @param notifications
+     *            Notifications to roll up
+     * @return the rolled up notifications
+     */
+    private static ImmutableSortedSet<Notification> rollup(
+            @Nonnull final RulePlan rules,
+            @Nonnull final SortedSet<Notification> notifications) {
+        if (rules.isEmpty()) {
+            return ImmutableSortedSet.copyOfSorted(notifications);
+        }
+        return new Rollup(rules).rollup(notifications.stream())
+                .collect(ImmutableSortedSet
+                        .toImmutableSortedSet(Notification::compareTo));
+    }
+
+    /**
+     * Roll up the notifications incrementally
+     *
+     * @param rules
+     *            Rules to roll up the notifications with
+     * @param notifications
+     *            Notifications to roll up
+     * @return an iterator over the rolled up notifications
+     */
+    private static Iterator<Notification> rollupIncrementally(
+            @Nonnull final RulePlan rules,
+            @Nonnull final SortedSet<Notification> notifications) {
+        return new Rollup(rules).rollupIncrementally(notifications);
     }
 
     /**
@@ -282,27 +799,134 @@ public class NotificationStore {
                 .builder(notification).withId(idGenerator.nextId())
                 .withCreatedAt(now()).build();
 
-        final NotificationListAddition update = new NotificationListAddition(
-                updatedNotification);
+        try (Timer.Context context = updateTimer.time()) {
+            repository.store(UserKeys.encode(username), updatedNotification);
+        }
+        cache.invalidate(username);
+        return updatedNotification;
+    }
+
+    /**
+     * Store notifications for many users at once. A block of IDs is reserved
+     * for all of the recipients, the notifications are grouped by user and
+     * each user's list is written with a single update.
+     *
+     * @param notifications
+     *            Notifications and their recipients
+     * @return the result for each recipient, in request order
+     * @throws NotificationStoreException
+     *             if unable to generate the notification IDs
+     */
+    public List<BulkNotificationResult> storeAll(
+            @Nonnull final List<BulkNotification> notifications)
+            throws NotificationStoreException {
+
+        Objects.requireNonNull(notifications);
 
-        final Location location = new Location(NAMESPACE, username);
-        final UpdateValue updateValue = new UpdateValue.Builder(location)
-                .withUpdate(update)
-                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
+        final int count = notifications.stream()
+                .mapToInt(bulk -> bulk.getRecipients().size()).sum();
 
-        LOGGER.debug("Updating key: {}", location);
+        try (Timer.Context context = bulkUpdateTimer.time()) {
+            final long[] ids = idGenerator.nextIds(count);
+            final DateTime createdAt = now();
 
-        try (Timer.Context context = updateTimer.time()) {
-            client.execute(updateValue);
-        } catch (ExecutionException e) {
-            LOGGER.error("Unable to update key: " + location, e);
-            throw new NotificationStoreException(e);
-        } catch (InterruptedException e) {
-            LOGGER.warn("Update request was interrupted", e);
-            Thread.currentThread().interrupt();
-            throw new NotificationStoreException(e);
+            // assign the IDs in request order and group them by user
+            final String[] usernames = new String[count];
+            final Notification[] stored = new Notification[count];
+            final Map<String, List<Notification>> additions = new LinkedHashMap<>();
+            int i = 0;
+            for (BulkNotification bulk : notifications) {
+                for (String username : bulk.getRecipients()) {
+                    usernames[i] = username;
+                    stored[i] = Notification.builder(bulk.getNotification())
+                            .withId(ids[i]).withCreatedAt(createdAt).build();
+                    if (username != null && !username.isEmpty()) {
+                        additions
+                                .computeIfAbsent(username,
+                                        key -> new ArrayList<>())
+                                .add(stored[i]);
+                    }
+                    i++;
+                }
+            }
+
+            final Map<String, CompletableFuture<Void>> writes = new HashMap<>(
+                    additions.size());
+            additions.forEach((username, list) -> writes.put(username,
+                    CompletableFuture.runAsync(() -> {
+                        try {
+                            repository.update(UserKeys.encode(username), list,
+                                    new LongSet());
+                        } catch (NotificationStoreException e) {
+                            throw new CompletionException(e);
+                        } finally {
+                            cache.invalidate(username);
+                        }
+                    }, bulkExecutor)));
+
+            final List<BulkNotificationResult> results = new ArrayList<>(
+                    count);
+            for (i = 0; i < count; i++) {
+                final String username = usernames[i];
+                final CompletableFuture<Void> write = username == null ? null
+                        : writes.get(username);
+                if (write == null) {
+                    results.add(BulkNotificationResult.failure(
+                            String.valueOf(username),
+                            "username cannot be empty"));
+                    continue;
+                }
+                try {
+                    write.join();
+                    results.add(BulkNotificationResult.success(username,
+                            stored[i]));
+                } catch (CompletionException | CancellationException e) {
+                    LOGGER.error("Unable to store notifications for "
+                            + username, e);
+                    results.add(BulkNotificationResult.failure(username,
+                            "Unable to store notification"));
+                }
+            }
+            return results;
         }
-        return updatedNotification;
+    }
+
+    /**
+     * Asynchronously store a new notification for a user
+     *
+     * @param username
+     *            User to store the notification
+     * @param notification
+     *            Notification to store
+     * @return a future completed with the stored notification
+     */
+    public CompletableFuture<Notification> storeAsync(
+            @Nonnull final String username,
+            @Nonnull final Notification notification) {
+
+        Objects.requireNonNull(username);
+        Preconditions.checkArgument(!username.isEmpty(),
+                "username cannot be empty");
+        Objects.requireNonNull(notification);
+
+        final Notification updatedNotification;
+        try {
+            updatedNotification = Notification.builder(notification)
+                    .withId(idGenerator.nextId()).withCreatedAt(now()).build();
+        } catch (NotificationStoreException e) {
+            final CompletableFuture<Notification> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        final Timer.Context context = updateTimer.time();
+        return repository
+                .storeAsync(UserKeys.encode(username), updatedNotification)
+                .whenComplete((result, error) -> {
+                    context.stop();
+                    cache.invalidate(username);
+                })
+                .thenApply(result -> updatedNotification);
     }
 
     /**
@@ -317,14 +941,10 @@ public class NotificationStore {
         Preconditions.checkArgument(!username.isEmpty(),
                 "username cannot be empty");
 
-        final Location location = new Location(NAMESPACE, username);
-        final DeleteValue deleteValue = new DeleteValue.Builder(location)
-                .build();
-
-        LOGGER.debug("Deleting key (async): {}", location);
         try (Timer.Context context = deleteTimer.time()) {
-            client.executeAsync(deleteValue);
+            repository.removeAll(UserKeys.encode(username));
         }
+        cache.invalidate(username);
 
         cursors.delete(username, CURSOR_NAME);
     }
@@ -338,7 +958,7 @@ public class NotificationStore {
      *            Notification IDs to remove
      */
     public void remove(@Nonnull final String username,
-            @Nonnull final Collection<Long> ids) {
+            @Nonnull final LongSet ids) {
 
         Objects.requireNonNull(username);
         Preconditions.checkArgument(!username.isEmpty(),
@@ -350,17 +970,10 @@ public class NotificationStore {
             return;
         }
 
-        final Location location = new Location(NAMESPACE, username);
-        final NotificationListDeletion delete = new NotificationListDeletion(
-                ids);
-        final UpdateValue updateValue = new UpdateValue.Builder(location)
-                .withUpdate(delete)
-                .withStoreOption(StoreValue.Option.RETURN_BODY, false).build();
-
-        LOGGER.debug("Updating key (async): {}", location);
         try (Timer.Context context = updateTimer.time()) {
-            client.executeAsync(updateValue);
+            repository.remove(UserKeys.encode(username), ids);
         }
+        cache.invalidate(username);
     }
 
     /**
@@ -382,107 +995,33 @@ public class NotificationStore {
     }
 
     /**
-     * Return the parent notification that matches the given ID or is the parent
-     * of a child notification.
+     * Return the notification that matches the given ID. The notifications
+     * must not have been rolled up yet; use
+     * {@link com.smoketurner.notification.application.core.NotificationTimeline}
+     * to find notifications which may have been rolled up into another.
      *
      * @param notifications
-     *            Notifications to search through
+     *            Notifications to search through, ordered newest first
      * @param id
      *            Notification ID to find
      * @return the notification
      */
     public static Optional<Notification> tryFind(
-            @Nonnull final Iterable<Notification> notifications,
-            final long id) {
-
-        final com.google.common.base.Optional<Notification> result = Iterables
-                .tryFind(notifications, notification -> {
-                    // first check that the ID matches
-                    final Optional<Long> notificationId = notification.getId();
-                    if (!notificationId.isPresent()) {
-                        return false;
-                    } else if (notificationId.get() == id) {
-                        return true;
-                    }
-
-                    // Check to see if the notification is included in any
-                    // rolled up notifications. This code should not be hit as
-                    // tryFind() is called prior to the rollups happening, but
-                    // we include this here for completeness.
-                    final Collection<Notification> children = notification
-                            .getNotifications();
-                    if (children.isEmpty()) {
-                        return false;
-                    }
-                    return (tryFind(children, id)).isPresent();
-                });
-
-        return result.toJavaUtil();
-    }
-
-    /**
-     * Returns the index in notifications that matches the given ID or is the
-     * parent of a child notification, or -1 if the notification was not found.
-     *
-     * @param notifications
-     *            Notifications to search through
-     * @param id
-     *            Notification ID to find
-     * @return the position of the notification or -1 if not found
-     */
-    public static int indexOf(
-            @Nonnull final Iterable<Notification> notifications,
+            @Nonnull final SortedSet<Notification> notifications,
             final long id) {
 
-        return Iterables.indexOf(notifications, notification -> {
-            // first check that the ID matches
-            final Optional<Long> notificationId = notification.getId();
-            if (!notificationId.isPresent()) {
-                return false;
-            } else if (notificationId.get() == id) {
-                return true;
-            }
-
-            // then check to see if the notification is included in any rolled
-            // up notifications
-            final Collection<Notification> children = notification
-                    .getNotifications();
-            if (children.isEmpty()) {
-                return false;
-            }
-            return indexOf(children, id) != -1;
-        });
-    }
-
-    /**
-     * Returns an iterable that skips forward to a given notification ID then
-     * only returns count more notifications. If the given notification ID is
-     * not found
-     * 
-     * @param notifications
-     *            Iterable of notifications
-     * @param startId
-     *            notification ID to start at
-     * @param inclusive
-     *            Whether to include the startId notification or not
-     * @param limitSize
-     *            Number of notifications to return
-     * @return Iterable containing the subset of the original notifications
-     */
-    public Iterable<Notification> skip(
-            @Nonnull final Iterable<Notification> notifications,
-            final long startId, final boolean inclusive, final int limitSize) {
-        Objects.requireNonNull(notifications);
-        final int position = indexOf(notifications, startId);
-        if (position == -1) {
-            return Iterables.limit(notifications, limitSize);
+        // notifications are ordered by ID, so this is a binary search (or a
+        // tree lookup) rather than a scan of the notifications
+        final SortedSet<Notification> tail = notifications
+                .tailSet(Notification.builder().withId(id).build());
+        if (tail.isEmpty()) {
+            return Optional.empty();
         }
-        if (inclusive) {
-            return Iterables.limit(Iterables.skip(notifications, position),
-                    limitSize);
+        final Notification notification = tail.first();
+        if (notification.getId(0L) != id) {
+            return Optional.empty();
         }
-        return Iterables.limit(Iterables.skip(notifications, position + 1),
-                limitSize);
+        return Optional.of(notification);
     }
 
     /**
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import com.smoketurner.notification.api.Rule;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+/**
+ * Storage SPI for the roll-up rules.
+ */
+public interface RuleRepository {
+
+    /**
+     * Fetch all of the rules
+     *
+     * @return a map of rules keyed by category or absent if no rules exist
+     * @throws NotificationStoreException
+     *             if unable to fetch the rules
+     */
+    Optional<Map<String, Rule>> fetch() throws NotificationStoreException;
+
+    /**
+     * Store a rule
+     *
+     * @param category
+     *            Rule category
+     * @param rule
+     *            Rule to store
+     * @throws NotificationStoreException
+     *             if unable to store the rule
+     */
+    void store(@Nonnull String category, @Nonnull Rule rule)
+            throws NotificationStoreException;
+
+    /**
+     * Remove a rule
+     *
+     * @param category
+     *            Rule category to remove
+     * @throws NotificationStoreException
+     *             if unable to remove the rule
+     */
+    void remove(@Nonnull String category) throws NotificationStoreException;
+
+    /**
+     * Asynchronously remove all of the rules
+     */
+    void removeAll();
+}
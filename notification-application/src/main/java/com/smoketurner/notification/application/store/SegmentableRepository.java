@@ -0,0 +1,46 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import javax.annotation.Nonnull;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+/**
+ * A {@link NotificationRepository} which can move the older notifications of
+ * a list into separate segments. Lists in repositories which can't are never
+ * sealed; see {@link SegmentedNotificationRepository}.
+ */
+public interface SegmentableRepository extends NotificationRepository {
+
+    /**
+     * Record that the given notifications have been moved out of the list for
+     * a given user into an older segment, removing them from the list.
+     *
+     * @param username
+     *            User the notification list belongs to
+     * @param segment
+     *            Newest notification ID in the segment
+     * @param ids
+     *            Notification IDs moved into the segment
+     * @param maxSegments
+     *            Maximum number of segments to keep, dropping the oldest
+     * @throws NotificationStoreException
+     *             if unable to update the notification list
+     */
+    void seal(@Nonnull String username, long segment, @Nonnull LongSet ids,
+            int maxSegments) throws NotificationStoreException;
+}
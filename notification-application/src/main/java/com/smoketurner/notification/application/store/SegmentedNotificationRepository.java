@@ -0,0 +1,543 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+/**
+ * A {@link NotificationRepository} that stores each user's notifications as
+ * a small head list holding the newest notifications, plus a chain of older
+ * segments. Once the head holds more than twice the head size, the oldest
+ * notifications beyond the head size are sealed into a new segment under its
+ * own key ({@code username@<newest ID in the segment>}) and removed from the
+ * head. Writes only ever touch the head, and a fetch for a range of
+ * notifications only fetches the segments the range needs. Lists are only
+ * sealed if the wrapped repository is a {@link SegmentableRepository}.
+ * Sharding is passed through to the wrapped repository.
+ */
+public class SegmentedNotificationRepository implements ShardableRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(SegmentedNotificationRepository.class);
+    public static final char SEPARATOR = '@';
+    private static final int MAX_TRACKED_USERS = 100000;
+
+    // A head is checked after every headSize writes, so it can grow to three
+    // times the head size before it is sealed, which has to fit within the
+    // 1,000 notifications a single list can hold.
+    public static final int MAX_HEAD_SIZE = 300;
+
+    private final NotificationRepository repository;
+    @Nullable
+    private final SegmentableRepository segmentable;
+    private final Executor executor;
+    private final int headSize;
+    private final int maxSegments;
+
+    // users with a seal in progress on this instance
+    private final Set<String> sealing = ConcurrentHashMap.newKeySet();
+
+    // writes to each user's head since it was last checked for sealing
+    private final Cache<String, AtomicInteger> writes;
+
+    // metrics
+    private final Meter sealed;
+    private final Meter sealFailures;
+    private final Histogram segmentsFetched;
+
+    /**
+     * Constructor
+     *
+     * @param repository
+     *            Repository to store the heads and segments in
+     * @param executor
+     *            Executor used to seal segments
+     * @param headSize
+     *            Number of notifications to keep in the head of each list
+     * @param maxSegments
+     *            Maximum number of older segments to keep for each list
+     */
+    public SegmentedNotificationRepository(
+            @Nonnull final NotificationRepository repository,
+            @Nonnull final Executor executor, final int headSize,
+            final int maxSegments) {
+        Preconditions.checkArgument(headSize > 0 && headSize <= MAX_HEAD_SIZE,
+                "headSize must be between 1 and %s", MAX_HEAD_SIZE);
+        Preconditions.checkArgument(maxSegments > 0,
+                "maxSegments must be greater than zero");
+
+        this.repository = Objects.requireNonNull(repository);
+        this.segmentable = repository instanceof SegmentableRepository
+                ? (SegmentableRepository) repository : null;
+        this.executor = Objects.requireNonNull(executor);
+        this.headSize = headSize;
+        this.maxSegments = maxSegments;
+        this.writes = CacheBuilder.newBuilder().maximumSize(MAX_TRACKED_USERS)
+                .build();
+
+        final MetricRegistry registry = SharedMetricRegistries
+                .getOrCreate("default");
+        this.sealed = registry.meter(MetricRegistry
+                .name(SegmentedNotificationRepository.class, "sealed"));
+        this.sealFailures = registry.meter(MetricRegistry
+                .name(SegmentedNotificationRepository.class, "seal-failures"));
+        this.segmentsFetched = registry.histogram(MetricRegistry.name(
+                SegmentedNotificationRepository.class, "segments-fetched"));
+    }
+
+    /**
+     * Return the key of a segment of a user's notification list
+     *
+     * @param username
+     *            User the segment belongs to
+     * @param segment
+     *            Newest notification ID in the segment
+     * @return the segment key
+     */
+    public static String segmentKey(@Nonnull final String username,
+            final long segment) {
+        return username + SEPARATOR + segment;
+    }
+
+    @Override
+    public void initialize() {
+        repository.initialize();
+    }
+
+    @Override
+    public Optional<NotificationList> fetch(
+            @Nonnull final String username) throws NotificationStoreException {
+        final Optional<NotificationList> list = repository
+                .fetch(username);
+        try {
+            return load(username, list, Optional.empty(), Integer.MAX_VALUE)
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof NotificationStoreException) {
+                throw (NotificationStoreException) e.getCause();
+            }
+            throw new NotificationStoreException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull final String username) {
+        return fetchAsync(username, Optional.empty(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull final String username,
+            @Nonnull final Optional<Long> fromId, final int limit) {
+        return repository.fetchAsync(username)
+                .thenCompose(list -> load(username, list, fromId, limit));
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull final String username,
+            @Nonnull final NotificationList previous) {
+        return fetchIfModifiedAsync(username, previous, Optional.empty(),
+                Integer.MAX_VALUE);
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull final String username,
+            @Nonnull final NotificationList previous,
+            @Nonnull final Optional<Long> fromId, final int limit) {
+        // the previous list may not have included the segments needed now
+        if (!previous.getSegments().isEmpty()) {
+            return fetchAsync(username, fromId, limit);
+        }
+        return repository.fetchIfModifiedAsync(username, previous)
+                .thenCompose(list -> {
+                    if (list.isPresent() && list.get() == previous) {
+                        return CompletableFuture.completedFuture(list);
+                    }
+                    return load(username, list, fromId, limit);
+                });
+    }
+
+    @Override
+    public void store(@Nonnull final String username,
+            @Nonnull final Notification notification)
+            throws NotificationStoreException {
+        repository.store(username, notification);
+        written(username, 1);
+    }
+
+    @Override
+    public CompletableFuture<Void> storeAsync(@Nonnull final String username,
+            @Nonnull final Notification notification) {
+        return repository.storeAsync(username, notification)
+                .thenRun(() -> written(username, 1));
+    }
+
+    @Override
+    public void update(@Nonnull final String username,
+            @Nonnull final Collection<Notification> additions,
+            @Nonnull final LongSet ids) throws NotificationStoreException {
+        repository.update(username, additions, ids);
+        written(username, additions.size());
+    }
+
+    @Override
+    public void shard(@Nonnull final String username, final int shards)
+            throws NotificationStoreException {
+        if (!(repository instanceof ShardableRepository)) {
+            throw new NotificationStoreException(
+                    "Sharding is not supported by the wrapped repository");
+        }
+        ((ShardableRepository) repository).shard(username, shards);
+    }
+
+    @Override
+    public void remove(@Nonnull final String username,
+            @Nonnull final LongSet ids) {
+        repository.remove(username, ids);
+
+        // The deleted IDs recorded on the head hide the notifications in the
+        // segments, but the head only keeps a limited number of them, so the
+        // deletions are also recorded on the segments holding them.
+        repository.fetchAsync(username).whenComplete((list, e) -> {
+            if (e != null) {
+                LOGGER.error("Unable to fetch key: " + username, e);
+                return;
+            }
+            if (!list.isPresent() || list.get().getSegments().isEmpty()) {
+                return;
+            }
+            final long[] segments = descending(list.get().getSegments());
+            for (int i = 0; i < segments.length; i++) {
+                final long newest = segments[i];
+                final long older = i + 1 < segments.length ? segments[i + 1]
+                        : Long.MIN_VALUE;
+                final LongSet deleted = new LongSet();
+                ids.forEach(id -> {
+                    if (id <= newest && id > older) {
+                        deleted.add(id);
+                    }
+                });
+                if (!deleted.isEmpty()) {
+                    repository.remove(segmentKey(username, newest), deleted);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void removeAll(@Nonnull final String username) {
+        writes.invalidate(username);
+
+        // the segments are only listed on the head, so they have to be
+        // deleted before it is
+        repository.fetchAsync(username).whenComplete((list, e) -> {
+            if (e != null) {
+                LOGGER.error("Unable to fetch key: " + username, e);
+            } else if (list.isPresent()) {
+                list.get().getSegments().forEach(segment -> repository
+                        .removeAll(segmentKey(username, segment)));
+            }
+            repository.removeAll(username);
+        });
+    }
+
+    /**
+     * Count the notifications written to a user's head, and check whether
+     * the head needs to be sealed once enough have been written. Heads are
+     * also checked whenever they are fetched.
+     *
+     * @param username
+     *            User the notifications were written for
+     * @param count
+     *            Number of notifications written
+     */
+    private void written(@Nonnull final String username, final int count) {
+        final AtomicInteger pending;
+        try {
+            pending = writes.get(username, AtomicInteger::new);
+        } catch (Exception e) {
+            // creating a counter can't fail
+            throw new IllegalStateException(e);
+        }
+        if (pending.addAndGet(count) < headSize) {
+            return;
+        }
+        pending.set(0);
+        repository.fetchAsync(username).whenComplete((list, e) -> {
+            if (e != null) {
+                LOGGER.warn("Unable to fetch key: " + username, e);
+            } else {
+                list.ifPresent(head -> maybeSeal(username, head));
+            }
+        });
+    }
+
+    /**
+     * Seal the oldest notifications in the head of a list into a new segment
+     * if the head has grown to more than twice the head size.
+     *
+     * @param username
+     *            User the notification list belongs to
+     * @param head
+     *            Head of the notification list, as fetched
+     */
+    private void maybeSeal(@Nonnull final String username,
+            @Nonnull final NotificationList head) {
+        if (head.getNotifications().size() <= headSize * 2
+                || segmentable == null) {
+            return;
+        }
+
+        final List<Notification> notifications = new ArrayList<>(
+                head.getNotifications().size() - headSize);
+        final LongSet ids = new LongSet();
+        int i = 0;
+        for (Notification notification : head.getNotifications()) {
+            if (i++ >= headSize) {
+                notifications.add(notification);
+                ids.add(notification.getId(0L));
+            }
+        }
+        final long segment = notifications.get(0).getId(0L);
+        final LongSet segments = new LongSet();
+        segments.addAll(head.getSegments());
+        segments.add(segment);
+
+        if (!sealing.add(username)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    seal(username, segment, notifications, ids, segments);
+                } finally {
+                    sealing.remove(username);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            sealing.remove(username);
+            LOGGER.warn("Unable to seal key: " + username, e);
+        }
+    }
+
+    /**
+     * Write a new segment, then remove its notifications from the head. If
+     * the head is not updated, the notifications are in both places until
+     * the head is sealed again, and are merged back together when read.
+     *
+     * @param username
+     *            User the notification list belongs to
+     * @param segment
+     *            Newest notification ID in the segment
+     * @param notifications
+     *            Notifications to move into the segment
+     * @param ids
+     *            IDs of the notifications to move into the segment
+     * @param segments
+     *            All of the segments once this one is added
+     */
+    private void seal(@Nonnull final String username, final long segment,
+            @Nonnull final List<Notification> notifications,
+            @Nonnull final LongSet ids, @Nonnull final LongSet segments) {
+        try {
+            repository.update(segmentKey(username, segment), notifications,
+                    new LongSet());
+            segmentable.seal(username, segment, ids, maxSegments);
+        } catch (NotificationStoreException | RuntimeException e) {
+            LOGGER.error("Unable to seal key: " + username, e);
+            sealFailures.mark();
+            return;
+        }
+
+        LOGGER.debug("Sealed {} notifications for {} into segment {}",
+                notifications.size(), username, segment);
+        sealed.mark();
+
+        // drop the oldest segments once there are too many
+        final long[] sorted = descending(segments);
+        for (int i = maxSegments; i < sorted.length; i++) {
+            repository.removeAll(segmentKey(username, sorted[i]));
+        }
+    }
+
+    /**
+     * Fetch the segments of a notification list which are needed for the
+     * requested range and merge them into the head.
+     *
+     * @param username
+     *            User the notification list belongs to
+     * @param list
+     *            Head of the notification list
+     * @param fromId
+     *            ID to start from, or absent to start from the newest
+     *            notification
+     * @param limit
+     *            Number of notifications needed from the starting ID, or
+     *            {@link Integer#MAX_VALUE} to fetch every segment
+     * @return a future completed with the merged notification list
+     */
+    private CompletableFuture<Optional<NotificationList>> load(
+            @Nonnull final String username,
+            @Nonnull final Optional<NotificationList> list,
+            @Nonnull final Optional<Long> fromId, final int limit) {
+        if (!list.isPresent()) {
+            return CompletableFuture.completedFuture(list);
+        }
+
+        final NotificationList head = list.get();
+        maybeSeal(username, head);
+        if (head.getSegments().isEmpty()) {
+            return CompletableFuture.completedFuture(list);
+        }
+
+        final long from = fromId.orElse(Long.MAX_VALUE);
+        final long[] segments = descending(head.getSegments());
+
+        // skip the segments which only hold notifications newer than the
+        // start of the range
+        int first = 0;
+        while (first + 1 < segments.length && segments[first + 1] >= from) {
+            first++;
+        }
+
+        // merge into a copy, as the stored version of the head only covers
+        // the head itself
+        final NotificationList merged = new NotificationList(head);
+        final CompletableFuture<Integer> fetched;
+        if (limit == Integer.MAX_VALUE) {
+            fetched = fetchAll(username, merged, segments, first);
+        } else {
+            final int count = count(head, from);
+            fetched = fetchUntil(username, merged, segments, first, from,
+                    limit, count, 0);
+        }
+
+        return fetched.thenApply(count -> {
+            segmentsFetched.update(count);
+            NotificationList.removeNotifications(merged.getNotifications(),
+                    merged.getDeletedIds());
+            return Optional.of(merged);
+        });
+    }
+
+    /**
+     * Fetch all of the segments from the given one onwards concurrently
+     *
+     * @return a future completed with the number of segments fetched
+     */
+    private CompletableFuture<Integer> fetchAll(
+            @Nonnull final String username,
+            @Nonnull final NotificationList head,
+            @Nonnull final long[] segments, final int first) {
+        final List<CompletableFuture<Optional<NotificationList>>> futures = new ArrayList<>(
+                segments.length - first);
+        for (int i = first; i < segments.length; i++) {
+            futures.add(repository.fetchAsync(segmentKey(username, segments[i])));
+        }
+        return CompletableFuture
+                .allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    futures.forEach(future -> future.join()
+                            .ifPresent(head::merge));
+                    return futures.size();
+                });
+    }
+
+    /**
+     * Fetch the segments one at a time, newest first, until more than
+     * {@code limit} notifications from the starting ID have been fetched. If
+     * any older segments are left unfetched, the list is marked as partial,
+     * as once rolled up the notifications fetched may not fill a page, and
+     * the oldest of them may roll up with notifications in the next segment.
+     *
+     * @return a future completed with the number of segments fetched
+     */
+    private CompletableFuture<Integer> fetchUntil(
+            @Nonnull final String username,
+            @Nonnull final NotificationList head,
+            @Nonnull final long[] segments, final int index, final long from,
+            final int limit, final int count, final int fetched) {
+        if (index >= segments.length) {
+            return CompletableFuture.completedFuture(fetched);
+        }
+        if (count > limit) {
+            head.setPartial(true);
+            return CompletableFuture.completedFuture(fetched);
+        }
+        return repository.fetchAsync(segmentKey(username, segments[index]))
+                .thenCompose(segment -> {
+                    int total = count;
+                    if (segment.isPresent()) {
+                        head.merge(segment.get());
+                        total += count(segment.get(), from);
+                    }
+                    return fetchUntil(username, head, segments, index + 1,
+                            from, limit, total, fetched + 1);
+                });
+    }
+
+    /**
+     * Count the notifications in a list at or older than the given ID
+     */
+    private static int count(@Nonnull final NotificationList list,
+            final long from) {
+        int count = 0;
+        for (Notification notification : list.getNotifications()) {
+            if (notification.getId(0L) <= from) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long[] descending(@Nonnull final LongSet ids) {
+        final long[] values = ids.toSortedArray();
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            final long value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        return values;
+    }
+}
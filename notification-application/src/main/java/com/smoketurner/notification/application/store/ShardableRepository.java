@@ -0,0 +1,43 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import javax.annotation.Nonnull;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+/**
+ * A {@link NotificationRepository} which can record that a user's
+ * notifications are spread across several shard keys. Repositories which
+ * can't are never asked to shard a user; see
+ * {@link ShardedNotificationRepository}.
+ */
+public interface ShardableRepository extends NotificationRepository {
+
+    /**
+     * Record that the notifications for a given user are spread across the
+     * given number of shard keys, so they are merged back in when the list is
+     * fetched. The shard count is never reduced.
+     *
+     * @param username
+     *            User to shard the notifications for
+     * @param shards
+     *            Number of shard keys
+     * @throws NotificationStoreException
+     *             if unable to store the shard count
+     */
+    void shard(@Nonnull String username, int shards)
+            throws NotificationStoreException;
+}
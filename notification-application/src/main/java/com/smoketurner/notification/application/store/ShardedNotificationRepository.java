@@ -0,0 +1,444 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.core.SlidingWindowSketch;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import io.dropwizard.util.Duration;
+
+/**
+ * A {@link NotificationRepository} that spreads the writes for heavily
+ * targeted users across several shard keys ({@code username#0},
+ * {@code username#1}, ...) so a single key doesn't become a write hotspot.
+ * Writes are counted in a {@link SlidingWindowSketch}, and once a user
+ * receives more than the threshold within the window the shard count is
+ * stored on the user's main key in the background. Writes keep going to the
+ * main key until that has finished. From then on, fetching the main key also
+ * fetches the shards and merges them back into a single list. Users are only
+ * sharded if the wrapped repository is a {@link ShardableRepository}.
+ */
+public class ShardedNotificationRepository implements NotificationRepository {
+
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(ShardedNotificationRepository.class);
+    public static final char SEPARATOR = '#';
+    private static final int SKETCH_WIDTH = 4096;
+    private static final int SKETCH_BUCKETS = 6;
+    private static final int MAX_SHARDED_USERS = 10000;
+
+    private final NotificationRepository repository;
+    @Nullable
+    private final ShardableRepository shardable;
+    private final Executor executor;
+    private final SlidingWindowSketch sketch;
+    private final int shards;
+    private final long threshold;
+
+    // users whose writes this instance is currently spreading across shards
+    private final Cache<String, Integer> sharded;
+
+    // users whose shard count is currently being stored
+    private final Set<String> promoting = ConcurrentHashMap.newKeySet();
+
+    // metrics
+    private final Meter promotions;
+    private final Meter shardedWrites;
+    private final Meter shardedReads;
+
+    /**
+     * Constructor
+     *
+     * @param repository
+     *            Repository to store the main and shard keys in
+     * @param executor
+     *            Executor used to store the shard count of hot users
+     * @param shards
+     *            Number of shard keys for each hot user
+     * @param threshold
+     *            Number of writes within the window after which a user is
+     *            sharded
+     * @param window
+     *            Length of the window writes are counted over
+     */
+    public ShardedNotificationRepository(
+            @Nonnull final NotificationRepository repository,
+            @Nonnull final Executor executor, final int shards,
+            final long threshold, @Nonnull final Duration window) {
+        this(repository, executor, shards, threshold, window,
+                new SlidingWindowSketch(SKETCH_WIDTH, window, SKETCH_BUCKETS));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param repository
+     *            Repository to store the main and shard keys in
+     * @param executor
+     *            Executor used to store the shard count of hot users
+     * @param shards
+     *            Number of shard keys for each hot user
+     * @param threshold
+     *            Number of writes within the window after which a user is
+     *            sharded
+     * @param window
+     *            How long a user stays sharded on this instance before the
+     *            write rate is checked again
+     * @param sketch
+     *            Sketch to count the writes for each user
+     */
+    public ShardedNotificationRepository(
+            @Nonnull final NotificationRepository repository,
+            @Nonnull final Executor executor, final int shards,
+            final long threshold, @Nonnull final Duration window,
+            @Nonnull final SlidingWindowSketch sketch) {
+        Preconditions.checkArgument(shards > 0,
+                "shards must be greater than zero");
+        Preconditions.checkArgument(threshold > 0,
+                "threshold must be greater than zero");
+
+        this.repository = Objects.requireNonNull(repository);
+        this.shardable = repository instanceof ShardableRepository
+                ? (ShardableRepository) repository : null;
+        this.executor = Objects.requireNonNull(executor);
+        this.sketch = Objects.requireNonNull(sketch);
+        this.shards = shards;
+        this.threshold = threshold;
+        this.sharded = CacheBuilder.newBuilder()
+                .maximumSize(MAX_SHARDED_USERS)
+                .expireAfterWrite(window.getQuantity(), window.getUnit())
+                .build();
+
+        final MetricRegistry registry = SharedMetricRegistries
+                .getOrCreate("default");
+        this.promotions = registry.meter(MetricRegistry
+                .name(ShardedNotificationRepository.class, "promotions"));
+        this.shardedWrites = registry.meter(MetricRegistry
+                .name(ShardedNotificationRepository.class, "sharded-writes"));
+        this.shardedReads = registry.meter(MetricRegistry
+                .name(ShardedNotificationRepository.class, "sharded-reads"));
+    }
+
+    /**
+     * Return the key of a shard for a given user
+     *
+     * @param username
+     *            User the shard belongs to
+     * @param shard
+     *            Shard number
+     * @return the shard key
+     */
+    public static String shardKey(@Nonnull final String username,
+            final int shard) {
+        return username + SEPARATOR + shard;
+    }
+
+    @Override
+    public void initialize() {
+        repository.initialize();
+    }
+
+    @Override
+    public Optional<NotificationList> fetch(
+            @Nonnull final String username) throws NotificationStoreException {
+        final Optional<NotificationList> list = repository
+                .fetch(username);
+        try {
+            return merge(username, list, repository::fetchAsync).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof NotificationStoreException) {
+                throw (NotificationStoreException) e.getCause();
+            }
+            throw new NotificationStoreException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull final String username) {
+        return repository.fetchAsync(username).thenCompose(
+                list -> merge(username, list, repository::fetchAsync));
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchAsync(
+            @Nonnull final String username,
+            @Nonnull final Optional<Long> fromId, final int limit) {
+        return repository.fetchAsync(username, fromId, limit)
+                .thenCompose(list -> merge(username, list,
+                        shard -> repository.fetchAsync(shard, fromId, limit)));
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull final String username,
+            @Nonnull final NotificationList previous) {
+        // the shards can change without the main key changing
+        if (previous.getShards() > 0) {
+            return fetchAsync(username);
+        }
+        return repository.fetchIfModifiedAsync(username, previous)
+                .thenCompose(list -> {
+                    if (list.isPresent() && list.get() == previous) {
+                        return CompletableFuture.completedFuture(list);
+                    }
+                    return merge(username, list, repository::fetchAsync);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Optional<NotificationList>> fetchIfModifiedAsync(
+            @Nonnull final String username,
+            @Nonnull final NotificationList previous,
+            @Nonnull final Optional<Long> fromId, final int limit) {
+        if (previous.getShards() > 0) {
+            return fetchAsync(username, fromId, limit);
+        }
+        return repository
+                .fetchIfModifiedAsync(username, previous, fromId, limit)
+                .thenCompose(list -> {
+                    if (list.isPresent() && list.get() == previous) {
+                        return CompletableFuture.completedFuture(list);
+                    }
+                    return merge(username, list, shard -> repository
+                            .fetchAsync(shard, fromId, limit));
+                });
+    }
+
+    @Override
+    public void store(@Nonnull final String username,
+            @Nonnull final Notification notification)
+            throws NotificationStoreException {
+        repository.store(route(username, 1, notification), notification);
+    }
+
+    @Override
+    public CompletableFuture<Void> storeAsync(@Nonnull final String username,
+            @Nonnull final Notification notification) {
+        return repository.storeAsync(route(username, 1, notification),
+                notification);
+    }
+
+    @Override
+    public void update(@Nonnull final String username,
+            @Nonnull final Collection<Notification> additions,
+            @Nonnull final LongSet ids) throws NotificationStoreException {
+        if (additions.isEmpty()) {
+            repository.update(username, additions, ids);
+            return;
+        }
+
+        final String key = route(username, additions.size(),
+                additions.iterator().next());
+        if (key.equals(username)) {
+            repository.update(username, additions, ids);
+            return;
+        }
+
+        // deleted IDs are always recorded on the main key, which hides the
+        // notifications in every shard once the lists are merged
+        repository.update(key, additions, new LongSet());
+        if (!ids.isEmpty()) {
+            repository.update(username, Collections.emptyList(), ids);
+        }
+    }
+
+    @Override
+    public void remove(@Nonnull final String username,
+            @Nonnull final LongSet ids) {
+        repository.remove(username, ids);
+
+        // also remove the notifications from the shards, so they don't take
+        // up space there until they age out. The shard count is only stored
+        // on the main key, as the user may have been sharded by another
+        // instance.
+        repository.fetchAsync(username).whenComplete((list, e) -> {
+            if (e != null) {
+                LOGGER.error("Unable to fetch key: " + username, e);
+            } else if (list.isPresent()) {
+                for (int i = 0; i < list.get().getShards(); i++) {
+                    repository.remove(shardKey(username, i), ids);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void removeAll(@Nonnull final String username) {
+        sharded.invalidate(username);
+
+        // the shard count is only stored on the main key, so the shards have
+        // to be deleted before it is
+        repository.fetchAsync(username).whenComplete((list, e) -> {
+            if (e != null) {
+                LOGGER.error("Unable to fetch key: " + username, e);
+            } else if (list.isPresent()) {
+                for (int i = 0; i < list.get().getShards(); i++) {
+                    repository.removeAll(shardKey(username, i));
+                }
+            }
+            repository.removeAll(username);
+        });
+    }
+
+    /**
+     * Count the writes to a user and return the key to write them to. Once a
+     * user is hot, the shard count is stored on the user's main key in the
+     * background, and the user's writes only go to the shards once it has
+     * been stored, so a fetch never misses a shard.
+     *
+     * @param username
+     *            User the notifications are for
+     * @param writes
+     *            Number of notifications being written
+     * @param notification
+     *            Notification used to pick the shard
+     * @return the key to write the notifications to
+     */
+    private String route(@Nonnull final String username, final int writes,
+            @Nonnull final Notification notification) {
+        final long estimate = sketch.add(username, writes);
+
+        final Integer count = sharded.getIfPresent(username);
+        if (count == null) {
+            if (estimate >= threshold && shardable != null) {
+                promoteAsync(username);
+            }
+            return username;
+        }
+
+        shardedWrites.mark(writes);
+        final long id = notification.getId().orElse(0L);
+        return shardKey(username, (int) Math.floorMod(id, (long) count));
+    }
+
+    /**
+     * Store the shard count on a user's main key on the executor, unless it
+     * is already being stored
+     *
+     * @param username
+     *            User to shard
+     */
+    private void promoteAsync(@Nonnull final String username) {
+        if (!promoting.add(username)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    promote(username);
+                } finally {
+                    promoting.remove(username);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Unable to schedule sharding of key: " + username, e);
+            promoting.remove(username);
+        }
+    }
+
+    /**
+     * Store the shard count on a user's main key
+     *
+     * @param username
+     *            User to shard
+     */
+    private void promote(@Nonnull final String username) {
+        try {
+            shardable.shard(username, shards);
+        } catch (NotificationStoreException e) {
+            LOGGER.warn("Unable to shard key: " + username, e);
+            return;
+        }
+        LOGGER.info("Sharding hot key {} across {} shards", username, shards);
+        promotions.mark();
+        sharded.put(username, shards);
+    }
+
+    /**
+     * Fetch the shards of a sharded notification list and merge them into
+     * the main list
+     *
+     * @param username
+     *            User the notification list belongs to
+     * @param list
+     *            Notification list stored on the main key
+     * @param fetcher
+     *            Function to fetch a shard by its key
+     * @return a future completed with the merged notification list
+     */
+    private CompletableFuture<Optional<NotificationList>> merge(
+            @Nonnull final String username,
+            @Nonnull final Optional<NotificationList> list,
+            @Nonnull final Function<String, CompletableFuture<Optional<NotificationList>>> fetcher) {
+        if (!list.isPresent() || list.get().getShards() <= 0) {
+            return CompletableFuture.completedFuture(list);
+        }
+
+        shardedReads.mark();
+
+        // merge into a copy, as the stored version of the main list only
+        // covers the main key
+        final NotificationList merged = new NotificationList(list.get());
+        final List<CompletableFuture<Optional<NotificationList>>> futures = new ArrayList<>(
+                merged.getShards());
+        for (int i = 0; i < merged.getShards(); i++) {
+            futures.add(fetcher.apply(shardKey(username, i)));
+        }
+
+        return CompletableFuture
+                .allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    for (CompletableFuture<Optional<NotificationList>> future : futures) {
+                        future.join().ifPresent(merged::merge);
+                    }
+                    NotificationList.removeNotifications(
+                            merged.getNotifications(), merged.getDeletedIds());
+
+                    // each shard holds up to the maximum on its own, so trim
+                    // the merged list back down, keeping any older segments
+                    // already merged into the main list
+                    merged.truncate(
+                            Math.max(NotificationList.MAX_NOTIFICATIONS,
+                                    list.get().getNotifications().size()));
+                    return Optional.of(merged);
+                });
+    }
+}
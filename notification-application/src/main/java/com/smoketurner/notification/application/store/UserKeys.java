@@ -0,0 +1,58 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import javax.annotation.Nonnull;
+import com.google.common.base.CharMatcher;
+
+public final class UserKeys {
+
+    private static final char ESCAPE = '%';
+    private static final CharMatcher RESERVED = CharMatcher.is(ESCAPE)
+            .or(CharMatcher.is(ShardedNotificationRepository.SEPARATOR))
+            .or(CharMatcher.is(SegmentedNotificationRepository.SEPARATOR));
+
+    private UserKeys() {
+        // static utility class
+    }
+
+    /**
+     * Return the key a user's notifications are stored under. The characters
+     * used to build the keys of a user's shards and segments are
+     * percent-encoded, so a main key never contains a separator and can't
+     * collide with the key of another user's shard or segment. Usernames without any of these characters are
+     * their own key.
+     *
+     * @param username
+     *            Username to encode
+     * @return the key for the user
+     */
+    public static String encode(@Nonnull final String username) {
+        if (RESERVED.matchesNoneOf(username)) {
+            return username;
+        }
+        final StringBuilder key = new StringBuilder(username.length() + 8);
+        for (int i = 0; i < username.length(); i++) {
+            final char c = username.charAt(i);
+            if (RESERVED.matches(c)) {
+                key.append(ESCAPE).append(String.format("%02X", (int) c));
+            } else {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+}
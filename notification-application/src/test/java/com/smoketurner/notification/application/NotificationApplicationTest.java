@@ -15,6 +15,7 @@
  */
 package com.smoketurner.notification.application;
 
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -32,7 +33,9 @@ import com.smoketurner.notification.application.resources.PingResource;
 import com.smoketurner.notification.application.resources.VersionResource;
 import io.dropwizard.jackson.Jackson;
 import io.dropwizard.jersey.setup.JerseyEnvironment;
+import io.dropwizard.lifecycle.setup.ExecutorServiceBuilder;
 import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
+import io.dropwizard.lifecycle.setup.ScheduledExecutorServiceBuilder;
 import io.dropwizard.setup.Environment;
 
 public class NotificationApplicationTest {
@@ -62,6 +65,12 @@ public class NotificationApplicationTest {
         when(environment.jersey()).thenReturn(jersey);
         when(environment.getObjectMapper()).thenReturn(mapper);
         when(environment.lifecycle()).thenReturn(lifecycle);
+        when(lifecycle.executorService(anyString()))
+                .thenAnswer(invocation -> new ExecutorServiceBuilder(lifecycle,
+                        invocation.getArgument(0)));
+        when(lifecycle.scheduledExecutorService(anyString()))
+                .thenAnswer(invocation -> new ScheduledExecutorServiceBuilder(
+                        lifecycle, invocation.getArgument(0), true));
         when(environment.healthChecks()).thenReturn(healthChecks);
     }
 
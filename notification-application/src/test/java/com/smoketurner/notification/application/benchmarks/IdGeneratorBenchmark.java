@@ -0,0 +1,64 @@
+package com.smoketurner.notification.application.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.smoketurner.notification.application.core.IdGenerator;
+import com.smoketurner.snowizard.core.IdWorker;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+public class IdGeneratorBenchmark {
+
+    private static final int BULK_SIZE = 20;
+
+    private IdWorker snowizard;
+    private IdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        snowizard = IdWorker.builder(1, 1).withValidateUserAgent(false)
+                .build();
+        generator = new IdGenerator(1, 1);
+    }
+
+    @Benchmark
+    public long snowizardNextId() throws Exception {
+        return snowizard.nextId();
+    }
+
+    @Benchmark
+    public long[] snowizardNextIds() throws Exception {
+        final long[] ids = new long[BULK_SIZE];
+        for (int i = 0; i < BULK_SIZE; i++) {
+            ids[i] = snowizard.nextId();
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public long generatorNextId() throws Exception {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public long[] generatorNextIds() throws Exception {
+        return generator.nextIds(BULK_SIZE);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(IdGeneratorBenchmark.class.getSimpleName()).forks(1)
+                .warmupIterations(5).measurementIterations(5).build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.smoketurner.notification.application.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.store.NotificationList;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class NotificationDeletionBenchmark {
+
+    private final List<Notification> notifications = new ArrayList<>();
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        // snowflake-like IDs, deleting every other notification along with
+        // as many IDs which aren't in the list
+        ids = new long[1000];
+        for (int i = 0; i < 1000; i++) {
+            final long id = 625336317638742016L + (i * 4096L);
+            notifications.add(Notification.builder().withId(id).build());
+            ids[i] = (i % 2 == 0) ? id : id + 1;
+        }
+    }
+
+    @Benchmark
+    public List<Notification> removeBoxed() {
+        final Set<Long> deleted = new HashSet<>();
+        for (long id : ids) {
+            deleted.add(id);
+        }
+
+        final List<Notification> list = new ArrayList<>(notifications);
+        list.removeIf(notification -> {
+            if (!notification.getId().isPresent()) {
+                return true;
+            }
+            return deleted.contains(notification.getId().get());
+        });
+        return list;
+    }
+
+    @Benchmark
+    public List<Notification> removePrimitive() {
+        final LongSet deleted = new LongSet();
+        for (long id : ids) {
+            deleted.add(id);
+        }
+
+        final List<Notification> list = new ArrayList<>(notifications);
+        NotificationList.removeNotifications(list, deleted);
+        return list;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(NotificationDeletionBenchmark.class.getSimpleName())
+                .forks(1).warmupIterations(5).measurementIterations(5).build())
+                        .run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.smoketurner.notification.application.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB;
+import com.smoketurner.notification.application.protos.NotificationProtos.NotificationPB;
+import com.smoketurner.notification.application.store.NotificationList;
+import com.smoketurner.notification.application.store.NotificationListCodec;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class NotificationListCodecBenchmark {
+
+    private final NotificationListCodec codec = new NotificationListCodec();
+    private final NotificationListCodec compactCodec = new NotificationListCodec(
+            NotificationListCodec.Format.COMPACT);
+    private byte[] full;
+    private byte[] halfDeleted;
+    private byte[] compact;
+    private NotificationList list;
+
+    @Setup
+    public void setUp() throws IOException {
+        final NotificationListPB.Builder builder = NotificationListPB
+                .newBuilder();
+        for (long i = 1000; i > 0; i--) {
+            builder.addNotification(NotificationPB.newBuilder().setId(i)
+                    .setCategory("new-follower")
+                    .setMessage("You have a new follower " + i)
+                    .setCreatedAt(1500000000000L + i)
+                    .putProperty("first_name", "Bob")
+                    .putProperty("last_name", "Smith"));
+        }
+        full = builder.build().toByteArray();
+
+        for (long i = 2; i <= 1000; i += 2) {
+            builder.addDeletedId(i);
+        }
+        halfDeleted = builder.build().toByteArray();
+
+        list = codec.decode(full);
+        compact = compactCodec.encode(list);
+    }
+
+    @Benchmark
+    public NotificationList decode() throws IOException {
+        return codec.decode(full);
+    }
+
+    @Benchmark
+    public NotificationList decodeHalfDeleted() throws IOException {
+        return codec.decode(halfDeleted);
+    }
+
+    @Benchmark
+    public NotificationList decodeCompact() throws IOException {
+        return codec.decode(compact);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(list);
+    }
+
+    @Benchmark
+    public byte[] encodeCompact() {
+        return compactCodec.encode(list);
+    }
+
+    @Benchmark
+    public NotificationList decodeMessages()
+            throws InvalidProtocolBufferException {
+        return decodeMessages(full);
+    }
+
+    @Benchmark
+    public NotificationList decodeMessagesHalfDeleted()
+            throws InvalidProtocolBufferException {
+        return decodeMessages(halfDeleted);
+    }
+
+    /**
+     * Previous implementation which parsed the generated protobuf messages
+     * and converted every notification, including deleted ones.
+     */
+    private static NotificationList decodeMessages(final byte[] value)
+            throws InvalidProtocolBufferException {
+        final NotificationListPB list = NotificationListPB.parseFrom(value);
+        final NotificationList obj = new NotificationList();
+        list.getNotificationList().stream()
+                .map(pb -> Notification.builder().withId(pb.getId())
+                        .withCategory(pb.getCategory())
+                        .withMessage(pb.getMessage())
+                        .withCreatedAt(new DateTime(pb.getCreatedAt(),
+                                DateTimeZone.UTC))
+                        .withProperties(pb.getPropertyMap()).build())
+                .forEach(obj::addNotification);
+        list.getDeletedIdList().forEach(obj::deleteNotification);
+        return obj;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(NotificationListCodecBenchmark.class
+                        .getSimpleName())
+                .forks(1).warmupIterations(5).measurementIterations(5).build())
+                        .run();
+    }
+}
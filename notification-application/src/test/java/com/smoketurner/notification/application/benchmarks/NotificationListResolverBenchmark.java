@@ -0,0 +1,98 @@
+package com.smoketurner.notification.application.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.riak.NotificationListObject;
+import com.smoketurner.notification.application.riak.NotificationListResolver;
+import com.smoketurner.notification.application.store.NotificationList;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class NotificationListResolverBenchmark {
+
+    private static final int LIST_SIZE = 1000;
+
+    @Param({ "2", "8", "32" })
+    private int siblingCount;
+
+    private final NotificationListResolver resolver = new NotificationListResolver();
+    private final List<List<Notification>> notifications = new ArrayList<>();
+    private final List<LongSet> deletedIds = new ArrayList<>();
+    private List<NotificationListObject> siblings;
+
+    @Setup
+    public void setUp() {
+        // each sibling is a full list written from a slightly different copy
+        // of the list, so the siblings mostly overlap, and each one has
+        // deleted a few notifications
+        for (int s = 0; s < siblingCount; s++) {
+            final List<Notification> list = new ArrayList<>(LIST_SIZE);
+            final LongSet deleted = new LongSet();
+            for (int i = 0; i < LIST_SIZE; i++) {
+                final long id = 625336317638742016L + ((i + s * 10) * 4096L);
+                list.add(Notification.builder().withId(id).build());
+                if (i % 100 == s % 100) {
+                    deleted.add(id);
+                }
+            }
+            notifications.add(list);
+            deletedIds.add(deleted);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createSiblings() {
+        // resolving modifies the siblings, so start from new copies each time
+        siblings = new ArrayList<>(siblingCount);
+        for (int s = 0; s < siblingCount; s++) {
+            final NotificationListObject sibling = new NotificationListObject(
+                    "test");
+            sibling.addNotifications(notifications.get(s));
+            sibling.deleteNotifications(deletedIds.get(s));
+            siblings.add(sibling);
+        }
+    }
+
+    @Benchmark
+    public NotificationListObject resolveByAdding() {
+        final Iterator<NotificationListObject> iterator = siblings.iterator();
+        final NotificationListObject resolved = iterator.next();
+        while (iterator.hasNext()) {
+            final NotificationListObject sibling = iterator.next();
+            resolved.addNotifications(sibling.getNotifications());
+            resolved.deleteNotifications(sibling.getDeletedIds());
+        }
+        NotificationList.removeNotifications(
+                resolved.getNotifications(), resolved.getDeletedIds());
+        return resolved;
+    }
+
+    @Benchmark
+    public NotificationListObject resolveByMerging() throws Exception {
+        return resolver.resolve(siblings);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(NotificationListResolverBenchmark.class
+                        .getSimpleName())
+                .forks(1).warmupIterations(5).measurementIterations(5)
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.smoketurner.notification.application.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.NotificationPage;
+import com.smoketurner.notification.application.resources.NotificationPageWriter;
+import io.dropwizard.jackson.Jackson;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class NotificationPageWriterBenchmark {
+
+    private final ObjectMapper mapper = Jackson.newObjectMapper()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final OutputStream output = ByteStreams.nullOutputStream();
+
+    @Param({ "20", "100" })
+    private int size;
+
+    private ObjectWriter objectWriter;
+    private NotificationPageWriter pageWriter;
+    private NotificationPage page;
+
+    @Setup
+    public void setUp() {
+        objectWriter = mapper.writerFor(ImmutableList.class);
+        pageWriter = new NotificationPageWriter(mapper);
+
+        // rolled up notifications with a few notifications in each, newest
+        // first and a few minutes apart
+        final DateTime now = DateTime.now(DateTimeZone.UTC);
+        final ImmutableList.Builder<Notification> builder = ImmutableList
+                .builder();
+        long id = size * 4;
+        for (int i = 0; i < size; i++) {
+            final ImmutableList.Builder<Notification> children = ImmutableList
+                    .builder();
+            final Notification parent = createNotification(id--, now);
+            for (int j = 0; j < 3; j++) {
+                children.add(createNotification(id--, now));
+            }
+            builder.add(Notification.builder(parent)
+                    .withNotifications(children.build()).build());
+        }
+        page = new NotificationPage(builder.build(), true);
+    }
+
+    @Benchmark
+    public void objectMapper() throws IOException {
+        objectWriter.writeValue(output, page.getNotifications());
+    }
+
+    @Benchmark
+    public void pageWriter() throws IOException {
+        pageWriter.write(page, output);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(NotificationPageWriterBenchmark.class.getSimpleName())
+                .forks(1).warmupIterations(5).measurementIterations(5).build())
+                        .run();
+    }
+
+    private static Notification createNotification(final long id,
+            final DateTime now) {
+        return Notification.builder().withId(id).withCategory("new-follower")
+                .withMessage("You have a new follower")
+                .withCreatedAt(now.minusMinutes((int) id * 3)).withUnseen(true)
+                .withProperties(ImmutableMap.of("first_name", "Bob"))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.smoketurner.notification.application.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.api.ProtobufConverter;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB;
+import io.dropwizard.jackson.Jackson;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class NotificationProtobufBenchmark {
+
+    private static final TypeReference<List<Notification>> LIST_TYPE = new TypeReference<List<Notification>>() {
+    };
+
+    private final ObjectMapper mapper = Jackson.newObjectMapper()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Param({ "20", "100" })
+    private int size;
+
+    private List<Notification> notifications;
+    private byte[] json;
+    private byte[] protobuf;
+
+    @Setup
+    public void setUp() throws Exception {
+        // a page of notifications as returned by a fetch, with every other
+        // notification rolling up three others
+        final DateTime now = DateTime.now(DateTimeZone.UTC);
+        notifications = new ArrayList<>(size);
+        for (int i = size; i > 0; i--) {
+            final Notification.Builder builder = Notification.builder()
+                    .withId(1000000000000000000L + i * 4).withCategory("like")
+                    .withMessage("Somebody liked your message")
+                    .withCreatedAt(now.minusMinutes(size - i))
+                    .withUnseen(i % 3 == 0)
+                    .withProperties(ImmutableMap.of("message_id",
+                            String.valueOf(i), "first_name", "Bob"));
+            if (i % 2 == 0) {
+                final ImmutableList.Builder<Notification> children = ImmutableList
+                        .builder();
+                for (int j = 1; j <= 3; j++) {
+                    children.add(Notification.builder()
+                            .withId(1000000000000000000L + i * 4 - j)
+                            .withCategory("like")
+                            .withMessage("Somebody liked your message")
+                            .withCreatedAt(now.minusMinutes(size - i + j))
+                            .withProperties(ImmutableMap.of("message_id",
+                                    String.valueOf(i), "first_name", "Bob"))
+                            .build());
+                }
+                builder.withNotifications(children.build());
+            }
+            notifications.add(builder.build());
+        }
+        json = mapper.writeValueAsBytes(notifications);
+        protobuf = ProtobufConverter.toProto(notifications).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws Exception {
+        return mapper.writeValueAsBytes(notifications);
+    }
+
+    @Benchmark
+    public byte[] writeProtobuf() {
+        return ProtobufConverter.toProto(notifications).toByteArray();
+    }
+
+    @Benchmark
+    public List<Notification> readJson() throws Exception {
+        return mapper.readValue(json, LIST_TYPE);
+    }
+
+    @Benchmark
+    public List<Notification> readProtobuf() throws Exception {
+        return ProtobufConverter
+                .fromProto(NotificationListPB.parseFrom(protobuf));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(NotificationProtobufBenchmark.class.getSimpleName())
+                .forks(1).warmupIterations(5).measurementIterations(5).build())
+                        .run();
+    }
+}
@@ -1,8 +1,11 @@
 package com.smoketurner.notification.application.benchmarks;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -14,21 +17,65 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.IdGenerator;
+import com.smoketurner.notification.application.core.NotificationTimeline;
+import com.smoketurner.notification.application.core.Rollup;
+import com.smoketurner.notification.application.core.UserNotifications;
+import com.smoketurner.notification.application.store.CursorRepository;
+import com.smoketurner.notification.application.store.CursorStore;
+import com.smoketurner.notification.application.store.NotificationRepository;
 import com.smoketurner.notification.application.store.NotificationStore;
+import com.smoketurner.notification.application.store.RuleRepository;
+import com.smoketurner.notification.application.store.RuleStore;
+import io.dropwizard.util.Duration;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
 @State(Scope.Benchmark)
 public class NotificationStoreBenchmark {
 
+    private static final String USERNAME = "test";
+    private static final Optional<Long> CURSOR = Optional.of(500L);
+    private static final int PAGE_SIZE = 20;
+
     private final List<Notification> notifications = new ArrayList<>(1000000);
+    private final TreeSet<Notification> list = new TreeSet<>();
+    private ImmutableSortedSet<Notification> sorted;
+    private NotificationTimeline timeline;
+    private NotificationStore store;
 
     @Setup
-    public void setUp() {
+    public void setUp() throws Exception {
         for (long i = 0; i < 1000000; i++) {
             notifications.add(createNotification(i));
         }
+        sorted = ImmutableSortedSet.copyOf(notifications);
+        timeline = new NotificationTimeline(sorted);
+
+        // a full notification list for a single user
+        for (long i = 0; i < 1000; i++) {
+            list.add(createNotification(i));
+        }
+
+        final RuleRepository rules = mock(RuleRepository.class);
+        when(rules.fetch()).thenReturn(Optional.of(ImmutableMap.of()));
+        final CursorStore cursors = new CursorStore(
+                mock(CursorRepository.class)) {
+            @Override
+            public void store(String username, String cursorName, long value) {
+                // not measured
+            }
+        };
+        store = new NotificationStore(mock(NotificationRepository.class),
+                mock(IdGenerator.class), cursors,
+                new RuleStore(rules, Duration.minutes(60)),
+                MoreExecutors.directExecutor());
     }
 
     @Benchmark
@@ -36,14 +83,51 @@ public class NotificationStoreBenchmark {
         return NotificationStore.setUnseenState(notifications, true);
     }
 
+    /**
+     * Split the notifications and set the unseen state on the returned page
+     */
+    @Benchmark
+    public List<Notification> splitNotifications() {
+        final UserNotifications split = store.splitNotifications(USERNAME,
+                list, CURSOR);
+        return split.withUnseenState(
+                Iterables.limit(split.getNotifications(), PAGE_SIZE));
+    }
+
+    /**
+     * Split the notifications by copying every notification with its unseen
+     * state before rolling them up (for comparison with
+     * {@link #splitNotifications()}, run with {@code -prof gc})
+     */
+    @Benchmark
+    public List<Notification> splitNotificationsCopy() {
+        final Notification last = NotificationStore.tryFind(list, CURSOR.get())
+                .get();
+        final Rollup unseen = new Rollup(ImmutableMap.of());
+        final Rollup seen = new Rollup(ImmutableMap.of());
+        final UserNotifications split = new UserNotifications(
+                unseen.rollup(NotificationStore
+                        .setUnseenState(list.headSet(last), true)),
+                seen.rollup(NotificationStore
+                        .setUnseenState(list.tailSet(last), false)));
+        return ImmutableList.copyOf(
+                Iterables.limit(split.getNotifications(), PAGE_SIZE));
+    }
+
     @Benchmark
     public Optional<Notification> tryFind() {
-        return NotificationStore.tryFind(notifications, 10000);
+        return NotificationStore.tryFind(sorted, 10000);
     }
 
     @Benchmark
     public int indexOf() {
-        return NotificationStore.indexOf(notifications, 10000);
+        return timeline.indexOf(10000);
+    }
+
+    @Benchmark
+    public List<Notification> slice() {
+        final int from = timeline.seek(10000);
+        return timeline.slice(from, from + PAGE_SIZE);
     }
 
     public static void main(String[] args) throws Exception {
@@ -2,8 +2,12 @@ package com.smoketurner.notification.application.benchmarks;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
@@ -13,10 +17,14 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import com.smoketurner.notification.api.Notification;
 import com.smoketurner.notification.api.Rule;
 import com.smoketurner.notification.application.core.Rollup;
+import com.smoketurner.notification.application.core.RulePlan;
+import io.dropwizard.util.Duration;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -24,34 +32,93 @@ import com.smoketurner.notification.application.core.Rollup;
 public class RollupBenchmark {
 
     private static final String CATEGORY = "test";
+    private static final String MATCH_ON = "key";
+    private static final int PAGE_SIZE = 20;
     private final Rule sizeRule = Rule.builder().withMaxSize(3).build();
+    private final Rule matchOnRule = Rule.builder().withMaxSize(50)
+            .withMatchOn(MATCH_ON).build();
+    private final Rule durationRule = Rule.builder().withMaxSize(50)
+            .withMatchOn(MATCH_ON).withMaxDuration(Duration.minutes(10))
+            .build();
+    private final RulePlan noRules = new RulePlan(ImmutableMap.of());
+    private final RulePlan noMatches = new RulePlan(
+            ImmutableMap.of("other", sizeRule));
+    private final RulePlan everyMatch = new RulePlan(
+            ImmutableMap.of(CATEGORY, sizeRule));
+    private final RulePlan skewedMatchOn = new RulePlan(
+            ImmutableMap.of(CATEGORY, matchOnRule));
+    private final RulePlan skewedDuration = new RulePlan(
+            ImmutableMap.of(CATEGORY, durationRule));
     private final List<Notification> notifications = new ArrayList<>(1000);
+    private final List<Notification> skewed = new ArrayList<>(10000);
+    private List<Notification> recent;
 
     @Setup
     public void setUp() {
         for (long i = 0; i < 1000; i++) {
             notifications.add(createNotification(i));
         }
+
+        // 10,000 notifications, newest first, one minute apart, spread across
+        // 1,000 match_on values with a few values receiving most of them
+        final Random random = new Random(42);
+        final DateTime now = DateTime.now(DateTimeZone.UTC);
+        for (long i = 10000; i > 0; i--) {
+            final double skew = Math.pow(random.nextDouble(), 3);
+            final String value = String.valueOf((int) (skew * 1000));
+            skewed.add(Notification.builder().withId(i).withCategory(CATEGORY)
+                    .withCreatedAt(now.minusMinutes((int) (10000 - i)))
+                    .withProperties(ImmutableMap.of(MATCH_ON, value)).build());
+        }
+
+        // a full notification list, as read for one page of a Range request
+        recent = skewed.subList(0, 1000);
     }
 
     @Benchmark
     public Stream<Notification> rollupNoRules() {
-        final Rollup rollup = new Rollup(ImmutableMap.of());
+        final Rollup rollup = new Rollup(noRules);
         return rollup.rollup(notifications.stream());
     }
 
     @Benchmark
     public Stream<Notification> rollupNoMatches() {
-        final Rollup rollup = new Rollup(ImmutableMap.of("other", sizeRule));
+        final Rollup rollup = new Rollup(noMatches);
         return rollup.rollup(notifications.stream());
     }
 
     @Benchmark
     public Stream<Notification> rollupEveryMatch() {
-        final Rollup rollup = new Rollup(ImmutableMap.of(CATEGORY, sizeRule));
+        final Rollup rollup = new Rollup(everyMatch);
         return rollup.rollup(notifications.stream());
     }
 
+    @Benchmark
+    public Stream<Notification> rollupSkewedMatchOn() {
+        final Rollup rollup = new Rollup(skewedMatchOn);
+        return rollup.rollup(skewed.stream());
+    }
+
+    @Benchmark
+    public Stream<Notification> rollupSkewedDuration() {
+        final Rollup rollup = new Rollup(skewedDuration);
+        return rollup.rollup(skewed.stream());
+    }
+
+    @Benchmark
+    public List<Notification> rollupAllForPage() {
+        final Rollup rollup = new Rollup(skewedDuration);
+        return rollup.rollup(recent.stream()).limit(PAGE_SIZE + 1)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Notification> rollupIncrementallyForPage() {
+        final Rollup rollup = new Rollup(skewedDuration);
+        return ImmutableList.copyOf(Iterators
+                .limit(rollup.rollupIncrementally(recent), PAGE_SIZE + 1));
+    }
+
     public static void main(String[] args) throws Exception {
         new Runner(new OptionsBuilder()
                 .include(RollupBenchmark.class.getSimpleName()).forks(1)
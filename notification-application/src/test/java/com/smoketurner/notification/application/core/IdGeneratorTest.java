@@ -0,0 +1,213 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import com.smoketurner.snowizard.core.IdWorker;
+
+public class IdGeneratorTest {
+
+    private static final long TWEPOCH = 1288834974657L;
+    private final AtomicLong time = new AtomicLong(TWEPOCH + 1000L);
+
+    @Test
+    public void testLayout() throws Exception {
+        final IdGenerator generator = new IdGenerator(3, 7, time::get);
+
+        final long id = generator.nextId();
+        assertThat(id >> 22).isEqualTo(1000L);
+        assertThat((id >> 17) & 31).isEqualTo(3L);
+        assertThat((id >> 12) & 31).isEqualTo(7L);
+        assertThat(id & 4095).isEqualTo(0L);
+
+        assertThat(generator.nextId() & 4095).isEqualTo(1L);
+    }
+
+    @Test
+    public void testInvalidIds() {
+        try {
+            new IdGenerator(32, 0);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage())
+                    .isEqualTo("datacenterId must be between 0 and 31");
+        }
+        try {
+            new IdGenerator(0, -1);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage())
+                    .isEqualTo("workerId must be between 0 and 31");
+        }
+    }
+
+    @Test
+    public void testSnowizardDisabled() throws Exception {
+        final IdWorker snowizard = IdWorker.builder(7, 3)
+                .withValidateUserAgent(false).build();
+        final IdGenerator generator = new IdGenerator(snowizard, false);
+
+        final long id = generator.nextId();
+        assertThat((id >> 17) & 31).isEqualTo(3L);
+        assertThat((id >> 12) & 31).isEqualTo(7L);
+    }
+
+    @Test
+    public void testSnowizardDisabledWithoutWorkerId() {
+        final IdWorker snowizard = IdWorker.builder(0, 0)
+                .withValidateUserAgent(false).build();
+        try {
+            new IdGenerator(snowizard, false);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).isEqualTo(
+                    "workerId must be configured if snowizard is disabled");
+        }
+    }
+
+    @Test
+    public void testBlockContinuesAcrossClockTick() throws Exception {
+        final IdGenerator generator = new IdGenerator(0, 0, time::get);
+
+        // the first blocks are 2 and 4 IDs, so this leaves 3 IDs in a block
+        // reserved at the current millisecond
+        final long[] ids = new long[6];
+        for (int i = 0; i < 3; i++) {
+            ids[i] = generator.nextId();
+        }
+        time.incrementAndGet();
+        for (int i = 3; i < ids.length; i++) {
+            ids[i] = generator.nextId();
+        }
+
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isEqualTo(ids[i - 1] + 1);
+        }
+        assertThat(ids[5] >> 22).isEqualTo(1000L);
+
+        // once the block is used up, the next one starts at the new time
+        final long next = generator.nextId();
+        assertThat(next >> 22).isEqualTo(1001L);
+        assertThat(next & 4095).isEqualTo(0L);
+    }
+
+    @Test
+    public void testIdleBlockExpires() throws Exception {
+        final IdGenerator generator = new IdGenerator(0, 0, time::get);
+
+        final long first = generator.nextId();
+        time.addAndGet(2L);
+        final long second = generator.nextId();
+
+        assertThat(second >> 22).isEqualTo((first >> 22) + 2);
+        assertThat(second & 4095).isEqualTo(0L);
+    }
+
+    @Test
+    public void testNextIds() throws Exception {
+        final IdGenerator generator = new IdGenerator(0, 1, time::get);
+
+        final long id = generator.nextId();
+        final long[] ids = generator.nextIds(3);
+
+        assertThat(ids).containsExactly(id + 2, id + 3, id + 4);
+        assertThat(generator.nextIds(0)).isEmpty();
+    }
+
+    @Test
+    public void testSequenceExhausted() throws Exception {
+        // the clock moves forward one millisecond every time it's read
+        final IdGenerator generator = new IdGenerator(0, 0,
+                time::getAndIncrement);
+
+        final long[] ids = generator.nextIds(5000);
+
+        assertThat(ids).hasSize(5000).doesNotHaveDuplicates();
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+        assertThat(ids[4095] >> 22).isEqualTo(1000L);
+        assertThat(ids[4096] >> 22).isEqualTo(1001L);
+        assertThat(time.get()).isGreaterThan(TWEPOCH + 1001L);
+    }
+
+    @Test
+    public void testClockMovedBackwards() throws Exception {
+        final IdGenerator generator = new IdGenerator(0, 0,
+                time::getAndIncrement);
+
+        final long first = generator.nextId();
+        time.addAndGet(-10L);
+        final long second = generator.nextIds(1)[0];
+
+        assertThat(second).isGreaterThan(first);
+        assertThat(time.get()).isGreaterThan(TWEPOCH + (second >> 22));
+    }
+
+    @Test
+    public void testClockMovedTooFarBackwards() throws Exception {
+        final IdGenerator generator = new IdGenerator(0, 0, time::get);
+
+        generator.nextId();
+        time.addAndGet(-1000L);
+
+        try {
+            generator.nextIds(1);
+            failBecauseExceptionWasNotThrown(NotificationStoreException.class);
+        } catch (NotificationStoreException e) {
+            assertThat(e.getMessage())
+                    .isEqualTo("Clock moved backwards by 1000ms");
+        }
+    }
+
+    @Test
+    public void testConcurrentIds() throws Exception {
+        final IdGenerator generator = new IdGenerator(0, 0);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        final List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                final List<Long> ids = new ArrayList<>();
+                for (int j = 0; j < 10000; j++) {
+                    ids.add(generator.nextId());
+                }
+                return ids;
+            }));
+        }
+
+        final Set<Long> unique = new HashSet<>();
+        for (Future<List<Long>> future : futures) {
+            final List<Long> ids = future.get();
+            assertThat(ids).isSorted();
+            unique.addAll(ids);
+        }
+        executor.shutdown();
+
+        assertThat(unique).hasSize(80000);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import com.google.common.collect.ImmutableSet;
+
+public class LongSetTest {
+
+    @Test
+    public void testAdd() {
+        final LongSet set = new LongSet();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.add(1L)).isTrue();
+        assertThat(set.add(1L)).isFalse();
+        assertThat(set.add(0L)).isTrue();
+        assertThat(set.add(0L)).isFalse();
+        assertThat(set.add(-1L)).isTrue();
+        assertThat(set.size()).isEqualTo(3);
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.contains(1L)).isTrue();
+        assertThat(set.contains(-1L)).isTrue();
+        assertThat(set.contains(2L)).isFalse();
+        assertThat(set.toSortedArray()).containsExactly(-1L, 0L, 1L);
+    }
+
+    @Test
+    public void testMatchesHashSet() {
+        final Random random = new Random(1L);
+        final LongSet set = new LongSet();
+        final Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            // a narrow range so that some values are added more than once
+            final long value = random.nextInt(5000) * 4096L;
+            assertThat(set.add(value)).isEqualTo(expected.add(value));
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long value = -4096L; value < 5000 * 4096L; value += 1024L) {
+            assertThat(set.contains(value))
+                    .isEqualTo(expected.contains(value));
+        }
+        assertThat(set.hashCode()).isEqualTo(expected.hashCode());
+    }
+
+    @Test
+    public void testAddAll() {
+        final LongSet set = LongSet.of(1L, 2L);
+        set.addAll(LongSet.of(0L, 2L, 3L));
+        assertThat(set).isEqualTo(LongSet.of(0L, 1L, 2L, 3L));
+    }
+
+    @Test
+    public void testRemoveIf() {
+        final LongSet set = new LongSet();
+        for (long i = 0; i < 100; i++) {
+            set.add(i);
+        }
+
+        assertThat(set.removeIf(value -> value % 2 == 0)).isEqualTo(50);
+        assertThat(set.size()).isEqualTo(50);
+        assertThat(set.contains(0L)).isFalse();
+        assertThat(set.contains(98L)).isFalse();
+        assertThat(set.contains(99L)).isTrue();
+
+        assertThat(set.removeIf(value -> false)).isEqualTo(0);
+        assertThat(set.size()).isEqualTo(50);
+    }
+
+    @Test
+    public void testClear() {
+        final LongSet set = LongSet.of(0L, 1L, 2L);
+        set.clear();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains(0L)).isFalse();
+        assertThat(set.contains(1L)).isFalse();
+        assertThat(set.toArray()).isEmpty();
+    }
+
+    @Test
+    public void testForEach() {
+        final Set<Long> actual = new HashSet<>();
+        LongSet.of(0L, 5L, 10L).forEach(actual::add);
+        assertThat(actual).isEqualTo(ImmutableSet.of(0L, 5L, 10L));
+    }
+
+    @Test
+    public void testEquals() {
+        assertThat(LongSet.of(1L, 2L, 3L)).isEqualTo(LongSet.of(3L, 2L, 1L));
+        assertThat(LongSet.of(1L, 2L)).isNotEqualTo(LongSet.of(1L, 3L));
+        assertThat(LongSet.of(0L)).isNotEqualTo(LongSet.of(1L));
+        assertThat(LongSet.of(1L).equals(null)).isFalse();
+    }
+
+    @Test
+    public void testToString() {
+        assertThat(LongSet.of(3L, 1L, 2L).toString()).isEqualTo("[1, 2, 3]");
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Iterator;
+import java.util.Optional;
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.smoketurner.notification.api.Notification;
+
+public class NotificationPageTest {
+
+    @Test
+    public void testOf() {
+        final UserNotifications notifications = new UserNotifications(
+                createNotifications(10, 8, 6, 4, 2), Optional.of(2));
+
+        final NotificationPage page = NotificationPage.of(notifications,
+                Optional.of(6L), true, 2);
+        assertThat(page.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(6L, 4L);
+        assertThat(page.getNotifications()).extracting(n -> n.getUnseen().get())
+                .containsExactly(false, false);
+        assertThat(page.hasMore()).isTrue();
+
+        final NotificationPage last = NotificationPage.of(notifications,
+                Optional.of(4L), false, 2);
+        assertThat(last.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(2L);
+        assertThat(last.hasMore()).isFalse();
+    }
+
+    @Test
+    public void testOfEmpty() {
+        final NotificationPage page = NotificationPage
+                .of(new UserNotifications(), Optional.of(6L), false, 20);
+        assertThat(page.isEmpty()).isTrue();
+        assertThat(page.hasMore()).isFalse();
+    }
+
+    @Test
+    public void testCollectMatchesOf() {
+        final ImmutableSortedSet<Notification> all = createNotifications(10, 8,
+                6, 4, 2);
+
+        for (int unseen = 0; unseen <= all.size(); unseen++) {
+            final ImmutableList<Notification> list = all.asList();
+            final UserNotifications notifications = new UserNotifications(all,
+                    Optional.of(unseen));
+
+            for (long id = 0; id <= 12; id++) {
+                for (final boolean inclusive : new boolean[] { true, false }) {
+                    for (int limit = 0; limit <= 6; limit++) {
+                        final NotificationPage expected = NotificationPage.of(
+                                notifications, Optional.of(id), inclusive,
+                                limit);
+                        final NotificationPage actual = NotificationPage
+                                .collect(list.subList(0, unseen).iterator(),
+                                        list.subList(unseen, list.size())
+                                                .iterator(),
+                                        true, Optional.of(id), inclusive,
+                                        limit);
+                        assertThat(actual)
+                                .as("unseen=%d id=%d inclusive=%s limit=%d",
+                                        unseen, id, inclusive, limit)
+                                .isEqualTo(expected);
+                        assertThat(actual.getNotifications())
+                                .extracting(n -> n.getUnseen().get())
+                                .isEqualTo(expected.getNotifications().stream()
+                                        .map(n -> n.getUnseen().get())
+                                        .collect(ImmutableList
+                                                .toImmutableList()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCollectWithoutRange() {
+        final ImmutableSortedSet<Notification> all = createNotifications(10, 8,
+                6, 4, 2);
+
+        final NotificationPage page = NotificationPage.collect(all.iterator(),
+                ImmutableList.<Notification> of().iterator(), false,
+                Optional.empty(), true, 3);
+        assertThat(page.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(10L, 8L, 6L);
+        assertThat(page.getNotifications())
+                .allMatch(n -> !n.getUnseen().isPresent());
+        assertThat(page.hasMore()).isTrue();
+    }
+
+    @Test
+    public void testCollectStopsAfterPage() {
+        final ImmutableSortedSet<Notification> all = createNotifications(10, 8,
+                6, 4, 2);
+        final Iterator<Notification> seen = all.iterator();
+
+        final NotificationPage page = NotificationPage.collect(
+                ImmutableList.<Notification> of().iterator(), seen, true,
+                Optional.of(8L), false, 1);
+        assertThat(page.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(6L);
+        assertThat(page.hasMore()).isTrue();
+
+        // only the next notification is read to find out there are more
+        assertThat(seen.next().getId()).contains(2L);
+    }
+
+    @Test
+    public void testCollectPartial() {
+        final ImmutableSortedSet<Notification> all = createNotifications(10, 8,
+                6, 4, 2);
+
+        // a full page is the same whether or not the list is partial
+        assertThat(NotificationPage.collect(all.iterator(),
+                ImmutableList.<Notification> of().iterator(), false,
+                Optional.empty(), true, 3, true))
+                        .isEqualTo(NotificationPage.collect(all.iterator(),
+                                ImmutableList.<Notification> of().iterator(),
+                                false, Optional.empty(), true, 3));
+
+        // the oldest notification is left for the next page
+        final NotificationPage page = NotificationPage.collect(all.iterator(),
+                ImmutableList.<Notification> of().iterator(), false,
+                Optional.empty(), true, 10, true);
+        assertThat(page.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(10L, 8L, 6L, 4L);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(page.isIncomplete()).isFalse();
+
+        // even if it's the only one, in which case the page is incomplete
+        final NotificationPage last = NotificationPage.collect(all.iterator(),
+                ImmutableList.<Notification> of().iterator(), false,
+                Optional.of(4L), false, 10, true);
+        assertThat(last.getNotifications()).isEmpty();
+        assertThat(last.hasMore()).isTrue();
+        assertThat(last.isIncomplete()).isTrue();
+    }
+
+    private static ImmutableSortedSet<Notification> createNotifications(
+            final long... ids) {
+        final ImmutableSortedSet.Builder<Notification> builder = ImmutableSortedSet
+                .naturalOrder();
+        for (final long id : ids) {
+            builder.add(Notification.builder().withId(id).build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.Test;
+import com.google.common.collect.ImmutableSortedSet;
+import com.smoketurner.notification.api.Notification;
+
+public class NotificationTimelineTest {
+
+    @Test
+    public void testEmpty() {
+        final NotificationTimeline timeline = new NotificationTimeline(
+                ImmutableSortedSet.of());
+        assertThat(timeline.isEmpty()).isTrue();
+        assertThat(timeline.size()).isEqualTo(0);
+        assertThat(timeline.indexOf(1L)).isEqualTo(-1);
+        assertThat(timeline.seek(1L)).isEqualTo(-1);
+        assertThat(timeline.slice(0, 10)).isEmpty();
+    }
+
+    @Test
+    public void testFind() {
+        final Notification n100 = Notification.builder().withId(100L)
+                .withNotifications(Arrays.asList(createNotification(101L),
+                        createNotification(102L)))
+                .build();
+        final Notification n150 = Notification.builder().withId(150L)
+                .withNotifications(Collections.emptyList()).build();
+        final Notification n200 = Notification.builder().withId(200L)
+                .withNotifications(Collections.singletonList(Notification
+                        .builder().withId(201L)
+                        .withNotifications(Collections
+                                .singletonList(createNotification(5L)))
+                        .build()))
+                .build();
+
+        final ImmutableSortedSet.Builder<Notification> builder = ImmutableSortedSet
+                .naturalOrder();
+        for (long i = 1; i < 11; i++) {
+            if (i != 5) {
+                builder.add(createNotification(i));
+            }
+        }
+        builder.add(n100, n150, n200);
+        final NotificationTimeline timeline = new NotificationTimeline(
+                builder.build());
+
+        assertThat(timeline.size()).isEqualTo(12);
+        assertThat(timeline.find(1))
+                .isEqualTo(Optional.of(createNotification(1)));
+        assertThat(timeline.find(10))
+                .isEqualTo(Optional.of(createNotification(10)));
+        assertThat(timeline.find(12)).isEqualTo(Optional.empty());
+        assertThat(timeline.find(100)).isEqualTo(Optional.of(n100));
+        assertThat(timeline.find(101)).isEqualTo(Optional.of(n100));
+        assertThat(timeline.find(102)).isEqualTo(Optional.of(n100));
+        assertThat(timeline.find(103)).isEqualTo(Optional.empty());
+        assertThat(timeline.find(150)).isEqualTo(Optional.of(n150));
+        assertThat(timeline.find(201)).isEqualTo(Optional.of(n200));
+        assertThat(timeline.find(5)).isEqualTo(Optional.of(n200));
+
+        assertThat(timeline.indexOf(200)).isEqualTo(0);
+        assertThat(timeline.indexOf(101)).isEqualTo(2);
+        assertThat(timeline.indexOf(1)).isEqualTo(11);
+        assertThat(timeline.indexOf(300)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testSeek() {
+        final NotificationTimeline timeline = createTimeline(100);
+
+        // IDs run from 200 down to 2
+        assertThat(timeline.seek(200)).isEqualTo(0);
+        assertThat(timeline.seek(198)).isEqualTo(1);
+        assertThat(timeline.seek(197)).isEqualTo(1);
+        assertThat(timeline.seek(2)).isEqualTo(99);
+        assertThat(timeline.seek(1)).isEqualTo(99);
+        assertThat(timeline.seek(201)).isEqualTo(-1);
+
+        final ImmutableSortedSet<Notification> notifications = ImmutableSortedSet
+                .copyOf(timeline.asList());
+        for (long id = 0; id <= 202; id++) {
+            final Notification floor = notifications
+                    .floor(createNotification(id));
+            final int index = timeline.seek(id);
+            if (floor == null) {
+                assertThat(index).isEqualTo(-1);
+            } else {
+                assertThat(timeline.asList().get(index)).isEqualTo(floor);
+            }
+        }
+    }
+
+    @Test
+    public void testSlice() {
+        final NotificationTimeline timeline = createTimeline(100);
+
+        assertThat(timeline.slice(0, 3)).containsExactly(
+                createNotification(200), createNotification(198),
+                createNotification(196));
+        assertThat(timeline.slice(98, 110)).containsExactly(
+                createNotification(4), createNotification(2));
+        assertThat(timeline.slice(100, 110)).isEmpty();
+        assertThat(timeline.slice(-5, 1))
+                .containsExactly(createNotification(200));
+        assertThat(timeline.slice(5, 2)).isEmpty();
+    }
+
+    private NotificationTimeline createTimeline(final int count) {
+        final ImmutableSortedSet.Builder<Notification> builder = ImmutableSortedSet
+                .naturalOrder();
+        for (long i = 1; i <= count; i++) {
+            builder.add(createNotification(i * 2));
+        }
+        return new NotificationTimeline(builder.build());
+    }
+
+    private Notification createNotification(final long id) {
+        return Notification.builder().withId(id).build();
+    }
+}
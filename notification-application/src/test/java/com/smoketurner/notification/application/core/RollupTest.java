@@ -16,14 +16,26 @@
 package com.smoketurner.notification.application.core;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.junit.Test;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterators;
 import com.smoketurner.notification.api.Notification;
 import com.smoketurner.notification.api.Rule;
 import io.dropwizard.util.Duration;
@@ -168,6 +180,183 @@ public class RollupTest {
         assertThat(actual.iterator()).containsExactlyElementsOf(expected);
     }
 
+    @Test
+    public void testMatchesLinearScan() {
+        final Random random = new Random(1);
+        final DateTime now = DateTime.now(DateTimeZone.UTC);
+
+        for (int run = 0; run < 500; run++) {
+            final Map<String, Rule> rules = ImmutableMap.of("new-follower",
+                    randomRule(random), "new-like", randomRule(random));
+
+            final List<Notification> notifications = new ArrayList<>();
+            for (int i = 200; i > 0; i--) {
+                final Notification.Builder builder = Notification.builder()
+                        .withCategory(CATEGORIES.get(random.nextInt(3)))
+                        .withCreatedAt(now.minusMinutes(i * 200 - 200 + random
+                                .nextInt(random.nextBoolean() ? 1 : 400)));
+                if (random.nextInt(50) > 0) {
+                    builder.withId((long) i);
+                }
+                if (random.nextInt(10) > 0) {
+                    builder.withProperties(ImmutableMap.of("first_name",
+                            String.valueOf(random.nextInt(5))));
+                }
+                notifications.add(builder.build());
+            }
+            if (random.nextInt(5) == 0) {
+                Collections.shuffle(notifications, random);
+            }
+
+            final List<String> expected = describe(
+                    linearScan(rules, notifications));
+            final List<String> actual = describe(new Rollup(rules)
+                    .rollup(notifications.stream())
+                    .collect(Collectors.toList()));
+            assertThat(actual).as("run %d with rules %s", run, rules)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testIncrementalMatchesRollup() {
+        final Random random = new Random(1);
+        final DateTime now = DateTime.now(DateTimeZone.UTC);
+
+        for (int run = 0; run < 500; run++) {
+            final Map<String, Rule> rules = ImmutableMap.of("new-follower",
+                    randomRule(random), "new-like", randomRule(random));
+
+            // stored notifications always have an ID, but their creation
+            // times may be out of order
+            final List<Notification> notifications = new ArrayList<>();
+            for (int i = 200; i > 0; i--) {
+                final Notification.Builder builder = Notification.builder()
+                        .withId((long) i)
+                        .withCategory(CATEGORIES.get(random.nextInt(3)))
+                        .withCreatedAt(now.minusMinutes(i * 200 - 200 + random
+                                .nextInt(random.nextBoolean() ? 1 : 400)));
+                if (random.nextInt(10) > 0) {
+                    builder.withProperties(ImmutableMap.of("first_name",
+                            String.valueOf(random.nextInt(5))));
+                }
+                notifications.add(builder.build());
+            }
+
+            final List<String> expected = describe(new Rollup(rules)
+                    .rollup(notifications.stream())
+                    .collect(Collectors.toList()));
+            final List<String> actual = describe(ImmutableList.copyOf(
+                    new Rollup(rules).rollupIncrementally(notifications)));
+            assertThat(actual).as("run %d with rules %s", run, rules)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testIncrementalIsLazy() {
+        final List<Notification> notifications = new ArrayList<>();
+        for (long i = 100; i > 0; i--) {
+            notifications.add(createNotification(i));
+        }
+        final AtomicInteger consumed = new AtomicInteger();
+        final Collection<Notification> counted = new AbstractCollection<
+                Notification>() {
+            @Override
+            public Iterator<Notification> iterator() {
+                return Iterators.transform(notifications.iterator(),
+                        notification -> {
+                            consumed.incrementAndGet();
+                            return notification;
+                        });
+            }
+
+            @Override
+            public int size() {
+                return notifications.size();
+            }
+        };
+
+        final Rule rule = Rule.builder().withMaxSize(2).build();
+        final Iterator<Notification> actual = new Rollup(
+                ImmutableMap.of("new-follower", rule))
+                        .rollupIncrementally(counted);
+
+        // every creation time is read up front
+        assertThat(consumed.get()).isEqualTo(100);
+
+        // the first rollup is returned as soon as it is full
+        final Notification first = actual.next();
+        assertThat(first.getId()).contains(100L);
+        assertThat(first.getNotifications()).containsExactly(
+                notifications.get(1), notifications.get(2));
+        assertThat(consumed.get()).isEqualTo(103);
+    }
+
+    private static final List<String> CATEGORIES = Arrays
+            .asList("new-follower", "new-like", "other");
+
+    private static Rule randomRule(final Random random) {
+        final Rule.Builder builder = Rule.builder();
+        if (random.nextBoolean()) {
+            builder.withMaxSize(random.nextInt(5));
+        }
+        if (random.nextBoolean()) {
+            builder.withMatchOn("first_name");
+        }
+        if (random.nextBoolean()) {
+            builder.withMaxDuration(Duration.minutes(random.nextInt(2000)));
+        }
+        return builder.build();
+    }
+
+    private static List<String> describe(
+            final Collection<Notification> notifications) {
+        return notifications.stream()
+                .map(n -> n.getId(0L) + ":" + n.getNotifications().stream()
+                        .map(c -> String.valueOf(c.getId(0L)))
+                        .collect(Collectors.joining(",")))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The original rollup algorithm, which checks every open matcher for
+     * every notification.
+     */
+    private static List<Notification> linearScan(final Map<String, Rule> rules,
+            final List<Notification> notifications) {
+        final TreeSet<Matcher> matchers = new TreeSet<>();
+        final TreeSet<Notification> rollups = new TreeSet<>();
+
+        for (final Notification notification : notifications) {
+            final Rule rule = rules.get(notification.getCategory());
+            if (rule == null || !rule.isValid()) {
+                rollups.add(notification);
+                continue;
+            }
+
+            boolean matched = false;
+            for (final Matcher matcher : matchers) {
+                if (matcher.test(notification)) {
+                    matched = true;
+                    if (matcher.isFull()) {
+                        matchers.remove(matcher);
+                        rollups.add(matcher.getNotification());
+                    }
+                    break;
+                }
+            }
+            if (!matched) {
+                matchers.add(new Matcher(rule, notification));
+            }
+        }
+
+        for (final Matcher matcher : matchers) {
+            rollups.add(matcher.getNotification());
+        }
+        return new ArrayList<>(rollups);
+    }
+
     private Notification createNotification(final long id) {
         return Notification.builder().withCategory("new-follower").withId(id)
                 .build();
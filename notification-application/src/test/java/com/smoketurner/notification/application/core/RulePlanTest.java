@@ -0,0 +1,92 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.Rule;
+import io.dropwizard.util.Duration;
+
+public class RulePlanTest {
+
+    @Test
+    public void testEmpty() {
+        assertThat(RulePlan.EMPTY.isEmpty()).isTrue();
+        assertThat(RulePlan.EMPTY.size()).isZero();
+        assertThat(RulePlan.EMPTY.get("new-follower")).isNull();
+        assertThat(RulePlan.EMPTY.get(null)).isNull();
+    }
+
+    @Test
+    public void testCompile() {
+        final Rule rule = Rule.builder().withMaxSize(3)
+                .withMaxDuration(Duration.minutes(10)).withMatchOn("first_name")
+                .build();
+        final RulePlan plan = new RulePlan(
+                ImmutableMap.of("new-follower", rule));
+
+        assertThat(plan.isEmpty()).isFalse();
+        assertThat(plan.size()).isEqualTo(1);
+        assertThat(plan.getRules()).containsEntry("new-follower", rule);
+
+        final CompiledRule compiled = plan.get("new-follower");
+        assertThat(compiled.getRule()).isEqualTo(rule);
+        assertThat(compiled.getMaxSize()).isEqualTo(3);
+        assertThat(compiled.expires()).isTrue();
+        assertThat(compiled.getMaxDuration()).isEqualTo(600000L);
+        assertThat(compiled.getMatchOn()).isEqualTo("first_name");
+        assertThat(plan.get("other")).isNull();
+    }
+
+    @Test
+    public void testDefaults() {
+        final CompiledRule compiled = new CompiledRule(
+                Rule.builder().withMaxSize(2).build());
+        assertThat(compiled.getMaxSize()).isEqualTo(2);
+        assertThat(compiled.expires()).isFalse();
+        assertThat(compiled.getMaxDuration()).isZero();
+        assertThat(compiled.getMatchOn()).isNull();
+    }
+
+    @Test
+    public void testInvalidRulesAreSkipped() {
+        final RulePlan plan = new RulePlan(
+                ImmutableMap.of("new-follower", Rule.builder().build()));
+        assertThat(plan.isEmpty()).isTrue();
+        assertThat(plan.get("new-follower")).isNull();
+        assertThat(plan.getRules()).containsKey("new-follower");
+    }
+
+    @Test
+    public void testVersion() {
+        final Rule rule = Rule.builder().withMaxSize(3)
+                .withMaxDuration(Duration.minutes(10)).build();
+        final RulePlan plan = new RulePlan(
+                ImmutableMap.of("new-follower", rule, "like", rule));
+        final RulePlan reordered = new RulePlan(
+                ImmutableMap.of("like", rule, "new-follower", rule));
+        final RulePlan changed = new RulePlan(ImmutableMap.of("new-follower",
+                Rule.builder().withMaxSize(4)
+                        .withMaxDuration(Duration.minutes(10)).build(),
+                "like", rule));
+
+        assertThat(plan.getVersion()).isEqualTo(reordered.getVersion());
+        assertThat(plan.getVersion()).isNotEqualTo(changed.getVersion());
+        assertThat(plan.getVersion())
+                .isNotEqualTo(RulePlan.EMPTY.getVersion());
+    }
+}
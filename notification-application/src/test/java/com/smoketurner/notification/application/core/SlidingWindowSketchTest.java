@@ -0,0 +1,66 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import io.dropwizard.util.Duration;
+
+public class SlidingWindowSketchTest {
+
+    private final AtomicLong time = new AtomicLong(1000000L);
+    private final SlidingWindowSketch sketch = new SlidingWindowSketch(1024,
+            Duration.seconds(6), 6, time::get);
+
+    @Test
+    public void testCountsKeys() {
+        assertThat(sketch.estimate("alice")).isZero();
+        assertThat(sketch.add("alice", 1)).isEqualTo(1L);
+        assertThat(sketch.add("alice", 2)).isEqualTo(3L);
+        assertThat(sketch.add("bob", 1)).isEqualTo(1L);
+        assertThat(sketch.estimate("alice")).isEqualTo(3L);
+    }
+
+    @Test
+    public void testNeverUnderestimates() {
+        for (int i = 0; i < 10000; i++) {
+            sketch.add("user" + i, 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            sketch.add("hot", 1);
+        }
+        assertThat(sketch.estimate("hot")).isGreaterThanOrEqualTo(100L);
+        assertThat(sketch.estimate("user1")).isGreaterThanOrEqualTo(1L);
+    }
+
+    @Test
+    public void testWindowSlides() {
+        sketch.add("alice", 5);
+
+        time.addAndGet(3000L);
+        sketch.add("alice", 2);
+        assertThat(sketch.estimate("alice")).isEqualTo(7L);
+
+        // the first bucket falls out of the window
+        time.addAndGet(3000L);
+        assertThat(sketch.estimate("alice")).isEqualTo(2L);
+        assertThat(sketch.add("alice", 1)).isEqualTo(3L);
+
+        time.addAndGet(6000L);
+        assertThat(sketch.estimate("alice")).isZero();
+    }
+}
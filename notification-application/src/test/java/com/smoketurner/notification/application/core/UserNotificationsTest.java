@@ -19,7 +19,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import org.junit.Test;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterables;
 import com.smoketurner.notification.api.Notification;
 
 public class UserNotificationsTest {
@@ -59,6 +62,64 @@ public class UserNotificationsTest {
                 .containsExactlyElementsOf(expected);
     }
 
+    @Test
+    public void testUnseenCount() {
+        final Notification child = createNotification(3L);
+        final Notification parent = Notification
+                .builder(createNotification(4L))
+                .withNotifications(Collections.singletonList(child)).build();
+        final ImmutableSortedSet<Notification> all = ImmutableSortedSet.of(
+                parent, createNotification(2L), createNotification(1L));
+        final UserNotifications notifications = new UserNotifications(all,
+                Optional.of(2));
+
+        assertThat(notifications.isEmpty()).isFalse();
+        assertThat(notifications.getNotifications()).isSameAs(all);
+        assertThat(notifications.getUnseen()).extracting(n -> n.getId().get())
+                .containsExactly(4L, 2L);
+        assertThat(notifications.getUnseen())
+                .allMatch(n -> n.getUnseen().equals(Optional.of(true)));
+        assertThat(notifications.getSeen()).extracting(n -> n.getId().get())
+                .containsExactly(1L);
+        assertThat(notifications.getSeen())
+                .allMatch(n -> n.getUnseen().equals(Optional.of(false)));
+        assertThat(notifications.isUnseen(createNotification(2L)))
+                .contains(true);
+        assertThat(notifications.isUnseen(createNotification(1L)))
+                .contains(false);
+
+        final List<Notification> page = notifications
+                .withUnseenState(all.headSet(createNotification(1L)));
+        assertThat(page).extracting(n -> n.getId().get()).containsExactly(4L,
+                2L);
+        assertThat(page.get(0).getUnseen()).contains(true);
+        assertThat(Iterables.getOnlyElement(page.get(0).getNotifications())
+                .getUnseen()).contains(true);
+
+        // the original notifications are left untouched
+        assertThat(parent.getUnseen()).isEmpty();
+        assertThat(child.getUnseen()).isEmpty();
+    }
+
+    @Test
+    public void testUntracked() {
+        final ImmutableSortedSet<Notification> all = ImmutableSortedSet
+                .of(createNotification(2L), createNotification(1L));
+        final UserNotifications notifications = new UserNotifications(all,
+                Optional.empty());
+
+        assertThat(notifications.getNotifications()).isSameAs(all);
+        assertThat(notifications.isUnseen(createNotification(1L))).isEmpty();
+        assertThat(notifications.withUnseenState(all))
+                .allMatch(n -> !n.getUnseen().isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidUnseenCount() {
+        new UserNotifications(ImmutableSortedSet.of(createNotification(1L)),
+                Optional.of(2));
+    }
+
     private Notification createNotification(final long id) {
         return Notification.builder().withId(id).build();
     }
@@ -0,0 +1,216 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalLogTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private LocalLog log;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = folder.newFolder("log");
+        log = new LocalLog(directory, SEGMENT_SIZE);
+        log.open();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        log.close();
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        assertThat(log.get("test")).isEmpty();
+        log.put("test", bytes("value1"));
+        assertThat(string(log.get("test"))).isEqualTo("value1");
+        log.put("test", bytes("value2"));
+        assertThat(string(log.get("test"))).isEqualTo("value2");
+        assertThat(log.keys()).containsOnly("test");
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        log.put("test", bytes("value"));
+        log.delete("test");
+        assertThat(log.get("test")).isEmpty();
+        assertThat(log.keys()).isEmpty();
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        log.update("test", current -> {
+            assertThat(current).isNull();
+            return bytes("value1");
+        });
+        log.update("test", current -> {
+            assertThat(new String(current, StandardCharsets.UTF_8))
+                    .isEqualTo("value1");
+            return bytes("value2");
+        });
+        assertThat(string(log.get("test"))).isEqualTo("value2");
+
+        log.update("test", current -> null);
+        assertThat(log.get("test")).isEmpty();
+    }
+
+    @Test
+    public void testUnchangedUpdateIsNotWritten() throws Exception {
+        log.put("test", bytes("value"));
+        final long before = directory.listFiles().length;
+        for (int i = 0; i < 100; i++) {
+            log.update("test", current -> current);
+        }
+        assertThat(directory.listFiles()).hasSize((int) before);
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        log.put("key1", bytes("value1"));
+        log.put("key2", bytes("value2"));
+        log.put("key1", bytes("value3"));
+        log.delete("key2");
+        log.close();
+
+        log = new LocalLog(directory, SEGMENT_SIZE);
+        log.open();
+        assertThat(log.keys()).containsOnly("key1");
+        assertThat(string(log.get("key1"))).isEqualTo("value3");
+    }
+
+    @Test
+    public void testRollsSegments() throws Exception {
+        final byte[] value = new byte[300];
+        for (int i = 0; i < 10; i++) {
+            log.put("key" + i, value);
+        }
+        assertThat(directory.listFiles().length).isGreaterThan(1);
+        log.close();
+
+        log = new LocalLog(directory, SEGMENT_SIZE);
+        log.open();
+        assertThat(log.keys()).hasSize(10);
+        assertThat(log.get("key0").get()).hasSize(300);
+    }
+
+    @Test
+    public void testReplayStopsAtCorruptRecord() throws Exception {
+        log.put("key1", bytes("value1"));
+        log.put("key2", bytes("value2"));
+        log.close();
+
+        // flip a byte in the value of the second record
+        try (RandomAccessFile file = new RandomAccessFile(
+                new File(directory, "0000000000.log"), "rw")) {
+            final long offset = 2 * 12 + 2 * "key1".length() + "value1".length()
+                    + 1;
+            file.seek(offset);
+            file.write('X');
+        }
+
+        log = new LocalLog(directory, SEGMENT_SIZE);
+        log.open();
+        assertThat(log.keys()).containsOnly("key1");
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        final byte[] value = new byte[300];
+        for (int i = 0; i < 10; i++) {
+            log.put("key", value);
+        }
+        log.put("other", bytes("value1"));
+        log.put("deleted", bytes("value2"));
+        log.delete("deleted");
+        final int before = directory.listFiles().length;
+        assertThat(before).isGreaterThan(2);
+
+        assertThat(log.compact()).isEqualTo(before - 1);
+        assertThat(directory.listFiles().length).isLessThan(before);
+        assertThat(log.keys()).containsOnly("key", "other");
+        assertThat(log.get("key").get()).hasSize(300);
+        assertThat(string(log.get("other"))).isEqualTo("value1");
+        log.close();
+
+        log = new LocalLog(directory, SEGMENT_SIZE);
+        log.open();
+        assertThat(log.keys()).containsOnly("key", "other");
+        assertThat(log.get("key").get()).hasSize(300);
+        assertThat(string(log.get("other"))).isEqualTo("value1");
+    }
+
+    @Test
+    public void testCompactKeepsLiveSegments() throws Exception {
+        final byte[] value = new byte[300];
+        for (int i = 0; i < 10; i++) {
+            log.put("key" + i, value);
+        }
+        final int before = directory.listFiles().length;
+
+        assertThat(log.compact()).isEqualTo(0);
+        assertThat(directory.listFiles()).hasSize(before);
+        assertThat(log.keys()).hasSize(10);
+    }
+
+    @Test
+    public void testSyncWrites() throws Exception {
+        log.close();
+        log = new LocalLog(directory, SEGMENT_SIZE, true);
+        log.open();
+        log.put("test", bytes("value"));
+        log.flush();
+        log.close();
+
+        log = new LocalLog(directory, SEGMENT_SIZE);
+        log.open();
+        assertThat(string(log.get("test"))).isEqualTo("value");
+    }
+
+    @Test
+    public void testRecordTooLarge() throws Exception {
+        try {
+            log.put("test", new byte[SEGMENT_SIZE]);
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+        }
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(final Optional<byte[]> value) {
+        return new String(value.get(), StandardCharsets.UTF_8);
+    }
+}
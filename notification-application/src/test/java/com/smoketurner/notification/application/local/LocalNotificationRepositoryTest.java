@@ -0,0 +1,85 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Optional;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.store.NotificationList;
+
+public class LocalNotificationRepositoryTest {
+
+    private static final String TEST_USER = "test";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private LocalLog log;
+    private LocalNotificationRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        log = new LocalLog(folder.newFolder("notifications"), 64 * 1024);
+        log.open();
+        repository = new LocalNotificationRepository(log);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        log.close();
+    }
+
+    @Test
+    public void testFetchMissing() throws Exception {
+        assertThat(repository.fetch(TEST_USER)).isEmpty();
+    }
+
+    @Test
+    public void testStoreAndRemove() throws Exception {
+        final Notification n1 = createNotification(1L);
+        final Notification n2 = createNotification(2L);
+        final Notification n3 = createNotification(3L);
+
+        repository.store(TEST_USER, n1);
+        repository.store(TEST_USER, n2);
+        repository.store(TEST_USER, n3);
+
+        Optional<NotificationList> actual = repository.fetch(TEST_USER);
+        assertThat(actual.get().getNotifications()).containsExactly(n3, n2,
+                n1);
+
+        repository.remove(TEST_USER, LongSet.of(2L));
+        actual = repository.fetch(TEST_USER);
+        assertThat(actual.get().getNotifications()).containsExactly(n3, n1);
+
+        repository.removeAll(TEST_USER);
+        assertThat(repository.fetch(TEST_USER)).isEmpty();
+    }
+
+    private static Notification createNotification(final long id) {
+        return Notification.builder().withId(id).withCategory("test")
+                .withMessage("test")
+                .withCreatedAt(new DateTime(id, DateTimeZone.UTC)).build();
+    }
+}
@@ -40,4 +40,11 @@ public class CursorStoreManagerTest {
         manager.start();
         verify(store).initialize();
     }
+
+    @Test
+    public void testStop() throws Exception {
+        final CursorStoreManager manager = new CursorStoreManager(store);
+        manager.stop();
+        verify(store).flush();
+    }
 }
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.NotificationPage;
+import io.dropwizard.jackson.Jackson;
+
+public class NotificationPageWriterTest {
+
+    private final ObjectMapper mapper = Jackson.newObjectMapper()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    public void testWrite() throws Exception {
+        final Notification child = Notification.builder().withId(1L)
+                .withCategory("new-follower").withMessage("child")
+                .withCreatedAt(new DateTime("2015-07-26T16:06:10.970Z"))
+                .withUnseen(false).build();
+        final Notification notification = Notification.builder().withId(2L)
+                .withCategory("new-follower").withMessage("parent")
+                .withCreatedAt(new DateTime("2015-07-26T16:07:00.000Z"))
+                .withUnseen(true)
+                .withProperties(ImmutableMap.of("first_name", "Bob"))
+                .withNotifications(Arrays.asList(child)).build();
+
+        final String expected = "[{\"id\":2,\"id_str\":\"2\","
+                + "\"category\":\"new-follower\",\"message\":\"parent\","
+                + "\"created_at\":\"2015-07-26T16:07:00.000Z\","
+                + "\"unseen\":true,\"properties\":{\"first_name\":\"Bob\"},"
+                + "\"notifications\":[{\"id\":1,\"id_str\":\"1\","
+                + "\"category\":\"new-follower\",\"message\":\"child\","
+                + "\"created_at\":\"2015-07-26T16:06:10.970Z\","
+                + "\"unseen\":false}]}]";
+
+        assertThat(write(new NotificationPageWriter(mapper),
+                ImmutableList.of(notification))).isEqualTo(expected);
+    }
+
+    @Test
+    public void testWriteEmpty() throws Exception {
+        assertThat(write(new NotificationPageWriter(mapper),
+                ImmutableList.of())).isEqualTo("[]");
+    }
+
+    @Test
+    public void testMatchesObjectMapper() throws Exception {
+        final ObjectMapper timestamps = Jackson.newObjectMapper()
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        final Random random = new Random(1);
+
+        final ImmutableList.Builder<Notification> builder = ImmutableList
+                .builder();
+        for (int i = 0; i < 500; i++) {
+            final ImmutableList.Builder<Notification> children = ImmutableList
+                    .builder();
+            for (int j = random.nextInt(3); j > 0; j--) {
+                children.add(randomNotification(random).build());
+            }
+            builder.add(randomNotification(random)
+                    .withNotifications(children.build()).build());
+        }
+        final ImmutableList<Notification> notifications = builder.build();
+
+        assertThat(write(new NotificationPageWriter(mapper), notifications))
+                .isEqualTo(mapper.writeValueAsString(notifications));
+        assertThat(
+                write(new NotificationPageWriter(timestamps), notifications))
+                        .isEqualTo(timestamps
+                                .writeValueAsString(notifications));
+    }
+
+    @Test
+    public void testMatchesObjectMapperIndented() throws Exception {
+        final ObjectMapper indented = Jackson.newObjectMapper()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        final ImmutableList<Notification> notifications = ImmutableList.of(
+                randomNotification(new Random(1)).build(),
+                randomNotification(new Random(2)).build());
+
+        assertThat(write(new NotificationPageWriter(indented), notifications))
+                .isEqualTo(indented.writeValueAsString(notifications));
+    }
+
+    private static Notification.Builder randomNotification(
+            final Random random) {
+        // creation times from before 1970 to after 9999, in any time zone
+        final long millis = (long) ((random.nextDouble() * 2 - 0.5)
+                * 253402300800000L);
+        final DateTimeZone zone = random.nextBoolean() ? DateTimeZone.UTC
+                : DateTimeZone.forOffsetHours(random.nextInt(24) - 12);
+
+        final Notification.Builder builder = Notification.builder()
+                .withCreatedAt(new DateTime(millis, zone));
+        if (random.nextBoolean()) {
+            builder.withId(random.nextLong());
+        }
+        if (random.nextBoolean()) {
+            builder.withCategory("new-follower");
+        }
+        if (random.nextBoolean()) {
+            builder.withMessage(random.nextBoolean() ? ""
+                    : "café \"quoted\"\n☃");
+        }
+        if (random.nextBoolean()) {
+            builder.withUnseen(random.nextBoolean());
+        }
+        if (random.nextBoolean()) {
+            builder.withProperties(ImmutableMap.of("b", "1", "a", "2"));
+        }
+        return builder;
+    }
+
+    private static String write(final NotificationPageWriter writer,
+            final ImmutableList<Notification> notifications)
+            throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(new NotificationPage(notifications, false), output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.util.Map;
+import java.util.Optional;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.api.ProtobufConverter;
+import com.smoketurner.notification.api.Rule;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB;
+import com.smoketurner.notification.application.core.NotificationPage;
+import com.smoketurner.notification.application.core.UserNotifications;
+import com.smoketurner.notification.application.exceptions.NotificationException;
+import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
+
+public class NotificationProtobufProviderTest {
+
+    private static final Annotation[] ANNOTATIONS = new Annotation[0];
+    private final NotificationProtobufProvider provider = new NotificationProtobufProvider();
+
+    @Test
+    public void testIsWriteable() throws Exception {
+        assertThat(isWriteable(new GenericType<Notification>() {
+        })).isTrue();
+        assertThat(isWriteable(new GenericType<NotificationPage>() {
+        })).isTrue();
+        assertThat(isWriteable(new GenericType<Map<String, Rule>>() {
+        })).isTrue();
+        assertThat(isWriteable(new GenericType<ImmutableMap<String, Rule>>() {
+        })).isTrue();
+        assertThat(isWriteable(new GenericType<Map<String, String>>() {
+        })).isFalse();
+        assertThat(isWriteable(new GenericType<Rule>() {
+        })).isFalse();
+    }
+
+    @Test
+    public void testIsReadable() throws Exception {
+        assertThat(provider.isReadable(Notification.class, Notification.class,
+                ANNOTATIONS, ProtocolBufferMediaType.APPLICATION_PROTOBUF_TYPE))
+                        .isTrue();
+        assertThat(provider.isReadable(Rule.class, Rule.class, ANNOTATIONS,
+                ProtocolBufferMediaType.APPLICATION_PROTOBUF_TYPE)).isTrue();
+        assertThat(provider.isReadable(NotificationPage.class,
+                NotificationPage.class, ANNOTATIONS,
+                ProtocolBufferMediaType.APPLICATION_PROTOBUF_TYPE)).isFalse();
+    }
+
+    @Test
+    public void testWritePage() throws Exception {
+        final Notification child = Notification.builder().withId(1L)
+                .withCategory("like").withMessage("child").build();
+        final Notification parent = Notification.builder().withId(2L)
+                .withCategory("like").withMessage("parent").withUnseen(true)
+                .withNotifications(ImmutableList.of(child)).build();
+        final Notification other = Notification.builder().withId(3L)
+                .withCategory("follow").withMessage("other").build();
+        final NotificationPage page = NotificationPage.of(
+                new UserNotifications(ImmutableList.of(other, parent)),
+                Optional.empty(), true, 1);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        provider.writeTo(page, NotificationPage.class, NotificationPage.class,
+                ANNOTATIONS, ProtocolBufferMediaType.APPLICATION_PROTOBUF_TYPE,
+                new MultivaluedHashMap<>(), output);
+
+        final NotificationListPB actual = NotificationListPB
+                .parseFrom(output.toByteArray());
+        assertThat(ProtobufConverter.fromProto(actual))
+                .containsExactly(other);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadInvalid() throws Exception {
+        try {
+            provider.readFrom((Class<Object>) (Class<?>) Notification.class,
+                    Notification.class, ANNOTATIONS,
+                    ProtocolBufferMediaType.APPLICATION_PROTOBUF_TYPE,
+                    new MultivaluedHashMap<>(),
+                    new ByteArrayInputStream(new byte[] { (byte) 0xff }));
+            failBecauseExceptionWasNotThrown(NotificationException.class);
+        } catch (NotificationException e) {
+            assertThat(e.getCode())
+                    .isEqualTo(Response.Status.BAD_REQUEST.getStatusCode());
+        }
+    }
+
+    private boolean isWriteable(final GenericType<?> type) {
+        return provider.isWriteable(type.getRawType(), type.getType(),
+                ANNOTATIONS, ProtocolBufferMediaType.APPLICATION_PROTOBUF_TYPE);
+    }
+}
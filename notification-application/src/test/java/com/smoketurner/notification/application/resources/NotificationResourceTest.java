@@ -16,38 +16,60 @@
 package com.smoketurner.notification.application.resources;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.glassfish.jersey.test.grizzly.GrizzlyWebTestContainerFactory;
 import org.junit.After;
 import org.junit.ClassRule;
 import org.junit.Test;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
+import com.smoketurner.notification.api.BulkNotification;
+import com.smoketurner.notification.api.BulkNotificationResult;
 import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.api.ProtobufConverter;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.core.NotificationPage;
+import com.smoketurner.notification.application.core.RulePlan;
 import com.smoketurner.notification.application.core.UserNotifications;
+import com.smoketurner.notification.application.exceptions.NotificationException;
 import com.smoketurner.notification.application.exceptions.NotificationExceptionMapper;
 import com.smoketurner.notification.application.exceptions.NotificationStoreException;
 import com.smoketurner.notification.application.filter.CharsetResponseFilter;
+import com.smoketurner.notification.application.store.NotificationList;
+import com.smoketurner.notification.application.store.NotificationSnapshot;
 import com.smoketurner.notification.application.store.NotificationStore;
 import io.dropwizard.jackson.Jackson;
 import io.dropwizard.jersey.errors.ErrorMessage;
+import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
 import io.dropwizard.jersey.validation.ValidationErrorMessage;
 import io.dropwizard.testing.junit.ResourceTestRule;
 
@@ -59,7 +81,10 @@ public class NotificationResourceTest {
 
     @ClassRule
     public static final ResourceTestRule resources = ResourceTestRule.builder()
+            .setTestContainerFactory(new GrizzlyWebTestContainerFactory())
             .addResource(new NotificationResource(store))
+            .addProvider(new NotificationPageWriter(MAPPER))
+            .addProvider(new NotificationProtobufProvider())
             .addProvider(new CharsetResponseFilter())
             .addProvider(new NotificationExceptionMapper()).build();
 
@@ -73,19 +98,16 @@ public class NotificationResourceTest {
         final ImmutableSortedSet<Notification> expected = ImmutableSortedSet
                 .of(createNotification(1L));
         final UserNotifications notifications = new UserNotifications(expected);
-        when(store.fetch("test")).thenReturn(Optional.of(notifications));
-        when(store.skip(notifications.getNotifications(), 1L, true, 20))
-                .thenReturn(expected);
+        stubFetch(true, notifications);
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON).get();
         final List<Notification> actual = response
                 .readEntity(new GenericType<List<Notification>>() {
                 });
 
-        verify(store).fetch("test");
-        verify(store).skip(notifications.getNotifications(), 1L, true, 20);
+        verify(store).fetchSnapshotAsync("test", true);
         assertThat(response.getStatus()).isEqualTo(200);
         assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE))
                 .isEqualTo(MediaType.APPLICATION_JSON + ";charset=UTF-8");
@@ -96,6 +118,61 @@ public class NotificationResourceTest {
         assertThat(actual).containsExactlyElementsOf(expected);
     }
 
+    @Test
+    public void testFetchProtobuf() throws Exception {
+        final Notification child = Notification.builder().withId(1L)
+                .withCategory("like").withMessage("child").build();
+        final Notification parent = Notification.builder().withId(3L)
+                .withCategory("like").withMessage("parent")
+                .withNotifications(ImmutableList.of(child)).build();
+        final Notification seen = Notification.builder().withId(2L)
+                .withCategory("follow").withMessage("seen").build();
+        final UserNotifications notifications = new UserNotifications(
+                ImmutableList.of(parent), ImmutableList.of(seen));
+        stubFetch(true, notifications);
+
+        final Response response = resources
+                .target("/v1/notifications/test")
+                .request(ProtocolBufferMediaType.APPLICATION_PROTOBUF).get();
+        final NotificationListPB actual = NotificationListPB
+                .parseFrom(response.readEntity(byte[].class));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE))
+                .isEqualTo(ProtocolBufferMediaType.APPLICATION_PROTOBUF);
+        assertThat(response.getHeaderString("Content-Range"))
+                .isEqualTo("id 3..2");
+        assertThat(actual.getNotificationCount()).isEqualTo(2);
+        assertThat(actual.getNotification(0).getUnseen())
+                .isEqualTo(NotificationPB.Unseen.UNSEEN);
+        assertThat(actual.getNotification(0).getNotificationList())
+                .extracting(NotificationPB::getId).containsExactly(1L);
+        assertThat(actual.getNotification(1).getUnseen())
+                .isEqualTo(NotificationPB.Unseen.SEEN);
+        assertThat(ProtobufConverter.fromProto(actual))
+                .containsExactly(parent, seen);
+    }
+
+    @Test
+    public void testFetchWithoutCursor() throws Exception {
+        final ImmutableSortedSet<Notification> expected = ImmutableSortedSet
+                .of(createNotification(1L));
+        final UserNotifications notifications = new UserNotifications(expected);
+        stubFetch(false, notifications);
+
+        final Response response = resources
+                .target("/v1/notifications/test").queryParam("cursor", false)
+                .request(MediaType.APPLICATION_JSON).get();
+        final List<Notification> actual = response
+                .readEntity(new GenericType<List<Notification>>() {
+                });
+
+        verify(store).fetchSnapshotAsync("test", false);
+        verify(store, never()).fetchSnapshotAsync("test", true);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
     @Test
     public void testFetchJSONP() throws Exception {
         final DateTime now = DateTime.now(DateTimeZone.UTC);
@@ -105,17 +182,14 @@ public class NotificationResourceTest {
         final ImmutableSortedSet<Notification> expected = ImmutableSortedSet
                 .of(notification);
         final UserNotifications notifications = new UserNotifications(expected);
-        when(store.fetch("test")).thenReturn(Optional.of(notifications));
-        when(store.skip(notifications.getNotifications(), 1L, true, 20))
-                .thenReturn(expected);
+        stubFetch(true, notifications);
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request("application/javascript").get();
         final String actual = response.readEntity(String.class);
 
-        verify(store).fetch("test");
-        verify(store).skip(notifications.getNotifications(), 1L, true, 20);
+        verify(store).fetchSnapshotAsync("test", true);
         assertThat(response.getStatus()).isEqualTo(200);
         assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE))
                 .isEqualTo("application/javascript;charset=UTF-8");
@@ -123,8 +197,10 @@ public class NotificationResourceTest {
         assertThat(response.getHeaderString("Content-Range"))
                 .isEqualTo("id 1..1");
         assertThat(response.getHeaderString("Next-Range")).isNull();
-        assertThat(actual).isEqualTo(
-                "callback([" + MAPPER.writeValueAsString(notification) + "])");
+        assertThat(actual).isEqualTo("callback(["
+                + MAPPER.writeValueAsString(Notification.builder(notification)
+                        .withUnseen(true).build())
+                + "])");
     }
 
     @Test
@@ -140,11 +216,9 @@ public class NotificationResourceTest {
                 .of(createNotification(19L), createNotification(18L));
 
         final UserNotifications notifications = new UserNotifications(all);
-        when(store.fetch("test")).thenReturn(Optional.of(notifications));
-        when(store.skip(notifications.getNotifications(), 20L, false, 2))
-                .thenReturn(expected);
+        stubFetch(true, notifications);
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON)
                 .header("Range", "id ]20..; max=2").get();
@@ -152,8 +226,8 @@ public class NotificationResourceTest {
                 .readEntity(new GenericType<List<Notification>>() {
                 });
 
-        verify(store).fetch("test");
-        verify(store).skip(notifications.getNotifications(), 20L, false, 2);
+        verify(store).fetchPageSnapshotAsync("test", true, Optional.of(20L),
+                false, 2);
         assertThat(response.getStatus()).isEqualTo(206);
         assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE))
                 .isEqualTo(MediaType.APPLICATION_JSON + ";charset=UTF-8");
@@ -177,19 +251,17 @@ public class NotificationResourceTest {
         final List<Notification> expected = all.subList(0, 20);
 
         final UserNotifications notifications = new UserNotifications(all);
-        when(store.fetch("test")).thenReturn(Optional.of(notifications));
-        when(store.skip(notifications.getNotifications(), 30L, true, 20))
-                .thenReturn(expected);
+        stubFetch(true, notifications);
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON).header("Range", "").get();
         final List<Notification> actual = response
                 .readEntity(new GenericType<List<Notification>>() {
                 });
 
-        verify(store).fetch("test");
-        verify(store).skip(notifications.getNotifications(), 30L, true, 20);
+        verify(store).fetchPageSnapshotAsync("test", true, Optional.empty(),
+                true, 20);
         assertThat(response.getStatus()).isEqualTo(206);
         assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE))
                 .isEqualTo(MediaType.APPLICATION_JSON + ";charset=UTF-8");
@@ -213,11 +285,9 @@ public class NotificationResourceTest {
         final List<Notification> expected = all.subList(0, 20);
 
         final UserNotifications notifications = new UserNotifications(all);
-        when(store.fetch("test")).thenReturn(Optional.of(notifications));
-        when(store.skip(notifications.getNotifications(), 30L, true, 20))
-                .thenReturn(expected);
+        stubFetch(true, notifications);
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON)
                 .header("Range", "id 1000..").get();
@@ -225,8 +295,8 @@ public class NotificationResourceTest {
                 .readEntity(new GenericType<List<Notification>>() {
                 });
 
-        verify(store).fetch("test");
-        verify(store).skip(notifications.getNotifications(), 30L, true, 20);
+        verify(store).fetchPageSnapshotAsync("test", true, Optional.of(1000L),
+                true, 20);
         assertThat(response.getStatus()).isEqualTo(206);
         assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE))
                 .isEqualTo(MediaType.APPLICATION_JSON + ";charset=UTF-8");
@@ -250,11 +320,9 @@ public class NotificationResourceTest {
         final List<Notification> expected = all.subList(0, 3);
 
         final UserNotifications notifications = new UserNotifications(all);
-        when(store.fetch("test")).thenReturn(Optional.of(notifications));
-        when(store.skip(notifications.getNotifications(), 20L, true, 3))
-                .thenReturn(expected);
+        stubFetch(true, notifications);
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON).header("Range", "id;max=3")
                 .get();
@@ -262,8 +330,8 @@ public class NotificationResourceTest {
                 .readEntity(new GenericType<List<Notification>>() {
                 });
 
-        verify(store).fetch("test");
-        verify(store).skip(notifications.getNotifications(), 20L, true, 3);
+        verify(store).fetchPageSnapshotAsync("test", true, Optional.empty(),
+                true, 3);
         assertThat(response.getStatus()).isEqualTo(206);
         assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE))
                 .isEqualTo(MediaType.APPLICATION_JSON + ";charset=UTF-8");
@@ -277,33 +345,168 @@ public class NotificationResourceTest {
 
     @Test
     public void testFetchNotFound() throws Exception {
-        when(store.fetch("test"))
-                .thenReturn(Optional.<UserNotifications>empty());
+        when(store.fetchSnapshotAsync("test", true))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new NotificationSnapshot("test", null,
+                                Optional.empty(), true, Optional.empty(),
+                                RulePlan.EMPTY)));
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON).get();
         final ErrorMessage actual = response.readEntity(ErrorMessage.class);
 
-        verify(store).fetch("test");
+        verify(store).fetchSnapshotAsync("test", true);
         assertThat(response.getStatus()).isEqualTo(404);
         assertThat(actual.getCode()).isEqualTo(404);
     }
 
     @Test
     public void testFetchException() throws Exception {
-        when(store.fetch("test")).thenThrow(new NotificationStoreException());
+        final CompletableFuture<NotificationSnapshot> future = new CompletableFuture<>();
+        future.completeExceptionally(new NotificationStoreException());
+        when(store.fetchSnapshotAsync("test", true)).thenReturn(future);
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON).get();
         final ErrorMessage actual = response.readEntity(ErrorMessage.class);
 
-        verify(store).fetch("test");
+        verify(store).fetchSnapshotAsync("test", true);
         assertThat(response.getStatus()).isEqualTo(500);
         assertThat(actual.getCode()).isEqualTo(500);
     }
 
+    @Test
+    public void testFetchEmailUsername() throws Exception {
+        when(store.fetchSnapshotAsync("test@example.com", true))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new NotificationSnapshot("test@example.com", null,
+                                Optional.empty(), true, Optional.empty(),
+                                RulePlan.EMPTY)));
+
+        final Response response = resources
+                .target("/v1/notifications/test@example.com")
+                .request(MediaType.APPLICATION_JSON).get();
+
+        verify(store).fetchSnapshotAsync("test@example.com", true);
+        assertThat(response.getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    public void testFetchNotModified() throws Exception {
+        final ImmutableSortedSet<Notification> expected = ImmutableSortedSet
+                .of(createNotification(1L));
+        final UserNotifications notifications = new UserNotifications(expected);
+        final NotificationSnapshot snapshot = stubFetch(true, notifications);
+
+        final Response response = resources
+                .target("/v1/notifications/test")
+                .request(MediaType.APPLICATION_JSON).get();
+        final EntityTag entityTag = response.getEntityTag();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(entityTag).isNotNull();
+        assertThat(entityTag.isWeak()).isFalse();
+        assertThat(response.getHeaderString(HttpHeaders.CACHE_CONTROL))
+                .isEqualTo("private, no-cache, no-transform");
+
+        final Response notModified = resources
+                .target("/v1/notifications/test")
+                .request(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag).get();
+
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getEntityTag()).isEqualTo(entityTag);
+        assertThat(notModified.hasEntity()).isFalse();
+        verify(store, times(1)).resolve(snapshot);
+        verify(store).notModified(snapshot);
+    }
+
+    @Test
+    public void testFetchIgnoresIfModifiedSince() throws Exception {
+        final DateTime createdAt = new DateTime(2017, 1, 1, 0, 0,
+                DateTimeZone.UTC);
+        final ImmutableSortedSet<Notification> expected = ImmutableSortedSet
+                .of(Notification.builder(createNotification(1L))
+                        .withCreatedAt(createdAt).build());
+        final UserNotifications notifications = new UserNotifications(expected);
+        final NotificationSnapshot snapshot = stubFetch(true, notifications);
+
+        final Response response = resources
+                .target("/v1/notifications/test")
+                .request(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MODIFIED_SINCE,
+                        "Sun, 01 Jan 2017 00:00:00 GMT")
+                .get();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(store).resolve(snapshot);
+        verify(store, never()).notModified(any());
+    }
+
+    @Test
+    public void testFetchModifiedAfterDelete() throws Exception {
+        final DateTime createdAt = new DateTime(2017, 1, 1, 0, 0,
+                DateTimeZone.UTC);
+        final Notification n1 = Notification.builder(createNotification(1L))
+                .withCreatedAt(createdAt).build();
+        final Notification n2 = Notification.builder(createNotification(2L))
+                .withCreatedAt(createdAt).build();
+
+        // removing an older notification leaves Last-Modified unchanged
+        assertFetchModified(ImmutableSortedSet.of(n2, n1),
+                ImmutableSortedSet.of(n2));
+    }
+
+    @Test
+    public void testFetchModifiedInSameSecond() throws Exception {
+        final DateTime createdAt = new DateTime(2017, 1, 1, 0, 0, 0, 100,
+                DateTimeZone.UTC);
+        final Notification n1 = Notification.builder(createNotification(1L))
+                .withCreatedAt(createdAt).build();
+        final Notification n2 = Notification.builder(createNotification(2L))
+                .withCreatedAt(createdAt.plusMillis(500)).build();
+
+        // Last-Modified is truncated to the second, so both lists share it
+        assertFetchModified(ImmutableSortedSet.of(n1),
+                ImmutableSortedSet.of(n2, n1));
+    }
+
+    @Test
+    public void testFetchETagChanged() throws Exception {
+        final ImmutableSortedSet<Notification> expected = ImmutableSortedSet
+                .of(createNotification(1L));
+        final UserNotifications notifications = new UserNotifications(expected);
+
+        final NotificationList list = new NotificationList();
+        list.addNotifications(expected);
+        final NotificationSnapshot before = new NotificationSnapshot("test",
+                null, Optional.of(list), true, Optional.empty(),
+                RulePlan.EMPTY);
+        final NotificationSnapshot after = new NotificationSnapshot("test",
+                null, Optional.of(list), true, Optional.of(1L),
+                RulePlan.EMPTY);
+        when(store.fetchSnapshotAsync("test", true)).thenReturn(
+                CompletableFuture.completedFuture(before),
+                CompletableFuture.completedFuture(after));
+        when(store.resolve(any())).thenReturn(Optional.of(notifications));
+
+        final EntityTag entityTag = resources
+                .target("/v1/notifications/test")
+                .request(MediaType.APPLICATION_JSON).get().getEntityTag();
+
+        final Response response = resources
+                .target("/v1/notifications/test")
+                .request(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag).get();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getEntityTag()).isNotEqualTo(entityTag);
+        verify(store).resolve(after);
+        verify(store, never()).notModified(any());
+    }
+
     @Test
     public void testStore() throws Exception {
         final Notification expected = Notification.builder().withId(1L)
@@ -314,36 +517,98 @@ public class NotificationResourceTest {
                 .withCategory("test-category").withMessage("testing 1 2 3")
                 .build();
 
-        when(store.store("test", notification)).thenReturn(expected);
+        when(store.storeAsync("test", notification))
+                .thenReturn(CompletableFuture.completedFuture(expected));
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON)
                 .post(Entity.json(notification));
         final Notification actual = response.readEntity(Notification.class);
 
-        verify(store).store("test", notification);
+        verify(store).storeAsync("test", notification);
         assertThat(response.getStatus()).isEqualTo(201);
         assertThat(response.getLocation().getPath())
                 .isEqualTo("/v1/notifications/test");
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    public void testStoreShardLikeUsername() throws Exception {
+        final Notification notification = Notification.builder()
+                .withCategory("test-category").withMessage("testing 1 2 3")
+                .build();
+        when(store.storeAsync("test#0", notification))
+                .thenReturn(CompletableFuture.completedFuture(notification));
+
+        final Response response = resources
+                .target("/v1/notifications/test%230")
+                .request(MediaType.APPLICATION_JSON)
+                .post(Entity.json(notification));
+
+        verify(store).storeAsync("test#0", notification);
+        assertThat(response.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    public void testStoreProtobuf() throws Exception {
+        final Notification expected = Notification.builder().withId(1L)
+                .withCategory("test-category").withMessage("testing 1 2 3")
+                .withCreatedAt(DateTime.now(DateTimeZone.UTC)).build();
+
+        final Notification notification = Notification.builder()
+                .withCategory("test-category").withMessage("testing 1 2 3")
+                .build();
+
+        when(store.storeAsync(eq("test"), any(Notification.class)))
+                .thenReturn(CompletableFuture.completedFuture(expected));
+
+        final Response response = resources
+                .target("/v1/notifications/test")
+                .request(ProtocolBufferMediaType.APPLICATION_PROTOBUF)
+                .post(Entity.entity(
+                        ProtobufConverter.toProto(notification).toByteArray(),
+                        ProtocolBufferMediaType.APPLICATION_PROTOBUF));
+        final Notification actual = ProtobufConverter.fromProto(
+                NotificationPB.parseFrom(response.readEntity(byte[].class)));
+
+        verify(store).storeAsync(eq("test"), any(Notification.class));
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void testStoreProtobufMissingCategory() throws Exception {
+        final NotificationPB notification = NotificationPB.newBuilder()
+                .setMessage("testing 1 2 3").build();
+
+        final Response response = resources
+                .target("/v1/notifications/test")
+                .request(MediaType.APPLICATION_JSON)
+                .post(Entity.entity(notification.toByteArray(),
+                        ProtocolBufferMediaType.APPLICATION_PROTOBUF));
+
+        verify(store, never()).storeAsync(anyString(),
+                any(Notification.class));
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
     @Test
     public void testStoreException() throws Exception {
         final Notification notification = Notification.builder()
                 .withCategory("test-category").withMessage("testing 1 2 3")
                 .build();
-        when(store.store("test", notification))
-                .thenThrow(new NotificationStoreException());
+        final CompletableFuture<Notification> future = new CompletableFuture<>();
+        future.completeExceptionally(new NotificationStoreException());
+        when(store.storeAsync("test", notification)).thenReturn(future);
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON)
                 .post(Entity.json(notification));
         final ErrorMessage actual = response.readEntity(ErrorMessage.class);
 
-        verify(store).store("test", notification);
+        verify(store).storeAsync("test", notification);
         assertThat(response.getStatus()).isEqualTo(500);
         assertThat(actual.getCode()).isEqualTo(500);
     }
@@ -353,12 +618,13 @@ public class NotificationResourceTest {
         final Notification notification = Notification.builder()
                 .withMessage("testing 1 2 3").build();
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON)
                 .post(Entity.json(notification));
 
-        verify(store, never()).store(anyString(), any(Notification.class));
+        verify(store, never()).storeAsync(anyString(),
+                any(Notification.class));
         assertThat(response.getStatus()).isEqualTo(422);
 
         final ValidationErrorMessage msg = response
@@ -371,12 +637,13 @@ public class NotificationResourceTest {
         final Notification notification = Notification.builder()
                 .withCategory("").withMessage("testing 1 2 3").build();
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON)
                 .post(Entity.json(notification));
 
-        verify(store, never()).store(anyString(), any(Notification.class));
+        verify(store, never()).storeAsync(anyString(),
+                any(Notification.class));
         assertThat(response.getStatus()).isEqualTo(422);
 
         final ValidationErrorMessage msg = response
@@ -389,12 +656,13 @@ public class NotificationResourceTest {
         final Notification notification = Notification.builder()
                 .withCategory("test-category").build();
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON)
                 .post(Entity.json(notification));
 
-        verify(store, never()).store(anyString(), any(Notification.class));
+        verify(store, never()).storeAsync(anyString(),
+                any(Notification.class));
         assertThat(response.getStatus()).isEqualTo(422);
 
         final ValidationErrorMessage msg = response
@@ -407,12 +675,13 @@ public class NotificationResourceTest {
         final Notification notification = Notification.builder()
                 .withCategory("test-category").withMessage("").build();
 
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON)
                 .post(Entity.json(notification));
 
-        verify(store, never()).store(anyString(), any(Notification.class));
+        verify(store, never()).storeAsync(anyString(),
+                any(Notification.class));
         assertThat(response.getStatus()).isEqualTo(422);
 
         final ValidationErrorMessage msg = response
@@ -422,11 +691,12 @@ public class NotificationResourceTest {
 
     @Test
     public void testStoreNull() throws Exception {
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test")
                 .request(MediaType.APPLICATION_JSON).post(null);
 
-        verify(store, never()).store(anyString(), any(Notification.class));
+        verify(store, never()).storeAsync(anyString(),
+                any(Notification.class));
         assertThat(response.getStatus()).isEqualTo(422);
 
         final ValidationErrorMessage msg = response
@@ -437,7 +707,7 @@ public class NotificationResourceTest {
 
     @Test
     public void testRemove() throws Exception {
-        final Response response = resources.client()
+        final Response response = resources
                 .target("/v1/notifications/test").request().delete();
 
         verify(store).removeAll("test");
@@ -446,15 +716,234 @@ public class NotificationResourceTest {
 
     @Test
     public void testRemoveIds() throws Exception {
-        final Response response = resources.client()
-                .target("/v1/notifications/test?ids=1,2,asdf,3").request()
-                .delete();
+        final Response response = resources.target("/v1/notifications/test")
+                .queryParam("ids", "1,2,asdf,3").request().delete();
 
-        verify(store).remove("test", ImmutableSet.of(1L, 2L, 3L));
+        verify(store).remove("test", LongSet.of(1L, 2L, 3L));
         verify(store, never()).removeAll(anyString());
         assertThat(response.getStatus()).isEqualTo(204);
     }
 
+    @Test
+    public void testRemoveShardLikeUsername() throws Exception {
+        final Response response = resources
+                .target("/v1/notifications/test%230").request().delete();
+
+        verify(store).removeAll("test#0");
+        assertThat(response.getStatus()).isEqualTo(204);
+    }
+
+    @Test
+    public void testRemoveSegmentLikeUsername() throws Exception {
+        final Response response = resources
+                .target("/v1/notifications/test%4042").queryParam("ids", "1")
+                .request().delete();
+
+        verify(store).remove("test@42", LongSet.of(1L));
+        assertThat(response.getStatus()).isEqualTo(204);
+    }
+
+    @Test
+    public void testStoreAll() throws Exception {
+        final Notification notification = Notification.builder()
+                .withCategory("test-category").withMessage("testing 1 2 3")
+                .build();
+        final List<BulkNotification> request = ImmutableList.of(
+                new BulkNotification(ImmutableList.of("user1", "user2"),
+                        notification));
+        final List<BulkNotificationResult> expected = ImmutableList.of(
+                BulkNotificationResult.success("user1",
+                        Notification.builder(notification).withId(1L).build()),
+                BulkNotificationResult.success("user2",
+                        Notification.builder(notification).withId(2L)
+                                .build()));
+
+        when(store.storeAll(request)).thenReturn(expected);
+
+        final Response response = resources
+                .target("/v1/notifications")
+                .request(MediaType.APPLICATION_JSON)
+                .post(Entity.json(request));
+        final List<BulkNotificationResult> actual = response.readEntity(
+                new GenericType<List<BulkNotificationResult>>() {
+                });
+
+        verify(store).storeAll(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void testStoreAllInvalid() throws Exception {
+        final Notification notification = Notification.builder()
+                .withMessage("testing 1 2 3").build();
+        final List<BulkNotification> request = ImmutableList
+                .of(new BulkNotification("user1", notification));
+
+        final Response response = resources
+                .target("/v1/notifications")
+                .request(MediaType.APPLICATION_JSON)
+                .post(Entity.json(request));
+
+        verify(store, never()).storeAll(any());
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    public void testStoreAllShardLikeUsername() throws Exception {
+        final Notification notification = Notification.builder()
+                .withCategory("test-category").withMessage("testing 1 2 3")
+                .build();
+        final List<BulkNotification> request = ImmutableList.of(
+                new BulkNotification(ImmutableList.of("user1", "user1#0"),
+                        notification));
+        when(store.storeAll(any())).thenReturn(ImmutableList.of());
+
+        final Response response = resources
+                .target("/v1/notifications")
+                .request(MediaType.APPLICATION_JSON)
+                .post(Entity.json(request));
+
+        verify(store).storeAll(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void testStoreAllInvalidUsernames() throws Exception {
+        final Notification notification = Notification.builder()
+                .withCategory("test-category").withMessage("testing 1 2 3")
+                .build();
+        final List<BulkNotification> request = ImmutableList.of(
+                new BulkNotification(Arrays.asList("user1", "", null),
+                        notification));
+        final List<BulkNotificationResult> expected = ImmutableList.of(
+                BulkNotificationResult.success("user1",
+                        Notification.builder(notification).withId(1L).build()),
+                BulkNotificationResult.failure("",
+                        "username cannot be empty"),
+                BulkNotificationResult.failure("null",
+                        "username cannot be empty"));
+        when(store.storeAll(request)).thenReturn(expected);
+
+        final Response response = resources
+                .target("/v1/notifications")
+                .request(MediaType.APPLICATION_JSON)
+                .post(Entity.json(request));
+        final List<BulkNotificationResult> actual = response.readEntity(
+                new GenericType<List<BulkNotificationResult>>() {
+                });
+
+        // an empty username is left out of the JSON result
+        verify(store).storeAll(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(actual).extracting(BulkNotificationResult::getError)
+                .containsExactly(Optional.empty(),
+                        Optional.of("username cannot be empty"),
+                        Optional.of("username cannot be empty"));
+    }
+
+    @Test
+    public void testStoreAllTooManyRecipients() throws Exception {
+        final NotificationResource resource = new NotificationResource(store,
+                2);
+        final Notification notification = Notification.builder()
+                .withCategory("test-category").withMessage("testing 1 2 3")
+                .build();
+        final List<BulkNotification> request = ImmutableList.of(
+                new BulkNotification(ImmutableList.of("user1", "user2"),
+                        notification),
+                new BulkNotification("user3", notification));
+        final InputStream input = new ByteArrayInputStream(
+                MAPPER.writeValueAsBytes(request));
+
+        try {
+            resource.addAll(input);
+            failBecauseExceptionWasNotThrown(NotificationException.class);
+        } catch (NotificationException e) {
+            assertThat(e.getResponse().getStatus()).isEqualTo(413);
+        }
+
+        verify(store, never()).storeAll(any());
+    }
+
+    @Test
+    public void testStoreAllMalformed() throws Exception {
+        final Response response = resources
+                .target("/v1/notifications")
+                .request(MediaType.APPLICATION_JSON)
+                .post(Entity.json("[{\"recipients\": "));
+
+        verify(store, never()).storeAll(any());
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    private NotificationSnapshot stubFetch(final boolean cursor,
+            final UserNotifications notifications) {
+        final NotificationList list = new NotificationList();
+        list.addNotifications(notifications.getNotifications());
+        final NotificationSnapshot snapshot = new NotificationSnapshot("test",
+                null, Optional.of(list), cursor, Optional.empty(),
+                RulePlan.EMPTY);
+        when(store.fetchSnapshotAsync("test", cursor))
+                .thenReturn(CompletableFuture.completedFuture(snapshot));
+        when(store.fetchPageSnapshotAsync(eq("test"), eq(cursor), any(),
+                anyBoolean(), anyInt()))
+                        .thenReturn(CompletableFuture.completedFuture(snapshot));
+        when(store.resolve(snapshot)).thenReturn(Optional.of(notifications));
+        when(store.resolvePage(eq(snapshot), any(), anyBoolean(), anyInt()))
+                .thenAnswer(invocation -> Optional.of(NotificationPage.of(
+                        notifications, invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3))));
+        return snapshot;
+    }
+
+    /**
+     * Fetch the notifications before and after a change within the same
+     * second, and assert that the second fetch is not treated as unmodified
+     * when the client sends back the validators from the first.
+     */
+    private void assertFetchModified(
+            final ImmutableSortedSet<Notification> before,
+            final ImmutableSortedSet<Notification> after) throws Exception {
+        final NotificationList beforeList = new NotificationList();
+        beforeList.addNotifications(before);
+        final NotificationList afterList = new NotificationList();
+        afterList.addNotifications(after);
+        final NotificationSnapshot beforeSnapshot = new NotificationSnapshot(
+                "test", null, Optional.of(beforeList), true, Optional.empty(),
+                RulePlan.EMPTY);
+        final NotificationSnapshot afterSnapshot = new NotificationSnapshot(
+                "test", null, Optional.of(afterList), true, Optional.empty(),
+                RulePlan.EMPTY);
+        when(store.fetchSnapshotAsync("test", true)).thenReturn(
+                CompletableFuture.completedFuture(beforeSnapshot),
+                CompletableFuture.completedFuture(afterSnapshot));
+        when(store.resolve(beforeSnapshot))
+                .thenReturn(Optional.of(new UserNotifications(before)));
+        when(store.resolve(afterSnapshot))
+                .thenReturn(Optional.of(new UserNotifications(after)));
+
+        final Response first = resources.target("/v1/notifications/test")
+                .request(MediaType.APPLICATION_JSON).get();
+        final EntityTag entityTag = first.getEntityTag();
+        final String lastModified = first
+                .getHeaderString(HttpHeaders.LAST_MODIFIED);
+
+        final Response response = resources
+                .target("/v1/notifications/test")
+                .request(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified).get();
+
+        assertThat(lastModified).isNotNull();
+        assertThat(response.getHeaderString(HttpHeaders.LAST_MODIFIED))
+                .isEqualTo(lastModified);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getEntityTag()).isNotEqualTo(entityTag);
+        verify(store).resolve(afterSnapshot);
+        verify(store, never()).notModified(any());
+    }
+
     private Notification createNotification(final long id) {
         return Notification.builder().withId(id).build();
     }
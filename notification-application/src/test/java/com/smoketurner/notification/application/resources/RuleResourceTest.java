@@ -36,14 +36,19 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.ProtobufConverter;
 import com.smoketurner.notification.api.Rule;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.RuleMapPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.RulePB;
 import com.smoketurner.notification.application.exceptions.NotificationExceptionMapper;
 import com.smoketurner.notification.application.exceptions.NotificationStoreException;
 import com.smoketurner.notification.application.filter.CharsetResponseFilter;
 import com.smoketurner.notification.application.store.RuleStore;
 import io.dropwizard.jackson.Jackson;
 import io.dropwizard.jersey.errors.ErrorMessage;
+import io.dropwizard.jersey.protobuf.ProtocolBufferMediaType;
 import io.dropwizard.testing.junit.ResourceTestRule;
+import io.dropwizard.util.Duration;
 
 public class RuleResourceTest {
 
@@ -54,6 +59,7 @@ public class RuleResourceTest {
     public static final ResourceTestRule resources = ResourceTestRule.builder()
             .addResource(new RuleResource(store))
             .addProvider(new CharsetResponseFilter())
+            .addProvider(new NotificationProtobufProvider())
             .addProvider(new NotificationExceptionMapper()).build();
 
     @After
@@ -100,6 +106,27 @@ public class RuleResourceTest {
                 "callback(" + MAPPER.writeValueAsString(expected) + ")");
     }
 
+    @Test
+    public void testFetchProtobuf() throws Exception {
+        final Map<String, Rule> expected = ImmutableMap.of("follow",
+                Rule.builder().withMaxSize(3).build(), "like",
+                Rule.builder().withMaxDuration(Duration.hours(3))
+                        .withMatchOn("message_id").build());
+
+        when(store.fetch()).thenReturn(Optional.of(expected));
+
+        final Response response = resources.client().target("/v1/rules")
+                .request(ProtocolBufferMediaType.APPLICATION_PROTOBUF).get();
+        final RuleMapPB actual = RuleMapPB
+                .parseFrom(response.readEntity(byte[].class));
+
+        verify(store).fetch();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE))
+                .isEqualTo(ProtocolBufferMediaType.APPLICATION_PROTOBUF);
+        assertThat(ProtobufConverter.fromProto(actual)).isEqualTo(expected);
+    }
+
     @Test
     public void testFetchNotFound() throws Exception {
         when(store.fetch()).thenReturn(Optional.empty());
@@ -150,6 +177,36 @@ public class RuleResourceTest {
         assertThat(actual.getCode()).isEqualTo(400);
     }
 
+    @Test
+    public void testStoreProtobuf() throws Exception {
+        final Rule rule = Rule.builder().withMaxSize(3)
+                .withMaxDuration(Duration.minutes(10)).build();
+
+        final Response response = resources.client().target("/v1/rules/follow")
+                .request(MediaType.APPLICATION_JSON)
+                .put(Entity.entity(
+                        ProtobufConverter.toProto(rule).toByteArray(),
+                        ProtocolBufferMediaType.APPLICATION_PROTOBUF));
+
+        verify(store).store("follow", rule);
+        assertThat(response.getStatus()).isEqualTo(204);
+    }
+
+    @Test
+    public void testStoreInvalidProtobuf() throws Exception {
+        final RulePB rule = RulePB.newBuilder().setMaxDuration("10").build();
+
+        final Response response = resources.client().target("/v1/rules/follow")
+                .request(MediaType.APPLICATION_JSON)
+                .put(Entity.entity(rule.toByteArray(),
+                        ProtocolBufferMediaType.APPLICATION_PROTOBUF));
+        final ErrorMessage actual = response.readEntity(ErrorMessage.class);
+
+        verify(store, never()).store(anyString(), any(Rule.class));
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(actual.getCode()).isEqualTo(400);
+    }
+
     @Test
     public void testStoreException() throws Exception {
         doThrow(new NotificationStoreException()).when(store).store(anyString(),
@@ -46,4 +46,38 @@ public class CursorUpdateTest {
         final CursorObject actual = update.apply(null);
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    public void testDoesNotMoveCursorBack() {
+        final CursorUpdate update = new CursorUpdate("test-notifications",
+                1L);
+
+        final CursorObject original = new CursorObject("test-notifications",
+                12345L);
+
+        final CursorObject expected = new CursorObject("test-notifications",
+                12345L);
+
+        final CursorObject actual = update.apply(original);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(update.isModified()).isFalse();
+    }
+
+    @Test
+    public void testSameValueIsNotModified() {
+        final CursorUpdate update = new CursorUpdate("test-notifications",
+                12345L);
+
+        update.apply(new CursorObject("test-notifications", 12345L));
+        assertThat(update.isModified()).isFalse();
+    }
+
+    @Test
+    public void testNewerValueIsModified() {
+        final CursorUpdate update = new CursorUpdate("test-notifications",
+                12345L);
+
+        update.apply(new CursorObject("test-notifications", 1L));
+        assertThat(update.isModified()).isTrue();
+    }
 }
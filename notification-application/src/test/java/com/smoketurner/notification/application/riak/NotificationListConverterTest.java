@@ -25,6 +25,8 @@ import com.basho.riak.client.core.util.BinaryValue;
 import com.smoketurner.notification.api.Notification;
 import com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB;
 import com.smoketurner.notification.application.protos.NotificationProtos.NotificationPB;
+import com.smoketurner.notification.application.store.CompactNotificationListCodec;
+import com.smoketurner.notification.application.store.NotificationListCodec;
 
 public class NotificationListConverterTest {
 
@@ -72,4 +74,25 @@ public class NotificationListConverterTest {
                 "application/x-protobuf");
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    public void testCompactFormat() throws Exception {
+        final NotificationListCodec codec = new NotificationListCodec(
+                NotificationListCodec.Format.COMPACT);
+        final NotificationListConverter compact = new NotificationListConverter(
+                codec);
+        final NotificationListObject expected = new NotificationListObject();
+        expected.addNotification(Notification.builder().withId(1L)
+                .withCategory("test-category").withMessage("this is a test")
+                .build());
+
+        // both converters read both formats
+        assertThat(converter.toDomain(
+                BinaryValue.create(codec.encode(expected)),
+                CompactNotificationListCodec.CONTENT_TYPE)).isEqualTo(expected);
+        assertThat(compact.toDomain(
+                BinaryValue.create(
+                        new NotificationListCodec().encode(expected)),
+                "application/x-protobuf")).isEqualTo(expected);
+    }
 }
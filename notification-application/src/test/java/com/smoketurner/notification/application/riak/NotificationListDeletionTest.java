@@ -17,13 +17,13 @@ package com.smoketurner.notification.application.riak;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.Test;
-import com.google.common.collect.ImmutableList;
+import com.smoketurner.notification.application.core.LongSet;
 
 public class NotificationListDeletionTest {
 
     @Test
     public void testDeletesFromNotification() {
-        final ImmutableList<Long> ids = ImmutableList.of(1L, 2L, 3L);
+        final LongSet ids = LongSet.of(1L, 2L, 3L);
         final NotificationListDeletion update = new NotificationListDeletion(
                 ids);
 
@@ -39,7 +39,7 @@ public class NotificationListDeletionTest {
 
     @Test
     public void testNoOriginal() {
-        final ImmutableList<Long> ids = ImmutableList.of(1L, 2L, 3L);
+        final LongSet ids = LongSet.of(1L, 2L, 3L);
         final NotificationListDeletion update = new NotificationListDeletion(
                 ids);
 
@@ -16,78 +16,32 @@
 package com.smoketurner.notification.application.riak;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import java.util.SortedSet;
-import org.junit.Before;
 import org.junit.Test;
-import com.google.common.collect.ImmutableList;
+import com.basho.riak.client.api.cap.BasicVClock;
 import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.store.NotificationList;
 
 public class NotificationListObjectTest {
 
-    private NotificationListObject list;
-
-    @Before
-    public void setUp() {
-        list = new NotificationListObject("test");
-    }
-
-    @Test
-    public void testMaximumNumberOfNotifications() {
-        for (long i = 0; i <= 2000; i++) {
-            list.addNotification(createNotification(i));
-        }
-
-        final SortedSet<Notification> actual = list.getNotifications();
-        assertThat(actual).hasSize(1000);
-        assertThat(actual.first().getId().get()).isEqualTo(2000L);
-        assertThat(actual.last().getId().get()).isEqualTo(1001L);
-    }
-
-    @Test
-    public void testMaximumNumberOfNotificationsCollection() {
-        final ImmutableList.Builder<Notification> builder = ImmutableList
-                .builder();
-        for (long i = 0; i <= 2000; i++) {
-            builder.add(createNotification(i));
-        }
-
-        list.addNotifications(builder.build());
-
-        final SortedSet<Notification> actual = list.getNotifications();
-        assertThat(actual).hasSize(1000);
-        assertThat(actual.first().getId().get()).isEqualTo(2000L);
-        assertThat(actual.last().getId().get()).isEqualTo(1001L);
-    }
-
-    @Test
-    public void testNoDuplicateNotifications() {
-        for (long i = 0; i < 5; i++) {
-            list.addNotification(createNotification(1L));
-        }
-
-        final SortedSet<Notification> actual = list.getNotifications();
-        assertThat(actual).hasSize(1);
-        assertThat(actual.first().getId().get()).isEqualTo(1L);
-    }
-
-    @Test
-    public void testEquals() {
-        final NotificationListObject list = new NotificationListObject();
-        assertThat(list.equals(null)).isFalse();
-    }
-
-    @Test
-    public void testDeleteNotification() {
-        list.deleteNotification(1L);
-        assertThat(list.getDeletedIds()).contains(1L);
-    }
-
     @Test
     public void testGetKey() {
+        final NotificationListObject list = new NotificationListObject("test");
         assertThat(list.getKey()).isEqualTo("test");
     }
 
-    private Notification createNotification(final long id) {
-        return Notification.builder().withId(id).build();
+    @Test
+    public void testEquals() {
+        final NotificationListObject list1 = new NotificationListObject("test");
+        list1.addNotification(Notification.builder().withId(1L).build());
+        final NotificationListObject list2 = new NotificationListObject("test");
+        list2.addNotification(Notification.builder().withId(1L).build());
+        assertThat(list1).isEqualTo(list2);
+
+        list2.setVClock(new BasicVClock(new byte[] { 1 }));
+        assertThat(list1).isNotEqualTo(list2);
+
+        final NotificationList plain = new NotificationList(list1);
+        assertThat(list1).isNotEqualTo(plain);
+        assertThat(plain).isNotEqualTo(list1);
     }
 }
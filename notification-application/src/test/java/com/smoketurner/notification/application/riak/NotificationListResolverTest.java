@@ -19,9 +19,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
-import com.google.common.collect.Lists;
 import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.IdGenerator;
+import com.smoketurner.notification.application.core.LongSet;
+import io.dropwizard.util.Duration;
 
 public class NotificationListResolverTest {
 
@@ -51,10 +54,114 @@ public class NotificationListResolverTest {
         final List<NotificationListObject> siblings = Collections
                 .singletonList(list);
         final NotificationListObject actual = resolver.resolve(siblings);
-        assertThat(actual.getDeletedIds()).isEmpty();
+        assertThat(actual.getDeletedIds().toArray()).containsOnly(1L);
         assertThat(actual.getNotifications()).isEmpty();
     }
 
+    @Test
+    public void testSiblingsKeepShards() throws Exception {
+        final NotificationListObject list1 = new NotificationListObject("test");
+        list1.addNotification(createNotification(1L));
+        list1.setShards(4);
+
+        final NotificationListObject list2 = new NotificationListObject("test");
+        list2.addNotification(createNotification(2L));
+
+        final NotificationListObject actual = resolver
+                .resolve(Arrays.asList(list2, list1));
+        assertThat(actual.getShards()).isEqualTo(4);
+        assertThat(actual.getNotifications()).containsExactly(
+                createNotification(2L), createNotification(1L));
+    }
+
+    @Test
+    public void testSiblingsKeepSegments() throws Exception {
+        final NotificationListObject list1 = new NotificationListObject("test");
+        list1.addNotification(createNotification(10L));
+        list1.getSegments().add(5L);
+
+        final NotificationListObject list2 = new NotificationListObject("test");
+        list2.addNotification(createNotification(11L));
+        list2.getSegments().add(8L);
+
+        final NotificationListObject actual = resolver
+                .resolve(Arrays.asList(list2, list1));
+        assertThat(actual.getSegments().toArray()).containsOnly(5L, 8L);
+    }
+
+    @Test
+    public void testSiblingWithDeletedNotification() throws Exception {
+        final NotificationListObject list1 = new NotificationListObject("test");
+        list1.addNotification(createNotification(1L));
+        list1.deleteNotification(1L);
+
+        final NotificationListObject resolved = resolver
+                .resolve(Collections.singletonList(list1));
+
+        // a sibling written from a copy of the list made before the delete
+        final NotificationListObject list2 = new NotificationListObject("test");
+        list2.addNotification(createNotification(1L));
+        list2.addNotification(createNotification(2L));
+
+        final NotificationListObject actual = resolver
+                .resolve(Arrays.asList(resolved, list2));
+        assertThat(actual.getNotifications())
+                .containsExactly(createNotification(2L));
+        assertThat(actual.getDeletedIds().toArray()).containsOnly(1L);
+    }
+
+    @Test
+    public void testTombstoneAge() throws Exception {
+        final NotificationListResolver resolver = new NotificationListResolver(
+                Duration.minutes(1));
+        final NotificationListObject list = new NotificationListObject("test");
+        list.addNotification(createNotification(idAt(10, 0)));
+        list.deleteNotifications(LongSet.of(idAt(1, 0), idAt(8, 59),
+                idAt(9, 0), idAt(9, 30)));
+
+        final NotificationListObject actual = resolver
+                .resolve(Collections.singletonList(list));
+        assertThat(actual.getNotifications())
+                .containsExactly(createNotification(idAt(10, 0)));
+        assertThat(actual.getDeletedIds().toArray()).containsOnly(idAt(9, 0),
+                idAt(9, 30));
+    }
+
+    @Test
+    public void testStaleSiblingAfterCompaction() throws Exception {
+        final NotificationListResolver resolver = new NotificationListResolver(
+                Duration.minutes(1));
+
+        // more recent deletes than the list can hold notifications are all
+        // kept, as long as they are within the tombstone age
+        final NotificationListObject list = new NotificationListObject("test");
+        list.addNotification(createNotification(idAt(10, 0)));
+        for (int i = 0; i < 1500; i++) {
+            list.deleteNotification(idAt(9, 30) + i);
+        }
+        final NotificationListObject compacted = resolver
+                .resolve(Collections.singletonList(list));
+        assertThat(compacted.getDeletedIds().size()).isEqualTo(1500);
+
+        // a sibling written from an older copy of the list, before the
+        // notifications were deleted
+        final NotificationListObject stale = new NotificationListObject("test");
+        stale.addNotification(createNotification(idAt(9, 30)));
+        stale.addNotification(createNotification(idAt(9, 30) + 1499));
+
+        final NotificationListObject actual = resolver
+                .resolve(Arrays.asList(compacted, stale));
+        assertThat(actual.getNotifications())
+                .containsExactly(createNotification(idAt(10, 0)));
+        assertThat(actual.getDeletedIds().size()).isEqualTo(1500);
+
+        // every sibling drops the same deleted IDs, whichever is compacted
+        // first
+        final NotificationListObject reversed = resolver
+                .resolve(Arrays.asList(stale, compacted));
+        assertThat(reversed).isEqualTo(actual);
+    }
+
     @Test
     public void testMultipleSibling() throws Exception {
         final Notification n1 = createNotification(1L);
@@ -96,7 +203,7 @@ public class NotificationListResolverTest {
         assertThat(actual).isEqualTo(expected);
         assertThat(actual.getNotifications()).containsExactly(n6, n5, n4, n3,
                 n2, n1);
-        assertThat(actual.getDeletedIds()).isEmpty();
+        assertThat(actual.getDeletedIds().toArray()).isEmpty();
     }
 
     @Test
@@ -125,7 +232,7 @@ public class NotificationListResolverTest {
         list3.addNotification(n6);
         list3.addNotification(n2);
         list3.addNotification(n5);
-        list3.deleteNotifications(Arrays.asList(3L, 6L));
+        list3.deleteNotifications(LongSet.of(3L, 6L));
 
         final List<NotificationListObject> siblings = Arrays.asList(list1,
                 list2, list3);
@@ -135,40 +242,59 @@ public class NotificationListResolverTest {
         expected.addNotification(n1);
         expected.addNotification(n2);
         expected.addNotification(n5);
+        expected.deleteNotifications(LongSet.of(3L, 4L, 6L));
 
         final NotificationListObject actual = resolver.resolve(siblings);
         assertThat(actual).isEqualTo(expected);
         assertThat(actual.getNotifications()).containsExactly(n5, n2, n1);
-        assertThat(actual.getDeletedIds()).isEmpty();
+        assertThat(actual.getDeletedIds().toArray()).containsOnly(3L, 4L, 6L);
     }
 
     @Test
-    public void testRemoveNotifications() throws Exception {
-        final List<Notification> notifications = Lists.newArrayList(
-                createNotification(1L), createNotification(2L),
-                createNotification(3L), Notification.builder().build());
+    public void testSiblingsKeepFirstDuplicate() throws Exception {
+        final Notification first = Notification.builder().withId(2L)
+                .withMessage("first").build();
+        final Notification second = Notification.builder().withId(2L)
+                .withMessage("second").build();
 
-        final List<Notification> expected = Arrays
-                .asList(createNotification(2L), createNotification(3L));
+        final NotificationListObject list1 = new NotificationListObject("test");
+        list1.addNotification(first);
+        list1.addNotification(createNotification(1L));
+
+        final NotificationListObject list2 = new NotificationListObject("test");
+        list2.addNotification(second);
+        list2.addNotification(createNotification(3L));
 
-        NotificationListResolver.removeNotifications(notifications,
-                Lists.newArrayList(1L));
-        assertThat(notifications).containsExactlyElementsOf(expected);
+        final NotificationListObject actual = resolver
+                .resolve(Arrays.asList(list1, list2));
+        assertThat(actual.getNotifications()).extracting(n -> n.getId(0L))
+                .containsExactly(3L, 2L, 1L);
+        assertThat(actual.getNotifications()).extracting(
+                Notification::getMessage).containsExactly(null, "first", null);
     }
 
     @Test
-    public void testRemoveNotificationsEmpty() throws Exception {
-        final List<Notification> notifications = Lists.newArrayList(
-                createNotification(1L), createNotification(2L),
-                createNotification(3L), Notification.builder().build());
-
-        final List<Notification> expected = Arrays.asList(
-                createNotification(1L), createNotification(2L),
-                createNotification(3L));
-
-        NotificationListResolver.removeNotifications(notifications,
-                Lists.newArrayList());
-        assertThat(notifications).containsExactlyElementsOf(expected);
+    public void testSiblingsFillListAfterDeletes() throws Exception {
+        final NotificationListObject list1 = new NotificationListObject("test");
+        final NotificationListObject list2 = new NotificationListObject("test");
+        for (long i = 1; i <= 1000; i++) {
+            list1.addNotification(createNotification(i * 2));
+            list2.addNotification(createNotification(i * 2 - 1));
+        }
+        list2.deleteNotifications(LongSet.of(2000L, 1999L));
+
+        final NotificationListObject actual = resolver
+                .resolve(Arrays.asList(list1, list2));
+        assertThat(actual.getNotifications()).hasSize(1000);
+        assertThat(actual.getNotifications().first().getId(0L))
+                .isEqualTo(1998L);
+        assertThat(actual.getNotifications().last().getId(0L))
+                .isEqualTo(999L);
+    }
+
+    private static long idAt(final int minutes, final int seconds) {
+        return IdGenerator.idSpan(
+                TimeUnit.MINUTES.toMillis(minutes) + seconds * 1000L);
     }
 
     private Notification createNotification(final long id) {
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+
+public class NotificationListSealTest {
+
+    @Test
+    public void testRemovesSealedNotifications() {
+        final NotificationListSeal update = new NotificationListSeal(2L,
+                LongSet.of(1L, 2L), 20);
+
+        final NotificationListObject original = new NotificationListObject();
+        original.addNotification(createNotification(1L));
+        original.addNotification(createNotification(2L));
+        original.addNotification(createNotification(3L));
+
+        final NotificationListObject actual = update.apply(original);
+
+        assertThat(actual.getNotifications())
+                .containsExactly(createNotification(3L));
+        assertThat(actual.getSegments().toArray()).containsOnly(2L);
+    }
+
+    @Test
+    public void testKeepsNotificationsAddedSinceRead() {
+        final NotificationListSeal update = new NotificationListSeal(2L,
+                LongSet.of(2L), 20);
+
+        final NotificationListObject original = new NotificationListObject();
+        original.addNotification(createNotification(1L));
+        original.addNotification(createNotification(2L));
+
+        final NotificationListObject actual = update.apply(original);
+
+        assertThat(actual.getNotifications())
+                .containsExactly(createNotification(1L));
+    }
+
+    @Test
+    public void testNoOriginal() {
+        final NotificationListSeal update = new NotificationListSeal(2L,
+                LongSet.of(1L, 2L), 20);
+
+        final NotificationListObject actual = update.apply(null);
+
+        assertThat(actual.getNotifications()).isEmpty();
+        assertThat(actual.getSegments().toArray()).containsOnly(2L);
+    }
+
+    @Test
+    public void testDropsOldestSegments() {
+        final NotificationListSeal update = new NotificationListSeal(40L,
+                LongSet.of(40L), 2);
+
+        final NotificationListObject original = new NotificationListObject();
+        original.getSegments().addAll(LongSet.of(10L, 20L, 30L));
+
+        final NotificationListObject actual = update.apply(original);
+
+        assertThat(actual.getSegments().toArray()).containsOnly(30L, 40L);
+    }
+
+    private static Notification createNotification(final long id) {
+        return Notification.builder().withId(id).withCategory("test")
+                .build();
+    }
+}
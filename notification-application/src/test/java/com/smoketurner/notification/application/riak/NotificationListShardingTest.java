@@ -0,0 +1,65 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+
+public class NotificationListShardingTest {
+
+    @Test
+    public void testSetsShards() {
+        final NotificationListSharding update = new NotificationListSharding(
+                4);
+
+        final NotificationListObject original = new NotificationListObject();
+
+        final NotificationListObject expected = new NotificationListObject();
+        expected.setShards(4);
+
+        final NotificationListObject actual = update.apply(original);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(update.isModified()).isTrue();
+    }
+
+    @Test
+    public void testNoOriginal() {
+        final NotificationListSharding update = new NotificationListSharding(
+                4);
+
+        final NotificationListObject expected = new NotificationListObject();
+        expected.setShards(4);
+
+        final NotificationListObject actual = update.apply(null);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void testDoesNotReduceShards() {
+        final NotificationListSharding update = new NotificationListSharding(
+                4);
+
+        final NotificationListObject original = new NotificationListObject();
+        original.setShards(8);
+
+        final NotificationListObject actual = update.apply(original);
+
+        assertThat(actual.getShards()).isEqualTo(8);
+        assertThat(update.isModified()).isFalse();
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+
+public class NotificationListUpdateTest {
+
+    @Test
+    public void testAddsAndDeletes() {
+        final Notification n1 = Notification.builder().withId(1L).build();
+        final Notification n2 = Notification.builder().withId(2L).build();
+
+        final NotificationListUpdate update = new NotificationListUpdate(
+                Arrays.asList(n1, n2), LongSet.of(3L, 4L));
+
+        final NotificationListObject original = new NotificationListObject();
+
+        final NotificationListObject expected = new NotificationListObject();
+        expected.addNotification(n1);
+        expected.addNotification(n2);
+        expected.deleteNotifications(LongSet.of(3L, 4L));
+
+        final NotificationListObject actual = update.apply(original);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void testNoOriginal() {
+        final Notification notification = Notification.builder().withId(1L)
+                .build();
+
+        final NotificationListUpdate update = new NotificationListUpdate(
+                Collections.singletonList(notification), new LongSet());
+
+        final NotificationListObject expected = new NotificationListObject();
+        expected.addNotification(notification);
+
+        final NotificationListObject actual = update.apply(null);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+}
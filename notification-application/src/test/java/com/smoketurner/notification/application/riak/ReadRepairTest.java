@@ -0,0 +1,106 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.Before;
+import org.junit.Test;
+import com.basho.riak.client.api.RiakClient;
+import com.basho.riak.client.api.cap.BasicVClock;
+import com.basho.riak.client.api.commands.kv.FetchValue;
+import com.basho.riak.client.api.commands.kv.StoreValue;
+import com.basho.riak.client.core.RiakFuture;
+import com.basho.riak.client.core.query.Location;
+import com.basho.riak.client.core.query.Namespace;
+
+public class ReadRepairTest {
+
+    private static final Location LOCATION = new Location(
+            new Namespace("cursors"), "test-notifications");
+    private final RiakClient client = mock(RiakClient.class);
+    private final FetchValue.Response response = mock(
+            FetchValue.Response.class);
+    private final CursorObject cursor = new CursorObject("test-notifications",
+            1L);
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        when(response.getVectorClock())
+                .thenReturn(new BasicVClock(new byte[] { 1 }));
+        when(client.executeAsync(any(StoreValue.class)))
+                .thenReturn(mock(RiakFuture.class));
+    }
+
+    @Test
+    public void testRepairsSiblings() throws Exception {
+        final ReadRepair repair = new ReadRepair(client, "test", 2, 100);
+        when(response.getNumberOfValues()).thenReturn(3);
+
+        assertThat(repair.repair(LOCATION, response, cursor)).isTrue();
+        verify(client).executeAsync(any(StoreValue.class));
+    }
+
+    @Test
+    public void testIgnoresFewSiblings() throws Exception {
+        final ReadRepair repair = new ReadRepair(client, "test", 2, 100);
+        when(response.getNumberOfValues()).thenReturn(2);
+
+        assertThat(repair.repair(LOCATION, response, cursor)).isFalse();
+        verify(client, never()).executeAsync(any(StoreValue.class));
+    }
+
+    @Test
+    public void testIgnoresMissingVClock() throws Exception {
+        final ReadRepair repair = new ReadRepair(client, "test", 2, 100);
+        when(response.getNumberOfValues()).thenReturn(3);
+        when(response.getVectorClock()).thenReturn(null);
+
+        assertThat(repair.repair(LOCATION, response, cursor)).isFalse();
+        verify(client, never()).executeAsync(any(StoreValue.class));
+    }
+
+    @Test
+    public void testRateLimited() throws Exception {
+        final ReadRepair repair = new ReadRepair(client, "test", 2, 0.01);
+        when(response.getNumberOfValues()).thenReturn(3);
+
+        assertThat(repair.repair(LOCATION, response, cursor)).isTrue();
+        assertThat(repair.repair(LOCATION, response, cursor)).isFalse();
+        verify(client, times(1)).executeAsync(any(StoreValue.class));
+    }
+
+    @Test
+    public void testStoreFailure() throws Exception {
+        final ReadRepair repair = new ReadRepair(client, "test", 2, 100);
+        when(response.getNumberOfValues()).thenReturn(3);
+        when(client.executeAsync(any(StoreValue.class)))
+                .thenThrow(new IllegalStateException());
+
+        assertThat(repair.repair(LOCATION, response, cursor)).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() throws Exception {
+        new ReadRepair(client, "test", 0, 100);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.riak;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.Test;
+import com.basho.riak.client.core.RiakFuture;
+import com.basho.riak.client.core.RiakFutureListener;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+public class RiakFuturesTest {
+
+    @SuppressWarnings("unchecked")
+    private final RiakFuture<String, String> future = mock(RiakFuture.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSuccess() throws Exception {
+        when(future.isSuccess()).thenReturn(true);
+        when(future.getNow()).thenReturn("value");
+        doAnswer(invocation -> {
+            invocation.<RiakFutureListener<String, String>>getArgument(0)
+                    .handle(future);
+            return null;
+        }).when(future).addListener(any(RiakFutureListener.class));
+
+        final CompletableFuture<String> actual = RiakFutures
+                .toCompletableFuture(future);
+        assertThat(actual.get()).isEqualTo("value");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailure() throws Exception {
+        final Exception cause = new Exception("failed");
+        when(future.isSuccess()).thenReturn(false);
+        when(future.cause()).thenReturn(cause);
+        doAnswer(invocation -> {
+            invocation.<RiakFutureListener<String, String>>getArgument(0)
+                    .handle(future);
+            return null;
+        }).when(future).addListener(any(RiakFutureListener.class));
+
+        final CompletableFuture<String> actual = RiakFutures
+                .toCompletableFuture(future);
+        try {
+            actual.get();
+            failBecauseExceptionWasNotThrown(ExecutionException.class);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause())
+                    .isInstanceOf(NotificationStoreException.class)
+                    .hasCause(cause);
+        }
+    }
+}
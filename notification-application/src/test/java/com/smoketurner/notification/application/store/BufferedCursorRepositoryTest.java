@@ -0,0 +1,128 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
+import org.junit.Test;
+import io.dropwizard.util.Duration;
+
+public class BufferedCursorRepositoryTest {
+
+    private static final String TEST_KEY = "test-notifications";
+    private final CursorRepository delegate = mock(CursorRepository.class);
+    private final ScheduledExecutorService executor = Executors
+            .newSingleThreadScheduledExecutor();
+    private final BufferedCursorRepository repository = new BufferedCursorRepository(
+            delegate, executor, Duration.minutes(1));
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFlushesLargestValue() throws Exception {
+        repository.store(TEST_KEY, 2L);
+        repository.store(TEST_KEY, 5L);
+        repository.store(TEST_KEY, 3L);
+        repository.store("other-notifications", 1L);
+        verify(delegate, never()).store(anyString(), anyLong());
+
+        repository.flush();
+        verify(delegate).store(TEST_KEY, 5L);
+        verify(delegate).store("other-notifications", 1L);
+
+        // nothing is written again until the cursor is updated
+        repository.flush();
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    public void testFlushesOnInterval() throws Exception {
+        final BufferedCursorRepository scheduled = new BufferedCursorRepository(
+                delegate, executor, Duration.milliseconds(10));
+        scheduled.initialize();
+        verify(delegate).initialize();
+
+        scheduled.store(TEST_KEY, 1L);
+        verify(delegate, timeout(1000)).store(TEST_KEY, 1L);
+    }
+
+    @Test
+    public void testFetchIncludesBufferedValue() throws Exception {
+        when(delegate.fetch(TEST_KEY)).thenReturn(Optional.of(3L));
+        when(delegate.fetchAsync(TEST_KEY))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(3L)));
+
+        assertThat(repository.fetch(TEST_KEY)).contains(3L);
+
+        repository.store(TEST_KEY, 5L);
+        assertThat(repository.fetch(TEST_KEY)).contains(5L);
+        assertThat(repository.fetchAsync(TEST_KEY).get()).contains(5L);
+
+        // a stored value newer than the buffered one wins
+        when(delegate.fetch(TEST_KEY)).thenReturn(Optional.of(7L));
+        assertThat(repository.fetch(TEST_KEY)).contains(7L);
+    }
+
+    @Test
+    public void testFetchMissingCursor() throws Exception {
+        when(delegate.fetch(TEST_KEY)).thenReturn(Optional.empty());
+        assertThat(repository.fetch(TEST_KEY)).isEmpty();
+
+        repository.store(TEST_KEY, 5L);
+        assertThat(repository.fetch(TEST_KEY)).contains(5L);
+    }
+
+    @Test
+    public void testDeleteDiscardsBufferedValue() throws Exception {
+        repository.store(TEST_KEY, 5L);
+        repository.delete(TEST_KEY);
+        verify(delegate).delete(TEST_KEY);
+
+        repository.flush();
+        verify(delegate, never()).store(anyString(), anyLong());
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() throws Exception {
+        doThrow(new RuntimeException()).doNothing().when(delegate)
+                .store(TEST_KEY, 5L);
+        repository.store(TEST_KEY, 5L);
+        repository.flush();
+
+        // the failed value is kept as it is still the newest
+        repository.store(TEST_KEY, 4L);
+        repository.flush();
+        verify(delegate, times(2)).store(TEST_KEY, 5L);
+        verify(delegate, never()).store(TEST_KEY, 4L);
+    }
+}
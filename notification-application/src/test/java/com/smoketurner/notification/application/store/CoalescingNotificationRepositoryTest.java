@@ -0,0 +1,201 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import io.dropwizard.util.Duration;
+
+public class CoalescingNotificationRepositoryTest {
+
+    private static final String TEST_USER = "test";
+    private final NotificationRepository delegate = mock(
+            NotificationRepository.class);
+    private final ScheduledExecutorService scheduler = Executors
+            .newSingleThreadScheduledExecutor();
+    private final ExecutorService executor = Executors
+            .newSingleThreadExecutor();
+
+    @After
+    public void tearDown() throws Exception {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCoalescesWritesWithinWindow() throws Exception {
+        final CoalescingNotificationRepository repository = new CoalescingNotificationRepository(
+                delegate, scheduler, executor, Duration.milliseconds(100), 100);
+
+        final Notification n1 = Notification.builder().withId(1L).build();
+        final Notification n2 = Notification.builder().withId(2L).build();
+
+        final CompletableFuture<Notification> f1 = repository.add(TEST_USER,
+                n1);
+        final CompletableFuture<Notification> f2 = repository.add(TEST_USER,
+                n2);
+        final CompletableFuture<Void> f3 = repository.delete(TEST_USER,
+                LongSet.of(3L));
+
+        assertThat(f1.get(5, TimeUnit.SECONDS)).isEqualTo(n1);
+        assertThat(f2.get(5, TimeUnit.SECONDS)).isEqualTo(n2);
+        f3.get(5, TimeUnit.SECONDS);
+
+        verify(delegate).update(TEST_USER, Arrays.asList(n1, n2),
+                LongSet.of(3L));
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    public void testSeparateUsersAreNotCoalesced() throws Exception {
+        final CoalescingNotificationRepository repository = new CoalescingNotificationRepository(
+                delegate, scheduler, executor, Duration.milliseconds(10), 100);
+
+        final Notification n1 = Notification.builder().withId(1L).build();
+        final Notification n2 = Notification.builder().withId(2L).build();
+
+        repository.store("user1", n1);
+        repository.store("user2", n2);
+
+        verify(delegate).update("user1", Collections.singletonList(n1),
+                new LongSet());
+        verify(delegate).update("user2", Collections.singletonList(n2),
+                new LongSet());
+    }
+
+    @Test
+    public void testSlowWriteDoesNotDelayOtherBatches() throws Exception {
+        final ExecutorService writers = Executors.newFixedThreadPool(2);
+        final CoalescingNotificationRepository repository = new CoalescingNotificationRepository(
+                delegate, scheduler, writers, Duration.milliseconds(1), 100);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(delegate).update(eq("user1"), anyCollection(),
+                any(LongSet.class));
+
+        try {
+            final Notification n1 = Notification.builder().withId(1L).build();
+            final Notification n2 = Notification.builder().withId(2L).build();
+            final CompletableFuture<Notification> f1 = repository.add("user1",
+                    n1);
+            verify(delegate, timeout(1000)).update(eq("user1"),
+                    anyCollection(), any(LongSet.class));
+
+            assertThat(repository.add("user2", n2).get(1, TimeUnit.SECONDS))
+                    .isEqualTo(n2);
+            assertThat(f1.isDone()).isFalse();
+
+            latch.countDown();
+            assertThat(f1.get(5, TimeUnit.SECONDS)).isEqualTo(n1);
+        } finally {
+            latch.countDown();
+            writers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFlushesFullBatch() throws Exception {
+        final CoalescingNotificationRepository repository = new CoalescingNotificationRepository(
+                delegate, scheduler, executor, Duration.minutes(1), 2);
+
+        final Notification n1 = Notification.builder().withId(1L).build();
+        final Notification n2 = Notification.builder().withId(2L).build();
+        final Notification n3 = Notification.builder().withId(3L).build();
+
+        repository.add(TEST_USER, n1);
+        repository.add(TEST_USER, n2).get(5, TimeUnit.SECONDS);
+        repository.add(TEST_USER, n3);
+
+        verify(delegate).update(TEST_USER, Arrays.asList(n1, n2),
+                new LongSet());
+        verify(delegate, timeout(100).times(0)).update(eq(TEST_USER),
+                eq(Collections.singletonList(n3)), any(LongSet.class));
+    }
+
+    @Test
+    public void testRemoveAllDiscardsPendingBatch() throws Exception {
+        final CoalescingNotificationRepository repository = new CoalescingNotificationRepository(
+                delegate, scheduler, executor, Duration.milliseconds(50), 100);
+
+        final Notification n1 = Notification.builder().withId(1L).build();
+        final CompletableFuture<Notification> f1 = repository.add(TEST_USER,
+                n1);
+        repository.removeAll(TEST_USER);
+
+        assertThat(f1.get(5, TimeUnit.SECONDS)).isEqualTo(n1);
+        verify(delegate).removeAll(TEST_USER);
+
+        // the scheduled flush of the discarded batch doesn't write anything
+        verify(delegate, timeout(200).times(0)).update(eq(TEST_USER),
+                anyCollection(), any(LongSet.class));
+
+        final Notification n2 = Notification.builder().withId(2L).build();
+        repository.add(TEST_USER, n2).get(5, TimeUnit.SECONDS);
+        verify(delegate).update(TEST_USER, Collections.singletonList(n2),
+                new LongSet());
+    }
+
+    @Test
+    public void testStoreFailure() throws Exception {
+        final CoalescingNotificationRepository repository = new CoalescingNotificationRepository(
+                delegate, scheduler, executor, Duration.milliseconds(1), 100);
+
+        final NotificationStoreException expected = new NotificationStoreException();
+        doThrow(expected).when(delegate).update(any(String.class),
+                anyCollection(), any(LongSet.class));
+
+        final Notification n1 = Notification.builder().withId(1L).build();
+        try {
+            repository.store(TEST_USER, n1);
+            failBecauseExceptionWasNotThrown(NotificationStoreException.class);
+        } catch (NotificationStoreException e) {
+            assertThat(e).isSameAs(expected);
+        }
+
+        try {
+            repository.delete(TEST_USER, LongSet.of(1L)).get();
+            failBecauseExceptionWasNotThrown(ExecutionException.class);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isSameAs(expected);
+        }
+    }
+}
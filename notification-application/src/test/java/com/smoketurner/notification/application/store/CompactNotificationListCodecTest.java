@@ -0,0 +1,185 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+
+public class CompactNotificationListCodecTest {
+
+    private static final DateTime NOW = new DateTime("2017-06-01T12:00:00Z",
+            DateTimeZone.UTC);
+    private final CompactNotificationListCodec codec = new CompactNotificationListCodec();
+    private final NotificationListCodec protobuf = new NotificationListCodec();
+
+    @Test
+    public void testRoundTripSmall() throws Exception {
+        final NotificationList expected = createList(3);
+        expected.deleteNotification(100L);
+
+        final byte[] value = codec.encode(expected);
+        assertThat(CompactNotificationListCodec.isCompact(value)).isTrue();
+        // small lists are not deflated
+        assertThat(value[3]).isEqualTo((byte) 0);
+
+        final NotificationList actual = codec.decode(value);
+        assertThat(actual).isEqualTo(expected);
+        assertSameContents(actual, expected);
+    }
+
+    @Test
+    public void testRoundTripLarge() throws Exception {
+        final NotificationList expected = createList(1000);
+        expected.deleteNotifications(LongSet.of(5000L, 4000L, 3000L));
+
+        final byte[] value = codec.encode(expected);
+        assertThat(value[3]).isEqualTo((byte) 1);
+
+        final NotificationList actual = codec.decode(value);
+        assertThat(actual).isEqualTo(expected);
+        assertSameContents(actual, expected);
+    }
+
+    @Test
+    public void testRoundTripShards() throws Exception {
+        final NotificationList small = createList(3);
+        small.setShards(8);
+        assertThat(codec.decode(codec.encode(small)).getShards()).isEqualTo(8);
+
+        final NotificationList large = createList(1000);
+        large.setShards(8);
+        assertThat(codec.decode(codec.encode(large)).getShards()).isEqualTo(8);
+
+        // the shard count is only written for sharded lists
+        assertThat(codec.encode(small).length)
+                .isEqualTo(codec.encode(createList(3)).length + 1);
+    }
+
+    @Test
+    public void testRoundTripSegments() throws Exception {
+        final NotificationList small = createList(3);
+        small.getSegments().addAll(LongSet.of(100L, 200L, 300L));
+        assertThat(codec.decode(codec.encode(small))).isEqualTo(small);
+
+        // an unsharded list with segments still has a shard count
+        final NotificationList actual = codec
+                .decode(codec.encode(small));
+        assertThat(actual.getShards()).isEqualTo(0);
+        assertThat(actual.getSegments().toArray()).containsOnly(100L, 200L,
+                300L);
+    }
+
+    @Test
+    public void testRoundTripEmpty() throws Exception {
+        final NotificationList expected = new NotificationList();
+        assertThat(codec.decode(codec.encode(expected))).isEqualTo(expected);
+    }
+
+    @Test
+    public void testDecodeSkipsDeleted() throws Exception {
+        final NotificationList list = createList(5);
+        list.deleteNotifications(LongSet.of(2002L, 4004L, 9L));
+
+        final NotificationList actual = codec.decode(codec.encode(list));
+        assertThat(actual.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(5005L, 3003L, 1001L);
+        assertThat(actual.getDeletedIds().toArray()).containsOnly(2002L, 4004L, 9L);
+    }
+
+    @Test
+    public void testSmallerThanProtobuf() throws Exception {
+        final NotificationList list = createList(1000);
+        assertThat(codec.encode(list).length)
+                .isLessThan(protobuf.encode(list).length / 4);
+    }
+
+    @Test
+    public void testIsCompact() throws Exception {
+        assertThat(CompactNotificationListCodec
+                .isCompact(protobuf.encode(createList(3)))).isFalse();
+        assertThat(CompactNotificationListCodec.isCompact(new byte[0]))
+                .isFalse();
+    }
+
+    @Test
+    public void testDecodeCorrupt() throws Exception {
+        final byte[] value = codec.encode(createList(1000));
+        final byte[] truncated = Arrays.copyOf(value, value.length / 2);
+        try {
+            codec.decode(truncated);
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+        }
+
+        final byte[] small = codec.encode(createList(2));
+        small[4] = 127; // dictionary larger than the value
+        try {
+            codec.decode(small);
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+        }
+
+        small[2] = 2; // unknown version
+        try {
+            codec.decode(small);
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+        }
+    }
+
+    private static void assertSameContents(
+            final NotificationList actual,
+            final NotificationList expected) {
+        assertThat(describe(actual)).isEqualTo(describe(expected));
+    }
+
+    private static List<String> describe(final NotificationList list) {
+        return list.getNotifications().stream()
+                .map(n -> n.getId().get() + "|" + n.getCategory() + "|"
+                        + n.getMessage() + "|" + n.getCreatedAt() + "|"
+                        + n.getProperties())
+                .collect(Collectors.toList());
+    }
+
+    private static NotificationList createList(final int size) {
+        final NotificationList list = new NotificationList();
+        for (long i = 1; i <= size; i++) {
+            final ImmutableMap<String, String> properties;
+            if (i % 3 == 0) {
+                properties = ImmutableMap.of();
+            } else {
+                properties = ImmutableMap.of("first_name", "Bob", "user_id",
+                        String.valueOf(i % 7), "été", "☃");
+            }
+            list.addNotification(Notification.builder().withId(i * 1000 + i)
+                    .withCategory(i % 2 == 0 ? "new-follower" : "like")
+                    .withMessage("You have a new notification")
+                    .withCreatedAt(NOW.minusSeconds((int) (size - i) * 7))
+                    .withProperties(properties).build());
+        }
+        return list;
+    }
+}
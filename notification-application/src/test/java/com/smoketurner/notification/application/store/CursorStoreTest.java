@@ -20,9 +20,11 @@ import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Ignore;
 import org.junit.Test;
 import com.basho.riak.client.api.RiakClient;
@@ -30,13 +32,20 @@ import com.basho.riak.client.api.commands.buckets.StoreBucketProperties;
 import com.basho.riak.client.api.commands.kv.DeleteValue;
 import com.basho.riak.client.api.commands.kv.FetchValue;
 import com.basho.riak.client.api.commands.kv.UpdateValue;
+import com.smoketurner.notification.application.riak.RiakCursorRepository;
+import io.dropwizard.util.Duration;
 
 public class CursorStoreTest {
 
     private static final String TEST_USER = "test";
     private static final String CURSOR_NAME = "notifications";
+    private static final String TEST_KEY = "test-notifications";
     private final RiakClient client = mock(RiakClient.class);
-    private final CursorStore store = new CursorStore(client);
+    private final CursorStore store = new CursorStore(
+            new RiakCursorRepository(client));
+    private final CursorRepository repository = mock(CursorRepository.class);
+    private final CursorStore cached = new CursorStore(repository, 100,
+            Duration.minutes(1));
 
     @Test
     public void testInitialize() throws Exception {
@@ -195,4 +204,91 @@ public class CursorStoreTest {
         assertThat(store.getCursorKey(TEST_USER, CURSOR_NAME))
                 .isEqualTo("test-notifications");
     }
+
+    @Test
+    public void testFetchCached() throws Exception {
+        when(repository.fetch(TEST_KEY)).thenReturn(Optional.of(3L));
+
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).contains(3L);
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).contains(3L);
+        assertThat(cached.fetchAsync(TEST_USER, CURSOR_NAME).get())
+                .contains(3L);
+        verify(repository, times(1)).fetch(TEST_KEY);
+        verify(repository, never()).fetchAsync(TEST_KEY);
+    }
+
+    @Test
+    public void testFetchMissingCursorNotCached() throws Exception {
+        when(repository.fetch(TEST_KEY)).thenReturn(Optional.empty());
+
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).isEmpty();
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).isEmpty();
+        verify(repository, times(2)).fetch(TEST_KEY);
+    }
+
+    @Test
+    public void testStoreUpdatesCache() throws Exception {
+        cached.store(TEST_USER, CURSOR_NAME, 5L);
+        verify(repository).store(TEST_KEY, 5L);
+
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).contains(5L);
+        verify(repository, never()).fetch(TEST_KEY);
+
+        // a smaller value never moves the cached cursor back
+        cached.store(TEST_USER, CURSOR_NAME, 4L);
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).contains(5L);
+    }
+
+    @Test
+    public void testStaleFetchDoesNotMoveCursorBack() throws Exception {
+        final CompletableFuture<Optional<Long>> future = new CompletableFuture<>();
+        when(repository.fetchAsync(TEST_KEY)).thenReturn(future);
+
+        final CompletableFuture<Optional<Long>> actual = cached
+                .fetchAsync(TEST_USER, CURSOR_NAME);
+        cached.store(TEST_USER, CURSOR_NAME, 5L);
+        future.complete(Optional.of(3L));
+
+        assertThat(actual.get()).contains(5L);
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).contains(5L);
+    }
+
+    @Test
+    public void testDeleteInvalidatesCache() throws Exception {
+        when(repository.fetch(TEST_KEY)).thenReturn(Optional.empty());
+
+        cached.store(TEST_USER, CURSOR_NAME, 5L);
+        cached.delete(TEST_USER, CURSOR_NAME);
+        verify(repository).delete(TEST_KEY);
+
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).isEmpty();
+        verify(repository).fetch(TEST_KEY);
+    }
+
+    @Test
+    public void testFetchDuringDeleteIsNotCached() throws Exception {
+        final CompletableFuture<Optional<Long>> future = new CompletableFuture<>();
+        when(repository.fetchAsync(TEST_KEY)).thenReturn(future);
+        when(repository.fetch(TEST_KEY)).thenReturn(Optional.empty());
+
+        final CompletableFuture<Optional<Long>> actual = cached
+                .fetchAsync(TEST_USER, CURSOR_NAME);
+        cached.delete(TEST_USER, CURSOR_NAME);
+        future.complete(Optional.of(3L));
+
+        assertThat(actual.get()).contains(3L);
+        assertThat(cached.fetch(TEST_USER, CURSOR_NAME)).isEmpty();
+        verify(repository).fetch(TEST_KEY);
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        final CursorStore uncached = new CursorStore(repository);
+        when(repository.fetch(TEST_KEY)).thenReturn(Optional.of(3L));
+
+        uncached.store(TEST_USER, CURSOR_NAME, 5L);
+        assertThat(uncached.fetch(TEST_USER, CURSOR_NAME)).contains(3L);
+        assertThat(uncached.fetch(TEST_USER, CURSOR_NAME)).contains(3L);
+        verify(repository, times(2)).fetch(TEST_KEY);
+    }
 }
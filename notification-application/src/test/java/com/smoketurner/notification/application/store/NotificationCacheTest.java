@@ -0,0 +1,123 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Optional;
+import org.junit.Test;
+import com.google.common.collect.ImmutableMap;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.api.Rule;
+import com.smoketurner.notification.application.core.RulePlan;
+import com.smoketurner.notification.application.core.UserNotifications;
+
+public class NotificationCacheTest {
+
+    private final NotificationList list = createList(1L, 2L);
+    private final UserNotifications notifications = new UserNotifications();
+
+    @Test
+    public void testDisabled() {
+        final NotificationCache cache = new NotificationCache(0);
+        cache.put("test", new NotificationCache.Entry(list, RulePlan.EMPTY,
+                true, Optional.of(1L), notifications));
+        assertThat(cache.getIfPresent("test")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testPutInvalidate() {
+        final NotificationCache cache = new NotificationCache(100);
+        final NotificationCache.Entry entry = new NotificationCache.Entry(list,
+                RulePlan.EMPTY, true, Optional.of(1L), notifications);
+        cache.put("test", entry);
+        assertThat(cache.getIfPresent("test")).isSameAs(entry);
+
+        cache.invalidate("test");
+        assertThat(cache.getIfPresent("test")).isNull();
+    }
+
+    @Test
+    public void testEvictsByWeight() {
+        final NotificationCache cache = new NotificationCache(5);
+        cache.put("first", new NotificationCache.Entry(list, RulePlan.EMPTY,
+                false, Optional.empty(), notifications));
+        cache.put("second", new NotificationCache.Entry(createList(3L, 4L),
+                RulePlan.EMPTY, false, Optional.empty(), notifications));
+
+        assertThat(cache.getIfPresent("first")).isNull();
+        assertThat(cache.getIfPresent("second")).isNotNull();
+    }
+
+    @Test
+    public void testMatches() {
+        final RulePlan plan = new RulePlan(ImmutableMap.of("like",
+                Rule.builder().withMaxSize(2).build()));
+        final NotificationCache.Entry tracked = new NotificationCache.Entry(
+                list, RulePlan.EMPTY, true, Optional.of(1L), notifications);
+
+        assertThat(tracked.matches(list, RulePlan.EMPTY, true,
+                Optional.of(1L))).isTrue();
+        assertThat(tracked.matches(list, plan, true, Optional.of(1L)))
+                .isFalse();
+        assertThat(tracked.matches(list, RulePlan.EMPTY, true,
+                Optional.of(2L))).isFalse();
+        assertThat(tracked.matches(list, RulePlan.EMPTY, true,
+                Optional.empty())).isFalse();
+        assertThat(tracked.matches(list, RulePlan.EMPTY, false,
+                Optional.empty())).isFalse();
+
+        final NotificationCache.Entry untracked = new NotificationCache.Entry(
+                list, RulePlan.EMPTY, false, Optional.empty(), notifications);
+        assertThat(untracked.matches(list, RulePlan.EMPTY, false,
+                Optional.of(2L))).isTrue();
+        assertThat(untracked.matches(list, RulePlan.EMPTY, true,
+                Optional.empty())).isFalse();
+    }
+
+    @Test
+    public void testMatchesByContent() {
+        final NotificationCache.Entry entry = new NotificationCache.Entry(
+                list, RulePlan.EMPTY, false, Optional.empty(), notifications);
+
+        // an equal list and rule plan fetched separately still match
+        assertThat(entry.matches(createList(1L, 2L),
+                new RulePlan(RulePlan.EMPTY.getRules()), false,
+                Optional.empty())).isTrue();
+
+        assertThat(entry.matches(createList(1L, 3L), RulePlan.EMPTY, false,
+                Optional.empty())).isFalse();
+        assertThat(entry.matches(createList(0L, 2L), RulePlan.EMPTY, false,
+                Optional.empty())).isFalse();
+        assertThat(entry.matches(createList(1L, 2L, 3L), RulePlan.EMPTY,
+                false, Optional.empty())).isFalse();
+        assertThat(entry.matches(new NotificationList(), RulePlan.EMPTY, false,
+                Optional.empty())).isFalse();
+
+        final NotificationList deleted = createList(1L, 2L);
+        deleted.deleteNotification(5L);
+        assertThat(entry.matches(deleted, RulePlan.EMPTY, false,
+                Optional.empty())).isFalse();
+    }
+
+    private static NotificationList createList(final long... ids) {
+        final NotificationList list = new NotificationList();
+        for (final long id : ids) {
+            list.addNotification(Notification.builder().withId(id).build());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.CodedOutputStream;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.protos.NotificationProtos.NotificationListPB;
+import com.smoketurner.notification.application.protos.NotificationProtos.NotificationPB;
+
+public class NotificationListCodecTest {
+
+    private final NotificationListCodec codec = new NotificationListCodec();
+
+    @Test
+    public void testDecodeInvalidData() throws Exception {
+        try {
+            codec.decode("test".getBytes(StandardCharsets.UTF_8));
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final DateTime now = new DateTime("2015-08-14T17:52:43Z",
+                DateTimeZone.UTC);
+        final NotificationList expected = new NotificationList();
+        for (long i = 1; i <= 5; i++) {
+            expected.addNotification(Notification.builder().withId(i)
+                    .withCategory("test-category").withMessage("message " + i)
+                    .withCreatedAt(now.plusSeconds((int) i))
+                    .withProperties(ImmutableMap.of("first_name", "Bob",
+                            "last_name", "Smith " + i))
+                    .build());
+        }
+
+        final NotificationList actual = codec
+                .decode(codec.encode(expected));
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getNotifications()).extracting(
+                n -> n.getProperties().get("last_name")).containsExactly(
+                        "Smith 5", "Smith 4", "Smith 3", "Smith 2", "Smith 1");
+    }
+
+    @Test
+    public void testRoundTripShards() throws Exception {
+        final NotificationList expected = new NotificationList();
+        expected.addNotification(Notification.builder().withId(1L)
+                .withCategory("test-category").withMessage("this is a test")
+                .withCreatedAt(new DateTime("2015-08-14T17:52:43Z",
+                        DateTimeZone.UTC))
+                .build());
+        expected.setShards(4);
+
+        final NotificationList actual = codec
+                .decode(codec.encode(expected));
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getShards()).isEqualTo(4);
+    }
+
+    @Test
+    public void testRoundTripSegments() throws Exception {
+        final NotificationList expected = new NotificationList();
+        expected.addNotification(Notification.builder().withId(1L)
+                .withCategory("test-category").withMessage("this is a test")
+                .withCreatedAt(new DateTime("2015-08-14T17:52:43Z",
+                        DateTimeZone.UTC))
+                .build());
+        expected.getSegments().add(100L);
+        expected.getSegments().add(200L);
+
+        final NotificationList actual = codec
+                .decode(codec.encode(expected));
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getSegments().toArray()).containsOnly(100L, 200L);
+    }
+
+    @Test
+    public void testDecodeSkipsDeleted() throws Exception {
+        final NotificationListPB list = NotificationListPB.newBuilder()
+                .addNotification(NotificationPB.newBuilder().setId(3L)
+                        .setCategory("test-category").putProperty("a", "b"))
+                .addNotification(NotificationPB.newBuilder().setId(2L)
+                        .setCategory("test-category").putProperty("a", "b"))
+                .addNotification(NotificationPB.newBuilder().setId(1L)
+                        .setCategory("test-category"))
+                .addDeletedId(2L).addDeletedId(4L).build();
+
+        final NotificationList actual = codec
+                .decode(list.toByteArray());
+        assertThat(actual.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(3L, 1L);
+        assertThat(actual.getDeletedIds().toArray()).containsOnly(2L, 4L);
+    }
+
+    @Test
+    public void testDecodeUnpackedDeletedIds() throws Exception {
+        final byte[] notification = NotificationPB.newBuilder().setId(1L)
+                .setCategory("test-category").build().toByteArray();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        output.writeByteArray(NotificationListPB.NOTIFICATION_FIELD_NUMBER,
+                notification);
+        output.writeInt64(NotificationListPB.DELETED_ID_FIELD_NUMBER, 1L);
+        output.writeInt64(NotificationListPB.DELETED_ID_FIELD_NUMBER, 5L);
+        // unknown fields are ignored
+        output.writeString(15, "unknown");
+        output.flush();
+
+        final NotificationList actual = codec
+                .decode(bytes.toByteArray());
+        assertThat(actual.getNotifications()).isEmpty();
+        assertThat(actual.getDeletedIds().toArray()).containsOnly(1L, 5L);
+    }
+
+    @Test
+    public void testDecodeMatchesGeneratedParser() throws Exception {
+        final NotificationListPB.Builder builder = NotificationListPB
+                .newBuilder();
+        for (long i = 1; i <= 10; i++) {
+            builder.addNotification(NotificationPB.newBuilder().setId(i)
+                    .setCategory("category-" + (i % 3))
+                    .setMessage("message " + i).setCreatedAt(i * 1000L)
+                    .putProperty("key", String.valueOf(i % 2)));
+        }
+        final NotificationListPB list = builder.addDeletedId(7L).build();
+
+        final NotificationList actual = codec
+                .decode(list.toByteArray());
+
+        final NotificationList expected = new NotificationList();
+        list.getNotificationList().stream()
+                .filter(pb -> pb.getId() != 7L)
+                .map(pb -> Notification.builder().withId(pb.getId())
+                        .withCategory(pb.getCategory())
+                        .withMessage(pb.getMessage())
+                        .withCreatedAt(new DateTime(pb.getCreatedAt(),
+                                DateTimeZone.UTC))
+                        .withProperties(pb.getPropertyMap()).build())
+                .forEach(expected::addNotification);
+        expected.deleteNotification(7L);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getNotifications())
+                .usingElementComparator((a, b) -> a.getProperties()
+                        .equals(b.getProperties()) ? 0 : 1)
+                .containsExactlyElementsOf(expected.getNotifications());
+    }
+
+    @Test
+    public void testCompactFormat() throws Exception {
+        final NotificationListCodec compact = new NotificationListCodec(
+                NotificationListCodec.Format.COMPACT);
+        final NotificationList expected = new NotificationList();
+        expected.addNotification(Notification.builder().withId(1L)
+                .withCategory("test-category").withMessage("this is a test")
+                .build());
+
+        assertThat(codec.getContentType()).isEqualTo("application/x-protobuf");
+        assertThat(compact.getContentType())
+                .isEqualTo(CompactNotificationListCodec.CONTENT_TYPE);
+
+        // both codecs read both formats
+        assertThat(codec.decode(compact.encode(expected)))
+                .isEqualTo(expected);
+        assertThat(compact.decode(codec.encode(expected)))
+                .isEqualTo(expected);
+    }
+}
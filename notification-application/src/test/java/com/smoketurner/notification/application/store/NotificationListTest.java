@@ -0,0 +1,175 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.IdGenerator;
+import com.smoketurner.notification.application.core.LongSet;
+
+public class NotificationListTest {
+
+    private NotificationList list;
+
+    @Before
+    public void setUp() {
+        list = new NotificationList();
+    }
+
+    @Test
+    public void testMaximumNumberOfNotifications() {
+        for (long i = 0; i <= 2000; i++) {
+            list.addNotification(createNotification(i));
+        }
+
+        final SortedSet<Notification> actual = list.getNotifications();
+        assertThat(actual).hasSize(1000);
+        assertThat(actual.first().getId().get()).isEqualTo(2000L);
+        assertThat(actual.last().getId().get()).isEqualTo(1001L);
+    }
+
+    @Test
+    public void testMaximumNumberOfNotificationsCollection() {
+        final ImmutableList.Builder<Notification> builder = ImmutableList
+                .builder();
+        for (long i = 0; i <= 2000; i++) {
+            builder.add(createNotification(i));
+        }
+
+        list.addNotifications(builder.build());
+
+        final SortedSet<Notification> actual = list.getNotifications();
+        assertThat(actual).hasSize(1000);
+        assertThat(actual.first().getId().get()).isEqualTo(2000L);
+        assertThat(actual.last().getId().get()).isEqualTo(1001L);
+    }
+
+    @Test
+    public void testNoDuplicateNotifications() {
+        for (long i = 0; i < 5; i++) {
+            list.addNotification(createNotification(1L));
+        }
+
+        final SortedSet<Notification> actual = list.getNotifications();
+        assertThat(actual).hasSize(1);
+        assertThat(actual.first().getId().get()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testEquals() {
+        final NotificationList list = new NotificationList();
+        assertThat(list.equals(null)).isFalse();
+    }
+
+    @Test
+    public void testDeleteNotification() {
+        list.deleteNotification(1L);
+        assertThat(list.getDeletedIds().toArray()).contains(1L);
+    }
+
+    @Test
+    public void testCompactDeletedIds() {
+        final long minute = IdGenerator.idSpan(TimeUnit.MINUTES.toMillis(1));
+        list.addNotification(createNotification(10 * minute));
+        list.deleteNotifications(LongSet.of(minute, 5 * minute, 8 * minute));
+
+        assertThat(list.compactDeletedIds(TimeUnit.MINUTES.toMillis(10)))
+                .isEqualTo(0);
+        assertThat(list.getDeletedIds().toArray()).containsOnly(minute,
+                5 * minute, 8 * minute);
+
+        assertThat(list.compactDeletedIds(TimeUnit.MINUTES.toMillis(5)))
+                .isEqualTo(1);
+        assertThat(list.getDeletedIds().toArray()).containsOnly(5 * minute,
+                8 * minute);
+
+        // a deleted ID newer than any notification moves the cut forward
+        list.deleteNotification(14 * minute);
+        assertThat(list.compactDeletedIds(TimeUnit.MINUTES.toMillis(5)))
+                .isEqualTo(2);
+        assertThat(list.getDeletedIds().toArray()).containsOnly(14 * minute);
+
+        assertThat(list.compactDeletedIds(0L)).isEqualTo(0);
+        assertThat(list.compactDeletedIds(Long.MAX_VALUE)).isEqualTo(0);
+    }
+
+    @Test
+    public void testCompactDeletedIdsFullList() {
+        for (long i = 1; i <= 2000; i++) {
+            list.addNotification(createNotification(i));
+        }
+        list.deleteNotifications(LongSet.of(500L, 1000L, 1001L, 2001L));
+
+        // the oldest retained notification is 1001
+        assertThat(list.compactDeletedIds(TimeUnit.DAYS.toMillis(7)))
+                .isEqualTo(2);
+        assertThat(list.getDeletedIds().toArray()).containsOnly(1001L, 2001L);
+    }
+
+    @Test
+    public void testCopy() {
+        list.addNotification(createNotification(1L));
+        list.deleteNotification(2L);
+        list.setShards(3);
+        list.getSegments().add(4L);
+
+        final NotificationList copy = new NotificationList(list);
+        assertThat(copy).isEqualTo(list);
+
+        copy.addNotification(createNotification(5L));
+        assertThat(list.getNotifications()).hasSize(1);
+    }
+
+    @Test
+    public void testRemoveNotifications() throws Exception {
+        final List<Notification> notifications = Lists.newArrayList(
+                createNotification(1L), createNotification(2L),
+                createNotification(3L), Notification.builder().build());
+
+        final List<Notification> expected = Arrays
+                .asList(createNotification(2L), createNotification(3L));
+
+        NotificationList.removeNotifications(notifications, LongSet.of(1L));
+        assertThat(notifications).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void testRemoveNotificationsEmpty() throws Exception {
+        final List<Notification> notifications = Lists.newArrayList(
+                createNotification(1L), createNotification(2L),
+                createNotification(3L), Notification.builder().build());
+
+        final List<Notification> expected = Arrays.asList(
+                createNotification(1L), createNotification(2L),
+                createNotification(3L));
+
+        NotificationList.removeNotifications(notifications,
+                new LongSet());
+        assertThat(notifications).containsExactlyElementsOf(expected);
+    }
+
+    private Notification createNotification(final long id) {
+        return Notification.builder().withId(id).build();
+    }
+}
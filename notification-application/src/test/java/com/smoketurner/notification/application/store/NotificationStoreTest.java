@@ -17,24 +17,47 @@ package com.smoketurner.notification.application.store;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import org.joda.time.DateTime;
+import org.junit.Before;
 import org.junit.Test;
 import com.basho.riak.client.api.RiakClient;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.smoketurner.notification.api.BulkNotification;
+import com.smoketurner.notification.api.BulkNotificationResult;
 import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.api.Rule;
 import com.smoketurner.notification.application.core.IdGenerator;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.core.NotificationPage;
+import com.smoketurner.notification.application.core.RulePlan;
 import com.smoketurner.notification.application.core.UserNotifications;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import com.smoketurner.notification.application.riak.RiakNotificationRepository;
+import io.dropwizard.util.Duration;
 
 public class NotificationStoreTest {
 
@@ -44,14 +67,20 @@ public class NotificationStoreTest {
     private final CursorStore cursors = mock(CursorStore.class);
     private final IdGenerator idGenerator = mock(IdGenerator.class);
     private final RuleStore rules = mock(RuleStore.class);
-    private final NotificationStore store = new NotificationStore(client,
-            idGenerator, cursors, rules) {
+    private final NotificationStore store = new NotificationStore(
+            new RiakNotificationRepository(client), idGenerator, cursors,
+            rules, MoreExecutors.directExecutor()) {
         @Override
         public DateTime now() {
             return NOW;
         }
     };
 
+    @Before
+    public void setUp() {
+        when(rules.fetchPlan()).thenReturn(RulePlan.EMPTY);
+    }
+
     @Test
     public void testSplitNotifications() throws Exception {
         when(cursors.fetch(TEST_USER, NotificationStore.CURSOR_NAME))
@@ -221,24 +250,13 @@ public class NotificationStoreTest {
 
     @Test
     public void testFindNotification() throws Exception {
-        final Notification n100 = Notification.builder().withId(100L)
-                .withNotifications(Arrays.asList(createNotification(101L),
-                        createNotification(102L)))
-                .build();
-
-        final Notification n150 = Notification.builder().withId(150L)
-                .withNotifications(Collections.emptyList()).build();
-
-        final ImmutableList.Builder<Notification> builder = ImmutableList
-                .builder();
+        final ImmutableSortedSet.Builder<Notification> builder = ImmutableSortedSet
+                .<Notification>naturalOrder();
         for (long i = 1; i < 11; i++) {
             builder.add(createNotification(i));
         }
-        builder.add(n100);
-        builder.add(n150);
-        builder.add(Notification.builder().build());
-
-        final List<Notification> notifications = builder.build();
+        builder.add(createNotification(150L));
+        final ImmutableSortedSet<Notification> notifications = builder.build();
 
         assertThat(NotificationStore.tryFind(notifications, 1))
                 .isEqualTo(Optional.of(createNotification(1)));
@@ -248,79 +266,559 @@ public class NotificationStoreTest {
                 .isEqualTo(Optional.of(createNotification(10)));
         assertThat(NotificationStore.tryFind(notifications, 12))
                 .isEqualTo(Optional.<Notification>empty());
-        assertThat(NotificationStore.tryFind(notifications, 100))
-                .isEqualTo(Optional.of(n100));
-        assertThat(NotificationStore.tryFind(notifications, 101))
-                .isEqualTo(Optional.of(n100));
-        assertThat(NotificationStore.tryFind(notifications, 102))
-                .isEqualTo(Optional.of(n100));
-        assertThat(NotificationStore.tryFind(notifications, 103))
-                .isEqualTo(Optional.<Notification>empty());
         assertThat(NotificationStore.tryFind(notifications, 150))
-                .isEqualTo(Optional.of(n150));
+                .isEqualTo(Optional.of(createNotification(150)));
+        assertThat(NotificationStore.tryFind(notifications, 151))
+                .isEqualTo(Optional.<Notification>empty());
+        assertThat(NotificationStore.tryFind(notifications, 0))
+                .isEqualTo(Optional.<Notification>empty());
     }
 
     @Test
-    public void testSkip() throws Exception {
-        final ImmutableSortedSet.Builder<Notification> builder = ImmutableSortedSet
-                .<Notification>naturalOrder();
+    public void testFindNotificationTreeSet() throws Exception {
+        final NotificationList list = new NotificationList();
         for (long i = 1; i <= 100; i++) {
-            builder.add(createNotification(i));
+            list.addNotification(createNotification(i * 2));
         }
-        final ImmutableSortedSet<Notification> notifications = builder.build();
 
-        final ImmutableList.Builder<Notification> builder2 = ImmutableList
-                .<Notification>builder();
-        for (long i = 100; i > 90; i--) {
-            builder2.add(createNotification(i));
-        }
-        final List<Notification> expected = builder2.build();
+        assertThat(NotificationStore.tryFind(list.getNotifications(), 50))
+                .isEqualTo(Optional.of(createNotification(50)));
+        assertThat(NotificationStore.tryFind(list.getNotifications(), 51))
+                .isEqualTo(Optional.<Notification>empty());
+    }
 
-        final Iterable<Notification> actual = store.skip(notifications, 0, true,
-                10);
-        assertThat(actual).containsExactlyElementsOf(expected);
+    @Test
+    public void testFetchAsync() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore asyncStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor());
+
+        final NotificationList list = new NotificationList();
+        list.addNotification(createNotification(1L));
+        list.addNotification(createNotification(2L));
+
+        when(repository.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(list)));
+        when(cursors.fetchAsync(TEST_USER, NotificationStore.CURSOR_NAME))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(1L)));
+
+        final Optional<UserNotifications> actual = asyncStore
+                .fetchAsync(TEST_USER, true).get();
+
+        assertThat(actual.isPresent()).isTrue();
+        final Notification unseen = Iterables
+                .getOnlyElement(actual.get().getUnseen());
+        assertThat(unseen.getId()).contains(2L);
+        assertThat(unseen.getUnseen()).contains(true);
+        final Notification seen = Iterables
+                .getOnlyElement(actual.get().getSeen());
+        assertThat(seen.getId()).contains(1L);
+        assertThat(seen.getUnseen()).contains(false);
+        verify(cursors).store(TEST_USER, NotificationStore.CURSOR_NAME, 2L);
     }
 
     @Test
-    public void testSkipWithStart() throws Exception {
-        final ImmutableSortedSet.Builder<Notification> builder = ImmutableSortedSet
-                .<Notification>naturalOrder();
-        for (long i = 1; i <= 100; i++) {
-            builder.add(createNotification(i));
-        }
-        final ImmutableSortedSet<Notification> notifications = builder.build();
+    public void testFetchAsyncNotFound() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore asyncStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor());
+
+        when(repository.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.empty()));
+        when(cursors.fetchAsync(TEST_USER, NotificationStore.CURSOR_NAME))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(1L)));
+
+        assertThat(asyncStore.fetchAsync(TEST_USER, true).get()).isEmpty();
+        verify(cursors, never()).store(anyString(), anyString(), anyLong());
+    }
 
-        final ImmutableList.Builder<Notification> builder2 = ImmutableList
-                .<Notification>builder();
-        for (long i = 55; i > 45; i--) {
-            builder2.add(createNotification(i));
-        }
-        final List<Notification> expected = builder2.build();
+    @Test
+    public void testFetchAsyncCached() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore cachedStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor(),
+                new NotificationCache(1000));
+
+        final NotificationList list = new NotificationList();
+        list.addNotification(createNotification(1L));
+        list.addNotification(createNotification(2L));
+
+        when(repository.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(list)));
+        when(repository.fetchIfModifiedAsync(TEST_USER, list)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(list)));
+        when(cursors.fetchAsync(TEST_USER, NotificationStore.CURSOR_NAME))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(1L)))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(2L)));
+
+        // first fetch computes the notifications and advances the cursor
+        final UserNotifications first = cachedStore
+                .fetchAsync(TEST_USER, true).get().get();
+        assertThat(first.getUnseen()).extracting(n -> n.getId().get())
+                .containsExactly(2L);
+        verify(cursors).store(TEST_USER, NotificationStore.CURSOR_NAME, 2L);
+
+        // the list is unchanged but the cursor moved, so split again
+        final UserNotifications second = cachedStore
+                .fetchAsync(TEST_USER, true).get().get();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getUnseen()).isEmpty();
+
+        // nothing has changed, so the cached notifications are returned
+        final UserNotifications third = cachedStore
+                .fetchAsync(TEST_USER, true).get().get();
+        assertThat(third).isSameAs(second);
+
+        verify(repository).fetchAsync(TEST_USER);
+        verify(repository, times(2)).fetchIfModifiedAsync(TEST_USER, list);
+
+        // a write invalidates the cached notifications
+        cachedStore.remove(TEST_USER, LongSet.of(1L));
+        cachedStore.fetchAsync(TEST_USER, true).get();
+        verify(repository, times(2)).fetchAsync(TEST_USER);
+    }
 
-        final Iterable<Notification> actual = store.skip(notifications, 56,
-                false, 10);
-        assertThat(actual).containsExactlyElementsOf(expected);
+    @Test
+    public void testFetchAsyncCachedThroughShardedRepository()
+            throws Exception {
+        final NotificationRepository delegate = mock(
+                NotificationRepository.class);
+        final NotificationStore cachedStore = new NotificationStore(
+                new ShardedNotificationRepository(delegate,
+                        MoreExecutors.directExecutor(), 2, 100L,
+                        Duration.minutes(1)),
+                idGenerator, cursors, rules, MoreExecutors.directExecutor(),
+                new NotificationCache(1000));
+
+        // every fetch returns a new but equal list instance
+        when(delegate.fetchAsync(TEST_USER)).thenAnswer(invocation -> {
+            final NotificationList list = new NotificationList();
+            list.addNotification(createNotification(1L));
+            list.setShards(2);
+            return CompletableFuture.completedFuture(Optional.of(list));
+        });
+        when(delegate.fetchAsync("test#0")).thenAnswer(invocation -> {
+            final NotificationList list = new NotificationList();
+            list.addNotification(createNotification(2L));
+            return CompletableFuture.completedFuture(Optional.of(list));
+        });
+        when(delegate.fetchAsync("test#1")).thenReturn(
+                CompletableFuture.completedFuture(Optional.empty()));
+
+        final UserNotifications first = cachedStore
+                .fetchAsync(TEST_USER, false).get().get();
+        assertThat(first.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(2L, 1L);
+
+        final UserNotifications second = cachedStore
+                .fetchAsync(TEST_USER, false).get().get();
+        assertThat(second).isSameAs(first);
+        verify(delegate, times(2)).fetchAsync(TEST_USER);
     }
 
     @Test
-    public void testSkipWithStartNotFound() throws Exception {
-        final ImmutableSortedSet.Builder<Notification> builder = ImmutableSortedSet
-                .<Notification>naturalOrder();
-        for (long i = 1; i <= 100; i++) {
-            builder.add(createNotification(i));
-        }
-        final ImmutableSortedSet<Notification> notifications = builder.build();
+    public void testFetchAsyncWithoutCursor() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore asyncStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor());
+
+        final NotificationList list = new NotificationList();
+        list.addNotification(createNotification(1L));
+        list.addNotification(createNotification(2L));
+
+        when(repository.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(list)));
+
+        final Optional<UserNotifications> actual = asyncStore
+                .fetchAsync(TEST_USER, false).get();
+
+        assertThat(actual.isPresent()).isTrue();
+        assertThat(actual.get().getNotifications())
+                .extracting(n -> n.getId().get()).containsExactly(2L, 1L);
+        assertThat(actual.get().getNotifications())
+                .allMatch(n -> !n.getUnseen().isPresent());
+        verify(cursors, never()).fetchAsync(anyString(), anyString());
+        verify(cursors, never()).store(anyString(), anyString(), anyLong());
+    }
 
-        final ImmutableList.Builder<Notification> builder2 = ImmutableList
-                .<Notification>builder();
-        for (long i = 100; i > 90; i--) {
-            builder2.add(createNotification(i));
+    @Test
+    public void testResolvePage() throws Exception {
+        final NotificationCache cache = new NotificationCache(1000);
+        final NotificationStore cachedStore = new NotificationStore(
+                mock(NotificationRepository.class), idGenerator, cursors,
+                rules, MoreExecutors.directExecutor(), cache);
+
+        final NotificationList list = new NotificationList();
+        for (long i = 1; i <= 10; i++) {
+            list.addNotification(Notification.builder().withId(i)
+                    .withCategory("new-follower").build());
         }
-        final List<Notification> expected = builder2.build();
+        final RulePlan plan = new RulePlan(ImmutableMap.of("new-follower",
+                Rule.builder().withMaxSize(2).build()));
+        final NotificationSnapshot snapshot = new NotificationSnapshot(
+                TEST_USER, null, Optional.of(list), true, Optional.of(5L),
+                plan);
+
+        // the page is rolled up without caching the partial result
+        final NotificationPage page = cachedStore
+                .resolvePage(snapshot, Optional.of(8L), false, 1).get();
+        assertThat(cache.size()).isZero();
+        verify(cursors).store(TEST_USER, NotificationStore.CURSOR_NAME, 10L);
+
+        final UserNotifications notifications = cachedStore.resolve(snapshot)
+                .get();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(page).isEqualTo(NotificationPage.of(notifications,
+                Optional.of(8L), false, 1));
+        assertThat(page.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(7L);
+        assertThat(page.getNotifications().get(0).getNotifications())
+                .extracting(n -> n.getId().get()).containsExactly(6L);
+        assertThat(page.getNotifications().get(0).getUnseen()).contains(true);
+        assertThat(page.hasMore()).isTrue();
+
+        // once cached, pages are taken from the cached notifications
+        final NotificationSnapshot cached = new NotificationSnapshot(
+                TEST_USER, cache.getIfPresent(TEST_USER), Optional.of(list),
+                true, Optional.of(5L), plan);
+        assertThat(cachedStore.resolvePage(cached, Optional.of(8L), false, 1))
+                .contains(page);
+    }
 
-        final Iterable<Notification> actual = store.skip(notifications, 1000,
-                true, 10);
-        assertThat(actual).containsExactlyElementsOf(expected);
+    @Test
+    public void testResolvePageRollupAcrossSegments() throws Exception {
+        final NotificationStore segmentedStore = createSegmentedStore();
+
+        // the first page stops partway through the rollup of 7 to 4, which
+        // is left for the next page rather than being cut off
+        final NotificationPage first = fetchPage(segmentedStore,
+                Optional.empty(), 4);
+        assertThat(first.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(10L, 9L, 8L);
+        assertThat(first.hasMore()).isTrue();
+
+        final NotificationPage second = fetchPage(segmentedStore,
+                Optional.of(8L), 4);
+        assertThat(second.getNotifications())
+                .extracting(n -> n.getId().get()).containsExactly(7L);
+        assertThat(second.getNotifications().get(0).getNotifications())
+                .extracting(n -> n.getId().get()).containsExactly(6L, 5L, 4L);
+        assertThat(second.hasMore()).isTrue();
+    }
+
+    @Test
+    public void testResolvePageToLastSegment() throws Exception {
+        final NotificationStore segmentedStore = createSegmentedStore();
+
+        final List<Long> ids = new ArrayList<>();
+        Optional<Long> fromId = Optional.empty();
+        NotificationPage page;
+        int pages = 0;
+        do {
+            page = fetchPage(segmentedStore, fromId, 4);
+            assertThat(page.isEmpty()).isFalse();
+            page.getNotifications().forEach(n -> ids.add(n.getId().get()));
+            fromId = Optional.of(Iterables.getLast(page.getNotifications())
+                    .getId().get());
+            pages++;
+        } while (page.hasMore() && pages < 10);
+
+        // every notification down to the oldest segment is returned once
+        assertThat(page.hasMore()).isFalse();
+        assertThat(ids).containsExactly(10L, 9L, 8L, 7L, 3L, 2L, 1L);
+    }
+
+    @Test
+    public void testResolvePageRollupSpanningSegments() throws Exception {
+        final NotificationRepository delegate = mock(
+                NotificationRepository.class);
+        when(rules.fetchPlan()).thenReturn(new RulePlan(ImmutableMap.of(
+                "like", Rule.builder().withMaxSize(10).build())));
+
+        // 8 to 2 roll up across all three segments
+        final NotificationList head = createList("follow", 10L, 9L);
+        head.getSegments().addAll(LongSet.of(8L, 5L, 2L));
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(head)));
+        when(delegate.fetchAsync("test@8")).thenReturn(CompletableFuture
+                .completedFuture(Optional.of(createList("like", 8L, 7L, 6L))));
+        when(delegate.fetchAsync("test@5")).thenReturn(CompletableFuture
+                .completedFuture(Optional.of(createList("like", 5L, 4L, 3L))));
+        final NotificationList segment2 = createList("like", 2L);
+        segment2.merge(createList("follow", 1L));
+        when(delegate.fetchAsync("test@2")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(segment2)));
+
+        final NotificationStore segmentedStore = new NotificationStore(
+                new SegmentedNotificationRepository(delegate,
+                        MoreExecutors.directExecutor(), 2, 10),
+                idGenerator, cursors, rules, MoreExecutors.directExecutor());
+
+        final NotificationPage first = fetchPage(segmentedStore,
+                Optional.empty(), 2);
+        assertThat(first.getNotifications()).extracting(n -> n.getId().get())
+                .containsExactly(10L, 9L);
+        assertThat(first.hasMore()).isTrue();
+
+        // only the rollup is left after 9 in the segments fetched for the
+        // page, so the older segments are fetched to finish it rather than
+        // returning it now and the rest of it again on the next page
+        final NotificationPage second = fetchPage(segmentedStore,
+                Optional.of(9L), 2);
+        assertThat(second.getNotifications())
+                .extracting(n -> n.getId().get()).containsExactly(8L, 1L);
+        assertThat(second.getNotifications().get(0).getNotifications())
+                .extracting(n -> n.getId().get())
+                .containsExactly(7L, 6L, 5L, 4L, 3L, 2L);
+        assertThat(second.hasMore()).isFalse();
+        verify(delegate).fetchAsync("test@2");
+    }
+
+    @Test
+    public void testResolvePageNotFound() throws Exception {
+        final NotificationSnapshot snapshot = new NotificationSnapshot(
+                TEST_USER, null, Optional.empty(), true, Optional.empty(),
+                RulePlan.EMPTY);
+        assertThat(store.resolvePage(snapshot, Optional.empty(), true, 20))
+                .isEmpty();
+    }
+
+    @Test
+    public void testFetchSnapshotAsync() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore asyncStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor());
+
+        final NotificationList list = new NotificationList();
+        list.addNotification(createNotification(1L));
+        list.addNotification(createNotification(2L));
+
+        when(repository.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(list)));
+        when(cursors.fetchAsync(TEST_USER, NotificationStore.CURSOR_NAME))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(1L)));
+
+        final NotificationSnapshot snapshot = asyncStore
+                .fetchSnapshotAsync(TEST_USER, true).get();
+
+        assertThat(snapshot.isPresent()).isTrue();
+        assertThat(snapshot.isTracked()).isTrue();
+        assertThat(snapshot.getCursor()).contains(1L);
+        assertThat(snapshot.getNewestId()).isEqualTo(2L);
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.getRules()).isSameAs(RulePlan.EMPTY);
+        verify(cursors, never()).store(anyString(), anyString(), anyLong());
+
+        asyncStore.notModified(snapshot);
+        verify(cursors).store(TEST_USER, NotificationStore.CURSOR_NAME, 2L);
+    }
+
+    @Test
+    public void testFetchSnapshotAsyncRange() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore asyncStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor());
+
+        final NotificationList list = new NotificationList();
+        list.addNotification(createNotification(1L));
+
+        when(repository.fetchAsync(TEST_USER, Optional.of(5L), 20)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(list)));
+
+        final NotificationSnapshot snapshot = asyncStore
+                .fetchSnapshotAsync(TEST_USER, false, Optional.of(5L), 20)
+                .get();
+
+        assertThat(snapshot.size()).isEqualTo(1);
+        verify(repository, never()).fetchAsync(TEST_USER);
+    }
+
+    @Test
+    public void testStoreAsync() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore asyncStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor()) {
+            @Override
+            public DateTime now() {
+                return NOW;
+            }
+        };
+
+        when(idGenerator.nextId()).thenReturn(1L);
+        final Notification notification = Notification.builder()
+                .withCategory("test").withMessage("test").build();
+        final Notification expected = Notification.builder(notification)
+                .withId(1L).withCreatedAt(NOW).build();
+        when(repository.storeAsync(TEST_USER, expected))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        final Notification actual = asyncStore
+                .storeAsync(TEST_USER, notification).get();
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getCreatedAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    public void testStoreAsyncEncodesUsername() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore asyncStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor());
+
+        when(idGenerator.nextId()).thenReturn(1L);
+        when(repository.storeAsync(eq("test%230"), any(Notification.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        asyncStore.storeAsync("test#0", Notification.builder()
+                .withCategory("test").withMessage("test").build()).get();
+
+        verify(repository).storeAsync(eq("test%230"), any(Notification.class));
+        verify(repository, never()).storeAsync(eq("test#0"),
+                any(Notification.class));
+    }
+
+    @Test
+    public void testStoreAll() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore bulkStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor()) {
+            @Override
+            public DateTime now() {
+                return NOW;
+            }
+        };
+
+        when(idGenerator.nextIds(4)).thenReturn(new long[] { 1L, 2L, 3L, 4L });
+        final NotificationStoreException error = new NotificationStoreException();
+        doThrow(error).when(repository).update(eq("user3"), anyCollection(),
+                any(LongSet.class));
+
+        final Notification n1 = Notification.builder().withCategory("test")
+                .withMessage("first").build();
+        final Notification n2 = Notification.builder().withCategory("test")
+                .withMessage("second").build();
+
+        final List<BulkNotificationResult> actual = bulkStore
+                .storeAll(Arrays.asList(
+                        new BulkNotification(Arrays.asList("user1", "user2"),
+                                n1),
+                        new BulkNotification(Arrays.asList("user1", "user3"),
+                                n2)));
+
+        final Notification stored1 = Notification.builder(n1).withId(1L)
+                .withCreatedAt(NOW).build();
+        final Notification stored2 = Notification.builder(n1).withId(2L)
+                .withCreatedAt(NOW).build();
+        final Notification stored3 = Notification.builder(n2).withId(3L)
+                .withCreatedAt(NOW).build();
+
+        assertThat(actual).containsExactly(
+                BulkNotificationResult.success("user1", stored1),
+                BulkNotificationResult.success("user2", stored2),
+                BulkNotificationResult.success("user1", stored3),
+                BulkNotificationResult.failure("user3",
+                        "Unable to store notification"));
+
+        verify(repository).update("user1", Arrays.asList(stored1, stored3),
+                new LongSet());
+        verify(repository).update("user2", Arrays.asList(stored2),
+                new LongSet());
+    }
+
+    @Test
+    public void testStoreAllInvalidUsernames() throws Exception {
+        final NotificationRepository repository = mock(
+                NotificationRepository.class);
+        final NotificationStore bulkStore = new NotificationStore(repository,
+                idGenerator, cursors, rules, MoreExecutors.directExecutor()) {
+            @Override
+            public DateTime now() {
+                return NOW;
+            }
+        };
+
+        when(idGenerator.nextIds(3)).thenReturn(new long[] { 1L, 2L, 3L });
+
+        final Notification n1 = Notification.builder().withCategory("test")
+                .withMessage("first").build();
+
+        final List<BulkNotificationResult> actual = bulkStore
+                .storeAll(Arrays.asList(new BulkNotification(
+                        Arrays.asList("", "user1", null), n1)));
+
+        final Notification stored = Notification.builder(n1).withId(2L)
+                .withCreatedAt(NOW).build();
+
+        assertThat(actual).containsExactly(
+                BulkNotificationResult.failure("",
+                        "username cannot be empty"),
+                BulkNotificationResult.success("user1", stored),
+                BulkNotificationResult.failure("null",
+                        "username cannot be empty"));
+
+        verify(repository).update("user1", Arrays.asList(stored),
+                new LongSet());
+        verify(repository, never()).update(eq(""), anyCollection(),
+                any(LongSet.class));
+    }
+
+    /**
+     * Create a store over a segmented list of 10 to 1, with 7 to 4 rolled up
+     * across the boundary between the first two segments
+     */
+    private NotificationStore createSegmentedStore() {
+        final NotificationRepository delegate = mock(
+                NotificationRepository.class);
+        when(rules.fetchPlan()).thenReturn(new RulePlan(ImmutableMap.of(
+                "like", Rule.builder().withMaxSize(10).build())));
+
+        final NotificationList head = createList("follow", 10L, 9L);
+        head.getSegments().addAll(LongSet.of(8L, 5L, 2L));
+        final NotificationList segment8 = createList("follow", 8L);
+        segment8.merge(createList("like", 7L, 6L));
+        final NotificationList segment5 = createList("like", 5L, 4L);
+        segment5.merge(createList("follow", 3L));
+        final NotificationList segment2 = createList("follow", 2L, 1L);
+
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(head)));
+        when(delegate.fetchAsync("test@8")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(segment8)));
+        when(delegate.fetchAsync("test@5")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(segment5)));
+        when(delegate.fetchAsync("test@2")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(segment2)));
+
+        return new NotificationStore(
+                new SegmentedNotificationRepository(delegate,
+                        MoreExecutors.directExecutor(), 2, 10),
+                idGenerator, cursors, rules, MoreExecutors.directExecutor());
+    }
+
+    private static NotificationPage fetchPage(final NotificationStore store,
+            final Optional<Long> fromId, final int limit) throws Exception {
+        final NotificationSnapshot snapshot = store
+                .fetchPageSnapshotAsync(TEST_USER, false, fromId, false, limit)
+                .get();
+        return store.resolvePage(snapshot, fromId, false, limit).get();
+    }
+
+    private static NotificationList createList(final String category,
+            final long... ids) {
+        final NotificationList list = new NotificationList();
+        for (final long id : ids) {
+            list.addNotification(Notification.builder().withId(id)
+                    .withCategory(category).build());
+        }
+        return list;
     }
 
     private Notification createNotification(final long id) {
@@ -0,0 +1,243 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+import org.mockito.InOrder;
+import com.google.common.collect.ImmutableList;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+
+public class SegmentedNotificationRepositoryTest {
+
+    private static final String TEST_USER = "test";
+    private final SegmentableRepository delegate = mock(
+            SegmentableRepository.class);
+    private final SegmentedNotificationRepository repository = new SegmentedNotificationRepository(
+            delegate, Runnable::run, 2, 2);
+
+    @Test
+    public void testSegmentKey() {
+        assertThat(SegmentedNotificationRepository.segmentKey(TEST_USER, 42L))
+                .isEqualTo("test@42");
+    }
+
+    @Test
+    public void testFetchUnsegmented() throws Exception {
+        final NotificationList head = createList(2L, 1L);
+        when(delegate.fetch(TEST_USER)).thenReturn(Optional.of(head));
+
+        final NotificationList actual = repository.fetch(TEST_USER)
+                .get();
+        assertThat(actual).isSameAs(head);
+        verify(delegate, never()).fetchAsync(anyString());
+    }
+
+    @Test
+    public void testFetchMergesSegments() throws Exception {
+        final NotificationList head = createList(9L, 8L);
+        head.deleteNotification(4L);
+        head.getSegments().addAll(LongSet.of(7L, 4L));
+        when(delegate.fetch(TEST_USER)).thenReturn(Optional.of(head));
+        when(delegate.fetchAsync("test@7")).thenReturn(
+                completed(createList(7L, 6L, 5L)));
+        when(delegate.fetchAsync("test@4")).thenReturn(
+                completed(createList(4L, 3L)));
+
+        final NotificationList actual = repository.fetch(TEST_USER)
+                .get();
+        assertThat(actual.getNotifications()).extracting(n -> n.getId(0L))
+                .containsExactly(9L, 8L, 7L, 6L, 5L, 3L);
+        assertThat(actual).isNotSameAs(head);
+    }
+
+    @Test
+    public void testRangedFetchStopsOnceFull() throws Exception {
+        final NotificationList head = createList(9L, 8L);
+        head.getSegments().addAll(LongSet.of(7L, 4L));
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+        when(delegate.fetchAsync("test@7")).thenReturn(
+                completed(createList(7L, 6L, 5L)));
+
+        final NotificationList actual = repository
+                .fetchAsync(TEST_USER, Optional.empty(), 3).join().get();
+        assertThat(actual.getNotifications()).extracting(n -> n.getId(0L))
+                .containsExactly(9L, 8L, 7L, 6L, 5L);
+        assertThat(actual.isPartial()).isTrue();
+        verify(delegate, never()).fetchAsync("test@4");
+    }
+
+    @Test
+    public void testRangedFetchToLastSegment() throws Exception {
+        final NotificationList head = createList(9L, 8L);
+        head.getSegments().addAll(LongSet.of(7L, 4L));
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+        when(delegate.fetchAsync("test@7")).thenReturn(
+                completed(createList(7L, 6L, 5L)));
+        when(delegate.fetchAsync("test@4")).thenReturn(
+                completed(createList(4L, 3L)));
+
+        final NotificationList actual = repository
+                .fetchAsync(TEST_USER, Optional.of(6L), 3).join().get();
+        assertThat(actual.getNotifications()).extracting(n -> n.getId(0L))
+                .containsExactly(9L, 8L, 7L, 6L, 5L, 4L, 3L);
+        assertThat(actual.isPartial()).isFalse();
+    }
+
+    @Test
+    public void testRangedFetchSkipsNewerSegments() throws Exception {
+        final NotificationList head = createList(9L, 8L);
+        head.getSegments().addAll(LongSet.of(7L, 4L));
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+        when(delegate.fetchAsync("test@4")).thenReturn(
+                completed(createList(4L, 3L)));
+
+        final NotificationList actual = repository
+                .fetchAsync(TEST_USER, Optional.of(4L), 1).join().get();
+        assertThat(actual.getNotifications()).extracting(n -> n.getId(0L))
+                .contains(4L, 3L);
+        verify(delegate, never()).fetchAsync("test@7");
+    }
+
+    @Test
+    public void testFetchIfModifiedSegmented() throws Exception {
+        final NotificationList previous = createList(9L);
+        previous.getSegments().add(7L);
+
+        final NotificationList head = createList(9L);
+        head.getSegments().add(7L);
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+        when(delegate.fetchAsync("test@7"))
+                .thenReturn(completed(createList(7L)));
+
+        final NotificationList actual = repository
+                .fetchIfModifiedAsync(TEST_USER, previous).join().get();
+        assertThat(actual.getNotifications()).extracting(n -> n.getId(0L))
+                .containsExactly(9L, 7L);
+        verify(delegate, never()).fetchIfModifiedAsync(TEST_USER, previous);
+    }
+
+    @Test
+    public void testSealsOnceHeadIsFull() throws Exception {
+        final NotificationList head = createList(5L, 4L, 3L,
+                2L, 1L);
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+
+        repository.store(TEST_USER, createNotification(4L));
+        verify(delegate, never()).fetchAsync(TEST_USER);
+
+        repository.store(TEST_USER, createNotification(5L));
+
+        final InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).update("test@3", ImmutableList.of(
+                createNotification(3L), createNotification(2L),
+                createNotification(1L)), new LongSet());
+        inOrder.verify(delegate).seal(TEST_USER, 3L, LongSet.of(1L, 2L, 3L),
+                2);
+    }
+
+    @Test
+    public void testSealDropsOldestSegments() throws Exception {
+        final NotificationList head = createList(10L, 9L, 8L,
+                7L, 6L);
+        head.getSegments().addAll(LongSet.of(5L, 3L));
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+        when(delegate.fetchAsync("test@5"))
+                .thenReturn(completed(createList(5L, 4L)));
+        when(delegate.fetchAsync("test@3"))
+                .thenReturn(completed(createList(3L)));
+
+        repository.fetchAsync(TEST_USER).join();
+
+        verify(delegate).seal(TEST_USER, 8L, LongSet.of(6L, 7L, 8L), 2);
+        verify(delegate).removeAll("test@3");
+        verify(delegate, never()).removeAll("test@5");
+    }
+
+    @Test
+    public void testSealFailureKeepsHead() throws Exception {
+        final NotificationList head = createList(5L, 4L, 3L,
+                2L, 1L);
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+        doThrow(new NotificationStoreException()).when(delegate)
+                .update(eq("test@3"), any(), any());
+
+        repository.fetchAsync(TEST_USER).join();
+
+        verify(delegate, never()).seal(anyString(), anyLong(), any(),
+                anyInt());
+    }
+
+    @Test
+    public void testRemoveRecordsDeletionsOnSegments() throws Exception {
+        final NotificationList head = createList(9L);
+        head.getSegments().addAll(LongSet.of(7L, 4L));
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+
+        repository.remove(TEST_USER, LongSet.of(9L, 6L, 2L));
+
+        verify(delegate).remove(TEST_USER, LongSet.of(9L, 6L, 2L));
+        verify(delegate).remove("test@7", LongSet.of(6L));
+        verify(delegate).remove("test@4", LongSet.of(2L));
+    }
+
+    @Test
+    public void testRemoveAllDeletesSegments() throws Exception {
+        final NotificationList head = createList(9L);
+        head.getSegments().addAll(LongSet.of(7L, 4L));
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(completed(head));
+
+        repository.removeAll(TEST_USER);
+
+        final InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).removeAll("test@7");
+        inOrder.verify(delegate).removeAll(TEST_USER);
+        verify(delegate).removeAll("test@4");
+    }
+
+    private static CompletableFuture<Optional<NotificationList>> completed(
+            final NotificationList list) {
+        return CompletableFuture.completedFuture(Optional.of(list));
+    }
+
+    private static NotificationList createList(final long... ids) {
+        final NotificationList list = new NotificationList();
+        for (long id : ids) {
+            list.addNotification(createNotification(id));
+        }
+        return list;
+    }
+
+    private static Notification createNotification(final long id) {
+        return Notification.builder().withId(id).withCategory("test")
+                .build();
+    }
+}
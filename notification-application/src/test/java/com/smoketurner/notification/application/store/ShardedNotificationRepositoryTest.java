@@ -0,0 +1,296 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.application.core.LongSet;
+import com.smoketurner.notification.application.exceptions.NotificationStoreException;
+import io.dropwizard.util.Duration;
+
+public class ShardedNotificationRepositoryTest {
+
+    private static final String TEST_USER = "test";
+    private final ShardableRepository delegate = mock(
+            ShardableRepository.class);
+    private final ShardedNotificationRepository repository = new ShardedNotificationRepository(
+            delegate, MoreExecutors.directExecutor(), 4, 3L,
+            Duration.minutes(1));
+
+    @Test
+    public void testShardKey() {
+        assertThat(ShardedNotificationRepository.shardKey(TEST_USER, 2))
+                .isEqualTo("test#2");
+    }
+
+    @Test
+    public void testColdUserWritesToMainKey() throws Exception {
+        final Notification n1 = createNotification(1L);
+        final Notification n2 = createNotification(2L);
+        repository.store(TEST_USER, n1);
+        repository.store(TEST_USER, n2);
+
+        verify(delegate).store(TEST_USER, n1);
+        verify(delegate).store(TEST_USER, n2);
+        verify(delegate, never()).shard(anyString(), anyInt());
+    }
+
+    @Test
+    public void testHotUserIsSharded() throws Exception {
+        final Notification n3 = createNotification(3L);
+        final Notification n4 = createNotification(4L);
+        final Notification n5 = createNotification(5L);
+        repository.store(TEST_USER, createNotification(1L));
+        repository.store(TEST_USER, createNotification(2L));
+        repository.store(TEST_USER, n3);
+        repository.store(TEST_USER, n4);
+        repository.store(TEST_USER, n5);
+
+        verify(delegate).shard(TEST_USER, 4);
+        verify(delegate).store(TEST_USER, n3);
+        verify(delegate).store("test#0", n4);
+        verify(delegate).store("test#1", n5);
+    }
+
+    @Test
+    public void testWritesStayOnMainKeyUntilSharded() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final ShardedNotificationRepository repository = new ShardedNotificationRepository(
+                delegate, tasks::add, 4, 3L, Duration.minutes(1));
+
+        final Notification n4 = createNotification(4L);
+        final Notification n5 = createNotification(5L);
+        repository.store(TEST_USER, createNotification(1L));
+        repository.store(TEST_USER, createNotification(2L));
+        repository.store(TEST_USER, createNotification(3L));
+        repository.store(TEST_USER, n4);
+
+        // only one promotion is scheduled, and nothing is written to a shard
+        // until it has run
+        assertThat(tasks).hasSize(1);
+        verify(delegate, never()).shard(anyString(), anyInt());
+        verify(delegate).store(TEST_USER, n4);
+
+        tasks.get(0).run();
+        repository.store(TEST_USER, n5);
+
+        verify(delegate).shard(TEST_USER, 4);
+        verify(delegate).store("test#1", n5);
+    }
+
+    @Test
+    public void testShardingUnsupported() throws Exception {
+        final NotificationRepository unshardable = mock(
+                NotificationRepository.class);
+        final ShardedNotificationRepository repository = new ShardedNotificationRepository(
+                unshardable, MoreExecutors.directExecutor(), 4, 3L,
+                Duration.minutes(1));
+
+        final Notification n3 = createNotification(3L);
+        final Notification n4 = createNotification(4L);
+        repository.store(TEST_USER, createNotification(1L));
+        repository.store(TEST_USER, createNotification(2L));
+        repository.store(TEST_USER, n3);
+        repository.store(TEST_USER, n4);
+
+        verify(unshardable).store(TEST_USER, n3);
+        verify(unshardable).store(TEST_USER, n4);
+        verify(unshardable, never()).store(startsWith("test#"),
+                any(Notification.class));
+    }
+
+    @Test
+    public void testShardingFailed() throws Exception {
+        doThrow(new NotificationStoreException()).when(delegate)
+                .shard(TEST_USER, 4);
+
+        final Notification n4 = createNotification(4L);
+        repository.store(TEST_USER, createNotification(1L));
+        repository.store(TEST_USER, createNotification(2L));
+        repository.store(TEST_USER, createNotification(3L));
+        repository.store(TEST_USER, n4);
+
+        verify(delegate).store(TEST_USER, n4);
+    }
+
+    @Test
+    public void testUpdateKeepsDeletionsOnMainKey() throws Exception {
+        final ImmutableList<Notification> additions = ImmutableList.of(
+                createNotification(5L), createNotification(6L),
+                createNotification(7L));
+
+        repository.update(TEST_USER, ImmutableList.of(createNotification(1L),
+                createNotification(2L), createNotification(3L)),
+                new LongSet());
+        repository.update(TEST_USER, additions, LongSet.of(1L));
+
+        verify(delegate).shard(TEST_USER, 4);
+        verify(delegate).update("test#1", additions, new LongSet());
+        verify(delegate).update(TEST_USER, Collections.emptyList(),
+                LongSet.of(1L));
+    }
+
+    @Test
+    public void testFetchUnsharded() throws Exception {
+        final NotificationList list = new NotificationList();
+        list.addNotification(createNotification(1L));
+        when(delegate.fetch(TEST_USER)).thenReturn(Optional.of(list));
+
+        assertThat(repository.fetch(TEST_USER)).contains(list);
+        verify(delegate, never()).fetchAsync(anyString());
+    }
+
+    @Test
+    public void testFetchMergesShards() throws Exception {
+        final NotificationList main = new NotificationList();
+        main.addNotification(createNotification(3L));
+        main.deleteNotification(2L);
+        main.setShards(2);
+
+        final NotificationList shard0 = new NotificationList();
+        shard0.addNotification(createNotification(2L));
+        shard0.addNotification(createNotification(4L));
+
+        final NotificationList shard1 = new NotificationList();
+        shard1.addNotification(createNotification(5L));
+
+        when(delegate.fetch(TEST_USER)).thenReturn(Optional.of(main));
+        when(delegate.fetchAsync("test#0")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(shard0)));
+        when(delegate.fetchAsync("test#1")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(shard1)));
+
+        final NotificationList actual = repository.fetch(TEST_USER)
+                .get();
+        assertThat(actual.getNotifications()).containsExactly(
+                createNotification(5L), createNotification(4L),
+                createNotification(3L));
+        assertThat(actual.getDeletedIds().toArray()).containsOnly(2L);
+        assertThat(actual).isNotSameAs(main);
+    }
+
+    @Test
+    public void testFetchIfModifiedSharded() throws Exception {
+        final NotificationList previous = new NotificationList();
+        previous.setShards(1);
+
+        final NotificationList main = new NotificationList();
+        main.setShards(1);
+        final NotificationList shard0 = new NotificationList();
+        shard0.addNotification(createNotification(1L));
+
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(main)));
+        when(delegate.fetchAsync("test#0")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(shard0)));
+
+        final NotificationList actual = repository
+                .fetchIfModifiedAsync(TEST_USER, previous).join().get();
+        assertThat(actual.getNotifications())
+                .containsExactly(createNotification(1L));
+        verify(delegate, never()).fetchIfModifiedAsync(TEST_USER, previous);
+    }
+
+    @Test
+    public void testRemoveAllDeletesShards() throws Exception {
+        final NotificationList main = new NotificationList();
+        main.setShards(2);
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(main)));
+
+        repository.removeAll(TEST_USER);
+
+        verify(delegate).removeAll("test#0");
+        verify(delegate).removeAll("test#1");
+        verify(delegate).removeAll(TEST_USER);
+    }
+
+    @Test
+    public void testRemoveFetchesShardCount() throws Exception {
+        // sharded by another instance, so this one has never seen the user
+        final NotificationList main = new NotificationList();
+        main.setShards(2);
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(main)));
+
+        repository.remove(TEST_USER, LongSet.of(1L));
+
+        verify(delegate).remove(TEST_USER, LongSet.of(1L));
+        verify(delegate).remove("test#0", LongSet.of(1L));
+        verify(delegate).remove("test#1", LongSet.of(1L));
+    }
+
+    @Test
+    public void testRemoveUnsharded() throws Exception {
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(CompletableFuture
+                .completedFuture(Optional.of(new NotificationList())));
+
+        repository.remove(TEST_USER, LongSet.of(1L));
+
+        verify(delegate).remove(TEST_USER, LongSet.of(1L));
+        verify(delegate, never()).remove(eq("test#0"), any(LongSet.class));
+    }
+
+    @Test
+    public void testFetchTrimsMergedShards() throws Exception {
+        final NotificationList main = new NotificationList();
+        main.setShards(2);
+        final NotificationList shard0 = new NotificationList();
+        final NotificationList shard1 = new NotificationList();
+        for (long i = 1; i <= NotificationList.MAX_NOTIFICATIONS; i++) {
+            shard0.addNotification(createNotification(i * 2));
+            shard1.addNotification(createNotification(i * 2 + 1));
+        }
+        when(delegate.fetchAsync(TEST_USER)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(main)));
+        when(delegate.fetchAsync("test#0")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(shard0)));
+        when(delegate.fetchAsync("test#1")).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(shard1)));
+
+        final NotificationList actual = repository.fetchAsync(TEST_USER).get()
+                .get();
+        assertThat(actual.getNotifications())
+                .hasSize(NotificationList.MAX_NOTIFICATIONS);
+        assertThat(actual.getNotifications().first().getId())
+                .contains(2001L);
+        assertThat(actual.getNotifications().last().getId())
+                .contains(1002L);
+    }
+
+    private static Notification createNotification(final long id) {
+        return Notification.builder().withId(id).withCategory("test")
+                .build();
+    }
+}
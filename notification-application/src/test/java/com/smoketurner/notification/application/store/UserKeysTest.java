@@ -0,0 +1,55 @@
+/**
+ * Copyright 2017 Smoke Turner, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smoketurner.notification.application.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+
+public class UserKeysTest {
+
+    @Test
+    public void testPlainUsernameIsUnchanged() {
+        assertThat(UserKeys.encode("test")).isEqualTo("test");
+        assertThat(UserKeys.encode("test.user-1")).isEqualTo("test.user-1");
+    }
+
+    @Test
+    public void testReservedCharactersAreEscaped() {
+        assertThat(UserKeys.encode("test#0")).isEqualTo("test%230");
+        assertThat(UserKeys.encode("100%")).isEqualTo("100%25");
+        assertThat(UserKeys.encode("test%230")).isEqualTo("test%25230");
+        assertThat(UserKeys.encode("test@example.com"))
+                .isEqualTo("test%40example.com");
+    }
+
+    @Test
+    public void testKeysNeverCollideWithShardKeys() {
+        final String key = UserKeys.encode("test#0");
+        assertThat(key).isNotEqualTo(
+                ShardedNotificationRepository.shardKey("test", 0));
+        assertThat(key).doesNotContain(
+                String.valueOf(ShardedNotificationRepository.SEPARATOR));
+    }
+
+    @Test
+    public void testKeysNeverCollideWithSegmentKeys() {
+        final String key = UserKeys.encode("test@42");
+        assertThat(key).isNotEqualTo(
+                SegmentedNotificationRepository.segmentKey("test", 42L));
+        assertThat(key).doesNotContain(
+                String.valueOf(SegmentedNotificationRepository.SEPARATOR));
+    }
+}
@@ -17,6 +17,8 @@ package com.smoketurner.notification.client;
 
 import static com.codahale.metrics.MetricRegistry.name;
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
@@ -36,18 +38,26 @@ import com.codahale.metrics.Timer;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSortedSet;
+import com.smoketurner.notification.api.BulkNotification;
+import com.smoketurner.notification.api.BulkNotificationResult;
 import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.api.ProtobufConverter;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationListPB;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB;
 
 public class NotificationClient implements Closeable {
 
     private static final Logger LOGGER = LoggerFactory
             .getLogger(NotificationClient.class);
     private static final String APPLICATION_JSON = "application/json";
+    private static final String APPLICATION_PROTOBUF = "application/x-protobuf";
     private final Client client;
     private final Timer fetchTimer;
     private final Timer storeTimer;
+    private final Timer storeAllTimer;
     private final Timer deleteTimer;
     private final URI rootUri;
+    private final boolean protobuf;
 
     /**
      * Constructor
@@ -61,14 +71,36 @@ public class NotificationClient implements Closeable {
      */
     public NotificationClient(@Nonnull final MetricRegistry registry,
             @Nonnull final Client client, @Nonnull final URI uri) {
+        this(registry, client, uri, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param registry
+     *            Metric Registry
+     * @param client
+     *            Jersey Client
+     * @param uri
+     *            API endpoint
+     * @param protobuf
+     *            Whether to fetch and store notifications as protocol
+     *            buffers rather than JSON
+     */
+    public NotificationClient(@Nonnull final MetricRegistry registry,
+            @Nonnull final Client client, @Nonnull final URI uri,
+            final boolean protobuf) {
         this.client = Objects.requireNonNull(client);
         this.fetchTimer = registry
                 .timer(name(NotificationClient.class, "fetch"));
         this.storeTimer = registry
                 .timer(name(NotificationClient.class, "store"));
+        this.storeAllTimer = registry
+                .timer(name(NotificationClient.class, "store-all"));
         this.deleteTimer = registry
                 .timer(name(NotificationClient.class, "delete"));
         this.rootUri = uri;
+        this.protobuf = protobuf;
     }
 
     /**
@@ -92,7 +124,8 @@ public class NotificationClient implements Closeable {
             while (paginate) {
                 LOGGER.info("GET {}", uri);
                 final Invocation.Builder builder = client.target(uri)
-                        .request(APPLICATION_JSON);
+                        .request(protobuf ? APPLICATION_PROTOBUF
+                                : APPLICATION_JSON);
                 if (nextRange != null) {
                     builder.header("Range", nextRange);
                 }
@@ -105,9 +138,7 @@ public class NotificationClient implements Closeable {
 
                 if (response.getStatus() == 200
                         || response.getStatus() == 206) {
-                    results.addAll(response
-                            .readEntity(new GenericType<List<Notification>>() {
-                            }));
+                    results.addAll(readNotifications(response));
                 }
                 response.close();
             }
@@ -135,6 +166,15 @@ public class NotificationClient implements Closeable {
         LOGGER.debug("POST {}", uri);
 
         try (Timer.Context context = storeTimer.time()) {
+            if (protobuf) {
+                final byte[] response = client.target(uri)
+                        .request(APPLICATION_PROTOBUF)
+                        .post(Entity.entity(ProtobufConverter
+                                .toProto(notification).toByteArray(),
+                                APPLICATION_PROTOBUF), byte[].class);
+                return Optional.of(ProtobufConverter
+                        .fromProto(NotificationPB.parseFrom(response)));
+            }
             return Optional.of(client.target(uri).request(APPLICATION_JSON)
                     .post(Entity.json(notification), Notification.class));
         } catch (Exception e) {
@@ -143,6 +183,32 @@ public class NotificationClient implements Closeable {
         return Optional.empty();
     }
 
+    /**
+     * Store notifications for many users in a single request. The bulk
+     * endpoint streams its request as JSON, so this always uses JSON.
+     *
+     * @param notifications
+     *            Notifications and their recipients
+     * @return the result for each recipient, in request order
+     */
+    public Optional<List<BulkNotificationResult>> storeAll(
+            @Nonnull final Collection<BulkNotification> notifications) {
+        Objects.requireNonNull(notifications);
+        final URI uri = UriBuilder.fromUri(rootUri).path("/v1/notifications")
+                .build();
+        LOGGER.debug("POST {}", uri);
+
+        try (Timer.Context context = storeAllTimer.time()) {
+            return Optional.of(client.target(uri).request(APPLICATION_JSON)
+                    .post(Entity.json(notifications),
+                            new GenericType<List<BulkNotificationResult>>() {
+                            }));
+        } catch (Exception e) {
+            LOGGER.warn("Unable to store notifications", e);
+        }
+        return Optional.empty();
+    }
+
     /**
      * Delete individual notification IDs for a given user.
      *
@@ -206,6 +272,27 @@ public class NotificationClient implements Closeable {
         return client.target(uri).request().get(String.class);
     }
 
+    /**
+     * Read a page of notifications from a fetch response
+     *
+     * @param response
+     *            Fetch response
+     * @return the notifications on the page
+     * @throws IOException
+     *             if the protocol buffer response can't be parsed
+     */
+    private List<Notification> readNotifications(
+            @Nonnull final Response response) throws IOException {
+        if (protobuf) {
+            try (InputStream input = response.readEntity(InputStream.class)) {
+                return ProtobufConverter
+                        .fromProto(NotificationListPB.parseFrom(input));
+            }
+        }
+        return response.readEntity(new GenericType<List<Notification>>() {
+        });
+    }
+
     /**
      * Builds a target URL
      *
@@ -61,6 +61,6 @@ public class NotificationClientBuilder {
             @Nonnull final NotificationClientConfiguration configuration,
             @Nonnull final Client client) {
         return new NotificationClient(environment.metrics(), client,
-                configuration.getUri());
+                configuration.getUri(), configuration.isProtobuf());
     }
 }
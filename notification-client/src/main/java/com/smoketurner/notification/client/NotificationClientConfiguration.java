@@ -25,6 +25,8 @@ public class NotificationClientConfiguration extends JerseyClientConfiguration {
     @NotNull
     private URI uri = URI.create("http://localhost:8080");
 
+    private boolean protobuf = false;
+
     public URI getUri() {
         return uri;
     }
@@ -32,4 +34,12 @@ public class NotificationClientConfiguration extends JerseyClientConfiguration {
     public void setUri(@Nonnull final URI uri) {
         this.uri = uri;
     }
+
+    public boolean isProtobuf() {
+        return protobuf;
+    }
+
+    public void setProtobuf(final boolean protobuf) {
+        this.protobuf = protobuf;
+    }
 }
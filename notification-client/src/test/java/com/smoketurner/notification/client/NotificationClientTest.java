@@ -39,7 +39,11 @@ import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedSet;
+import com.smoketurner.notification.api.BulkNotification;
+import com.smoketurner.notification.api.BulkNotificationResult;
 import com.smoketurner.notification.api.Notification;
+import com.smoketurner.notification.api.ProtobufConverter;
+import com.smoketurner.notification.api.protos.NotificationApiProtos.NotificationPB;
 import io.dropwizard.jackson.Jackson;
 import io.dropwizard.jersey.jackson.JacksonMessageBodyProvider;
 import io.dropwizard.testing.junit.DropwizardClientRule;
@@ -47,6 +51,7 @@ import io.dropwizard.testing.junit.DropwizardClientRule;
 public class NotificationClientTest {
 
     private static final ObjectMapper MAPPER = Jackson.newObjectMapper();
+    private static final String APPLICATION_PROTOBUF = "application/x-protobuf";
 
     @Path("/v1/notifications/{username}")
     public static class NotificationResource {
@@ -57,6 +62,18 @@ public class NotificationClientTest {
             return ImmutableList.of(Notification.builder().withId(1L).build());
         }
 
+        @GET
+        @Produces(APPLICATION_PROTOBUF)
+        public byte[] fetchProtobuf(@PathParam("username") String username) {
+            final Notification child = Notification.builder().withId(1L)
+                    .withCategory("like").withMessage("child").build();
+            return ProtobufConverter.toProto(ImmutableList.of(Notification
+                    .builder().withId(2L).withCategory("like")
+                    .withMessage("parent").withUnseen(true)
+                    .withNotifications(ImmutableList.of(child)).build()))
+                    .toByteArray();
+        }
+
         @POST
         @Consumes(MediaType.APPLICATION_JSON)
         @Produces(MediaType.APPLICATION_JSON)
@@ -65,6 +82,17 @@ public class NotificationClientTest {
             return notification;
         }
 
+        @POST
+        @Consumes(APPLICATION_PROTOBUF)
+        @Produces(APPLICATION_PROTOBUF)
+        public byte[] storeProtobuf(@PathParam("username") String username,
+                byte[] notification) throws Exception {
+            return ProtobufConverter.toProto(Notification
+                    .builder(ProtobufConverter
+                            .fromProto(NotificationPB.parseFrom(notification)))
+                    .withId(1L).build()).toByteArray();
+        }
+
         @DELETE
         public Response delete(@PathParam("username") String username,
                 @QueryParam("ids") String ids) {
@@ -72,6 +100,27 @@ public class NotificationClientTest {
         }
     }
 
+    @Path("/v1/notifications")
+    public static class BulkNotificationResource {
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public List<BulkNotificationResult> storeAll(
+                List<BulkNotification> notifications) {
+            final ImmutableList.Builder<BulkNotificationResult> results = ImmutableList
+                    .builder();
+            long id = 1L;
+            for (BulkNotification bulk : notifications) {
+                for (String username : bulk.getRecipients()) {
+                    results.add(BulkNotificationResult.success(username,
+                            Notification.builder(bulk.getNotification())
+                                    .withId(id++).build()));
+                }
+            }
+            return results.build();
+        }
+    }
+
     @Path("/ping")
     public static class PingResource {
         @GET
@@ -90,7 +139,8 @@ public class NotificationClientTest {
 
     @ClassRule
     public final static DropwizardClientRule resources = new DropwizardClientRule(
-            new NotificationResource(), new PingResource(),
+            new NotificationResource(), new BulkNotificationResource(),
+            new PingResource(),
             new VersionResource());
 
     private final MetricRegistry registry = new MetricRegistry();
@@ -119,6 +169,22 @@ public class NotificationClientTest {
         assertThat(notifications.first().getId().isPresent()).isTrue();
     }
 
+    @Test
+    public void testFetchProtobuf() throws Exception {
+        try (NotificationClient protobufClient = new NotificationClient(
+                registry, ClientBuilder.newClient(), resources.baseUri(),
+                true)) {
+            final Optional<ImmutableSortedSet<Notification>> actual = protobufClient
+                    .fetch("test");
+            assertThat(actual.isPresent()).isTrue();
+            final Notification notification = actual.get().first();
+            assertThat(notification.getId()).contains(2L);
+            assertThat(notification.getUnseen()).contains(true);
+            assertThat(notification.getNotifications())
+                    .extracting(child -> child.getId(0L)).containsExactly(1L);
+        }
+    }
+
     @Test
     public void testFetchNullUsername() throws Exception {
         try {
@@ -145,6 +211,24 @@ public class NotificationClientTest {
         assertThat(actual.get()).isEqualTo(expected);
     }
 
+    @Test
+    public void testStoreProtobuf() throws Exception {
+        final Notification notification = Notification.builder()
+                .withCategory("test").withMessage("testing").build();
+        try (NotificationClient protobufClient = new NotificationClient(
+                registry, ClientBuilder.newClient(), resources.baseUri(),
+                true)) {
+            final Optional<Notification> actual = protobufClient.store("test",
+                    notification);
+            assertThat(actual.isPresent()).isTrue();
+            assertThat(actual.get().getId()).contains(1L);
+            assertThat(actual.get().getCategory()).isEqualTo("test");
+            assertThat(actual.get().getMessage()).isEqualTo("testing");
+            assertThat(actual.get().getCreatedAt())
+                    .isEqualTo(notification.getCreatedAt());
+        }
+    }
+
     @Test
     public void testStoreNullNotification() throws Exception {
         try {
@@ -174,6 +258,30 @@ public class NotificationClientTest {
         }
     }
 
+    @Test
+    public void testStoreAll() throws Exception {
+        final Notification notification = Notification.builder()
+                .withCategory("test").withMessage("testing").build();
+        final Optional<List<BulkNotificationResult>> actual = client
+                .storeAll(ImmutableList.of(new BulkNotification(
+                        ImmutableList.of("user1", "user2"), notification)));
+        assertThat(actual.isPresent()).isTrue();
+        assertThat(actual.get()).containsExactly(
+                BulkNotificationResult.success("user1",
+                        Notification.builder(notification).withId(1L).build()),
+                BulkNotificationResult.success("user2", Notification
+                        .builder(notification).withId(2L).build()));
+    }
+
+    @Test
+    public void testStoreAllNullNotifications() throws Exception {
+        try {
+            client.storeAll(null);
+            failBecauseExceptionWasNotThrown(NullPointerException.class);
+        } catch (NullPointerException e) {
+        }
+    }
+
     @Test
     public void testDeleteAll() throws Exception {
         client.delete("test");